@@ -0,0 +1,133 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara as operações de conjunto por divisão e conquista com a abordagem
+ * ingênua, que copia uma árvore e aplica os valores da outra chave a chave. A
+ * escalabilidade é medida variando o paralelismo do pool comum, por exemplo
+ * com {@code -jvmArgs -Djava.util.concurrent.ForkJoinPool.common.parallelism=1}.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlgebraBenchmark {
+
+    /** Quantidade de nós de cada árvore */
+    @Param({"100000", "1000000"})
+    public int tamanho;
+    /** Intervalo das chaves em relação ao tamanho, que define a sobreposição */
+    @Param({"2", "4"})
+    public int dispersao;
+
+    /** Primeira árvore */
+    private ArvoreAvl primeira;
+    /** Segunda árvore */
+    private ArvoreAvl segunda;
+
+    /**
+     * Monta as árvores com chaves aleatórias do mesmo intervalo
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        primeira = ArvoreAvl.constroi(random.ints(tamanho, 0, dispersao * tamanho).sorted().distinct());
+        segunda = ArvoreAvl.constroi(random.ints(tamanho, 0, dispersao * tamanho).sorted().distinct());
+    }
+
+    /**
+     * União por divisão e conquista
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl uniao() {
+        return primeira.uniao(segunda);
+    }
+
+    /**
+     * Interseção por divisão e conquista
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl intersecao() {
+        return primeira.intersecao(segunda);
+    }
+
+    /**
+     * Diferença por divisão e conquista
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl diferenca() {
+        return primeira.diferenca(segunda);
+    }
+
+    /**
+     * União inserindo os valores da segunda árvore em uma cópia da primeira
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl uniaoIngenua() {
+        ArvoreAvl resultado = primeira.copia();
+        for (PrimitiveIterator.OfInt valores = segunda.iteradorEmOrdem(); valores.hasNext();) {
+            resultado.inserir(valores.nextInt());
+        }
+        return resultado;
+    }
+
+    /**
+     * Interseção buscando os valores da primeira árvore na segunda
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl intersecaoIngenua() {
+        ArvoreAvl resultado = new ArvoreAvl();
+        for (PrimitiveIterator.OfInt valores = primeira.iteradorEmOrdem(); valores.hasNext();) {
+            int valor = valores.nextInt();
+            if (segunda.contem(valor)) {
+                resultado.inserir(valor);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Diferença excluindo os valores da segunda árvore de uma cópia da primeira
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl diferencaIngenua() {
+        ArvoreAvl resultado = primeira.copia();
+        for (PrimitiveIterator.OfInt valores = segunda.iteradorEmOrdem(); valores.hasNext();) {
+            resultado.excluir(valores.nextInt());
+        }
+        return resultado;
+    }
+
+}
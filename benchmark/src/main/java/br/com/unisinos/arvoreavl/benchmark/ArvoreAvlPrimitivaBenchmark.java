@@ -0,0 +1,92 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvlPrimitiva;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark das operações da árvore armazenada em vetores primitivos, com as
+ * mesmas chaves de {@link OperacoesBenchmark} para permitir a comparação
+ * entre os motores.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArvoreAvlPrimitivaBenchmark extends ArvoreBenchmarkBase {
+
+    /** Árvore utilizada no benchmark */
+    private ArvoreAvlPrimitiva arvorePrimitiva;
+
+    /**
+     * Prepara a árvore e imprime a memória ocupada por chave
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        arvorePrimitiva = new ArvoreAvlPrimitiva(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            arvorePrimitiva.inserir(2 * i);
+        }
+        preparaChaves();
+        System.out.println(String.format("Bytes por chave: %.1f", arvorePrimitiva.getBytesPorChave()));
+    }
+
+    /**
+     * Busca uma chave existente
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean busca() {
+        return arvorePrimitiva.busca(chaveExistente(proximaPosicao()));
+    }
+
+    /**
+     * Busca uma chave ausente
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean buscaAusente() {
+        return arvorePrimitiva.busca(chaveAusente(proximaPosicao()));
+    }
+
+    /**
+     * Insere uma chave nova e a exclui em seguida
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean inserirExcluir() {
+        int chave = chaveAusente(proximaPosicao());
+        arvorePrimitiva.inserir(chave);
+        return arvorePrimitiva.excluir(chave);
+    }
+
+    /**
+     * Exclui uma chave existente e a insere novamente
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean excluirInserir() {
+        int chave = chaveExistente(proximaPosicao());
+        arvorePrimitiva.excluir(chave);
+        return arvorePrimitiva.inserir(chave);
+    }
+
+}
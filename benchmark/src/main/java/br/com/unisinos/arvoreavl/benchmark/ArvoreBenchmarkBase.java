@@ -0,0 +1,89 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import br.com.unisinos.arvoreavl.carga.DistribuicaoChaves;
+import br.com.unisinos.arvoreavl.carga.GeradorChaves;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Estado comum dos benchmarks da árvore: uma árvore com as chaves pares
+ * {@code 0, 2, ..., 2 * (tamanho - 1)} e uma sequência de chaves de operação.
+ * As chaves ímpares nunca estão na árvore e são usadas para inserções.
+ * Benchmarks de outros motores podem gerar apenas as chaves através de
+ * {@link #preparaChaves()} e montar a própria estrutura.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public abstract class ArvoreBenchmarkBase {
+
+    /** Quantidade de chaves de operação geradas (potência de 2) */
+    protected static final int QUANTIDADE_OPERACOES = 1 << 20;
+    /** Semente utilizada na geração das chaves */
+    protected static final long SEMENTE = 42;
+
+    /** Quantidade de nós da árvore */
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanho;
+    /** Distribuição das chaves de operação */
+    @Param({"SEQUENCIAL", "ALEATORIA", "ZIPFIAN"})
+    public DistribuicaoChaves distribuicao;
+
+    /** Árvore utilizada no benchmark */
+    protected ArvoreAvl arvore;
+    /** Chaves de operação, no intervalo {@code [0, tamanho)} */
+    protected int[] chaves;
+    /** Posição da próxima chave de operação */
+    private int posicao;
+
+    /**
+     * Monta a árvore e gera as chaves de operação
+     */
+    protected void preparaArvore() {
+        arvore = new ArvoreAvl();
+        for (int i = 0; i < tamanho; i++) {
+            arvore.inserir(2 * i);
+        }
+        preparaChaves();
+    }
+
+    /**
+     * Gera as chaves de operação
+     */
+    protected void preparaChaves() {
+        chaves = GeradorChaves.gera(distribuicao, QUANTIDADE_OPERACOES, tamanho, SEMENTE);
+        posicao = 0;
+    }
+
+    /**
+     * Retorna a posição da próxima chave de operação, voltando ao início ao
+     * chegar no fim do vetor
+     *
+     * @return int
+     */
+    protected int proximaPosicao() {
+        int posicaoAtual = posicao;
+        posicao = (posicaoAtual + 1) & (QUANTIDADE_OPERACOES - 1);
+        return posicaoAtual;
+    }
+
+    /**
+     * Retorna uma chave presente na árvore
+     *
+     * @param posicao Posição da chave de operação
+     * @return int
+     */
+    protected int chaveExistente(int posicao) {
+        return 2 * chaves[posicao];
+    }
+
+    /**
+     * Retorna uma chave ausente da árvore
+     *
+     * @param posicao Posição da chave de operação
+     * @return int
+     */
+    protected int chaveAusente(int posicao) {
+        return 2 * chaves[posicao] + 1;
+    }
+
+}
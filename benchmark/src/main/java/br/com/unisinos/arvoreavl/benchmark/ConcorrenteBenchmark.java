@@ -0,0 +1,91 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvlConcorrente;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark da árvore concorrente com uma carga de leituras e escritas
+ * compartilhada entre threads. A escalabilidade é medida variando a
+ * quantidade de threads na linha de comando, por exemplo {@code -t 1},
+ * {@code -t 4} e {@code -t 8}.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcorrenteBenchmark {
+
+    /** Quantidade de nós da árvore */
+    @Param({"100000", "1000000"})
+    public int tamanho;
+    /** Percentual de operações de escrita */
+    @Param({"5"})
+    public int percentualEscrita;
+
+    /** Árvore compartilhada entre as threads, com as chaves pares */
+    private ArvoreAvlConcorrente arvore;
+
+    /**
+     * Estado de cada thread
+     */
+    @State(Scope.Thread)
+    public static class EstadoThread {
+
+        /** Gerador aleatório da thread */
+        private SplittableRandom random;
+
+        /**
+         * Cria o gerador aleatório da thread
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            random = new SplittableRandom(Thread.currentThread().getId());
+        }
+
+    }
+
+    /**
+     * Monta a árvore
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        arvore = new ArvoreAvlConcorrente(ArvoreAvl.constroi(
+                IntStream.range(0, tamanho).map(i -> 2 * i)));
+    }
+
+    /**
+     * Executa uma leitura ou uma escrita de acordo com o percentual
+     *
+     * @param estado Estado da thread
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean mistura(EstadoThread estado) {
+        int chave = estado.random.nextInt(tamanho);
+        if (estado.random.nextInt(100) < percentualEscrita) {
+            arvore.inserir(2 * chave + 1);
+            return arvore.excluir(2 * chave + 1);
+        }
+        return arvore.contem(2 * chave);
+    }
+
+}
@@ -0,0 +1,115 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import br.com.unisinos.arvoreavl.arvore.IndiceCongelado;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara a busca na árvore, que segue ponteiros entre nós, com a busca no
+ * índice congelado. Os tamanhos foram escolhidos para que os dados caibam no
+ * cache L2 (16K valores, 64KB no índice), no cache L3 (512K valores, 2MB) ou
+ * apenas na memória principal (8M valores, 32MB no índice e cerca de 320MB
+ * na árvore).
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CongeladoBenchmark {
+
+    /** Quantidade de chaves pré-geradas, potência de 2 */
+    private static final int QUANTIDADE_CHAVES = 1 << 20;
+
+    /** Quantidade de nós da árvore */
+    @Param({"16384", "524288", "8388608"})
+    public int tamanho;
+
+    /** Árvore com as chaves pares */
+    private ArvoreAvl arvore;
+    /** Índice congelado da árvore */
+    private IndiceCongelado indice;
+    /** Chaves buscadas, metade presentes */
+    private int[] chaves;
+    /** Posição da próxima chave */
+    private int posicao;
+
+    /**
+     * Monta a árvore, o índice e as chaves
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        arvore = ArvoreAvl.constroi(IntStream.range(0, tamanho).map(i -> 2 * i));
+        indice = arvore.congelar();
+        chaves = new SplittableRandom(42).ints(QUANTIDADE_CHAVES, 0, 2 * tamanho).toArray();
+    }
+
+    /**
+     * Retorna a próxima chave
+     *
+     * @return int
+     */
+    private int proximaChave() {
+        int chave = chaves[posicao];
+        posicao = (posicao + 1) & (QUANTIDADE_CHAVES - 1);
+        return chave;
+    }
+
+    /**
+     * Busca na árvore
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean buscaArvore() {
+        return arvore.contem(proximaChave());
+    }
+
+    /**
+     * Busca no índice congelado
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean buscaIndice() {
+        return indice.contem(proximaChave());
+    }
+
+    /**
+     * Floor na árvore
+     *
+     * @return No
+     */
+    @Benchmark
+    public Object floorArvore() {
+        return arvore.floor(proximaChave());
+    }
+
+    /**
+     * Floor no índice congelado
+     *
+     * @return int
+     */
+    @Benchmark
+    public int floorIndice() {
+        return indice.floor(proximaChave(), -1);
+    }
+
+}
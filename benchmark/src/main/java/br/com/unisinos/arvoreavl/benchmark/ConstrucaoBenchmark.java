@@ -0,0 +1,82 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara a construção da árvore a partir de valores ordenados com a
+ * inserção dos mesmos valores um a um
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstrucaoBenchmark {
+
+    /** Quantidade de valores */
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanho;
+
+    /** Valores ordenados */
+    private int[] valores;
+
+    /**
+     * Gera os valores ordenados
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        valores = IntStream.range(0, tamanho).map(i -> 2 * i).toArray();
+    }
+
+    /**
+     * Insere os valores um a um
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl inserir() {
+        ArvoreAvl arvore = new ArvoreAvl();
+        for (int valor : valores) {
+            arvore.inserir(valor);
+        }
+        return arvore;
+    }
+
+    /**
+     * Constrói a árvore a partir do vetor ordenado
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl constroiVetor() {
+        return ArvoreAvl.constroi(valores);
+    }
+
+    /**
+     * Constrói a árvore a partir de um stream ordenado
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl constroiStream() {
+        return ArvoreAvl.constroi(IntStream.of(valores));
+    }
+
+}
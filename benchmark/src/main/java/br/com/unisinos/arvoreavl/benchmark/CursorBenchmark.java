@@ -0,0 +1,165 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import br.com.unisinos.arvoreavl.arvore.CursorAvl;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara as operações a partir da raíz com as operações pelo cursor para
+ * fluxos de chaves sequenciais e quase sequenciais, em que cada chave avança
+ * um passo aleatório de até {@code passoMaximo} posições. Os casos de janela
+ * deslizante inserem chaves além do maior valor e excluem o menor, como um
+ * índice de chaves de tempo com retenção; neles o passo não é usado.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CursorBenchmark {
+
+    /** Quantidade de chaves pré-geradas, potência de 2 */
+    private static final int QUANTIDADE_CHAVES = 1 << 20;
+
+    /** Quantidade de nós da árvore */
+    @Param({"100000", "1000000"})
+    public int tamanho;
+    /** Maior avanço entre chaves consecutivas: 1 é sequencial */
+    @Param({"1", "16", "256"})
+    public int passoMaximo;
+
+    /** Árvore com as chaves pares */
+    private ArvoreAvl arvore;
+    /** Cursor da árvore */
+    private CursorAvl cursor;
+    /** Fluxo de chaves, metade presentes */
+    private int[] chaves;
+    /** Posição da próxima chave */
+    private int posicao;
+    /** Cursor das exclusões da janela deslizante, posicionado no menor valor */
+    private CursorAvl cursorAntigas;
+    /** Próxima chave inserida na janela deslizante, além do maior valor */
+    private int proximaRecente;
+    /** Chave mais antiga da janela deslizante, a próxima excluída */
+    private int maisAntiga;
+
+    /**
+     * Monta a árvore e o fluxo de chaves
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        arvore = ArvoreAvl.constroi(IntStream.range(0, tamanho).map(i -> 2 * i));
+        cursor = arvore.cursor();
+        cursorAntigas = arvore.cursor();
+        proximaRecente = 2 * tamanho;
+        maisAntiga = 0;
+        SplittableRandom random = new SplittableRandom(42);
+        chaves = new int[QUANTIDADE_CHAVES];
+        int chave = 0;
+        for (int i = 0; i < QUANTIDADE_CHAVES; i++) {
+            chave = (chave + 1 + random.nextInt(passoMaximo)) % (2 * tamanho);
+            chaves[i] = chave;
+        }
+    }
+
+    /**
+     * Retorna a próxima chave do fluxo
+     *
+     * @return int
+     */
+    private int proximaChave() {
+        int chave = chaves[posicao];
+        posicao = (posicao + 1) & (QUANTIDADE_CHAVES - 1);
+        return chave;
+    }
+
+    /**
+     * Busca a partir da raíz
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean buscaRaiz() {
+        return arvore.contem(proximaChave());
+    }
+
+    /**
+     * Busca pelo cursor
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean buscaCursor() {
+        return cursor.contem(proximaChave());
+    }
+
+    /**
+     * Insere e exclui uma chave ímpar a partir da raíz
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean insercaoRaiz() {
+        int chave = proximaChave() | 1;
+        arvore.inserir(chave);
+        return arvore.excluir(chave);
+    }
+
+    /**
+     * Insere e exclui uma chave ímpar pelo cursor
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean insercaoCursor() {
+        int chave = proximaChave() | 1;
+        cursor.inserir(chave);
+        return cursor.excluir(chave);
+    }
+
+    /**
+     * Avança a janela deslizante a partir da raíz
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean janelaRaiz() {
+        arvore.inserir(proximaRecente);
+        proximaRecente += 2;
+        boolean excluido = arvore.excluir(maisAntiga);
+        maisAntiga += 2;
+        return excluido;
+    }
+
+    /**
+     * Avança a janela deslizante pelos cursores
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean janelaCursor() {
+        cursor.inserir(proximaRecente);
+        proximaRecente += 2;
+        boolean excluido = cursorAntigas.excluir(maisAntiga);
+        maisAntiga += 2;
+        return excluido;
+    }
+
+}
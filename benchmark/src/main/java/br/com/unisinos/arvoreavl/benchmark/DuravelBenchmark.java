@@ -0,0 +1,153 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvlConcorrente;
+import br.com.unisinos.arvoreavl.persistencia.ArvoreAvlDuravel;
+import br.com.unisinos.arvoreavl.persistencia.PoliticaSincronizacao;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark das escritas na árvore durável, comparadas com a árvore
+ * concorrente em memória. O ganho da gravação em grupo aparece ao aumentar a
+ * quantidade de threads na linha de comando, por exemplo {@code -t 1} e
+ * {@code -t 8}: as sincronizações por operação diminuem com mais threads.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DuravelBenchmark {
+
+    /** Modo de execução sem log, apenas em memória */
+    private static final String MODO_MEMORIA = "MEMORIA";
+
+    /** Quantidade de nós da árvore */
+    @Param({"100000"})
+    public int tamanho;
+    /** Modo de execução: em memória ou o nome de uma política de sincronização */
+    @Param({"MEMORIA", "SEMPRE", "PERIODICA", "NUNCA"})
+    public String modo;
+
+    /** Diretório temporário dos arquivos */
+    private Path diretorio;
+    /** Árvore em memória */
+    private ArvoreAvlConcorrente arvoreMemoria;
+    /** Árvore durável */
+    private ArvoreAvlDuravel arvoreDuravel;
+
+    /**
+     * Estado de cada thread
+     */
+    @State(Scope.Thread)
+    public static class EstadoThread {
+
+        /** Gerador aleatório da thread */
+        private SplittableRandom random;
+
+        /**
+         * Cria o gerador aleatório da thread
+         */
+        @Setup(Level.Trial)
+        public void setup() {
+            random = new SplittableRandom(Thread.currentThread().getId());
+        }
+
+    }
+
+    /**
+     * Monta a árvore com as chaves pares
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if (MODO_MEMORIA.equals(modo)) {
+            arvoreMemoria = new ArvoreAvlConcorrente();
+            for (int i = 0; i < tamanho; i++) {
+                arvoreMemoria.inserir(2 * i);
+            }
+            return;
+        }
+        // Carrega as chaves sem sincronização e reabre com a política medida
+        diretorio = Files.createTempDirectory("arvore-avl-duravel");
+        try (ArvoreAvlDuravel carga = ArvoreAvlDuravel.abrir(diretorio, PoliticaSincronizacao.NUNCA, 0)) {
+            for (int i = 0; i < tamanho; i++) {
+                carga.inserir(2 * i);
+            }
+            carga.compactar();
+        }
+        arvoreDuravel = ArvoreAvlDuravel.abrir(diretorio, PoliticaSincronizacao.valueOf(modo),
+                ArvoreAvlDuravel.INTERVALO_SINCRONIZACAO_PADRAO);
+    }
+
+    /**
+     * Compacta o log entre as iterações, para que ele não cresça durante toda
+     * a execução
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @TearDown(Level.Iteration)
+    public void compacta() throws IOException {
+        if (arvoreDuravel != null) {
+            arvoreDuravel.compactar();
+        }
+    }
+
+    /**
+     * Fecha a árvore e remove os arquivos
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (arvoreDuravel == null) {
+            return;
+        }
+        System.out.println("Sincronizações: " + arvoreDuravel.getSincronizacoes());
+        arvoreDuravel.close();
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    /**
+     * Insere uma chave nova e a exclui em seguida
+     *
+     * @param estado Estado da thread
+     * @return Boolean
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @Benchmark
+    public boolean inserirExcluir(EstadoThread estado) throws IOException {
+        int chave = 2 * estado.random.nextInt(tamanho) + 1;
+        if (arvoreMemoria != null) {
+            arvoreMemoria.inserir(chave);
+            return arvoreMemoria.excluir(chave);
+        }
+        arvoreDuravel.inserir(chave);
+        return arvoreDuravel.excluir(chave);
+    }
+
+}
@@ -0,0 +1,106 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara a inserção e exclusão em lote com as operações individuais para
+ * diferentes tamanhos de lote, permitindo encontrar a partir de qual tamanho
+ * o lote compensa. Cada invocação insere um lote de chaves novas e o exclui
+ * em seguida, mantendo o tamanho da árvore.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoteBenchmark {
+
+    /** Quantidade de lotes pré-gerados */
+    private static final int QUANTIDADE_LOTES = 64;
+
+    /** Quantidade de nós da árvore */
+    @Param({"100000", "1000000"})
+    public int tamanho;
+    /** Quantidade de chaves por lote */
+    @Param({"16", "128", "1024", "8192", "65536"})
+    public int tamanhoLote;
+
+    /** Árvore utilizada no benchmark, com as chaves pares */
+    private ArvoreAvl arvore;
+    /** Lotes de chaves ímpares, ausentes da árvore */
+    private int[][] lotes;
+    /** Posição do próximo lote */
+    private int posicao;
+
+    /**
+     * Monta a árvore e gera os lotes
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        arvore = ArvoreAvl.constroi(IntStream.range(0, tamanho).map(i -> 2 * i));
+        SplittableRandom random = new SplittableRandom(42);
+        lotes = new int[QUANTIDADE_LOTES][];
+        for (int i = 0; i < QUANTIDADE_LOTES; i++) {
+            lotes[i] = random.ints(tamanhoLote, 0, tamanho).map(chave -> 2 * chave + 1).toArray();
+        }
+    }
+
+    /**
+     * Retorna o próximo lote
+     *
+     * @return int[]
+     */
+    private int[] proximoLote() {
+        int[] lote = lotes[posicao];
+        posicao = (posicao + 1) % QUANTIDADE_LOTES;
+        return lote;
+    }
+
+    /**
+     * Insere e exclui o lote com as operações em lote
+     *
+     * @return boolean[]
+     */
+    @Benchmark
+    public boolean[] lote() {
+        int[] lote = proximoLote();
+        arvore.inserirTodos(lote);
+        return arvore.excluirTodos(lote);
+    }
+
+    /**
+     * Insere e exclui o lote chave a chave
+     *
+     * @return ArvoreAvl
+     */
+    @Benchmark
+    public ArvoreAvl individual() {
+        int[] lote = proximoLote();
+        for (int chave : lote) {
+            arvore.inserir(chave);
+        }
+        for (int chave : lote) {
+            arvore.excluir(chave);
+        }
+        return arvore;
+    }
+
+}
@@ -0,0 +1,119 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.mapa.MapaAvl;
+import br.com.unisinos.arvoreavl.mapa.MapaAvlInt;
+import br.com.unisinos.arvoreavl.mapa.MapaAvlLong;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark das buscas nos mapas ordenados, comparadas com a busca da
+ * {@link br.com.unisinos.arvoreavl.arvore.ArvoreAvl} sobre as mesmas chaves.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapaBenchmark extends ArvoreBenchmarkBase {
+
+    /** Mapa com chaves int */
+    private MapaAvlInt<Integer> mapaInt;
+    /** Mapa com chaves long */
+    private MapaAvlLong<Integer> mapaLong;
+    /** Mapa com chaves Integer */
+    private MapaAvl<Integer, Integer> mapa;
+
+    /**
+     * Prepara a árvore e os mapas com as mesmas chaves
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        preparaArvore();
+        mapaInt = new MapaAvlInt<>();
+        mapaLong = new MapaAvlLong<>();
+        mapa = new MapaAvl<>();
+        for (int i = 0; i < tamanho; i++) {
+            Integer valor = i;
+            mapaInt.put(2 * i, valor);
+            mapaLong.put(2 * i, valor);
+            mapa.put(2 * i, valor);
+        }
+    }
+
+    /**
+     * Busca uma chave existente na árvore
+     *
+     * @return Object
+     */
+    @Benchmark
+    public Object buscaArvore() {
+        return arvore.busca(chaveExistente(proximaPosicao()));
+    }
+
+    /**
+     * Busca uma chave existente no mapa com chaves int
+     *
+     * @return Integer
+     */
+    @Benchmark
+    public Integer getMapaInt() {
+        return mapaInt.get(chaveExistente(proximaPosicao()));
+    }
+
+    /**
+     * Busca uma chave existente no mapa com chaves long
+     *
+     * @return Integer
+     */
+    @Benchmark
+    public Integer getMapaLong() {
+        return mapaLong.get(chaveExistente(proximaPosicao()));
+    }
+
+    /**
+     * Busca uma chave existente no mapa genérico
+     *
+     * @return Integer
+     */
+    @Benchmark
+    public Integer getMapa() {
+        return mapa.get(chaveExistente(proximaPosicao()));
+    }
+
+    /**
+     * Atualiza o valor de uma chave existente no mapa com chaves int
+     *
+     * @return Integer
+     */
+    @Benchmark
+    public Integer computeMapaInt() {
+        return mapaInt.compute(chaveExistente(proximaPosicao()), (chave, valor) -> valor);
+    }
+
+    /**
+     * Insere uma chave nova no mapa com chaves int e a remove em seguida
+     *
+     * @return Integer
+     */
+    @Benchmark
+    public Integer putRemoveMapaInt() {
+        int chave = chaveAusente(proximaPosicao());
+        mapaInt.put(chave, chave);
+        return mapaInt.remove(chave);
+    }
+
+}
@@ -0,0 +1,69 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.No;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark do custo das métricas da árvore. Com as métricas desabilitadas o
+ * resultado deve ser igual ao de {@link OperacoesBenchmark}.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricasBenchmark extends ArvoreBenchmarkBase {
+
+    /** Indica se as métricas estão habilitadas */
+    @Param({"false", "true"})
+    public boolean metricas;
+
+    /**
+     * Prepara a árvore e habilita as métricas conforme o parâmetro
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        preparaArvore();
+        if (metricas) {
+            arvore.habilitaMetricas();
+        }
+    }
+
+    /**
+     * Busca uma chave existente
+     *
+     * @return No
+     */
+    @Benchmark
+    public No busca() {
+        return arvore.busca(chaveExistente(proximaPosicao()));
+    }
+
+    /**
+     * Insere uma chave nova e a exclui em seguida
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean inserirExcluir() {
+        int chave = chaveAusente(proximaPosicao());
+        arvore.inserir(chave);
+        return arvore.excluir(chave);
+    }
+
+}
@@ -0,0 +1,68 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark de uma carga mista de leituras e escritas. Cada escrita insere uma
+ * chave nova e a exclui em seguida.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MisturaBenchmark extends ArvoreBenchmarkBase {
+
+    /** Percentual de operações de escrita */
+    @Param({"0", "5", "50"})
+    public int percentualEscrita;
+
+    /** Indica se cada posição de operação é uma escrita */
+    private boolean[] escritas;
+
+    /**
+     * Prepara a árvore e sorteia as operações de escrita
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        preparaArvore();
+        escritas = new boolean[QUANTIDADE_OPERACOES];
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        for (int i = 0; i < escritas.length; i++) {
+            escritas[i] = random.nextInt(100) < percentualEscrita;
+        }
+    }
+
+    /**
+     * Executa uma leitura ou uma escrita, de acordo com o sorteio
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean mistura() {
+        int posicao = proximaPosicao();
+        if (escritas[posicao]) {
+            int chave = chaveAusente(posicao);
+            arvore.inserir(chave);
+            return arvore.excluir(chave);
+        }
+        return arvore.contem(chaveExistente(posicao));
+    }
+
+}
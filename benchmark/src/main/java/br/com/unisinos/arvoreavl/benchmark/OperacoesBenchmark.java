@@ -0,0 +1,133 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.No;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark das operações de busca, inserção, exclusão e estatística de ordem
+ * da árvore. As
+ * operações de escrita são feitas em pares para manter o tamanho da árvore
+ * constante durante a medição.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperacoesBenchmark extends ArvoreBenchmarkBase {
+
+    /** Destino reutilizado do caminho das buscas com registro */
+    private final List<No> caminho = new ArrayList<>();
+
+    /**
+     * Prepara a árvore
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        preparaArvore();
+    }
+
+    /**
+     * Busca uma chave existente
+     *
+     * @return No
+     */
+    @Benchmark
+    public No busca() {
+        return arvore.busca(chaveExistente(proximaPosicao()));
+    }
+
+    /**
+     * Busca uma chave existente registrando o caminho percorrido, para
+     * comparação com a busca sem registro
+     *
+     * @return No
+     */
+    @Benchmark
+    public No buscaComCaminho() {
+        caminho.clear();
+        return arvore.busca(chaveExistente(proximaPosicao()), caminho::add);
+    }
+
+    /**
+     * Busca uma chave ausente
+     *
+     * @return No
+     */
+    @Benchmark
+    public No buscaAusente() {
+        return arvore.busca(chaveAusente(proximaPosicao()));
+    }
+
+    /**
+     * Insere uma chave nova e a exclui em seguida
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean inserirExcluir() {
+        int chave = chaveAusente(proximaPosicao());
+        arvore.inserir(chave);
+        return arvore.excluir(chave);
+    }
+
+    /**
+     * Exclui uma chave existente e a insere novamente
+     *
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean excluirInserir() {
+        int chave = chaveExistente(proximaPosicao());
+        arvore.excluir(chave);
+        return arvore.inserir(chave);
+    }
+
+    /**
+     * Posição de uma chave na ordem crescente
+     *
+     * @return int
+     */
+    @Benchmark
+    public int rank() {
+        return arvore.rank(chaveExistente(proximaPosicao()));
+    }
+
+    /**
+     * Chave que ocupa uma posição na ordem crescente
+     *
+     * @return No
+     */
+    @Benchmark
+    public No select() {
+        return arvore.select(chaves[proximaPosicao()]);
+    }
+
+    /**
+     * Quantidade de chaves em um intervalo de até mil posições
+     *
+     * @return int
+     */
+    @Benchmark
+    public int contarIntervalo() {
+        int inicio = chaveExistente(proximaPosicao());
+        return arvore.contarIntervalo(inicio, inicio + 2000);
+    }
+
+}
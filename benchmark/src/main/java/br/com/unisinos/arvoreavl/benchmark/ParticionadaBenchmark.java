@@ -0,0 +1,147 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvlConcorrente;
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvlParticionada;
+import br.com.unisinos.arvoreavl.carga.DistribuicaoChaves;
+import br.com.unisinos.arvoreavl.carga.GeradorChaves;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara a escalabilidade das escritas na árvore particionada com a árvore
+ * concorrente de bloqueio único. A escalabilidade é medida variando a
+ * quantidade de threads na linha de comando, por exemplo {@code -t 1},
+ * {@code -t 4} e {@code -t 8}. Com {@code concentracao} maior que 1 as chaves
+ * ficam restritas ao início do universo, sobrecarregando uma partição fixa;
+ * a repartição adaptativa divide essa partição durante o aquecimento.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParticionadaBenchmark {
+
+    /** Quantidade de chaves pré-geradas por thread, potência de 2 */
+    private static final int QUANTIDADE_CHAVES = 1 << 18;
+
+    /** Quantidade de chaves distintas */
+    @Param({"1000000"})
+    public int universo;
+    /** Quantidade inicial de partições */
+    @Param({"16"})
+    public int particoes;
+    /** Distribuição das chaves */
+    @Param({"ALEATORIA", "ZIPFIAN"})
+    public DistribuicaoChaves distribuicao;
+    /** Fração do universo que recebe as chaves (1 = universo inteiro) */
+    @Param({"1", "16"})
+    public int concentracao;
+    /** Se a repartição adaptativa está habilitada */
+    @Param({"false", "true"})
+    public boolean adaptativa;
+
+    /** Árvore particionada, com metade das chaves */
+    private ArvoreAvlParticionada particionada;
+    /** Árvore de bloqueio único, com metade das chaves */
+    private ArvoreAvlConcorrente concorrente;
+    /** Sementes das threads */
+    private final AtomicInteger sementes = new AtomicInteger();
+
+    /**
+     * Estado de cada thread
+     */
+    @State(Scope.Thread)
+    public static class EstadoThread {
+
+        /** Chaves da thread */
+        private int[] chaves;
+        /** Posição da próxima chave */
+        private int posicao;
+
+        /**
+         * Gera as chaves da thread
+         *
+         * @param benchmark Estado compartilhado
+         */
+        @Setup(Level.Trial)
+        public void setup(ParticionadaBenchmark benchmark) {
+            int limite = benchmark.universo / benchmark.concentracao;
+            chaves = GeradorChaves.gera(benchmark.distribuicao, QUANTIDADE_CHAVES, limite,
+                    benchmark.sementes.incrementAndGet());
+        }
+
+        /**
+         * Retorna a próxima chave
+         *
+         * @return int
+         */
+        int proximaChave() {
+            int chave = chaves[posicao];
+            posicao = (posicao + 1) & (QUANTIDADE_CHAVES - 1);
+            return chave;
+        }
+
+    }
+
+    /**
+     * Monta as árvores com as chaves pares do universo, dividido em partições
+     * de mesmo tamanho
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        int[] limites = new int[particoes - 1];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = (int) ((long) universo * (i + 1) / particoes);
+        }
+        particionada = new ArvoreAvlParticionada(limites);
+        concorrente = new ArvoreAvlConcorrente(ArvoreAvl.constroi(
+                IntStream.range(0, universo / 2).map(i -> 2 * i)));
+        for (int i = 0; i < universo; i += 2) {
+            particionada.inserir(i);
+        }
+        particionada.setReparticaoAdaptativa(adaptativa);
+    }
+
+    /**
+     * Alterna a presença da chave na árvore particionada
+     *
+     * @param estado Estado da thread
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean particionada(EstadoThread estado) {
+        int chave = estado.proximaChave();
+        return particionada.excluir(chave) || particionada.inserir(chave);
+    }
+
+    /**
+     * Alterna a presença da chave na árvore de bloqueio único
+     *
+     * @param estado Estado da thread
+     * @return Boolean
+     */
+    @Benchmark
+    public boolean concorrente(EstadoThread estado) {
+        int chave = estado.proximaChave();
+        return concorrente.excluir(chave) || concorrente.inserir(chave);
+    }
+
+}
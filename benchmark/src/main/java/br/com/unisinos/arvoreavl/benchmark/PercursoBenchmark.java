@@ -0,0 +1,163 @@
+package br.com.unisinos.arvoreavl.benchmark;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import br.com.unisinos.arvoreavl.arvore.RenderizadorAvl;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark dos percursos em ordem, pré-ordem e pós-ordem, da impressão por
+ * níveis, do renderizador e dos iteradores e streams da árvore. A saída
+ * padrão é descartada durante a medição.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PercursoBenchmark {
+
+    /** Quantidade de nós da árvore */
+    @Param({"1000", "100000", "1000000"})
+    public int tamanho;
+
+    /** Árvore utilizada no benchmark */
+    private ArvoreAvl arvore;
+    /** Saída padrão original */
+    private PrintStream saidaOriginal;
+    /** Renderizador com saída descartada */
+    private RenderizadorAvl renderizador;
+    /** Renderizador limitado a 100 valores, com saída descartada */
+    private RenderizadorAvl renderizadorLimitado;
+
+    /**
+     * Monta a árvore e descarta a saída padrão
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        arvore = new ArvoreAvl();
+        for (int i = 0; i < tamanho; i++) {
+            arvore.inserir(i);
+        }
+        saidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        renderizador = new RenderizadorAvl(OutputStream.nullOutputStream());
+        renderizadorLimitado = new RenderizadorAvl(OutputStream.nullOutputStream());
+        renderizadorLimitado.setLimiteValores(100);
+    }
+
+    /**
+     * Restaura a saída padrão
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(saidaOriginal);
+    }
+
+    /**
+     * Percurso em ordem
+     */
+    @Benchmark
+    public void printEmOrdem() {
+        arvore.printEmOrdem();
+    }
+
+    /**
+     * Percurso em pré-ordem
+     */
+    @Benchmark
+    public void printPreOrdem() {
+        arvore.printPreOrdem();
+    }
+
+    /**
+     * Percurso em pós-ordem
+     */
+    @Benchmark
+    public void printPosOrdem() {
+        arvore.printPosOrdem();
+    }
+
+    /**
+     * Impressão por níveis
+     */
+    @Benchmark
+    public void printArvore() {
+        arvore.printArvore();
+    }
+
+    /**
+     * Renderização por níveis reutilizando o mesmo renderizador
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @Benchmark
+    public void renderizaNiveis() throws IOException {
+        renderizador.renderizaNiveis(arvore);
+    }
+
+    /**
+     * Renderização dos 100 primeiros valores em ordem
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @Benchmark
+    public void renderizaEmOrdemLimitado() throws IOException {
+        renderizadorLimitado.renderizaEmOrdem(arvore);
+    }
+
+    /**
+     * Soma dos valores com o iterador em ordem
+     *
+     * @return long
+     */
+    @Benchmark
+    public long iteradorEmOrdem() {
+        long soma = 0;
+        PrimitiveIterator.OfInt iterador = arvore.iteradorEmOrdem();
+        while (iterador.hasNext()) {
+            soma += iterador.nextInt();
+        }
+        return soma;
+    }
+
+    /**
+     * Soma dos valores com o stream sequencial
+     *
+     * @return long
+     */
+    @Benchmark
+    public long stream() {
+        return arvore.stream().asLongStream().sum();
+    }
+
+    /**
+     * Soma dos valores com o stream paralelo
+     *
+     * @return long
+     */
+    @Benchmark
+    public long streamParalelo() {
+        return arvore.stream().parallel().asLongStream().sum();
+    }
+
+}
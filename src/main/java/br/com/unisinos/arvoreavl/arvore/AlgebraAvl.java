@@ -0,0 +1,231 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Operações de conjunto entre subárvores AVL pelo método de divisão e
+ * conquista: a raíz de uma subárvore particiona a outra, as metades são
+ * combinadas recursivamente e os resultados juntados pela raíz com
+ * {@link JuncaoAvl}. As metades são independentes, então são processadas em
+ * paralelo no {@link ForkJoinPool} até o limite sequencial.
+ * <p>
+ * As operações reaproveitam os nós das subárvores informadas, que devem
+ * pertencer ao chamador e não são mais válidas após a operação.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+final class AlgebraAvl {
+
+    /**
+     * Quantidade de nós abaixo da qual a operação é feita sem criar novas
+     * tarefas, pois o custo de agendamento supera o ganho do paralelismo
+     */
+    static final int LIMITE_SEQUENCIAL = 8192;
+
+    /** Operação de união */
+    private static final int UNIAO = 0;
+    /** Operação de interseção */
+    private static final int INTERSECAO = 1;
+    /** Operação de diferença */
+    private static final int DIFERENCA = 2;
+
+    /**
+     * Construtor privado, classe utilitária
+     */
+    private AlgebraAvl() {
+    }
+
+    /**
+     * Retorna a união das subárvores
+     *
+     * @param esquerda Primeira subárvore (pode ser nula)
+     * @param direita Segunda subárvore (pode ser nula)
+     * @return No raíz da subárvore resultante
+     */
+    static No uniao(No esquerda, No direita) {
+        return ForkJoinPool.commonPool().invoke(new TarefaOperacao(UNIAO, esquerda, direita));
+    }
+
+    /**
+     * Retorna a interseção das subárvores
+     *
+     * @param esquerda Primeira subárvore (pode ser nula)
+     * @param direita Segunda subárvore (pode ser nula)
+     * @return No raíz da subárvore resultante
+     */
+    static No intersecao(No esquerda, No direita) {
+        return ForkJoinPool.commonPool().invoke(new TarefaOperacao(INTERSECAO, esquerda, direita));
+    }
+
+    /**
+     * Retorna os valores da primeira subárvore ausentes da segunda
+     *
+     * @param esquerda Primeira subárvore (pode ser nula)
+     * @param direita Segunda subárvore (pode ser nula)
+     * @return No raíz da subárvore resultante
+     */
+    static No diferenca(No esquerda, No direita) {
+        return ForkJoinPool.commonPool().invoke(new TarefaOperacao(DIFERENCA, esquerda, direita));
+    }
+
+    /**
+     * Copia uma subárvore, mantendo o seu formato
+     *
+     * @param no Raíz da subárvore (pode ser nula)
+     * @return No raíz da cópia, sem pai
+     */
+    static No copia(No no) {
+        return ForkJoinPool.commonPool().invoke(new TarefaCopia(no));
+    }
+
+    /**
+     * Tarefa de uma operação de conjunto entre duas subárvores
+     */
+    private static final class TarefaOperacao extends RecursiveTask<No> {
+
+        /** Versão da serialização */
+        private static final long serialVersionUID = 1L;
+
+        /** Operação executada */
+        private final int operacao;
+        /** Primeira subárvore */
+        private final No esquerda;
+        /** Segunda subárvore, cujas raízes particionam a primeira */
+        private final No direita;
+
+        /**
+         * Método construtor
+         *
+         * @param operacao Operação executada
+         * @param esquerda Primeira subárvore (pode ser nula)
+         * @param direita Segunda subárvore (pode ser nula)
+         */
+        TarefaOperacao(int operacao, No esquerda, No direita) {
+            this.operacao = operacao;
+            this.esquerda = esquerda;
+            this.direita = direita;
+        }
+
+        @Override
+        protected No compute() {
+            return executa(operacao, esquerda, direita, true);
+        }
+
+    }
+
+    /**
+     * Executa a operação de conjunto entre duas subárvores
+     *
+     * @param operacao Operação executada
+     * @param esquerda Primeira subárvore (pode ser nula)
+     * @param direita Segunda subárvore (pode ser nula)
+     * @param paralelo Se as metades podem ser processadas em novas tarefas
+     * @return No raíz da subárvore resultante
+     */
+    private static No executa(int operacao, No esquerda, No direita, boolean paralelo) {
+        // Casos em que uma das subárvores está vazia
+        if (esquerda == null) {
+            return operacao == UNIAO ? JuncaoAvl.desvincula(direita) : null;
+        }
+        if (direita == null) {
+            return operacao == INTERSECAO ? null : JuncaoAvl.desvincula(esquerda);
+        }
+        boolean divide = paralelo && esquerda.getTamanho() + direita.getTamanho() > LIMITE_SEQUENCIAL;
+        // A raíz da segunda subárvore particiona a primeira
+        No pivo = direita;
+        No pivoEsquerda = pivo.getNoEsquerda();
+        No pivoDireita = pivo.getNoDireita();
+        No[] partes = JuncaoAvl.particiona(esquerda, pivo.getValor());
+        No resultadoEsquerda;
+        No resultadoDireita;
+        if (divide) {
+            TarefaOperacao tarefa = new TarefaOperacao(operacao, partes[0], pivoEsquerda);
+            tarefa.fork();
+            resultadoDireita = executa(operacao, partes[2], pivoDireita, true);
+            resultadoEsquerda = tarefa.join();
+        } else {
+            resultadoEsquerda = executa(operacao, partes[0], pivoEsquerda, false);
+            resultadoDireita = executa(operacao, partes[2], pivoDireita, false);
+        }
+        // O pivo faz parte do resultado na união e, se encontrado, na interseção
+        boolean mantemPivo = operacao == UNIAO || (operacao == INTERSECAO && partes[1] != null);
+        if (mantemPivo) {
+            return JuncaoAvl.juntar(resultadoEsquerda, pivo, resultadoDireita);
+        }
+        return JuncaoAvl.juntar(resultadoEsquerda, resultadoDireita);
+    }
+
+    /**
+     * Tarefa de cópia de uma subárvore
+     */
+    private static final class TarefaCopia extends RecursiveTask<No> {
+
+        /** Versão da serialização */
+        private static final long serialVersionUID = 1L;
+
+        /** Raíz da subárvore copiada */
+        private final No no;
+
+        /**
+         * Método construtor
+         *
+         * @param no Raíz da subárvore copiada (pode ser nula)
+         */
+        TarefaCopia(No no) {
+            this.no = no;
+        }
+
+        @Override
+        protected No compute() {
+            if (no == null) {
+                return null;
+            }
+            if (no.getTamanho() <= LIMITE_SEQUENCIAL) {
+                return copiaSequencial(no);
+            }
+            TarefaCopia tarefa = new TarefaCopia(no.getNoEsquerda());
+            tarefa.fork();
+            No direita = new TarefaCopia(no.getNoDireita()).compute();
+            return monta(tarefa.join(), no.getValor(), direita);
+        }
+
+    }
+
+    /**
+     * Copia uma subárvore sem criar novas tarefas
+     *
+     * @param no Raíz da subárvore (pode ser nula)
+     * @return No raíz da cópia, sem pai
+     */
+    private static No copiaSequencial(No no) {
+        if (no == null) {
+            return null;
+        }
+        return monta(copiaSequencial(no.getNoEsquerda()), no.getValor(),
+                copiaSequencial(no.getNoDireita()));
+    }
+
+    /**
+     * Cria um nó com os filhos informados
+     *
+     * @param esquerda Filho à esquerda (pode ser nulo)
+     * @param valor Valor do nó
+     * @param direita Filho à direita (pode ser nulo)
+     * @return No
+     */
+    private static No monta(No esquerda, int valor, No direita) {
+        No no = new No(valor, null);
+        no.setNoEsquerda(esquerda);
+        no.setNoDireita(direita);
+        if (esquerda != null) {
+            esquerda.setNoPai(no);
+        }
+        if (direita != null) {
+            direita.setNoPai(no);
+        }
+        no.atualizaAtributos();
+        return no;
+    }
+
+}
@@ -0,0 +1,197 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.PrimitiveIterator;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binário de snapshot da árvore. O arquivo possui um cabeçalho de 16
+ * bytes (identificador, versão, quantidade de valores e CRC32C dos valores)
+ * seguido dos valores em ordem crescente, com 4 bytes cada, em little-endian.
+ * Como os valores estão ordenados, a árvore é reconstruída balanceada em uma
+ * única passada, sem rotações. A gravação usa um arquivo temporário no mesmo
+ * diretório, sincronizado e renomeado sobre o destino, então uma queda durante
+ * a gravação mantém o snapshot anterior.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+final class ArquivoSnapshot {
+
+    /** Identificador do formato ("AVLS") */
+    static final int IDENTIFICADOR = 0x41564C53;
+    /** Versão atual do formato */
+    static final int VERSAO = 1;
+    /** Tamanho do cabeçalho em bytes */
+    static final int TAMANHO_CABECALHO = 16;
+    /** Sufixo do arquivo temporário da gravação */
+    static final String SUFIXO_TEMPORARIO = ".tmp";
+    /** Tamanho do buffer de escrita em bytes */
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    /** Indica se o sistema operacional é o Windows, que não sincroniza diretórios */
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    /**
+     * Construtor privado, classe utilitária
+     */
+    private ArquivoSnapshot() {
+    }
+
+    /**
+     * Grava os valores no arquivo, substituindo o conteúdo existente. Os
+     * valores são gravados e sincronizados em um arquivo temporário, que só
+     * então substitui o destino por uma renomeação atômica. Se a gravação
+     * falhar, o arquivo temporário é excluído e o destino não é alterado.
+     *
+     * @param arquivo Arquivo de destino
+     * @param valores Valores em ordem crescente
+     * @param quantidade Quantidade de valores
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    static void grava(Path arquivo, PrimitiveIterator.OfInt valores, int quantidade) throws IOException {
+        Path destino = arquivo.toAbsolutePath();
+        Path temporario = destino.resolveSibling(destino.getFileName() + SUFIXO_TEMPORARIO);
+        try {
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                gravaValores(canal, valores, quantidade);
+                canal.force(true);
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temporario);
+            } catch (IOException erroExclusao) {
+                e.addSuppressed(erroExclusao);
+            }
+            throw e;
+        }
+        sincronizaDiretorio(destino.getParent());
+    }
+
+    /**
+     * Grava os valores a partir do fim do cabeçalho e, por último, o
+     * cabeçalho com o CRC
+     *
+     * @param canal Canal de escrita
+     * @param valores Valores em ordem crescente
+     * @param quantidade Quantidade de valores
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private static void gravaValores(FileChannel canal, PrimitiveIterator.OfInt valores, int quantidade)
+            throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        // Reserva o espaço do cabeçalho, gravado ao final com o CRC
+        canal.position(TAMANHO_CABECALHO);
+        while (valores.hasNext()) {
+            if (!buffer.hasRemaining()) {
+                descarrega(canal, buffer, crc);
+            }
+            buffer.putInt(valores.nextInt());
+        }
+        descarrega(canal, buffer, crc);
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+        cabecalho.putInt(IDENTIFICADOR).putInt(VERSAO).putInt(quantidade).putInt((int) crc.getValue());
+        cabecalho.flip();
+        while (cabecalho.hasRemaining()) {
+            canal.write(cabecalho, TAMANHO_CABECALHO - cabecalho.remaining());
+        }
+    }
+
+    /**
+     * Sincroniza as entradas do diretório com o disco, tornando durável a
+     * renomeação do snapshot
+     *
+     * @param diretorio Diretório
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private static void sincronizaDiretorio(Path diretorio) throws IOException {
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // O Windows não permite abrir diretórios, e lá a renomeação já é
+            // registrada pelo journal do sistema de arquivos
+            if (!WINDOWS) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Grava o conteúdo do buffer no canal, acumulando o CRC
+     *
+     * @param canal Canal de escrita
+     * @param buffer Buffer com os valores
+     * @param crc CRC dos valores
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private static void descarrega(FileChannel canal, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Lê os valores do arquivo, mapeado em memória, validando o cabeçalho, o
+     * CRC e a ordenação
+     *
+     * @param arquivo Arquivo de origem
+     * @return Valores distintos em ordem crescente
+     * @throws IOException Se ocorrer erro de leitura ou o arquivo for inválido
+     */
+    static int[] le(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanhoArquivo = canal.size();
+            if (tamanhoArquivo < TAMANHO_CABECALHO) {
+                throw new IOException("Arquivo de snapshot incompleto: " + arquivo);
+            }
+            if (tamanhoArquivo > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo de snapshot muito grande: " + arquivo);
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanhoArquivo);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapa.getInt(0) != IDENTIFICADOR) {
+                throw new IOException("Arquivo não é um snapshot de árvore: " + arquivo);
+            }
+            int versao = mapa.getInt(4);
+            if (versao != VERSAO) {
+                throw new IOException(String.format("Versão de snapshot não suportada: %s", versao));
+            }
+            int quantidade = mapa.getInt(8);
+            if (quantidade < 0 || TAMANHO_CABECALHO + 4L * quantidade != tamanhoArquivo) {
+                throw new IOException(String.format(
+                        "Quantidade de valores (%s) não corresponde ao tamanho do arquivo", quantidade));
+            }
+            int crcEsperado = mapa.getInt(12);
+            mapa.position(TAMANHO_CABECALHO);
+            CRC32C crc = new CRC32C();
+            crc.update(mapa.duplicate());
+            if ((int) crc.getValue() != crcEsperado) {
+                throw new IOException("CRC do snapshot inválido: " + arquivo);
+            }
+            int[] valores = new int[quantidade];
+            IntBuffer bufferValores = mapa.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            bufferValores.get(valores);
+            for (int i = 1; i < quantidade; i++) {
+                if (valores[i] <= valores[i - 1]) {
+                    throw new IOException(String.format(
+                            "Valores do snapshot fora de ordem na posição %s", i));
+                }
+            }
+            return valores;
+        }
+    }
+
+}
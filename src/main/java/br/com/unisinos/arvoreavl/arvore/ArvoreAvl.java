@@ -1,7 +1,20 @@
 package br.com.unisinos.arvoreavl.arvore;
 
+import br.com.unisinos.arvoreavl.metricas.EstatisticasAvl;
+import br.com.unisinos.arvoreavl.metricas.MetricasAvl;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 /**
  * Classe que representa uma árvore AVL e suas operações
@@ -10,31 +23,241 @@ import java.util.List;
  */
 public class ArvoreAvl {
 
-    /** Patter para adicionar valores ao builder de ordem de percurso */
-    private static final String PATTERN_ORDER_STRING = "%s ";
+    /**
+     * Memória estimada de cada nó em bytes: cabeçalho de 12 bytes, três
+     * referências comprimidas, quatro inteiros e um booleano, alinhados em 8
+     * bytes
+     */
+    static final int BYTES_POR_NO = 48;
+    /**
+     * Quantidade máxima de nós reconstruídos pela fatia de compactação que uma
+     * exclusão lógica dispara, limitando o custo adicional da exclusão
+     */
+    static final int NOS_FATIA_COMPACTACAO = 256;
 
     /** Nó raíz da árvore */
     private No raiz;
-    /** Lista de nós percorridos durante a busca de um nó */
-    private final List<No> listaNosPercorridosBusca;
-    /** Builder responsável por montar a string de ordem de percurso */
-    private final StringBuilder orderBuilder;
+    /** Métricas das operações, {@code null} quando desabilitadas */
+    private MetricasAvl metricas;
+    /**
+     * Contador das alterações que retiram nós da árvore, usado pelos cursores
+     * para descartar um nó de referência que pode não pertencer mais a ela
+     */
+    private int versao;
+    /**
+     * Menor nó da árvore, inclusive se removido logicamente, ou {@code null}
+     * se ainda não foi calculado
+     */
+    private No menorNo;
+    /**
+     * Maior nó da árvore, inclusive se removido logicamente, ou {@code null}
+     * se ainda não foi calculado
+     */
+    private No maiorNo;
+    /** Indica se as exclusões apenas marcam os nós como removidos */
+    private boolean exclusaoLogica;
+    /** Proporção de nós removidos logicamente que dispara a compactação */
+    private double proporcaoCompactacao;
+
+    /**
+     * Constrói uma árvore balanceada a partir de valores em ordem crescente, em
+     * tempo linear. Valores repetidos são considerados uma única vez.
+     *
+     * @param valoresOrdenados Valores em ordem crescente
+     * @return ArvoreAvl
+     * @throws IllegalArgumentException Se os valores não estiverem ordenados
+     */
+    public static ArvoreAvl constroi(int[] valoresOrdenados) {
+        // Conta os valores distintos, validando a ordenação
+        int quantidadeDistintos = valoresOrdenados.length == 0 ? 0 : 1;
+        for (int i = 1; i < valoresOrdenados.length; i++) {
+            if (valoresOrdenados[i] < valoresOrdenados[i - 1]) {
+                throw new IllegalArgumentException(String.format(
+                        "Valores fora de ordem na posição %s", i));
+            }
+            if (valoresOrdenados[i] != valoresOrdenados[i - 1]) {
+                quantidadeDistintos++;
+            }
+        }
+        // Remove os valores repetidos apenas se existirem
+        int[] valores = valoresOrdenados;
+        if (quantidadeDistintos != valoresOrdenados.length) {
+            valores = new int[quantidadeDistintos];
+            valores[0] = valoresOrdenados[0];
+            for (int i = 1, j = 1; i < valoresOrdenados.length; i++) {
+                if (valoresOrdenados[i] != valoresOrdenados[i - 1]) {
+                    valores[j++] = valoresOrdenados[i];
+                }
+            }
+        }
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.raiz = constroi(valores, 0, valores.length - 1, null);
+        return arvore;
+    }
 
     /**
-     * Método construtor
+     * Constrói uma árvore balanceada a partir de um stream em ordem crescente,
+     * em tempo linear. Valores repetidos são considerados uma única vez.
+     *
+     * @param valoresOrdenados Valores em ordem crescente
+     * @return ArvoreAvl
+     * @throws IllegalArgumentException Se os valores não estiverem ordenados
      */
-    public ArvoreAvl() {
-        this.listaNosPercorridosBusca = new ArrayList();
-        this.orderBuilder = new StringBuilder();
+    public static ArvoreAvl constroi(IntStream valoresOrdenados) {
+        return constroi(valoresOrdenados.iterator());
     }
 
     /**
-     * Retorna a lista de nós percorridos durante a busca
+     * Constrói uma árvore balanceada a partir de um iterador em ordem
+     * crescente, em tempo linear. Valores repetidos são considerados uma única
+     * vez.
      *
-     * @return {@code List<No>}
+     * @param valoresOrdenados Valores em ordem crescente
+     * @return ArvoreAvl
+     * @throws IllegalArgumentException Se os valores não estiverem ordenados
+     */
+    public static ArvoreAvl constroi(PrimitiveIterator.OfInt valoresOrdenados) {
+        int[] valores = new int[16];
+        int quantidade = 0;
+        while (valoresOrdenados.hasNext()) {
+            int valor = valoresOrdenados.nextInt();
+            // Ignora os repetidos e valida a ordenação
+            if (quantidade > 0 && valor <= valores[quantidade - 1]) {
+                if (valor == valores[quantidade - 1]) {
+                    continue;
+                }
+                throw new IllegalArgumentException(String.format(
+                        "Valores fora de ordem na posição %s", quantidade));
+            }
+            if (quantidade == valores.length) {
+                valores = Arrays.copyOf(valores, quantidade + (quantidade >> 1));
+            }
+            valores[quantidade++] = valor;
+        }
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.raiz = constroi(valores, 0, quantidade - 1, null);
+        return arvore;
+    }
+
+    /**
+     * Constrói a subárvore balanceada dos valores entre as posições informadas,
+     * usando o valor do meio como raíz
+     *
+     * @param valores Valores distintos em ordem crescente
+     * @param inicio Posição inicial (inclusiva)
+     * @param fim Posição final (inclusiva)
+     * @param noPai Pai da subárvore
+     * @return No raíz da subárvore
+     */
+    private static No constroi(int[] valores, int inicio, int fim, No noPai) {
+        if (inicio > fim) {
+            return null;
+        }
+        int meio = (inicio + fim) >>> 1;
+        No no = new No(valores[meio], noPai);
+        no.setNoEsquerda(constroi(valores, inicio, meio - 1, no));
+        no.setNoDireita(constroi(valores, meio + 1, fim, no));
+        no.atualizaAtributos();
+        return no;
+    }
+
+    /**
+     * Carrega uma árvore gravada por {@link #salvar(Path)}. O arquivo é mapeado
+     * em memória e a árvore é reconstruída balanceada em tempo linear.
+     *
+     * @param arquivo Arquivo de snapshot
+     * @return ArvoreAvl
+     * @throws IOException Se ocorrer erro de leitura ou o arquivo for inválido
+     */
+    public static ArvoreAvl carregar(Path arquivo) throws IOException {
+        int[] valores = ArquivoSnapshot.le(arquivo);
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.raiz = constroi(valores, 0, valores.length - 1, null);
+        return arvore;
+    }
+
+    /**
+     * Grava os valores da árvore em um arquivo binário, com cabeçalho de
+     * versão e CRC32C, que pode ser carregado com {@link #carregar(Path)}. A
+     * gravação é feita em um arquivo temporário no mesmo diretório, que é
+     * sincronizado com o disco e renomeado sobre o destino, então uma falha ou
+     * queda durante a gravação mantém o arquivo anterior intacto.
+     *
+     * @param arquivo Arquivo de destino, substituído se existir
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void salvar(Path arquivo) throws IOException {
+        ArquivoSnapshot.grava(arquivo, iteradorEmOrdem(), getTamanho());
+    }
+
+    /**
+     * Retorna o nó raíz da árvore
+     *
+     * @return No
+     */
+    No getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Retorna o contador das alterações que retiram nós da árvore
+     *
+     * @return int
+     */
+    int getVersao() {
+        return versao;
+    }
+
+    /**
+     * Retorna o menor nó da árvore, inclusive se removido logicamente. O nó é
+     * mantido pelas inserções e exclusões individuais e recalculado apenas
+     * após as alterações em lote.
+     *
+     * @return No ou {@code null} caso a árvore esteja vazia
+     */
+    No getMenorNo() {
+        if (menorNo == null) {
+            menorNo = NoUtils.getMenorNo(raiz);
+        }
+        return menorNo;
+    }
+
+    /**
+     * Retorna o maior nó da árvore, inclusive se removido logicamente
+     *
+     * @return No ou {@code null} caso a árvore esteja vazia
+     * @see #getMenorNo()
      */
-    public List<No> getListaNosPercorridosBusca() {
-        return listaNosPercorridosBusca;
+    No getMaiorNo() {
+        if (maiorNo == null) {
+            maiorNo = NoUtils.getMaiorNo(raiz);
+        }
+        return maiorNo;
+    }
+
+    /**
+     * Descarta o menor e o maior nó, que são recalculados no próximo acesso
+     */
+    private void descartaExtremos() {
+        menorNo = null;
+        maiorNo = null;
+    }
+
+    /**
+     * Verifica os invariantes da árvore: ordenação dos valores, vínculos com o
+     * nó pai, alturas, fatores de balanceamento e os extremos mantidos para
+     * os cursores
+     *
+     * @throws IllegalStateException Se algum invariante for violado
+     */
+    public void validaEstrutura() {
+        NoUtils.validaSubarvore(raiz);
+        if (menorNo != null && menorNo != NoUtils.getMenorNo(raiz)) {
+            throw new IllegalStateException(String.format("Menor nó %s desatualizado", menorNo));
+        }
+        if (maiorNo != null && maiorNo != NoUtils.getMaiorNo(raiz)) {
+            throw new IllegalStateException(String.format("Maior nó %s desatualizado", maiorNo));
+        }
     }
 
     /**
@@ -53,12 +276,22 @@ public class ArvoreAvl {
      * @return No
      */
     public No busca(int valor) {
-        // Limpa a lista de nós percorridos
-        listaNosPercorridosBusca.clear();
+        No no = metricas != null ? buscaInstrumentada(valor) : localiza(valor);
+        // Um nó removido logicamente não possui mais o valor
+        return no == null || no.isRemovido() ? null : no;
+    }
+
+    /**
+     * Localiza o nó do valor, sem registrar métricas. O nó retornado pode estar
+     * removido logicamente.
+     *
+     * @param valor Valor do nó
+     * @return No encontrado ou {@code null}
+     */
+    private No localiza(int valor) {
         // Percorre os nós da árvore, começando pela raíz
         No noAtual = raiz;
         while (noAtual != null) {
-            listaNosPercorridosBusca.add(noAtual);
             // Se o valor do nó pesquisado for igual ao valor procurado
             if (noAtual.getValor() == valor) {
                 break;
@@ -71,338 +304,1255 @@ public class ArvoreAvl {
     }
 
     /**
-     * Insere um nó na árvore
+     * Retorna se a árvore possui o valor
      *
      * @param valor Valor do nó
+     * @return Boolean
      */
-    public void inserir(int valor) {
-        // Se já existe um nó com esse valor
-        if (busca(valor) != null) {
-            return;
-        }
-        inserir(this.raiz, valor);
+    public boolean contem(int valor) {
+        return busca(valor) != null;
     }
 
     /**
-     * Insere um novo nó na árvore
+     * Busca um nó na árvore, informando cada nó percorrido ao destino do
+     * caminho. Destina-se a diagnóstico; a busca comum não registra o caminho.
      *
-     * @param noComparacao Nó para comparação de valor
      * @param valor Valor do nó
+     * @param caminho Destino dos nós percorridos, na ordem da descida
+     * @return No
      */
-    private void inserir(No noComparacao, int valor) {
-        // Se a raíz não possui valor, insere na raíz
-        if (raiz == null) {
-            raiz = new No(valor, null);
-            return;
-        }
-        // Se o valor for menor que o valor do nó de comparação, vai para esquerda
-        if (valor < noComparacao.getValor()) {
-            // Caso o nó já possua um filho a esquerda, caminha para dentro desse filho
-            if (noComparacao.getNoEsquerda() != null) {
-                inserir(noComparacao.getNoEsquerda(), valor);
-            } else {
-                // Insere como filho a esquerda
-                noComparacao.setNoEsquerda(new No(valor, noComparacao));
-            }
-        } else if (valor > noComparacao.getValor()) {
-            // Caso o nó já possua um filho a esquerda, caminha para dentro desse filho
-            if (noComparacao.getNoDireita() != null) {
-                inserir(noComparacao.getNoDireita(), valor);
-            } else {
-                noComparacao.setNoDireita(new No(valor, noComparacao));
+    public No busca(int valor, Consumer<No> caminho) {
+        No noAtual = raiz;
+        while (noAtual != null) {
+            caminho.accept(noAtual);
+            if (noAtual.getValor() == valor) {
+                break;
             }
+            noAtual = noAtual.getValor() < valor ? noAtual.getNoDireita()
+                    : noAtual.getNoEsquerda();
         }
-        // Ajsuta o balanceamento da árvore e a altura do nó
-        ajustaBalanceamento(noComparacao);
-        noComparacao.setAltura(NoUtils.getAlturaNo(noComparacao));
+        return noAtual == null || noAtual.isRemovido() ? null : noAtual;
     }
 
     /**
-     * Remove um nó da árvore
+     * Retorna a lista de nós percorridos durante a busca de um valor
      *
      * @param valor Valor do nó
-     * @return No
+     * @return {@code List<No>}
      */
-    public No excluir(int valor) {
-        // Verifica se o nó existe antes de fazer a exclusão
-        No noExcluir = busca(valor);
-        // Caso o nó não exista retorna null
-        if (noExcluir == null) {
-            return noExcluir;
-        }
-        // Exclui o nó, rebalanceia a árvore e retorna o nó
-        noExcluir = excluir(noExcluir);
-        ajustaBalanceamento(noExcluir.getNoPai());
-        return noExcluir;
+    public List<No> getCaminhoBusca(int valor) {
+        List<No> caminho = new ArrayList<>();
+        busca(valor, caminho::add);
+        return caminho;
     }
 
     /**
-     * Exclui um nó da árvore
+     * Busca um valor registrando o comprimento do caminho nas métricas
      *
-     * @param no Nó
-     * @return No
+     * @param valor Valor do nó
+     * @return No encontrado ou {@code null}
      */
-    private No excluir(No no) {
-        // Se o nó é uma folha, remove a vinculação com o nó pai
-        if (no.isFolha()) {
-            // Remove da esquerda ou direita, de acordo com a posição do nó
-            if (no.isFilhoEsquerda()) {
-                no.getNoPai().setNoEsquerda(null);
-            } else {
-                no.getNoPai().setNoDireita(null);
-            }
-        } else if (no.getNoEsquerda() == null || no.getNoDireita() == null) {
-            // Caso o nó possua 1 filho a esquerda ou a direita, recupera o filho
-            No noFilhoExcluido = no.isPossuiFilhoDireita() ? no.getNoDireita() : no.getNoEsquerda();
-            // Substitui a posição do nó pelo filho no nó pai
-            if (no.isFilhoEsquerda()) {
-                no.getNoPai().setNoEsquerda(noFilhoExcluido);
-            } else {
-                no.getNoPai().setNoDireita(noFilhoExcluido);
-            }
-        } else {
-            // Recupera o nó esquerdo
-            No noTemp = no.getNoEsquerda();
-            // Desce a árvore sempre pelo lado direito para encontrar o substituto
-            while (noTemp.getNoDireita() != null) {
-                noTemp = noTemp.getNoDireita();
+    private No buscaInstrumentada(int valor) {
+        No noAtual = raiz;
+        int comprimento = 0;
+        while (noAtual != null) {
+            comprimento++;
+            if (noAtual.getValor() == valor) {
+                break;
             }
-            no.setValor(noTemp.getValor());
-            no = excluir(noTemp);
+            noAtual = noAtual.getValor() < valor ? noAtual.getNoDireita()
+                    : noAtual.getNoEsquerda();
         }
-        no.getNoPai().setAltura(NoUtils.getAlturaNo(no.getNoPai()));
-        return no;
+        metricas.registraBusca(comprimento);
+        return noAtual;
     }
 
     /**
-     * Ajusta o balanceamento da árvore recursivamente
+     * Habilita as métricas de buscas, inserções, exclusões e rotações. Caso já
+     * estejam habilitadas, retorna as métricas existentes.
      *
-     * @param no Nó a ser ajustado
+     * @return MetricasAvl
      */
-    private void ajustaBalanceamento(No no) {
-        // Calcula o fator de balancemento da árvore (-1, 0, 1, ...)
-        int fatorBalanceamento = NoUtils.getFatorbalanceamento(no);
-        No noPai = no.getNoPai();
-        // Se o fator de balanceamento for menor que -1, rotaciona a esquerda
-        if (fatorBalanceamento < -1) {
-            // Realiza rotação simples ou dupla, de acordo com a necessidade
-            if (NoUtils.getAlturaNo(no.getNoEsquerda().getNoEsquerda())
-                    >= NoUtils.getAlturaNo(no.getNoEsquerda().getNoDireita())) {
-                rotacaoSimplesDireita(no);
-            } else {
-                rotacaoDuplaEsquerda(no);
-            }
-        } else if (fatorBalanceamento > 1) {
-            // Realiza rotação simples ou dupla, de acordo com a necessidade
-            if (NoUtils.getAlturaNo(no.getNoDireita().getNoDireita())
-                    >= NoUtils.getAlturaNo(no.getNoDireita().getNoEsquerda())) {
-                rotacaoSimplesEsquerda(no);
+    public MetricasAvl habilitaMetricas() {
+        if (metricas == null) {
+            metricas = new MetricasAvl();
+        }
+        return metricas;
+    }
+
+    /**
+     * Desabilita as métricas, descartando os valores registrados
+     */
+    public void desabilitaMetricas() {
+        metricas = null;
+    }
+
+    /**
+     * Retorna as métricas da árvore
+     *
+     * @return MetricasAvl ou {@code null} se desabilitadas
+     */
+    public MetricasAvl getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Retorna um retrato do estado e das métricas da árvore
+     *
+     * @return EstatisticasAvl
+     */
+    public EstatisticasAvl getEstatisticas() {
+        return new EstatisticasAvl(getTamanho(), NoUtils.getAlturaNo(raiz),
+                ((long) getTamanho() + getQuantidadeRemovidos()) * BYTES_POR_NO, metricas);
+    }
+
+    /**
+     * Publica as estatísticas da árvore através do JMX
+     *
+     * @param nome Nome da árvore
+     * @return Nome JMX registrado
+     * @throws JMException Se o registro falhar
+     */
+    public ObjectName registraJmx(String nome) throws JMException {
+        return MetricasAvl.registraJmx(nome, this::getEstatisticas);
+    }
+
+    /**
+     * Retorna a quantidade de valores da árvore, sem os nós removidos
+     * logicamente
+     *
+     * @return int
+     */
+    public int getTamanho() {
+        return NoUtils.getTamanhoNo(raiz);
+    }
+
+    /**
+     * Retorna a quantidade de nós removidos logicamente que ainda ocupam a
+     * árvore
+     *
+     * @return int
+     */
+    public int getQuantidadeRemovidos() {
+        return NoUtils.getRemovidosNo(raiz);
+    }
+
+    /**
+     * Retorna a quantidade de valores da árvore menores que o valor informado
+     *
+     * @param valor Valor
+     * @return int
+     */
+    public int rank(int valor) {
+        return contaMenores(valor, false);
+    }
+
+    /**
+     * Conta os valores da árvore menores (ou menores ou iguais) ao valor
+     *
+     * @param valor Valor
+     * @param inclusivo Se os valores iguais devem ser contados
+     * @return int
+     */
+    private int contaMenores(int valor, boolean inclusivo) {
+        int quantidade = 0;
+        No noAtual = raiz;
+        while (noAtual != null) {
+            if (valor < noAtual.getValor() || (valor == noAtual.getValor() && !inclusivo)) {
+                noAtual = noAtual.getNoEsquerda();
             } else {
-                rotacaoDuplaDireita(no);
+                // O nó, se válido, e toda a sua subárvore esquerda são contados
+                quantidade += NoUtils.getTamanhoNo(noAtual.getNoEsquerda()) + (noAtual.isRemovido() ? 0 : 1);
+                noAtual = noAtual.getNoDireita();
             }
         }
-        // Se o nó possui pai, faz o rebalanceamento no pai
-        if (noPai != null) {
-            ajustaBalanceamento(noPai);
-        }
-        // Ajusta a altura do nó
-        no.setAltura(NoUtils.getAlturaNo(no));
+        return quantidade;
     }
 
     /**
-     * Realiza a rotação simples a direita
+     * Retorna o nó que ocupa a posição informada na ordem crescente, começando
+     * em zero, de forma que {@code rank(select(k).getValor()) == k}
      *
-     * @param noRotacionado Nó pivo da rotação
+     * @param posicao Posição na ordem crescente
+     * @return No ou {@code null} caso a posição não exista
      */
-    private void rotacaoSimplesDireita(No noRotacionado) {
-        // Recupera o nó pai, o nó esquerdo e o nó a direita do nó esquerdo
-        No noPai = noRotacionado.getNoPai();
-        No noEsquerdo = noRotacionado.getNoEsquerda();
-        No filhoDireitoDoFilhoEsquerdo = noEsquerdo.getNoDireita();
-        noRotacionado.setNoEsquerda(filhoDireitoDoFilhoEsquerdo);
-        noEsquerdo.setNoDireita(noRotacionado);
-        // Se for a raíz, atualiza a raíz
-        if (noPai == null) {
-            this.raiz = noEsquerdo;
-            noEsquerdo.setNoPai(null);
-            return;
+    public No select(int posicao) {
+        if (posicao < 0 || posicao >= getTamanho()) {
+            return null;
         }
-        // Substitui o nó esquerdo caso seja o nó rotacionado
-        if (noPai.getNoEsquerda() == noRotacionado) {
-            noPai.setNoEsquerda(noEsquerdo);
-        } else {
-            noPai.setNoDireita(noEsquerdo);
+        No noAtual = raiz;
+        while (true) {
+            int tamanhoEsquerda = NoUtils.getTamanhoNo(noAtual.getNoEsquerda());
+            int tamanhoNo = noAtual.isRemovido() ? 0 : 1;
+            if (posicao < tamanhoEsquerda) {
+                noAtual = noAtual.getNoEsquerda();
+            } else if (posicao >= tamanhoEsquerda + tamanhoNo) {
+                posicao -= tamanhoEsquerda + tamanhoNo;
+                noAtual = noAtual.getNoDireita();
+            } else {
+                return noAtual;
+            }
         }
-        // Ajusta a altura dos nós
-        noRotacionado.setAltura(NoUtils.getAlturaNo(noRotacionado));
-        noEsquerdo.setAltura(NoUtils.getAlturaNo(noEsquerdo));
     }
 
     /**
-     * Realiza a rotação simples a direita
+     * Retorna a quantidade de valores da árvore entre os valores informados,
+     * inclusive
      *
-     * @param noRotacionado Nó pivo da rotação
+     * @param inicio Início do intervalo
+     * @param fim Fim do intervalo
+     * @return int
      */
-    private void rotacaoSimplesEsquerda(No noRotacionado) {
-        // Recupera o nó pai, o nó direito e o nó a esquerda do nó direito
-        No noPai = noRotacionado.getNoPai();
-        No noDireito = noRotacionado.getNoDireita();
-        No filhoEsquerdoDoFilhoDireito = noDireito.getNoEsquerda();
-        noRotacionado.setNoDireita(filhoEsquerdoDoFilhoDireito);
-        noDireito.setNoEsquerda(noRotacionado);
-        // Se for a raíz, atualiza a raíz
-        if (noPai == null) {
-            this.raiz = noDireito;
-            noDireito.setNoPai(null);
-            return;
+    public int contarIntervalo(int inicio, int fim) {
+        if (inicio > fim) {
+            return 0;
         }
-        // Substitui o nó esquerdo caso seja o nó rotacionado
-        if (noPai.getNoEsquerda() == noRotacionado) {
-            noPai.setNoEsquerda(noDireito);
-        } else {
-            noPai.setNoDireita(noDireito);
-        }
-        // Ajusta a altura dos nós
-        noRotacionado.setAltura(NoUtils.getAlturaNo(noRotacionado));
-        noDireito.setAltura(NoUtils.getAlturaNo(noDireito));
+        return contaMenores(fim, true) - contaMenores(inicio, false);
     }
 
     /**
-     * Realiza a rotação dupla a esquerda
+     * Retorna o nó de menor valor
      *
-     * @param no Nó
+     * @return No ou {@code null} caso a árvore esteja vazia
      */
-    private void rotacaoDuplaEsquerda(No no) {
-        rotacaoSimplesEsquerda(no.getNoEsquerda());
-        rotacaoSimplesDireita(no);
+    public No min() {
+        if (getQuantidadeRemovidos() > 0) {
+            return select(0);
+        }
+        return NoUtils.getMenorNo(raiz);
     }
 
     /**
-     * Realiza a rotação dupla a direita
+     * Retorna o nó de maior valor
      *
-     * @param no Nó
+     * @return No ou {@code null} caso a árvore esteja vazia
      */
-    private void rotacaoDuplaDireita(No no) {
-        rotacaoSimplesDireita(no.getNoDireita());
-        rotacaoSimplesEsquerda(no);
+    public No max() {
+        if (getQuantidadeRemovidos() > 0) {
+            return select(getTamanho() - 1);
+        }
+        return NoUtils.getMaiorNo(raiz);
     }
 
     /**
-     * Imprime os nós da árvore em pré-ordem
+     * Retorna o nó de maior valor menor ou igual ao valor informado
+     *
+     * @param valor Valor
+     * @return No ou {@code null} caso não exista
      */
-    public void printPreOrdem() {
-        montaStringPreOrdem(raiz);
-        System.out.println(formataStringOrder());
+    public No floor(int valor) {
+        // Com nós removidos logicamente, o vizinho válido é localizado pela posição
+        if (getQuantidadeRemovidos() > 0) {
+            return select(contaMenores(valor, true) - 1);
+        }
+        No candidato = null;
+        No noAtual = raiz;
+        while (noAtual != null) {
+            if (noAtual.getValor() == valor) {
+                return noAtual;
+            }
+            if (noAtual.getValor() < valor) {
+                candidato = noAtual;
+                noAtual = noAtual.getNoDireita();
+            } else {
+                noAtual = noAtual.getNoEsquerda();
+            }
+        }
+        return candidato;
     }
 
     /**
-     * Imprime os nós da árvore em pré-ordem
+     * Retorna o nó de menor valor maior ou igual ao valor informado
      *
-     * @param no Nó
+     * @param valor Valor
+     * @return No ou {@code null} caso não exista
      */
-    private void montaStringPreOrdem(No no) {
-        if (no != null) {
-            addNoToOrderBuilder(no);
-            montaStringPreOrdem(no.getNoEsquerda());
-            montaStringPreOrdem(no.getNoDireita());
+    public No ceiling(int valor) {
+        if (getQuantidadeRemovidos() > 0) {
+            return select(contaMenores(valor, false));
+        }
+        No candidato = null;
+        No noAtual = raiz;
+        while (noAtual != null) {
+            if (noAtual.getValor() == valor) {
+                return noAtual;
+            }
+            if (noAtual.getValor() > valor) {
+                candidato = noAtual;
+                noAtual = noAtual.getNoEsquerda();
+            } else {
+                noAtual = noAtual.getNoDireita();
+            }
         }
+        return candidato;
     }
 
     /**
-     * Imprime os nós da árvore em ordem
+     * Retorna um iterador dos valores em ordem crescente. A árvore não deve ser
+     * alterada durante a iteração.
+     *
+     * @return PrimitiveIterator.OfInt
      */
-    public void printEmOrdem() {
-        montaStringEmOrdem(raiz);
-        System.out.println(formataStringOrder());
+    public PrimitiveIterator.OfInt iteradorEmOrdem() {
+        return new IteradorEmOrdem(min(), Integer.MAX_VALUE);
     }
 
     /**
-     * Imprime os nós da árvore em ordem
+     * Retorna um iterador dos valores em pré-ordem. A árvore não deve ser
+     * alterada durante a iteração.
      *
-     * @param no Nó
+     * @return PrimitiveIterator.OfInt
      */
-    private void montaStringEmOrdem(No no) {
-        if (no != null) {
-            montaStringEmOrdem(no.getNoEsquerda());
-            addNoToOrderBuilder(no);
-            montaStringEmOrdem(no.getNoDireita());
-        }
+    public PrimitiveIterator.OfInt iteradorPreOrdem() {
+        return new IteradorPreOrdem(raiz);
     }
 
     /**
-     * Imprime os nós da árvore em ordem
+     * Retorna um iterador dos valores em pós-ordem. A árvore não deve ser
+     * alterada durante a iteração.
+     *
+     * @return PrimitiveIterator.OfInt
      */
-    public void printPosOrdem() {
-        montaStringPosOrdem(raiz);
-        System.out.println(formataStringOrder());
+    public PrimitiveIterator.OfInt iteradorPosOrdem() {
+        return new IteradorPosOrdem(raiz);
     }
 
     /**
-     * Imprime os nós da árvore em ordem
+     * Retorna um iterador dos valores em ordem crescente entre os valores
+     * informados, inclusive. A árvore não deve ser alterada durante a iteração.
      *
-     * @param no Nó
+     * @param inicio Início do intervalo
+     * @param fim Fim do intervalo
+     * @return PrimitiveIterator.OfInt
      */
-    private void montaStringPosOrdem(No no) {
-        if (no != null) {
-            montaStringPosOrdem(no.getNoEsquerda());
-            montaStringPosOrdem(no.getNoDireita());
-            addNoToOrderBuilder(no);
-        }
+    public PrimitiveIterator.OfInt iteradorIntervalo(int inicio, int fim) {
+        return new IteradorEmOrdem(ceiling(inicio), fim);
     }
 
     /**
-     * Adiciona um nó ao builder responsável por construir a string de ordem de
-     * percurso
+     * Retorna um spliterator dos valores em ordem crescente, que se divide nas
+     * subárvores da árvore
      *
-     * @param no Nó
+     * @return Spliterator.OfInt
      */
-    private void addNoToOrderBuilder(No no) {
-        orderBuilder.append(String.format(PATTERN_ORDER_STRING, no));
+    public Spliterator.OfInt spliterator() {
+        return new EspliteradorEmOrdem(null, raiz);
     }
 
     /**
-     * Formata a string de saída das ordens de percurso
+     * Retorna um stream dos valores em ordem crescente. O stream pode ser
+     * paralelizado com {@link IntStream#parallel()}, sendo dividido nas
+     * subárvores da árvore. A árvore não deve ser alterada durante o consumo.
      *
-     * @return
+     * @return IntStream
      */
-    private String formataStringOrder() {
-        // Cria uma string removendo os espaços no final e substituindo os espaços
-        // entre os caracteres por ", "
-        String orderResultado = orderBuilder.toString().replaceFirst("\\s++$", "")
-                .replaceAll(" ", ", ");
-        // Limpa o builder
-        orderBuilder.delete(0, orderBuilder.toString().length());
-        return orderResultado;
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
     }
 
     /**
-     * Imprime a árvore
+     * Insere um valor na árvore em uma única descida, sem recursão, seguida do
+     * rebalanceamento no caminho de volta até a altura parar de mudar
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi inserido ({@code false} se já
+     * existia)
      */
-    public void printArvore() {
-        int alturaArvore = NoUtils.getAlturaNo(raiz) + 1;
-        for (int i = 1; i <= alturaArvore; i++) {
-            printNivel(raiz, i);
-            System.out.println();
+    public boolean inserir(int valor) {
+        if (metricas != null) {
+            long inicio = System.nanoTime();
+            boolean inserido = insereValor(valor);
+            metricas.registraInsercao(System.nanoTime() - inicio);
+            return inserido;
         }
+        return insereValor(valor);
     }
 
     /**
-     * Impríme os níveis da árvore
+     * Insere um valor na árvore, caso ainda não exista
      *
-     * @param no Nó
-     * @param nivel Nível
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi inserido
      */
-    private void printNivel(No no, int nivel) {
-        // Se o nó for nulo, interrompe a execução
-        if (no == null) {
-            return;
+    private boolean insereValor(int valor) {
+        No noPai = raiz == null ? null : localizaPosicao(raiz, valor);
+        if (noPai != null && noPai.getValor() == valor) {
+            if (!noPai.isRemovido()) {
+                return false;
+            }
+            restauraNo(noPai);
+            return true;
         }
-        // Imprime os níveis da árvore
-        if (nivel == 1) {
-            System.out.print(String.format("|%s| ", no));
-        } else if (nivel > 1) {
-            printNivel(no.getNoEsquerda(), nivel - 1);
-            printNivel(no.getNoDireita(), nivel - 1);
+        vinculaNovo(noPai, valor);
+        return true;
+    }
+
+    /**
+     * Desce a partir do nó informado até o nó que possui o valor ou, caso ele
+     * não exista, até o nó abaixo do qual ele seria inserido
+     *
+     * @param inicio Nó inicial, cuja subárvore deve abranger o valor
+     * @param valor Valor do nó
+     * @return No
+     */
+    No localizaPosicao(No inicio, int valor) {
+        No no = inicio;
+        while (true) {
+            int valorAtual = no.getValor();
+            if (valorAtual == valor) {
+                return no;
+            }
+            No proximo = valor < valorAtual ? no.getNoEsquerda() : no.getNoDireita();
+            if (proximo == null) {
+                return no;
+            }
+            no = proximo;
+        }
+    }
+
+    /**
+     * Vincula um novo nó abaixo do pai informado e ajusta o balanceamento a
+     * partir dele
+     *
+     * @param noPai Nó pai obtido por {@link #localizaPosicao(No, int)} ou
+     * {@code null} se a árvore está vazia
+     * @param valor Valor do nó
+     * @return No inserido
+     */
+    No vinculaNovo(No noPai, int valor) {
+        No noInserido = new No(valor, noPai);
+        if (noPai == null) {
+            raiz = noInserido;
+            menorNo = noInserido;
+            maiorNo = noInserido;
+            return noInserido;
+        }
+        if (valor < noPai.getValor()) {
+            noPai.setNoEsquerda(noInserido);
+            if (noPai == menorNo) {
+                menorNo = noInserido;
+            }
+        } else {
+            noPai.setNoDireita(noInserido);
+            if (noPai == maiorNo) {
+                maiorNo = noInserido;
+            }
+        }
+        ajustaBalanceamento(noPai);
+        return noInserido;
+    }
+
+    /**
+     * Remove um valor da árvore em uma única descida, sem recursão. O nó é
+     * desvinculado da árvore; um nó com dois filhos é substituído pelo seu
+     * antecessor, que é religado na sua posição. Com a exclusão lógica
+     * habilitada, o nó apenas é marcado como removido.
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi removido ({@code false} se não
+     * existia)
+     */
+    public boolean excluir(int valor) {
+        if (metricas != null) {
+            long inicio = System.nanoTime();
+            boolean excluido = excluiValor(valor);
+            metricas.registraExclusao(System.nanoTime() - inicio);
+            return excluido;
+        }
+        return excluiValor(valor);
+    }
+
+    /**
+     * Exclui um valor da árvore, caso exista
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi removido
+     */
+    private boolean excluiValor(int valor) {
+        No noExcluir = localiza(valor);
+        if (noExcluir == null || noExcluir.isRemovido()) {
+            return false;
+        }
+        if (exclusaoLogica) {
+            marcaRemovido(noExcluir);
+        } else {
+            removeNo(noExcluir);
+        }
+        return true;
+    }
+
+    /**
+     * Marca um nó como removido sem alterar a estrutura da árvore, atualizando
+     * apenas as quantidades dos ancestrais. Caso a proporção de nós removidos
+     * ultrapasse o limite, executa uma fatia da compactação.
+     *
+     * @param no Nó válido pertencente à árvore
+     */
+    void marcaRemovido(No no) {
+        no.setRemovido(true);
+        atualizaTamanhos(no);
+        if (isCompactacaoNecessaria(proporcaoCompactacao)) {
+            compactaIncremental(NOS_FATIA_COMPACTACAO);
+        }
+    }
+
+    /**
+     * Torna válido novamente um nó removido logicamente
+     *
+     * @param no Nó removido pertencente à árvore
+     */
+    void restauraNo(No no) {
+        no.setRemovido(false);
+        atualizaTamanhos(no);
+    }
+
+    /**
+     * Retira um nó da árvore e ajusta o balanceamento
+     *
+     * @param no Nó pertencente à árvore
+     */
+    void removeNo(No no) {
+        // Os extremos possuem no máximo um filho, então o vizinho em ordem é
+        // obtido em O(1) e continua na árvore após a remoção
+        if (no == menorNo) {
+            menorNo = NoUtils.getSucessor(no);
+        }
+        if (no == maiorNo) {
+            maiorNo = NoUtils.getAntecessor(no);
+        }
+        ajustaBalanceamento(desvincula(no));
+        versao++;
+    }
+
+    /**
+     * Desvincula um nó da árvore, sem rebalancear
+     *
+     * @param no Nó
+     * @return Nó mais baixo cuja subárvore perdeu um nó, a partir do qual o
+     * balanceamento deve ser ajustado
+     */
+    private No desvincula(No no) {
+        No noEsquerda = no.getNoEsquerda();
+        No noDireita = no.getNoDireita();
+        No inicioAjuste;
+        if (noEsquerda == null || noDireita == null) {
+            // Com no máximo um filho, o filho assume a posição do nó
+            inicioAjuste = no.getNoPai();
+            substituiFilho(inicioAjuste, no, noEsquerda != null ? noEsquerda : noDireita);
+        } else {
+            // Com dois filhos, o antecessor (maior nó da esquerda) assume a posição
+            No antecessor = noEsquerda;
+            while (antecessor.getNoDireita() != null) {
+                antecessor = antecessor.getNoDireita();
+            }
+            if (antecessor == noEsquerda) {
+                inicioAjuste = antecessor;
+            } else {
+                // Retira o antecessor da sua posição, subindo o seu filho esquerdo
+                inicioAjuste = antecessor.getNoPai();
+                No filhoAntecessor = antecessor.getNoEsquerda();
+                inicioAjuste.setNoDireita(filhoAntecessor);
+                if (filhoAntecessor != null) {
+                    filhoAntecessor.setNoPai(inicioAjuste);
+                }
+                antecessor.setNoEsquerda(noEsquerda);
+                noEsquerda.setNoPai(antecessor);
+            }
+            antecessor.setNoDireita(noDireita);
+            noDireita.setNoPai(antecessor);
+            // O antecessor herda os atributos do nó, recalculados no ajuste
+            antecessor.copiaAtributos(no);
+            substituiFilho(no.getNoPai(), no, antecessor);
+        }
+        no.setNoPai(null);
+        no.setNoEsquerda(null);
+        no.setNoDireita(null);
+        return inicioAjuste;
+    }
+
+    /**
+     * Habilita a exclusão lógica: as exclusões apenas marcam o nó como
+     * removido, em O(log n) e sem rotações, e as buscas e os iteradores passam
+     * a ignorá-lo. Quando a proporção de nós removidos ultrapassa o limite
+     * informado, cada exclusão executa uma fatia de
+     * {@link #compactaIncremental(int)}, que retira os nós da árvore. Com
+     * proporção 1 a compactação nunca é disparada pelas exclusões, cabendo ao
+     * chamador executá-la.
+     *
+     * @param proporcaoCompactacao Proporção de nós removidos, entre 0
+     * (exclusivo) e 1, a partir da qual a compactação é disparada
+     * @throws IllegalArgumentException Se a proporção for inválida
+     */
+    public void habilitaExclusaoLogica(double proporcaoCompactacao) {
+        validaProporcao(proporcaoCompactacao);
+        this.exclusaoLogica = true;
+        this.proporcaoCompactacao = proporcaoCompactacao;
+    }
+
+    /**
+     * Desabilita a exclusão lógica, compactando a árvore
+     */
+    public void desabilitaExclusaoLogica() {
+        exclusaoLogica = false;
+        compacta();
+    }
+
+    /**
+     * Retorna se a exclusão lógica está habilitada
+     *
+     * @return Boolean
+     */
+    public boolean isExclusaoLogica() {
+        return exclusaoLogica;
+    }
+
+    /**
+     * Verifica se a proporção de compactação está entre 0 (exclusivo) e 1
+     *
+     * @param proporcao Proporção de nós removidos
+     * @throws IllegalArgumentException Se a proporção for inválida
+     */
+    static void validaProporcao(double proporcao) {
+        if (!(proporcao > 0 && proporcao <= 1)) {
+            throw new IllegalArgumentException(String.format(
+                    "A proporção de compactação deve estar entre 0 e 1: %s", proporcao));
+        }
+    }
+
+    /**
+     * Retorna se a proporção de nós removidos logicamente ultrapassa a
+     * informada
+     *
+     * @param proporcao Proporção de nós removidos
+     * @return Boolean
+     */
+    boolean isCompactacaoNecessaria(double proporcao) {
+        int removidos = getQuantidadeRemovidos();
+        return removidos > proporcao * ((double) removidos + getTamanho());
+    }
+
+    /**
+     * Retira da árvore todos os nós removidos logicamente, reconstruindo-a
+     * balanceada a partir dos valores válidos em tempo linear
+     */
+    public void compacta() {
+        if (getQuantidadeRemovidos() == 0) {
+            return;
+        }
+        int[] valores = valoresValidos(raiz);
+        raiz = constroi(valores, 0, valores.length - 1, null);
+        descartaExtremos();
+        versao++;
+    }
+
+    /**
+     * Executa uma fatia da compactação, limitada à quantidade de nós
+     * informada. Desce pelos filhos com nós removidos até uma subárvore que
+     * caiba no limite, reconstrói essa subárvore balanceada apenas com os
+     * valores válidos e a junta de volta a cada ancestral com
+     * {@link JuncaoAvl}, que corrige o balanceamento em O(log n). Se antes
+     * disso a descida encontrar um nó removido cuja subárvore excede o limite,
+     * apenas esse nó é retirado da árvore.
+     *
+     * @param limiteNos Quantidade máxima de nós da subárvore reconstruída
+     * @return Quantidade de nós removidos retirados da árvore, zero se não
+     * havia nenhum
+     * @throws IllegalArgumentException Se o limite não for positivo
+     */
+    public int compactaIncremental(int limiteNos) {
+        if (limiteNos <= 0) {
+            throw new IllegalArgumentException("O limite de nós deve ser positivo");
+        }
+        if (getQuantidadeRemovidos() == 0) {
+            return 0;
+        }
+        No no = raiz;
+        while (no.getTamanho() + no.getRemovidos() > limiteNos) {
+            if (no.isRemovido()) {
+                removeNo(no);
+                return 1;
+            }
+            // Segue pelo filho com mais nós removidos
+            No esquerda = no.getNoEsquerda();
+            No direita = no.getNoDireita();
+            no = NoUtils.getRemovidosNo(esquerda) >= NoUtils.getRemovidosNo(direita) ? esquerda : direita;
+        }
+        int retirados = no.getRemovidos();
+        int[] valores = valoresValidos(no);
+        substituiSubarvore(no, constroi(valores, 0, valores.length - 1, null));
+        descartaExtremos();
+        versao++;
+        return retirados;
+    }
+
+    /**
+     * Substitui uma subárvore por outra com os mesmos valores válidos,
+     * juntando a nova subárvore a cada ancestral até a raíz. A nova subárvore
+     * pode ser mais baixa que a original, então os ancestrais são
+     * rebalanceados pela junção, que tolera qualquer diferença de altura.
+     *
+     * @param antiga Raíz da subárvore substituída
+     * @param nova Raíz da nova subárvore, sem pai (pode ser nula)
+     */
+    private void substituiSubarvore(No antiga, No nova) {
+        No noPai = antiga.getNoPai();
+        boolean esquerda = noPai != null && noPai.getNoEsquerda() == antiga;
+        No subarvore = nova;
+        while (noPai != null) {
+            // A junção desvincula o pai, então o próximo ancestral é lido antes
+            No proximoPai = noPai.getNoPai();
+            boolean proximaEsquerda = proximoPai != null && proximoPai.getNoEsquerda() == noPai;
+            subarvore = esquerda ? JuncaoAvl.juntar(subarvore, noPai, noPai.getNoDireita())
+                    : JuncaoAvl.juntar(noPai.getNoEsquerda(), noPai, subarvore);
+            noPai = proximoPai;
+            esquerda = proximaEsquerda;
+        }
+        raiz = subarvore;
+    }
+
+    /**
+     * Retorna os valores válidos da subárvore em ordem crescente
+     *
+     * @param no Raíz da subárvore (pode ser nula)
+     * @return int[]
+     */
+    private static int[] valoresValidos(No no) {
+        int[] valores = new int[NoUtils.getTamanhoNo(no)];
+        coletaValidos(no, valores, 0);
+        return valores;
+    }
+
+    /**
+     * Copia os valores válidos da subárvore em ordem crescente
+     *
+     * @param no Raíz da subárvore (pode ser nula)
+     * @param valores Destino dos valores
+     * @param posicao Posição do primeiro valor no destino
+     * @return Posição seguinte ao último valor copiado
+     */
+    private static int coletaValidos(No no, int[] valores, int posicao) {
+        if (no == null) {
+            return posicao;
+        }
+        posicao = coletaValidos(no.getNoEsquerda(), valores, posicao);
+        if (!no.isRemovido()) {
+            valores[posicao++] = no.getValor();
+        }
+        return coletaValidos(no.getNoDireita(), valores, posicao);
+    }
+
+    /**
+     * Divide a árvore em duas pelo valor informado, em O(log n). Os nós são
+     * reaproveitados pelas árvores resultantes, inclusive os removidos
+     * logicamente, e esta árvore fica vazia.
+     *
+     * @param valor Valor de separação
+     * @return Vetor com a árvore dos valores menores que {@code valor} na
+     * posição 0 e a dos valores maiores ou iguais na posição 1
+     */
+    public ArvoreAvl[] split(int valor) {
+        No[] partes = JuncaoAvl.separa(raiz, valor);
+        raiz = null;
+        descartaExtremos();
+        versao++;
+        ArvoreAvl menores = new ArvoreAvl();
+        menores.raiz = partes[0];
+        ArvoreAvl maiores = new ArvoreAvl();
+        maiores.raiz = partes[1];
+        return new ArvoreAvl[]{menores, maiores};
+    }
+
+    /**
+     * Junta duas árvores em O(log n), desde que todos os valores da esquerda
+     * sejam menores que os da direita. Os nós são reaproveitados pela árvore
+     * resultante e as duas árvores informadas ficam vazias.
+     *
+     * @param esquerda Árvore com os valores menores
+     * @param direita Árvore com os valores maiores
+     * @return ArvoreAvl
+     * @throws IllegalArgumentException Se os intervalos de valores se
+     * sobrepõem ou as árvores são a mesma instância
+     */
+    public static ArvoreAvl join(ArvoreAvl esquerda, ArvoreAvl direita) {
+        if (esquerda == direita) {
+            throw new IllegalArgumentException("As árvores devem ser instâncias diferentes");
+        }
+        // A ordem é verificada entre todos os nós, inclusive os removidos
+        // logicamente, que são compactados se forem a causa da sobreposição
+        if (isSobrepostas(esquerda, direita)
+                && esquerda.getQuantidadeRemovidos() + direita.getQuantidadeRemovidos() > 0) {
+            esquerda.compacta();
+            direita.compacta();
+        }
+        if (isSobrepostas(esquerda, direita)) {
+            throw new IllegalArgumentException(String.format(
+                    "O maior valor da esquerda (%s) deve ser menor que o menor da direita (%s)",
+                    esquerda.max().getValor(), direita.min().getValor()));
+        }
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.raiz = JuncaoAvl.juntar(esquerda.raiz, direita.raiz);
+        esquerda.raiz = null;
+        esquerda.descartaExtremos();
+        esquerda.versao++;
+        direita.raiz = null;
+        direita.descartaExtremos();
+        direita.versao++;
+        return arvore;
+    }
+
+    /**
+     * Retorna se o maior nó da árvore da esquerda não é menor que o menor nó
+     * da árvore da direita
+     *
+     * @param esquerda Árvore com os valores menores
+     * @param direita Árvore com os valores maiores
+     * @return Boolean
+     */
+    private static boolean isSobrepostas(ArvoreAvl esquerda, ArvoreAvl direita) {
+        return esquerda.raiz != null && direita.raiz != null
+                && NoUtils.getMaiorNo(esquerda.raiz).getValor() >= NoUtils.getMenorNo(direita.raiz).getValor();
+    }
+
+    /**
+     * Retorna um cursor que resolve as operações a partir do último nó
+     * acessado, mais eficiente quando as chaves são próximas entre si
+     *
+     * @return CursorAvl
+     */
+    public CursorAvl cursor() {
+        return new CursorAvl(this);
+    }
+
+    /**
+     * Compila os valores atuais em um índice imutável e contíguo, mais
+     * eficiente para buscas do que a árvore. O índice não acompanha as
+     * alterações posteriores da árvore.
+     *
+     * @return IndiceCongelado
+     */
+    public IndiceCongelado congelar() {
+        return new IndiceCongelado(iteradorEmOrdem(), getTamanho());
+    }
+
+    /**
+     * Retorna uma cópia da árvore, com o mesmo formato
+     *
+     * @return ArvoreAvl
+     */
+    public ArvoreAvl copia() {
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.raiz = copiaValidos();
+        return arvore;
+    }
+
+    /**
+     * Copia os nós válidos da árvore. Sem nós removidos logicamente a cópia
+     * mantém o formato da árvore; caso contrário, é construída balanceada a
+     * partir dos valores válidos.
+     *
+     * @return No raíz da cópia, sem pai
+     */
+    private No copiaValidos() {
+        if (getQuantidadeRemovidos() == 0) {
+            return AlgebraAvl.copia(raiz);
+        }
+        int[] valores = valoresValidos(raiz);
+        return constroi(valores, 0, valores.length - 1, null);
+    }
+
+    /**
+     * Retorna uma nova árvore com os valores presentes nesta árvore ou na
+     * outra. As árvores são copiadas e combinadas em paralelo por divisão e
+     * conquista, sem serem alteradas.
+     *
+     * @param outra Outra árvore
+     * @return ArvoreAvl
+     */
+    public ArvoreAvl uniao(ArvoreAvl outra) {
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.raiz = AlgebraAvl.uniao(copiaValidos(), outra.copiaValidos());
+        return arvore;
+    }
+
+    /**
+     * Retorna uma nova árvore com os valores presentes nesta árvore e na
+     * outra, sem alterá-las
+     *
+     * @param outra Outra árvore
+     * @return ArvoreAvl
+     * @see #uniao(ArvoreAvl)
+     */
+    public ArvoreAvl intersecao(ArvoreAvl outra) {
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.raiz = AlgebraAvl.intersecao(copiaValidos(), outra.copiaValidos());
+        return arvore;
+    }
+
+    /**
+     * Retorna uma nova árvore com os valores desta árvore ausentes da outra,
+     * sem alterá-las
+     *
+     * @param outra Outra árvore
+     * @return ArvoreAvl
+     * @see #uniao(ArvoreAvl)
+     */
+    public ArvoreAvl diferenca(ArvoreAvl outra) {
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.raiz = AlgebraAvl.diferenca(copiaValidos(), outra.copiaValidos());
+        return arvore;
+    }
+
+    /**
+     * Insere um lote de valores em uma única passada pela árvore. Os valores
+     * são ordenados e os repetidos descartados; a descida é compartilhada entre
+     * valores vizinhos e cada nó afetado é rebalanceado uma única vez.
+     *
+     * @param valores Valores a serem inseridos
+     * @return Vetor indicando, para cada posição de {@code valores}, se o valor
+     * foi inserido (repetições do mesmo valor retornam {@code false})
+     */
+    public boolean[] inserirTodos(int[] valores) {
+        int[] ordenados = ordenaSemRepeticao(valores);
+        boolean[] inseridos = new boolean[ordenados.length];
+        raiz = inserirTodos(raiz, ordenados, 0, ordenados.length, inseridos);
+        descartaExtremos();
+        return mapeiaResultado(valores, ordenados, inseridos);
+    }
+
+    /**
+     * Insere os valores ordenados entre as posições informadas na subárvore
+     *
+     * @param no Raíz da subárvore
+     * @param valores Valores ordenados e sem repetição
+     * @param inicio Posição inicial (inclusiva)
+     * @param fim Posição final (exclusiva)
+     * @param inseridos Indicadores de inserção de cada valor
+     * @return No raíz da subárvore resultante
+     */
+    private No inserirTodos(No no, int[] valores, int inicio, int fim, boolean[] inseridos) {
+        if (inicio >= fim) {
+            return no;
+        }
+        // Os valores que chegaram a uma posição vazia formam uma nova subárvore
+        if (no == null) {
+            Arrays.fill(inseridos, inicio, fim, true);
+            return constroi(valores, inicio, fim - 1, null);
+        }
+        // Divide o lote pelo valor do nó e insere cada parte no filho
+        int posicao = Arrays.binarySearch(valores, inicio, fim, no.getValor());
+        int fimEsquerda = posicao >= 0 ? posicao : -posicao - 1;
+        int inicioDireita = posicao >= 0 ? posicao + 1 : fimEsquerda;
+        // Um valor removido logicamente volta a ser válido
+        if (posicao >= 0 && no.isRemovido()) {
+            no.setRemovido(false);
+            inseridos[posicao] = true;
+        }
+        No esquerda = inserirTodos(no.getNoEsquerda(), valores, inicio, fimEsquerda, inseridos);
+        No direita = inserirTodos(no.getNoDireita(), valores, inicioDireita, fim, inseridos);
+        return JuncaoAvl.juntar(esquerda, no, direita);
+    }
+
+    /**
+     * Exclui um lote de valores em uma única passada pela árvore. Os valores
+     * são ordenados e os repetidos descartados; a descida é compartilhada entre
+     * valores vizinhos e cada nó afetado é rebalanceado uma única vez. Os nós
+     * são retirados da árvore mesmo com a exclusão lógica habilitada, pois a
+     * passada já reestrutura a árvore.
+     *
+     * @param valores Valores a serem excluídos
+     * @return Vetor indicando, para cada posição de {@code valores}, se o valor
+     * foi excluído (repetições do mesmo valor retornam {@code false})
+     */
+    public boolean[] excluirTodos(int[] valores) {
+        int[] ordenados = ordenaSemRepeticao(valores);
+        boolean[] excluidos = new boolean[ordenados.length];
+        raiz = excluirTodos(raiz, ordenados, 0, ordenados.length, excluidos);
+        descartaExtremos();
+        versao++;
+        return mapeiaResultado(valores, ordenados, excluidos);
+    }
+
+    /**
+     * Exclui os valores ordenados entre as posições informadas da subárvore
+     *
+     * @param no Raíz da subárvore
+     * @param valores Valores ordenados e sem repetição
+     * @param inicio Posição inicial (inclusiva)
+     * @param fim Posição final (exclusiva)
+     * @param excluidos Indicadores de exclusão de cada valor
+     * @return No raíz da subárvore resultante
+     */
+    private No excluirTodos(No no, int[] valores, int inicio, int fim, boolean[] excluidos) {
+        if (no == null || inicio >= fim) {
+            return no;
+        }
+        // Divide o lote pelo valor do nó e exclui cada parte do filho
+        int posicao = Arrays.binarySearch(valores, inicio, fim, no.getValor());
+        int fimEsquerda = posicao >= 0 ? posicao : -posicao - 1;
+        int inicioDireita = posicao >= 0 ? posicao + 1 : fimEsquerda;
+        No esquerda = excluirTodos(no.getNoEsquerda(), valores, inicio, fimEsquerda, excluidos);
+        No direita = excluirTodos(no.getNoDireita(), valores, inicioDireita, fim, excluidos);
+        // Se o valor do nó está no lote, junta os filhos sem ele
+        if (posicao >= 0) {
+            excluidos[posicao] = !no.isRemovido();
+            return JuncaoAvl.juntar(esquerda, direita);
+        }
+        return JuncaoAvl.juntar(esquerda, no, direita);
+    }
+
+    /**
+     * Retorna uma cópia ordenada dos valores, sem repetições
+     *
+     * @param valores Valores
+     * @return int[]
+     */
+    private static int[] ordenaSemRepeticao(int[] valores) {
+        int[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        int quantidade = 0;
+        for (int i = 0; i < ordenados.length; i++) {
+            if (i == 0 || ordenados[i] != ordenados[i - 1]) {
+                ordenados[quantidade++] = ordenados[i];
+            }
+        }
+        return Arrays.copyOf(ordenados, quantidade);
+    }
+
+    /**
+     * Mapeia os indicadores dos valores ordenados para as posições originais.
+     * Apenas a primeira ocorrência de cada valor recebe o indicador.
+     *
+     * @param valores Valores na ordem original
+     * @param ordenados Valores ordenados e sem repetição
+     * @param indicadores Indicadores de cada valor ordenado
+     * @return boolean[]
+     */
+    private static boolean[] mapeiaResultado(int[] valores, int[] ordenados, boolean[] indicadores) {
+        boolean[] resultado = new boolean[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            int posicao = Arrays.binarySearch(ordenados, valores[i]);
+            resultado[i] = indicadores[posicao];
+            indicadores[posicao] = false;
+        }
+        return resultado;
+    }
+
+    /**
+     * Substitui um filho do nó pai, atualizando a raíz caso o nó não possua pai
+     *
+     * @param noPai Nó pai (nulo caso o filho seja a raíz)
+     * @param noAntigo Filho atual
+     * @param noNovo Novo filho (pode ser nulo)
+     */
+    private void substituiFilho(No noPai, No noAntigo, No noNovo) {
+        if (noNovo != null) {
+            noNovo.setNoPai(noPai);
+        }
+        // Se não possui pai, o novo nó passa a ser a raíz
+        if (noPai == null) {
+            this.raiz = noNovo;
+        } else if (noPai.getNoEsquerda() == noAntigo) {
+            noPai.setNoEsquerda(noNovo);
+        } else {
+            noPai.setNoDireita(noNovo);
+        }
+    }
+
+    /**
+     * Ajusta o balanceamento da árvore subindo a partir do nó informado. O
+     * rebalanceamento é interrompido assim que a altura de uma subárvore não
+     * muda, pois a partir dali os ancestrais já estão balanceados e com a
+     * altura correta; resta apenas atualizar o tamanho das subárvores.
+     *
+     * @param no Nó a ser ajustado
+     */
+    private void ajustaBalanceamento(No no) {
+        while (no != null) {
+            int alturaAnterior = no.getAltura();
+            No noPai = no.getNoPai();
+            // Balanceia o nó e verifica se a altura da subárvore mudou
+            if (balanceia(no).getAltura() == alturaAnterior) {
+                atualizaTamanhos(noPai);
+                return;
+            }
+            no = noPai;
+        }
+    }
+
+    /**
+     * Atualiza a quantidade de nós das subárvores subindo até a raíz
+     *
+     * @param no Nó inicial
+     */
+    private void atualizaTamanhos(No no) {
+        while (no != null) {
+            no.calculaTamanho();
+            no = no.getNoPai();
+        }
+    }
+
+    /**
+     * Registra uma rotação nas métricas, caso estejam habilitadas
+     *
+     * @param dupla Indica se a rotação é dupla
+     */
+    private void registraRotacao(boolean dupla) {
+        if (metricas == null) {
+            return;
+        }
+        if (dupla) {
+            metricas.registraRotacaoDupla();
+        } else {
+            metricas.registraRotacaoSimples();
+        }
+    }
+
+    /**
+     * Recalcula os atributos do nó e realiza as rotações necessárias
+     *
+     * @param no Nó a ser balanceado
+     * @return No que passou a ser a raíz da subárvore
+     */
+    private No balanceia(No no) {
+        no.atualizaAtributos();
+        // Calcula o fator de balancemento do nó (-1, 0, 1, ...)
+        int fatorBalanceamento = NoUtils.getFatorbalanceamento(no);
+        // Se o fator de balanceamento for menor que -1, rotaciona a direita
+        if (fatorBalanceamento < -1) {
+            // Realiza rotação simples ou dupla, de acordo com a necessidade
+            if (NoUtils.getAlturaNo(no.getNoEsquerda().getNoEsquerda())
+                    >= NoUtils.getAlturaNo(no.getNoEsquerda().getNoDireita())) {
+                registraRotacao(false);
+                return rotacaoSimplesDireita(no);
+            }
+            registraRotacao(true);
+            return rotacaoDuplaEsquerda(no);
+        } else if (fatorBalanceamento > 1) {
+            // Realiza rotação simples ou dupla, de acordo com a necessidade
+            if (NoUtils.getAlturaNo(no.getNoDireita().getNoDireita())
+                    >= NoUtils.getAlturaNo(no.getNoDireita().getNoEsquerda())) {
+                registraRotacao(false);
+                return rotacaoSimplesEsquerda(no);
+            }
+            registraRotacao(true);
+            return rotacaoDuplaDireita(no);
+        }
+        return no;
+    }
+
+    /**
+     * Realiza a rotação simples a direita
+     *
+     * @param noRotacionado Nó pivo da rotação
+     * @return No que passou a ocupar a posição do nó rotacionado
+     */
+    private No rotacaoSimplesDireita(No noRotacionado) {
+        // Recupera o nó pai, o nó esquerdo e o nó a direita do nó esquerdo
+        No noPai = noRotacionado.getNoPai();
+        No noEsquerdo = noRotacionado.getNoEsquerda();
+        No filhoDireitoDoFilhoEsquerdo = noEsquerdo.getNoDireita();
+        noRotacionado.setNoEsquerda(filhoDireitoDoFilhoEsquerdo);
+        if (filhoDireitoDoFilhoEsquerdo != null) {
+            filhoDireitoDoFilhoEsquerdo.setNoPai(noRotacionado);
+        }
+        noEsquerdo.setNoDireita(noRotacionado);
+        noRotacionado.setNoPai(noEsquerdo);
+        // Coloca o nó esquerdo no lugar do nó rotacionado
+        substituiFilho(noPai, noRotacionado, noEsquerdo);
+        // Ajusta a altura e o tamanho dos nós
+        noRotacionado.atualizaAtributos();
+        noEsquerdo.atualizaAtributos();
+        return noEsquerdo;
+    }
+
+    /**
+     * Realiza a rotação simples a esquerda
+     *
+     * @param noRotacionado Nó pivo da rotação
+     * @return No que passou a ocupar a posição do nó rotacionado
+     */
+    private No rotacaoSimplesEsquerda(No noRotacionado) {
+        // Recupera o nó pai, o nó direito e o nó a esquerda do nó direito
+        No noPai = noRotacionado.getNoPai();
+        No noDireito = noRotacionado.getNoDireita();
+        No filhoEsquerdoDoFilhoDireito = noDireito.getNoEsquerda();
+        noRotacionado.setNoDireita(filhoEsquerdoDoFilhoDireito);
+        if (filhoEsquerdoDoFilhoDireito != null) {
+            filhoEsquerdoDoFilhoDireito.setNoPai(noRotacionado);
+        }
+        noDireito.setNoEsquerda(noRotacionado);
+        noRotacionado.setNoPai(noDireito);
+        // Coloca o nó direito no lugar do nó rotacionado
+        substituiFilho(noPai, noRotacionado, noDireito);
+        // Ajusta a altura e o tamanho dos nós
+        noRotacionado.atualizaAtributos();
+        noDireito.atualizaAtributos();
+        return noDireito;
+    }
+
+    /**
+     * Realiza a rotação dupla a esquerda
+     *
+     * @param no Nó
+     * @return No que passou a ocupar a posição do nó rotacionado
+     */
+    private No rotacaoDuplaEsquerda(No no) {
+        rotacaoSimplesEsquerda(no.getNoEsquerda());
+        return rotacaoSimplesDireita(no);
+    }
+
+    /**
+     * Realiza a rotação dupla a direita
+     *
+     * @param no Nó
+     * @return No que passou a ocupar a posição do nó rotacionado
+     */
+    private No rotacaoDuplaDireita(No no) {
+        rotacaoSimplesDireita(no.getNoDireita());
+        return rotacaoSimplesEsquerda(no);
+    }
+
+    /**
+     * Imprime os nós da árvore em pré-ordem
+     */
+    public void printPreOrdem() {
+        try {
+            new RenderizadorAvl(System.out).renderizaPreOrdem(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imprime os nós da árvore em ordem
+     */
+    public void printEmOrdem() {
+        try {
+            new RenderizadorAvl(System.out).renderizaEmOrdem(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imprime os nós da árvore em pós-ordem
+     */
+    public void printPosOrdem() {
+        try {
+            new RenderizadorAvl(System.out).renderizaPosOrdem(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imprime a árvore, um nível por linha
+     */
+    public void printArvore() {
+        try {
+            new RenderizadorAvl(System.out).renderizaNiveis(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
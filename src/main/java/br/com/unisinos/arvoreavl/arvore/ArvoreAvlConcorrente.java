@@ -0,0 +1,486 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import br.com.unisinos.arvoreavl.metricas.EstatisticasAvl;
+import br.com.unisinos.arvoreavl.metricas.MetricasAvl;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Árvore AVL segura para acesso concorrente. As buscas são feitas sem
+ * bloqueio através de leituras otimistas do {@link StampedLock}, sendo
+ * repetidas com o bloqueio de leitura apenas quando uma escrita acontece
+ * durante a busca. As escritas são serializadas pelo bloqueio de escrita.
+ * <p>
+ * Com a exclusão lógica, a compactação pode ser feita por uma thread em
+ * segundo plano, em fatias que liberam o bloqueio de escrita entre si para
+ * não bloquear as demais operações durante toda a compactação.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class ArvoreAvlConcorrente {
+
+    /**
+     * Quantidade máxima de nós visitados por uma busca otimista. Uma árvore AVL
+     * com 2^31 nós possui altura menor que 46, então um caminho maior indica
+     * que a busca observou uma rotação em andamento.
+     */
+    private static final int LIMITE_PASSOS_BUSCA = 64;
+    /** Resultado de busca otimista interrompida */
+    private static final int BUSCA_INCONCLUSIVA = -1;
+    /** Resultado de busca que não encontrou o valor */
+    private static final int BUSCA_NAO_ENCONTRADO = 0;
+    /** Resultado de busca que encontrou o valor */
+    private static final int BUSCA_ENCONTRADO = 1;
+    /**
+     * Quantidade máxima de nós reconstruídos por fatia da compactação em
+     * segundo plano, que define o tempo máximo de cada bloqueio de escrita
+     */
+    private static final int NOS_FATIA_COMPACTACAO = 1024;
+
+    /** Árvore protegida */
+    private final ArvoreAvl arvore;
+    /** Bloqueio de acesso à árvore */
+    private final StampedLock lock;
+    /** Executor da compactação em segundo plano, {@code null} se desabilitada */
+    private ScheduledExecutorService compactador;
+
+    /**
+     * Método construtor
+     */
+    public ArvoreAvlConcorrente() {
+        this(new ArvoreAvl());
+    }
+
+    /**
+     * Método construtor. A árvore informada não deve mais ser acessada
+     * diretamente.
+     *
+     * @param arvore Árvore protegida
+     */
+    public ArvoreAvlConcorrente(ArvoreAvl arvore) {
+        this.arvore = arvore;
+        this.lock = new StampedLock();
+    }
+
+    /**
+     * Retorna se a árvore possui o valor
+     *
+     * @param valor Valor do nó
+     * @return Boolean
+     */
+    public boolean contem(int valor) {
+        // Tenta a busca sem bloqueio, validando que nenhuma escrita ocorreu
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int resultado = buscaOtimista(valor);
+            if (resultado != BUSCA_INCONCLUSIVA && lock.validate(stamp)) {
+                return resultado == BUSCA_ENCONTRADO;
+            }
+        }
+        // Repete a busca com o bloqueio de leitura
+        stamp = lock.readLock();
+        try {
+            return arvore.contem(valor);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Retorna se a árvore está vazia
+     *
+     * @return Boolean
+     */
+    public boolean isArvoreVazia() {
+        long stamp = lock.tryOptimisticRead();
+        boolean vazia = arvore.isArvoreVazia();
+        if (lock.validate(stamp)) {
+            return vazia;
+        }
+        stamp = lock.readLock();
+        try {
+            return arvore.isArvoreVazia();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de valores da árvore
+     *
+     * @return int
+     */
+    public int getTamanho() {
+        long stamp = lock.tryOptimisticRead();
+        int tamanho = arvore.getTamanho();
+        if (lock.validate(stamp)) {
+            return tamanho;
+        }
+        stamp = lock.readLock();
+        try {
+            return arvore.getTamanho();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de nós removidos logicamente que ainda ocupam a
+     * árvore
+     *
+     * @return int
+     */
+    public int getQuantidadeRemovidos() {
+        long stamp = lock.tryOptimisticRead();
+        int removidos = arvore.getQuantidadeRemovidos();
+        if (lock.validate(stamp)) {
+            return removidos;
+        }
+        stamp = lock.readLock();
+        try {
+            return arvore.getQuantidadeRemovidos();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Habilita a exclusão lógica, com a compactação executada pelas próprias
+     * exclusões sob o bloqueio de escrita
+     *
+     * @param proporcaoCompactacao Proporção de nós removidos que dispara a
+     * compactação
+     * @see ArvoreAvl#habilitaExclusaoLogica(double)
+     */
+    public void habilitaExclusaoLogica(double proporcaoCompactacao) {
+        long stamp = lock.writeLock();
+        try {
+            arvore.habilitaExclusaoLogica(proporcaoCompactacao);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Habilita a exclusão lógica com a compactação em segundo plano. A cada
+     * intervalo, se a proporção de nós removidos ultrapassa o limite, uma
+     * thread retira todos os nós removidos em fatias de
+     * {@link ArvoreAvl#compactaIncremental(int)}, cada uma sob um bloqueio de
+     * escrita próprio. As exclusões não executam compactação.
+     *
+     * @param proporcaoCompactacao Proporção de nós removidos que dispara a
+     * compactação
+     * @param intervalo Intervalo entre as verificações
+     * @param unidade Unidade do intervalo
+     * @throws IllegalArgumentException Se a proporção ou o intervalo forem
+     * inválidos
+     * @throws IllegalStateException Se a compactação em segundo plano já
+     * estiver habilitada
+     */
+    public synchronized void habilitaCompactacaoEmSegundoPlano(double proporcaoCompactacao,
+            long intervalo, TimeUnit unidade) {
+        ArvoreAvl.validaProporcao(proporcaoCompactacao);
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("O intervalo deve ser positivo");
+        }
+        if (compactador != null) {
+            throw new IllegalStateException("A compactação em segundo plano já está habilitada");
+        }
+        // Proporção 1 impede que as exclusões disparem a compactação
+        habilitaExclusaoLogica(1);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "compactador-avl");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> compactaEmSegundoPlano(executor, proporcaoCompactacao),
+                intervalo, intervalo, unidade);
+        compactador = executor;
+    }
+
+    /**
+     * Desabilita a exclusão lógica e a compactação em segundo plano,
+     * compactando a árvore
+     */
+    public synchronized void desabilitaExclusaoLogica() {
+        // Uma fatia em andamento termina antes do bloqueio de escrita abaixo
+        if (compactador != null) {
+            compactador.shutdown();
+            compactador = null;
+        }
+        long stamp = lock.writeLock();
+        try {
+            arvore.desabilitaExclusaoLogica();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Retira da árvore todos os nós removidos logicamente
+     *
+     * @see ArvoreAvl#compacta()
+     */
+    public void compacta() {
+        long stamp = lock.writeLock();
+        try {
+            arvore.compacta();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Compacta a árvore em fatias caso a proporção de nós removidos ultrapasse
+     * o limite, liberando o bloqueio de escrita entre as fatias
+     *
+     * @param executor Executor da compactação, encerrado ao desabilitá-la
+     * @param proporcao Proporção de nós removidos que dispara a compactação
+     */
+    private void compactaEmSegundoPlano(ScheduledExecutorService executor, double proporcao) {
+        long stamp = lock.readLock();
+        try {
+            if (!arvore.isCompactacaoNecessaria(proporcao)) {
+                return;
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        int retirados = 1;
+        while (retirados > 0 && !executor.isShutdown()) {
+            stamp = lock.writeLock();
+            try {
+                retirados = arvore.compactaIncremental(NOS_FATIA_COMPACTACAO);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Habilita as métricas da árvore. As buscas otimistas não são registradas,
+     * apenas as repetidas com bloqueio.
+     *
+     * @return MetricasAvl
+     * @see ArvoreAvl#habilitaMetricas()
+     */
+    public MetricasAvl habilitaMetricas() {
+        long stamp = lock.writeLock();
+        try {
+            return arvore.habilitaMetricas();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Retorna um retrato do estado e das métricas da árvore
+     *
+     * @return EstatisticasAvl
+     */
+    public EstatisticasAvl getEstatisticas() {
+        long stamp = lock.readLock();
+        try {
+            return arvore.getEstatisticas();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Publica as estatísticas da árvore através do JMX
+     *
+     * @param nome Nome da árvore
+     * @return Nome JMX registrado
+     * @throws JMException Se o registro falhar
+     */
+    public ObjectName registraJmx(String nome) throws JMException {
+        return MetricasAvl.registraJmx(nome, this::getEstatisticas);
+    }
+
+    /**
+     * Insere um valor na árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi inserido
+     */
+    public boolean inserir(int valor) {
+        long stamp = lock.writeLock();
+        try {
+            return arvore.inserir(valor);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove um valor da árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi removido
+     */
+    public boolean excluir(int valor) {
+        long stamp = lock.writeLock();
+        try {
+            return arvore.excluir(valor);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Insere um lote de valores
+     *
+     * @param valores Valores a serem inseridos
+     * @return Indicadores de inserção de cada valor
+     * @see ArvoreAvl#inserirTodos(int[])
+     */
+    public boolean[] inserirTodos(int[] valores) {
+        long stamp = lock.writeLock();
+        try {
+            return arvore.inserirTodos(valores);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Exclui um lote de valores
+     *
+     * @param valores Valores a serem excluídos
+     * @return Indicadores de exclusão de cada valor
+     * @see ArvoreAvl#excluirTodos(int[])
+     */
+    public boolean[] excluirTodos(int[] valores) {
+        long stamp = lock.writeLock();
+        try {
+            return arvore.excluirTodos(valores);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Imprime os nós da árvore em ordem
+     */
+    public void printEmOrdem() {
+        long stamp = lock.readLock();
+        try {
+            arvore.printEmOrdem();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Imprime os nós da árvore em pré-ordem
+     */
+    public void printPreOrdem() {
+        long stamp = lock.readLock();
+        try {
+            arvore.printPreOrdem();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Imprime os nós da árvore em pós-ordem
+     */
+    public void printPosOrdem() {
+        long stamp = lock.readLock();
+        try {
+            arvore.printPosOrdem();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Imprime a árvore
+     */
+    public void printArvore() {
+        long stamp = lock.readLock();
+        try {
+            arvore.printArvore();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Compila os valores atuais em um índice imutável, que pode ser consultado
+     * por várias threads sem bloqueio
+     *
+     * @return IndiceCongelado
+     * @see ArvoreAvl#congelar()
+     */
+    public IndiceCongelado congelar() {
+        long stamp = lock.readLock();
+        try {
+            return arvore.congelar();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Grava os valores da árvore em um arquivo de snapshot
+     *
+     * @param arquivo Arquivo de destino
+     * @throws IOException Se ocorrer erro de escrita
+     * @see ArvoreAvl#salvar(Path)
+     */
+    public void salvar(Path arquivo) throws IOException {
+        long stamp = lock.readLock();
+        try {
+            arvore.salvar(arquivo);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Verifica os invariantes da árvore
+     *
+     * @throws IllegalStateException Se algum invariante for violado
+     * @see ArvoreAvl#validaEstrutura()
+     */
+    public void validaEstrutura() {
+        long stamp = lock.readLock();
+        try {
+            arvore.validaEstrutura();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Busca um valor a partir da raíz sem bloqueio, desistindo caso o caminho
+     * ultrapasse a altura máxima possível
+     *
+     * @param valor Valor do nó
+     * @return Resultado da busca
+     */
+    private int buscaOtimista(int valor) {
+        No noAtual = arvore.getRaiz();
+        for (int passos = 0; noAtual != null; passos++) {
+            if (passos == LIMITE_PASSOS_BUSCA) {
+                return BUSCA_INCONCLUSIVA;
+            }
+            int valorAtual = noAtual.getValor();
+            if (valorAtual == valor) {
+                return noAtual.isRemovido() ? BUSCA_NAO_ENCONTRADO : BUSCA_ENCONTRADO;
+            }
+            noAtual = valorAtual < valor ? noAtual.getNoDireita() : noAtual.getNoEsquerda();
+        }
+        return BUSCA_NAO_ENCONTRADO;
+    }
+
+}
@@ -0,0 +1,543 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Árvore AVL particionada por intervalos de valores. Cada partição é uma
+ * {@link ArvoreAvl} independente com o seu próprio bloqueio, então escritas
+ * em partições diferentes não disputam o mesmo bloqueio nem o mesmo caminho
+ * de rebalanceamento.
+ * <p>
+ * A topologia (os limites das partições) é imutável e publicada em um campo
+ * volátil. Para reparticionar, a partição é dividida pela mediana com
+ * {@link ArvoreAvl#split(int)} e substituída por duas novas em uma nova
+ * topologia; a partição antiga é marcada como aposentada e as operações que
+ * a encontram repetem a consulta na topologia atual. Com a repartição
+ * adaptativa habilitada, uma partição que recebe mais que o dobro da sua
+ * parcela das escritas é dividida automaticamente.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class ArvoreAvlParticionada {
+
+    /** Quantidade de escritas em uma partição entre as verificações de carga */
+    static final int ESCRITAS_VERIFICACAO = 4096;
+    /** Quantidade mínima de valores para uma partição ser dividida */
+    static final int TAMANHO_MINIMO_DIVISAO = 1024;
+    /** Quantidade máxima de partições */
+    static final int LIMITE_PARTICOES = 4096;
+
+    /** Topologia atual */
+    private volatile Topologia topologia;
+    /** Serializa as alterações de topologia */
+    private final ReentrantLock lockReparticao;
+    /** Quantidade de escritas em todas as partições */
+    private final LongAdder escritas;
+    /** Indica se as partições sobrecarregadas são divididas automaticamente */
+    private volatile boolean reparticaoAdaptativa;
+
+    /**
+     * Método construtor. O intervalo dos inteiros é dividido em partições de
+     * mesmo tamanho.
+     *
+     * @param quantidadeParticoes Quantidade de partições
+     */
+    public ArvoreAvlParticionada(int quantidadeParticoes) {
+        this(limitesUniformes(quantidadeParticoes));
+    }
+
+    /**
+     * Método construtor com os limites informados. Cada limite é o menor valor
+     * de uma partição, e uma partição adicional recebe os valores menores que
+     * o primeiro limite.
+     *
+     * @param limites Limites em ordem estritamente crescente
+     */
+    public ArvoreAvlParticionada(int[] limites) {
+        for (int i = 1; i < limites.length; i++) {
+            if (limites[i] <= limites[i - 1]) {
+                throw new IllegalArgumentException("Os limites devem estar em ordem estritamente crescente");
+            }
+        }
+        int inicio = limites.length > 0 && limites[0] == Integer.MIN_VALUE ? 1 : 0;
+        Particao[] particoes = new Particao[limites.length - inicio + 1];
+        int inferior = Integer.MIN_VALUE;
+        for (int i = 0; i < particoes.length - 1; i++) {
+            int proximo = limites[inicio + i];
+            particoes[i] = new Particao(inferior, proximo - 1, 0);
+            inferior = proximo;
+        }
+        particoes[particoes.length - 1] = new Particao(inferior, Integer.MAX_VALUE, 0);
+        this.topologia = new Topologia(particoes);
+        this.lockReparticao = new ReentrantLock();
+        this.escritas = new LongAdder();
+    }
+
+    /**
+     * Calcula os limites de partições de mesmo tamanho
+     *
+     * @param quantidadeParticoes Quantidade de partições
+     * @return int[]
+     */
+    private static int[] limitesUniformes(int quantidadeParticoes) {
+        if (quantidadeParticoes < 1 || quantidadeParticoes > LIMITE_PARTICOES) {
+            throw new IllegalArgumentException(String.format("Quantidade de partições inválida: %s", quantidadeParticoes));
+        }
+        long largura = (1L << 32) / quantidadeParticoes;
+        int[] limites = new int[quantidadeParticoes - 1];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = (int) (Integer.MIN_VALUE + largura * (i + 1));
+        }
+        return limites;
+    }
+
+    /**
+     * Habilita ou desabilita a divisão automática das partições que recebem
+     * mais que o dobro da sua parcela das escritas
+     *
+     * @param reparticaoAdaptativa Boolean
+     */
+    public void setReparticaoAdaptativa(boolean reparticaoAdaptativa) {
+        this.reparticaoAdaptativa = reparticaoAdaptativa;
+    }
+
+    public boolean isReparticaoAdaptativa() {
+        return reparticaoAdaptativa;
+    }
+
+    /**
+     * Retorna a quantidade atual de partições
+     *
+     * @return int
+     */
+    public int getQuantidadeParticoes() {
+        return topologia.particoes.length;
+    }
+
+    /**
+     * Retorna o menor valor de cada partição, exceto a primeira
+     *
+     * @return int[]
+     */
+    public int[] getLimites() {
+        int[] inferiores = topologia.inferiores;
+        return Arrays.copyOfRange(inferiores, 1, inferiores.length);
+    }
+
+    /**
+     * Retorna se a árvore possui o valor
+     *
+     * @param valor Valor do nó
+     * @return Boolean
+     */
+    public boolean contem(int valor) {
+        while (true) {
+            Particao particao = topologia.localiza(valor);
+            long stamp = particao.lock.readLock();
+            try {
+                if (!particao.aposentada) {
+                    return particao.arvore.contem(valor);
+                }
+            } finally {
+                particao.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Insere um valor na árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi inserido
+     */
+    public boolean inserir(int valor) {
+        return escreve(valor, true);
+    }
+
+    /**
+     * Remove um valor da árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi removido
+     */
+    public boolean excluir(int valor) {
+        return escreve(valor, false);
+    }
+
+    /**
+     * Insere ou remove um valor com o bloqueio de escrita da sua partição e,
+     * se a partição ficou sobrecarregada, a divide
+     *
+     * @param valor Valor do nó
+     * @param insercao Se o valor deve ser inserido ou removido
+     * @return Boolean indicando se a árvore foi alterada
+     */
+    private boolean escreve(int valor, boolean insercao) {
+        while (true) {
+            Particao particao = topologia.localiza(valor);
+            boolean alterada;
+            long escritasParticao = 0;
+            long stamp = particao.lock.writeLock();
+            try {
+                if (particao.aposentada) {
+                    continue;
+                }
+                alterada = insercao ? particao.arvore.inserir(valor) : particao.arvore.excluir(valor);
+                if (alterada && reparticaoAdaptativa) {
+                    escritas.increment();
+                    escritasParticao = ++particao.escritas;
+                }
+            } finally {
+                particao.lock.unlockWrite(stamp);
+            }
+            // A verificação é feita sem o bloqueio da partição, que é obtido na divisão
+            if (escritasParticao != 0 && escritasParticao % ESCRITAS_VERIFICACAO == 0) {
+                verificaCarga(particao, escritasParticao);
+            }
+            return alterada;
+        }
+    }
+
+    /**
+     * Divide a partição caso ela tenha recebido mais que o dobro da sua
+     * parcela das escritas desde a sua criação. Se outra thread estiver
+     * alterando a topologia, a verificação é descartada.
+     *
+     * @param particao Partição verificada
+     * @param escritasParticao Escritas na partição desde a sua criação
+     */
+    private void verificaCarga(Particao particao, long escritasParticao) {
+        if (!lockReparticao.tryLock()) {
+            return;
+        }
+        try {
+            Topologia atual = topologia;
+            long total = escritas.sum() - particao.escritasIniciais;
+            if (escritasParticao * atual.particoes.length > 2 * total) {
+                divide(particao);
+            }
+        } finally {
+            lockReparticao.unlock();
+        }
+    }
+
+    /**
+     * Divide pela mediana a partição que contém o valor
+     *
+     * @param valor Valor pertencente ao intervalo da partição
+     * @return Boolean indicando se a partição foi dividida; partições com
+     * menos de {@value #TAMANHO_MINIMO_DIVISAO} valores não são divididas
+     */
+    public boolean reparticiona(int valor) {
+        lockReparticao.lock();
+        try {
+            return divide(topologia.localiza(valor));
+        } finally {
+            lockReparticao.unlock();
+        }
+    }
+
+    /**
+     * Divide uma partição pela mediana, publicando a nova topologia. Deve ser
+     * chamado com o bloqueio de repartição.
+     *
+     * @param particao Partição da topologia atual
+     * @return Boolean indicando se a partição foi dividida
+     */
+    private boolean divide(Particao particao) {
+        Topologia atual = topologia;
+        if (atual.particoes.length >= LIMITE_PARTICOES) {
+            return false;
+        }
+        long stamp = particao.lock.writeLock();
+        try {
+            int tamanho = particao.arvore.getTamanho();
+            if (particao.aposentada || tamanho < TAMANHO_MINIMO_DIVISAO) {
+                return false;
+            }
+            // A mediana é maior que o menor valor, então as duas partes são válidas
+            int mediana = particao.arvore.select(tamanho / 2).getValor();
+            ArvoreAvl[] partes = particao.arvore.split(mediana);
+            long escritasAtuais = escritas.sum();
+            Particao menores = new Particao(particao.inferior, mediana - 1, escritasAtuais, partes[0]);
+            Particao maiores = new Particao(mediana, particao.superior, escritasAtuais, partes[1]);
+            topologia = atual.substitui(particao, menores, maiores);
+            particao.aposentada = true;
+            return true;
+        } finally {
+            particao.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de valores. As partições são lidas uma a uma, então
+     * o resultado pode não refletir escritas concorrentes.
+     *
+     * @return int
+     */
+    public int getTamanho() {
+        return contarIntervalo(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retorna a quantidade de valores entre os valores informados, inclusive.
+     * As partições são lidas uma a uma, então o resultado pode não refletir
+     * escritas concorrentes.
+     *
+     * @param inicio Início do intervalo
+     * @param fim Fim do intervalo
+     * @return int
+     */
+    public int contarIntervalo(int inicio, int fim) {
+        int quantidade = 0;
+        long proximo = inicio;
+        while (proximo <= fim) {
+            Particao particao = topologia.localiza((int) proximo);
+            long stamp = particao.lock.readLock();
+            try {
+                if (particao.aposentada) {
+                    continue;
+                }
+                quantidade += particao.arvore.contarIntervalo((int) proximo, Math.min(fim, particao.superior));
+            } finally {
+                particao.lock.unlockRead(stamp);
+            }
+            proximo = particao.superior + 1L;
+        }
+        return quantidade;
+    }
+
+    /**
+     * Retorna um iterador dos valores em ordem crescente
+     *
+     * @return PrimitiveIterator.OfInt
+     * @see #iteradorIntervalo(int, int)
+     */
+    public PrimitiveIterator.OfInt iteradorEmOrdem() {
+        return iteradorIntervalo(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retorna um iterador dos valores em ordem crescente entre os valores
+     * informados, inclusive. Os valores de cada partição são copiados com o
+     * seu bloqueio de leitura quando o iterador a alcança, então a iteração
+     * pode ocorrer junto com escritas: cada partição é vista em um estado
+     * consistente, mas partições diferentes podem ser vistas em momentos
+     * diferentes.
+     *
+     * @param inicio Início do intervalo
+     * @param fim Fim do intervalo
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iteradorIntervalo(int inicio, int fim) {
+        return new IteradorParticoes(inicio, fim);
+    }
+
+    /**
+     * Verifica os invariantes de cada partição e se os seus valores respeitam
+     * os limites da partição
+     *
+     * @throws IllegalStateException Se algum invariante for violado
+     */
+    public void validaEstrutura() {
+        for (Particao particao : topologia.particoes) {
+            long stamp = particao.lock.readLock();
+            try {
+                if (particao.aposentada || particao.arvore.isArvoreVazia()) {
+                    continue;
+                }
+                particao.arvore.validaEstrutura();
+                if (particao.arvore.min().getValor() < particao.inferior
+                        || particao.arvore.max().getValor() > particao.superior) {
+                    throw new IllegalStateException(String.format(
+                            "Partição [%s, %s] possui valores fora do seu intervalo",
+                            particao.inferior, particao.superior));
+                }
+            } finally {
+                particao.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Partição de um intervalo de valores
+     */
+    private static final class Particao {
+
+        /** Menor valor do intervalo */
+        private final int inferior;
+        /** Maior valor do intervalo */
+        private final int superior;
+        /** Total de escritas da árvore quando a partição foi criada */
+        private final long escritasIniciais;
+        /** Valores da partição */
+        private final ArvoreAvl arvore;
+        /** Bloqueio de acesso à partição */
+        private final StampedLock lock;
+        /** Escritas na partição, protegido pelo bloqueio de escrita */
+        private long escritas;
+        /** Indica que a partição foi substituída, protegido pelo bloqueio */
+        private boolean aposentada;
+
+        /**
+         * Método construtor de uma partição vazia
+         *
+         * @param inferior Menor valor do intervalo
+         * @param superior Maior valor do intervalo
+         * @param escritasIniciais Total de escritas da árvore
+         */
+        Particao(int inferior, int superior, long escritasIniciais) {
+            this(inferior, superior, escritasIniciais, new ArvoreAvl());
+        }
+
+        /**
+         * Método construtor
+         *
+         * @param inferior Menor valor do intervalo
+         * @param superior Maior valor do intervalo
+         * @param escritasIniciais Total de escritas da árvore
+         * @param arvore Valores da partição
+         */
+        Particao(int inferior, int superior, long escritasIniciais, ArvoreAvl arvore) {
+            this.inferior = inferior;
+            this.superior = superior;
+            this.escritasIniciais = escritasIniciais;
+            this.arvore = arvore;
+            this.lock = new StampedLock();
+        }
+
+    }
+
+    /**
+     * Conjunto imutável das partições, em ordem crescente de intervalo
+     */
+    private static final class Topologia {
+
+        /** Partições */
+        private final Particao[] particoes;
+        /** Menor valor de cada partição, para a busca binária */
+        private final int[] inferiores;
+
+        /**
+         * Método construtor
+         *
+         * @param particoes Partições contíguas em ordem crescente
+         */
+        Topologia(Particao[] particoes) {
+            this.particoes = particoes;
+            this.inferiores = new int[particoes.length];
+            for (int i = 0; i < particoes.length; i++) {
+                inferiores[i] = particoes[i].inferior;
+            }
+        }
+
+        /**
+         * Retorna a partição cujo intervalo contém o valor
+         *
+         * @param valor Valor
+         * @return Particao
+         */
+        Particao localiza(int valor) {
+            int posicao = Arrays.binarySearch(inferiores, valor);
+            return particoes[posicao >= 0 ? posicao : -posicao - 2];
+        }
+
+        /**
+         * Retorna uma nova topologia com a partição substituída por duas
+         *
+         * @param particao Partição substituída
+         * @param menores Partição do início do intervalo
+         * @param maiores Partição do fim do intervalo
+         * @return Topologia
+         */
+        Topologia substitui(Particao particao, Particao menores, Particao maiores) {
+            Particao[] novas = new Particao[particoes.length + 1];
+            int posicao = Arrays.asList(particoes).indexOf(particao);
+            System.arraycopy(particoes, 0, novas, 0, posicao);
+            novas[posicao] = menores;
+            novas[posicao + 1] = maiores;
+            System.arraycopy(particoes, posicao + 1, novas, posicao + 2, particoes.length - posicao - 1);
+            return new Topologia(novas);
+        }
+
+    }
+
+    /**
+     * Iterador dos valores de um intervalo, copiados partição a partição
+     */
+    private final class IteradorParticoes implements PrimitiveIterator.OfInt {
+
+        /** Fim do intervalo */
+        private final int fim;
+        /** Início da próxima partição a ser copiada */
+        private long proximoInicio;
+        /** Valores copiados da partição atual */
+        private int[] bloco;
+        /** Posição do próximo valor do bloco */
+        private int posicao;
+
+        /**
+         * Método construtor
+         *
+         * @param inicio Início do intervalo
+         * @param fim Fim do intervalo
+         */
+        IteradorParticoes(int inicio, int fim) {
+            this.fim = fim;
+            this.proximoInicio = inicio;
+            this.bloco = new int[0];
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (posicao == bloco.length && proximoInicio <= fim) {
+                copiaProximaParticao();
+            }
+            return posicao < bloco.length;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return bloco[posicao++];
+        }
+
+        /**
+         * Copia os valores do intervalo pertencentes à próxima partição,
+         * repetindo a consulta caso ela tenha sido aposentada
+         */
+        private void copiaProximaParticao() {
+            while (true) {
+                Particao particao = topologia.localiza((int) proximoInicio);
+                long stamp = particao.lock.readLock();
+                try {
+                    if (particao.aposentada) {
+                        continue;
+                    }
+                    int inicio = (int) proximoInicio;
+                    int fimParticao = Math.min(fim, particao.superior);
+                    int[] valores = new int[particao.arvore.contarIntervalo(inicio, fimParticao)];
+                    PrimitiveIterator.OfInt iterador = particao.arvore.iteradorIntervalo(inicio, fimParticao);
+                    for (int i = 0; i < valores.length; i++) {
+                        valores[i] = iterador.nextInt();
+                    }
+                    bloco = valores;
+                    posicao = 0;
+                    proximoInicio = particao.superior + 1L;
+                    return;
+                } finally {
+                    particao.lock.unlockRead(stamp);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,231 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+/**
+ * Árvore AVL persistente. Cada inserção ou exclusão copia apenas os O(log n)
+ * nós do caminho até a raíz, mantendo as versões anteriores intactas, o que
+ * permite obter uma versão imutável da árvore em O(1) através de
+ * {@link #snapshot()}. Os nós não possuem vínculo com o pai, já que um mesmo
+ * nó pode pertencer a várias versões.
+ * <p>
+ * As escritas são serializadas; snapshots podem ser obtidos e lidos por
+ * qualquer thread.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class ArvoreAvlPersistente {
+
+    /** Nó raíz da versão atual */
+    private volatile NoPersistente raiz;
+    /** Quantidade de nós criados pelas escritas */
+    private long nosCopiados;
+
+    /**
+     * Retorna se a árvore está vazia
+     *
+     * @return Boolean
+     */
+    public boolean isArvoreVazia() {
+        return raiz == null;
+    }
+
+    /**
+     * Retorna a quantidade de nós da árvore
+     *
+     * @return int
+     */
+    public int getTamanho() {
+        return NoPersistente.getTamanho(raiz);
+    }
+
+    /**
+     * Retorna se a árvore possui o valor
+     *
+     * @param valor Valor do nó
+     * @return Boolean
+     */
+    public boolean contem(int valor) {
+        return snapshot().contem(valor);
+    }
+
+    /**
+     * Retorna uma versão imutável da árvore atual, em O(1)
+     *
+     * @return SnapshotAvl
+     */
+    public SnapshotAvl snapshot() {
+        return new SnapshotAvl(raiz);
+    }
+
+    /**
+     * Retorna a quantidade de nós criados pelas escritas desde a criação da
+     * árvore. Cada nó criado é memória não compartilhada com as versões
+     * anteriores.
+     *
+     * @return long
+     */
+    public synchronized long getNosCopiados() {
+        return nosCopiados;
+    }
+
+    /**
+     * Retorna a memória estimada dos nós criados pelas escritas, em bytes
+     *
+     * @return long
+     */
+    public synchronized long getMemoriaCopiada() {
+        return nosCopiados * NoPersistente.BYTES_POR_NO;
+    }
+
+    /**
+     * Insere um valor na árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi inserido
+     */
+    public synchronized boolean inserir(int valor) {
+        NoPersistente raizAtual = raiz;
+        NoPersistente novaRaiz = inserir(raizAtual, valor);
+        raiz = novaRaiz;
+        return novaRaiz != raizAtual;
+    }
+
+    /**
+     * Insere o valor na subárvore, copiando os nós do caminho
+     *
+     * @param no Raíz da subárvore
+     * @param valor Valor do nó
+     * @return Nova raíz da subárvore, ou a mesma caso o valor já exista
+     */
+    private NoPersistente inserir(NoPersistente no, int valor) {
+        if (no == null) {
+            return novoNo(valor, null, null);
+        }
+        if (valor < no.getValor()) {
+            NoPersistente esquerda = inserir(no.getNoEsquerda(), valor);
+            return esquerda == no.getNoEsquerda() ? no
+                    : balanceia(no.getValor(), esquerda, no.getNoDireita());
+        }
+        if (valor > no.getValor()) {
+            NoPersistente direita = inserir(no.getNoDireita(), valor);
+            return direita == no.getNoDireita() ? no
+                    : balanceia(no.getValor(), no.getNoEsquerda(), direita);
+        }
+        return no;
+    }
+
+    /**
+     * Remove um valor da árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi removido
+     */
+    public synchronized boolean excluir(int valor) {
+        NoPersistente raizAtual = raiz;
+        NoPersistente novaRaiz = excluir(raizAtual, valor);
+        raiz = novaRaiz;
+        return novaRaiz != raizAtual;
+    }
+
+    /**
+     * Remove o valor da subárvore, copiando os nós do caminho
+     *
+     * @param no Raíz da subárvore
+     * @param valor Valor do nó
+     * @return Nova raíz da subárvore, ou a mesma caso o valor não exista
+     */
+    private NoPersistente excluir(NoPersistente no, int valor) {
+        if (no == null) {
+            return null;
+        }
+        if (valor < no.getValor()) {
+            NoPersistente esquerda = excluir(no.getNoEsquerda(), valor);
+            return esquerda == no.getNoEsquerda() ? no
+                    : balanceia(no.getValor(), esquerda, no.getNoDireita());
+        }
+        if (valor > no.getValor()) {
+            NoPersistente direita = excluir(no.getNoDireita(), valor);
+            return direita == no.getNoDireita() ? no
+                    : balanceia(no.getValor(), no.getNoEsquerda(), direita);
+        }
+        // Se possui no máximo um filho, o filho assume a posição do nó
+        if (no.getNoEsquerda() == null) {
+            return no.getNoDireita();
+        }
+        if (no.getNoDireita() == null) {
+            return no.getNoEsquerda();
+        }
+        // Substitui pelo sucessor, o menor nó da direita
+        NoPersistente sucessor = no.getNoDireita();
+        while (sucessor.getNoEsquerda() != null) {
+            sucessor = sucessor.getNoEsquerda();
+        }
+        return balanceia(sucessor.getValor(), no.getNoEsquerda(), removeMenor(no.getNoDireita()));
+    }
+
+    /**
+     * Remove o menor nó da subárvore, copiando os nós do caminho
+     *
+     * @param no Raíz da subárvore
+     * @return Nova raíz da subárvore
+     */
+    private NoPersistente removeMenor(NoPersistente no) {
+        if (no.getNoEsquerda() == null) {
+            return no.getNoDireita();
+        }
+        return balanceia(no.getValor(), removeMenor(no.getNoEsquerda()), no.getNoDireita());
+    }
+
+    /**
+     * Cria um nó com os filhos informados, realizando as rotações necessárias.
+     * As rotações criam novos nós em vez de alterar os existentes.
+     *
+     * @param valor Valor do nó
+     * @param esquerda Filho à esquerda
+     * @param direita Filho à direita
+     * @return Raíz da subárvore balanceada
+     */
+    private NoPersistente balanceia(int valor, NoPersistente esquerda, NoPersistente direita) {
+        int fatorBalanceamento = NoPersistente.getAltura(direita) - NoPersistente.getAltura(esquerda);
+        if (fatorBalanceamento < -1) {
+            NoPersistente esquerdaEsquerda = esquerda.getNoEsquerda();
+            NoPersistente direitaEsquerda = esquerda.getNoDireita();
+            // Rotação simples a direita
+            if (NoPersistente.getAltura(esquerdaEsquerda) >= NoPersistente.getAltura(direitaEsquerda)) {
+                return novoNo(esquerda.getValor(), esquerdaEsquerda,
+                        novoNo(valor, direitaEsquerda, direita));
+            }
+            // Rotação dupla
+            return novoNo(direitaEsquerda.getValor(),
+                    novoNo(esquerda.getValor(), esquerdaEsquerda, direitaEsquerda.getNoEsquerda()),
+                    novoNo(valor, direitaEsquerda.getNoDireita(), direita));
+        }
+        if (fatorBalanceamento > 1) {
+            NoPersistente direitaDireita = direita.getNoDireita();
+            NoPersistente esquerdaDireita = direita.getNoEsquerda();
+            // Rotação simples a esquerda
+            if (NoPersistente.getAltura(direitaDireita) >= NoPersistente.getAltura(esquerdaDireita)) {
+                return novoNo(direita.getValor(), novoNo(valor, esquerda, esquerdaDireita),
+                        direitaDireita);
+            }
+            // Rotação dupla
+            return novoNo(esquerdaDireita.getValor(),
+                    novoNo(valor, esquerda, esquerdaDireita.getNoEsquerda()),
+                    novoNo(direita.getValor(), esquerdaDireita.getNoDireita(), direitaDireita));
+        }
+        return novoNo(valor, esquerda, direita);
+    }
+
+    /**
+     * Cria um novo nó, contabilizando a memória copiada
+     *
+     * @param valor Valor do nó
+     * @param esquerda Filho à esquerda
+     * @param direita Filho à direita
+     * @return NoPersistente
+     */
+    private NoPersistente novoNo(int valor, NoPersistente esquerda, NoPersistente direita) {
+        nosCopiados++;
+        return new NoPersistente(valor, esquerda, direita);
+    }
+
+}
@@ -0,0 +1,634 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Árvore AVL armazenada em vetores paralelos de tipos primitivos. Cada nó é uma
+ * posição nos vetores de chaves, filhos, pai e alturas, evitando um objeto por
+ * nó. As posições de nós excluídos são reaproveitadas através de uma lista de
+ * posições livres encadeada pelo vetor de filhos à esquerda.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class ArvoreAvlPrimitiva {
+
+    /** Posição que representa a ausência de nó */
+    private static final int NULO = -1;
+    /** Altura de uma árvore vazia */
+    private static final int ALTURA_ARVORE_VAZIA = -1;
+    /** Capacidade inicial dos vetores */
+    private static final int CAPACIDADE_INICIAL = 16;
+    /** Maior capacidade dos vetores suportada pela JVM */
+    private static final int CAPACIDADE_MAXIMA = Integer.MAX_VALUE - 8;
+    /** Bytes ocupados pelo cabeçalho de cada vetor */
+    private static final int BYTES_CABECALHO_VETOR = 16;
+    /** Bytes ocupados por posição nos vetores (4 int e 1 byte) */
+    private static final int BYTES_POR_POSICAO = 4 * Integer.BYTES + Byte.BYTES;
+
+    /** Chave de cada nó */
+    private int[] chaves;
+    /** Filho à esquerda de cada nó (ou próxima posição livre) */
+    private int[] esquerda;
+    /** Filho à direita de cada nó */
+    private int[] direita;
+    /** Pai de cada nó */
+    private int[] pai;
+    /** Altura de cada nó */
+    private byte[] alturas;
+    /** Posição do nó raíz */
+    private int raiz;
+    /** Quantidade de nós da árvore */
+    private int tamanho;
+    /** Primeira posição nunca utilizada */
+    private int proximaPosicao;
+    /** Início da lista de posições livres */
+    private int posicaoLivre;
+
+    /**
+     * Método construtor
+     */
+    public ArvoreAvlPrimitiva() {
+        this(CAPACIDADE_INICIAL);
+    }
+
+    /**
+     * Método construtor
+     *
+     * @param capacidade Quantidade de nós que a árvore comporta sem crescer
+     */
+    public ArvoreAvlPrimitiva(int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacidade);
+        }
+        this.chaves = new int[capacidade];
+        this.esquerda = new int[capacidade];
+        this.direita = new int[capacidade];
+        this.pai = new int[capacidade];
+        this.alturas = new byte[capacidade];
+        this.raiz = NULO;
+        this.posicaoLivre = NULO;
+    }
+
+    /**
+     * Retorna se a árvore está vazia
+     *
+     * @return Boolean
+     */
+    public boolean isArvoreVazia() {
+        return raiz == NULO;
+    }
+
+    /**
+     * Retorna a quantidade de nós da árvore
+     *
+     * @return int
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna a altura da árvore
+     *
+     * @return int
+     */
+    public int getAltura() {
+        return altura(raiz);
+    }
+
+    /**
+     * Retorna se a árvore possui o valor
+     *
+     * @param valor Valor do nó
+     * @return Boolean
+     */
+    public boolean busca(int valor) {
+        return localiza(valor) != NULO;
+    }
+
+    /**
+     * Insere um valor na árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi inserido
+     */
+    public boolean inserir(int valor) {
+        // Desce a árvore procurando a posição de inserção
+        int noPai = NULO;
+        int noAtual = raiz;
+        while (noAtual != NULO) {
+            if (chaves[noAtual] == valor) {
+                return false;
+            }
+            noPai = noAtual;
+            noAtual = valor < chaves[noAtual] ? esquerda[noAtual] : direita[noAtual];
+        }
+        int noNovo = alocaPosicao(valor, noPai);
+        // Vincula o novo nó ao pai e rebalanceia a partir dele
+        if (noPai == NULO) {
+            raiz = noNovo;
+        } else if (valor < chaves[noPai]) {
+            esquerda[noPai] = noNovo;
+        } else {
+            direita[noPai] = noNovo;
+        }
+        tamanho++;
+        ajustaBalanceamento(noPai);
+        return true;
+    }
+
+    /**
+     * Remove um valor da árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi removido
+     */
+    public boolean excluir(int valor) {
+        int no = localiza(valor);
+        if (no == NULO) {
+            return false;
+        }
+        // Se possui dois filhos, copia o antecessor e remove a posição dele
+        if (esquerda[no] != NULO && direita[no] != NULO) {
+            int antecessor = esquerda[no];
+            while (direita[antecessor] != NULO) {
+                antecessor = direita[antecessor];
+            }
+            chaves[no] = chaves[antecessor];
+            no = antecessor;
+        }
+        // O nó removido possui no máximo um filho, que assume a sua posição
+        int filho = esquerda[no] != NULO ? esquerda[no] : direita[no];
+        int noPai = pai[no];
+        substituiFilho(noPai, no, filho);
+        liberaPosicao(no);
+        tamanho--;
+        ajustaBalanceamento(noPai);
+        return true;
+    }
+
+    /**
+     * Retorna a memória ocupada pelos vetores da árvore, em bytes
+     *
+     * @return long
+     */
+    public long getMemoriaUtilizada() {
+        return (long) chaves.length * BYTES_POR_POSICAO + 5L * BYTES_CABECALHO_VETOR;
+    }
+
+    /**
+     * Retorna a memória ocupada por chave armazenada, em bytes
+     *
+     * @return double
+     */
+    public double getBytesPorChave() {
+        return tamanho == 0 ? 0 : (double) getMemoriaUtilizada() / tamanho;
+    }
+
+    /**
+     * Localiza a posição do nó com o valor
+     *
+     * @param valor Valor do nó
+     * @return Posição do nó ou {@link #NULO}
+     */
+    private int localiza(int valor) {
+        int noAtual = raiz;
+        while (noAtual != NULO) {
+            int chave = chaves[noAtual];
+            if (chave == valor) {
+                return noAtual;
+            }
+            noAtual = chave < valor ? direita[noAtual] : esquerda[noAtual];
+        }
+        return NULO;
+    }
+
+    /**
+     * Aloca uma posição para um novo nó folha, reaproveitando posições livres
+     *
+     * @param valor Valor do nó
+     * @param noPai Pai do nó
+     * @return Posição do nó
+     */
+    private int alocaPosicao(int valor, int noPai) {
+        int no;
+        if (posicaoLivre != NULO) {
+            no = posicaoLivre;
+            posicaoLivre = esquerda[no];
+        } else {
+            if (proximaPosicao == chaves.length) {
+                aumentaCapacidade();
+            }
+            no = proximaPosicao++;
+        }
+        chaves[no] = valor;
+        esquerda[no] = NULO;
+        direita[no] = NULO;
+        pai[no] = noPai;
+        alturas[no] = 0;
+        return no;
+    }
+
+    /**
+     * Devolve uma posição para a lista de posições livres
+     *
+     * @param no Posição do nó
+     */
+    private void liberaPosicao(int no) {
+        esquerda[no] = posicaoLivre;
+        posicaoLivre = no;
+    }
+
+    /**
+     * Aumenta a capacidade dos vetores em 50%, limitada à capacidade máxima
+     *
+     * @throws IllegalStateException Se a capacidade máxima já foi atingida
+     */
+    private void aumentaCapacidade() {
+        if (chaves.length >= CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException(String.format("Capacidade máxima de %s nós atingida", CAPACIDADE_MAXIMA));
+        }
+        int capacidade = chaves.length + Math.max(chaves.length >> 1, 1);
+        if (capacidade < 0 || capacidade > CAPACIDADE_MAXIMA) {
+            capacidade = CAPACIDADE_MAXIMA;
+        }
+        chaves = Arrays.copyOf(chaves, capacidade);
+        esquerda = Arrays.copyOf(esquerda, capacidade);
+        direita = Arrays.copyOf(direita, capacidade);
+        pai = Arrays.copyOf(pai, capacidade);
+        alturas = Arrays.copyOf(alturas, capacidade);
+    }
+
+    /**
+     * Retorna a altura de um nó
+     *
+     * @param no Posição do nó
+     * @return int
+     */
+    private int altura(int no) {
+        return no == NULO ? ALTURA_ARVORE_VAZIA : alturas[no];
+    }
+
+    /**
+     * Recalcula a altura do nó a partir da altura dos filhos
+     *
+     * @param no Posição do nó
+     */
+    private void calculaAltura(int no) {
+        alturas[no] = (byte) (1 + Math.max(altura(esquerda[no]), altura(direita[no])));
+    }
+
+    /**
+     * Substitui um filho do nó pai, atualizando a raíz caso o nó não possua pai
+     *
+     * @param noPai Nó pai
+     * @param noAntigo Filho atual
+     * @param noNovo Novo filho
+     */
+    private void substituiFilho(int noPai, int noAntigo, int noNovo) {
+        if (noNovo != NULO) {
+            pai[noNovo] = noPai;
+        }
+        if (noPai == NULO) {
+            raiz = noNovo;
+        } else if (esquerda[noPai] == noAntigo) {
+            esquerda[noPai] = noNovo;
+        } else {
+            direita[noPai] = noNovo;
+        }
+    }
+
+    /**
+     * Ajusta o balanceamento subindo a partir do nó informado, até que a altura
+     * de uma subárvore não mude
+     *
+     * @param no Posição do nó
+     */
+    private void ajustaBalanceamento(int no) {
+        while (no != NULO) {
+            int alturaAnterior = alturas[no];
+            int noPai = pai[no];
+            if (alturas[balanceia(no)] == alturaAnterior) {
+                return;
+            }
+            no = noPai;
+        }
+    }
+
+    /**
+     * Recalcula a altura do nó e realiza as rotações necessárias
+     *
+     * @param no Posição do nó
+     * @return Posição do nó que passou a ser a raíz da subárvore
+     */
+    private int balanceia(int no) {
+        calculaAltura(no);
+        int fatorBalanceamento = altura(direita[no]) - altura(esquerda[no]);
+        if (fatorBalanceamento < -1) {
+            int noEsquerdo = esquerda[no];
+            if (altura(esquerda[noEsquerdo]) < altura(direita[noEsquerdo])) {
+                rotacaoEsquerda(noEsquerdo);
+            }
+            return rotacaoDireita(no);
+        } else if (fatorBalanceamento > 1) {
+            int noDireito = direita[no];
+            if (altura(direita[noDireito]) < altura(esquerda[noDireito])) {
+                rotacaoDireita(noDireito);
+            }
+            return rotacaoEsquerda(no);
+        }
+        return no;
+    }
+
+    /**
+     * Realiza a rotação simples a direita
+     *
+     * @param no Posição do nó pivo
+     * @return Posição do nó que ocupou o lugar do pivo
+     */
+    private int rotacaoDireita(int no) {
+        int noPai = pai[no];
+        int noEsquerdo = esquerda[no];
+        int filhoDireitoDoFilhoEsquerdo = direita[noEsquerdo];
+        esquerda[no] = filhoDireitoDoFilhoEsquerdo;
+        if (filhoDireitoDoFilhoEsquerdo != NULO) {
+            pai[filhoDireitoDoFilhoEsquerdo] = no;
+        }
+        direita[noEsquerdo] = no;
+        pai[no] = noEsquerdo;
+        substituiFilho(noPai, no, noEsquerdo);
+        calculaAltura(no);
+        calculaAltura(noEsquerdo);
+        return noEsquerdo;
+    }
+
+    /**
+     * Realiza a rotação simples a esquerda
+     *
+     * @param no Posição do nó pivo
+     * @return Posição do nó que ocupou o lugar do pivo
+     */
+    private int rotacaoEsquerda(int no) {
+        int noPai = pai[no];
+        int noDireito = direita[no];
+        int filhoEsquerdoDoFilhoDireito = esquerda[noDireito];
+        direita[no] = filhoEsquerdoDoFilhoDireito;
+        if (filhoEsquerdoDoFilhoDireito != NULO) {
+            pai[filhoEsquerdoDoFilhoDireito] = no;
+        }
+        esquerda[noDireito] = no;
+        pai[no] = noDireito;
+        substituiFilho(noPai, no, noDireito);
+        calculaAltura(no);
+        calculaAltura(noDireito);
+        return noDireito;
+    }
+
+    /**
+     * Retorna um iterador dos valores em ordem. A árvore não deve ser alterada
+     * durante a iteração.
+     *
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iteradorEmOrdem() {
+        return new IteradorPosicoes(menor(raiz), this::sucessorEmOrdem);
+    }
+
+    /**
+     * Retorna um iterador dos valores em pré-ordem. A árvore não deve ser
+     * alterada durante a iteração.
+     *
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iteradorPreOrdem() {
+        return new IteradorPosicoes(raiz, this::sucessorPreOrdem);
+    }
+
+    /**
+     * Retorna um iterador dos valores em pós-ordem. A árvore não deve ser
+     * alterada durante a iteração.
+     *
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iteradorPosOrdem() {
+        return new IteradorPosicoes(primeiroPosOrdem(raiz), this::sucessorPosOrdem);
+    }
+
+    /**
+     * Retorna a posição do nó raíz
+     *
+     * @return Posição do nó ou {@link #NULO}
+     */
+    int getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Retorna a chave de um nó
+     *
+     * @param no Posição do nó
+     * @return int
+     */
+    int getChave(int no) {
+        return chaves[no];
+    }
+
+    /**
+     * Retorna o filho à esquerda de um nó
+     *
+     * @param no Posição do nó
+     * @return Posição do filho ou {@link #NULO}
+     */
+    int getEsquerda(int no) {
+        return esquerda[no];
+    }
+
+    /**
+     * Retorna o filho à direita de um nó
+     *
+     * @param no Posição do nó
+     * @return Posição do filho ou {@link #NULO}
+     */
+    int getDireita(int no) {
+        return direita[no];
+    }
+
+    /**
+     * Retorna se a posição representa a ausência de nó
+     *
+     * @param no Posição
+     * @return Boolean
+     */
+    static boolean isNulo(int no) {
+        return no == NULO;
+    }
+
+    /**
+     * Retorna o nó de menor valor da subárvore
+     *
+     * @param no Posição da raíz da subárvore
+     * @return Posição do nó ou {@link #NULO}
+     */
+    private int menor(int no) {
+        while (no != NULO && esquerda[no] != NULO) {
+            no = esquerda[no];
+        }
+        return no;
+    }
+
+    /**
+     * Retorna o próximo nó em ordem, utilizando o vetor de pais
+     *
+     * @param no Posição do nó
+     * @return Posição do nó ou {@link #NULO} caso seja o último
+     */
+    private int sucessorEmOrdem(int no) {
+        if (direita[no] != NULO) {
+            return menor(direita[no]);
+        }
+        // Sobe enquanto o nó for filho à direita
+        while (pai[no] != NULO && direita[pai[no]] == no) {
+            no = pai[no];
+        }
+        return pai[no];
+    }
+
+    /**
+     * Retorna o próximo nó em pré-ordem, utilizando o vetor de pais
+     *
+     * @param no Posição do nó
+     * @return Posição do nó ou {@link #NULO} caso seja o último
+     */
+    private int sucessorPreOrdem(int no) {
+        if (esquerda[no] != NULO) {
+            return esquerda[no];
+        }
+        if (direita[no] != NULO) {
+            return direita[no];
+        }
+        // Sobe até um ancestral cujo filho à direita ainda não foi visitado
+        while (pai[no] != NULO) {
+            int noPai = pai[no];
+            if (esquerda[noPai] == no && direita[noPai] != NULO) {
+                return direita[noPai];
+            }
+            no = noPai;
+        }
+        return NULO;
+    }
+
+    /**
+     * Retorna o primeiro nó da subárvore em pós-ordem
+     *
+     * @param no Posição da raíz da subárvore
+     * @return Posição do nó ou {@link #NULO} caso a subárvore esteja vazia
+     */
+    private int primeiroPosOrdem(int no) {
+        while (no != NULO && (esquerda[no] != NULO || direita[no] != NULO)) {
+            no = esquerda[no] != NULO ? esquerda[no] : direita[no];
+        }
+        return no;
+    }
+
+    /**
+     * Retorna o próximo nó em pós-ordem, utilizando o vetor de pais
+     *
+     * @param no Posição do nó
+     * @return Posição do nó ou {@link #NULO} caso seja o último
+     */
+    private int sucessorPosOrdem(int no) {
+        int noPai = pai[no];
+        if (noPai != NULO && esquerda[noPai] == no && direita[noPai] != NULO) {
+            return primeiroPosOrdem(direita[noPai]);
+        }
+        return noPai;
+    }
+
+    /**
+     * Imprime os nós da árvore em pré-ordem
+     */
+    public void printPreOrdem() {
+        try {
+            new RenderizadorAvl(System.out).renderizaPreOrdem(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imprime os nós da árvore em ordem
+     */
+    public void printEmOrdem() {
+        try {
+            new RenderizadorAvl(System.out).renderizaEmOrdem(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imprime os nós da árvore em pós-ordem
+     */
+    public void printPosOrdem() {
+        try {
+            new RenderizadorAvl(System.out).renderizaPosOrdem(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imprime a árvore, um nível por linha
+     */
+    public void printArvore() {
+        try {
+            new RenderizadorAvl(System.out).renderizaNiveis(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Iterador dos valores que avança de posição em posição pelo vetor de
+     * pais, sem pilha e sem alocação por valor
+     */
+    private final class IteradorPosicoes implements PrimitiveIterator.OfInt {
+
+        /** Próximo nó a ser retornado */
+        private int proximo;
+        /** Função que retorna o nó seguinte do percurso */
+        private final IntUnaryOperator sucessor;
+
+        /**
+         * Método construtor
+         *
+         * @param inicio Primeiro nó do percurso
+         * @param sucessor Função que retorna o nó seguinte do percurso
+         */
+        private IteradorPosicoes(int inicio, IntUnaryOperator sucessor) {
+            this.proximo = inicio;
+            this.sucessor = sucessor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return proximo != NULO;
+        }
+
+        @Override
+        public int nextInt() {
+            if (proximo == NULO) {
+                throw new NoSuchElementException();
+            }
+            int valor = chaves[proximo];
+            proximo = sucessor.applyAsInt(proximo);
+            return valor;
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+/**
+ * Cursor de uma árvore AVL que guarda o último nó acessado (o dedo) e resolve
+ * a próxima operação a partir dele: sobe pelos vínculos com o nó pai até
+ * confirmar a subárvore que abrange o valor e desce dali. O custo é
+ * proporcional à altura do menor ancestral comum entre o dedo e a posição do
+ * valor, e não à distância entre as chaves: dois valores vizinhos separados
+ * por um nó alto, como a raíz, ainda custam O(log n). Uma busca com custo
+ * O(log d) no pior caso exigiria vínculos entre os nós de cada nível, que a
+ * árvore não possui.
+ * <p>
+ * Valores além do maior nó ou aquém do menor partem diretamente do extremo,
+ * que a árvore mantém, sem subir pela espinha. Assim, inserções em ordem
+ * crescente ou decrescente, como chaves de tempo, localizam a posição em O(1),
+ * restando o rebalanceamento. Uma busca em ordem pelas chaves existentes sobe
+ * e desce cada vínculo um número constante de vezes, custando O(1) amortizado
+ * por operação. Nos demais padrões o ganho depende de chaves consecutivas
+ * terem um ancestral comum baixo.
+ * <p>
+ * As rotações preservam os nós e os vínculos com o pai, então o dedo continua
+ * válido após inserções. Quando a árvore perde nós por outro caminho que não
+ * o cursor, o dedo é descartado e a operação seguinte parte da raíz. Com a
+ * exclusão lógica habilitada, o nó excluído permanece na árvore e continua
+ * sendo o dedo. O cursor não é seguro para acesso concorrente.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public final class CursorAvl {
+
+    /** Árvore percorrida */
+    private final ArvoreAvl arvore;
+    /** Último nó acessado, {@code null} quando a busca deve partir da raíz */
+    private No dedo;
+    /** Versão da árvore em que o dedo foi obtido */
+    private int versao;
+
+    /**
+     * Método construtor
+     *
+     * @param arvore Árvore percorrida
+     */
+    CursorAvl(ArvoreAvl arvore) {
+        this.arvore = arvore;
+        this.versao = arvore.getVersao();
+    }
+
+    /**
+     * Busca o nó que possui o valor
+     *
+     * @param valor Valor do nó
+     * @return No ou {@code null} caso não exista
+     */
+    public No busca(int valor) {
+        No no = posiciona(valor);
+        return no != null && no.getValor() == valor && !no.isRemovido() ? no : null;
+    }
+
+    /**
+     * Retorna se a árvore possui o valor
+     *
+     * @param valor Valor do nó
+     * @return Boolean
+     */
+    public boolean contem(int valor) {
+        return busca(valor) != null;
+    }
+
+    /**
+     * Insere um valor na árvore
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi inserido ({@code false} se já
+     * existia)
+     */
+    public boolean inserir(int valor) {
+        No no = posiciona(valor);
+        if (no != null && no.getValor() == valor) {
+            if (!no.isRemovido()) {
+                return false;
+            }
+            arvore.restauraNo(no);
+            return true;
+        }
+        dedo = arvore.vinculaNovo(no, valor);
+        return true;
+    }
+
+    /**
+     * Remove um valor da árvore. O dedo passa para o vizinho em ordem do nó
+     * removido.
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi removido ({@code false} se não
+     * existia)
+     */
+    public boolean excluir(int valor) {
+        No no = posiciona(valor);
+        if (no == null || no.getValor() != valor || no.isRemovido()) {
+            return false;
+        }
+        // O nó continua na árvore, e uma compactação disparada pela exclusão
+        // altera a versão, descartando o dedo na próxima operação
+        if (arvore.isExclusaoLogica()) {
+            arvore.marcaRemovido(no);
+            return true;
+        }
+        // Os vizinhos em ordem não são retirados da árvore pela remoção
+        No vizinho = NoUtils.getSucessor(no);
+        if (vizinho == null) {
+            vizinho = NoUtils.getAntecessor(no);
+        }
+        arvore.removeNo(no);
+        dedo = vizinho;
+        versao = arvore.getVersao();
+        return true;
+    }
+
+    /**
+     * Move o dedo para o nó que possui o valor ou, caso ele não exista, para o
+     * nó abaixo do qual ele seria inserido
+     *
+     * @param valor Valor do nó
+     * @return No ou {@code null} se a árvore está vazia
+     */
+    private No posiciona(int valor) {
+        // Descarta o dedo se a árvore perdeu nós desde o último acesso
+        if (versao != arvore.getVersao()) {
+            versao = arvore.getVersao();
+            dedo = null;
+        }
+        // Um valor fora do intervalo atual fica abaixo do extremo, que não
+        // possui filho desse lado
+        No maior = arvore.getMaiorNo();
+        if (maior != null && valor >= maior.getValor()) {
+            dedo = maior;
+            return dedo;
+        }
+        No menor = arvore.getMenorNo();
+        if (menor != null && valor <= menor.getValor()) {
+            dedo = menor;
+            return dedo;
+        }
+        No inicio = dedo == null ? arvore.getRaiz() : sobe(dedo, valor);
+        if (inicio == null) {
+            return null;
+        }
+        dedo = arvore.localizaPosicao(inicio, valor);
+        return dedo;
+    }
+
+    /**
+     * Sobe a partir do nó até confirmar a menor subárvore no caminho que
+     * abrange o valor. Indo para valores maiores, subir por um filho à direita
+     * não altera o limite superior da subárvore, então a descida pode partir
+     * do último nó alcançado por um filho à esquerda; a subida termina no
+     * primeiro filho à esquerda cujo pai é maior que o valor. O caso dos
+     * valores menores é simétrico.
+     * <p>
+     * O limite superior só é conhecido nesse pai, então a subida passa do nó
+     * retornado e chega ao ancestral que separa o dedo do valor. O custo é a
+     * distância até esse ancestral, que pode ser a raíz mesmo para valores
+     * vizinhos.
+     *
+     * @param no Nó de partida
+     * @param valor Valor buscado
+     * @return No a partir do qual a descida deve ser feita
+     */
+    private static No sobe(No no, int valor) {
+        No inicio = no;
+        No atual = no;
+        No pai = atual.getNoPai();
+        if (valor > atual.getValor()) {
+            while (pai != null && (pai.getNoDireita() == atual || pai.getValor() <= valor)) {
+                if (pai.getNoEsquerda() == atual) {
+                    if (pai.getValor() == valor) {
+                        return pai;
+                    }
+                    inicio = pai;
+                }
+                atual = pai;
+                pai = atual.getNoPai();
+            }
+        } else if (valor < atual.getValor()) {
+            while (pai != null && (pai.getNoEsquerda() == atual || pai.getValor() >= valor)) {
+                if (pai.getNoDireita() == atual) {
+                    if (pai.getValor() == valor) {
+                        return pai;
+                    }
+                    inicio = pai;
+                }
+                atual = pai;
+                pai = atual.getNoPai();
+            }
+        }
+        return inicio;
+    }
+
+}
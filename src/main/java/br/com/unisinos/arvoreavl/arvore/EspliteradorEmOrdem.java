@@ -0,0 +1,106 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Spliterator dos valores da árvore em ordem. Cobre um nó avulso seguido de
+ * uma subárvore inteira; a divisão separa a subárvore esquerda da raíz da
+ * subárvore, de modo que cada parte corresponde a subárvores da própria
+ * árvore e a quantidade de valores de cada parte é conhecida pelo tamanho
+ * dos nós. Os nós removidos logicamente são ignorados. A árvore não deve ser
+ * alterada durante a iteração.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class EspliteradorEmOrdem implements Spliterator.OfInt {
+
+    /** Nó retornado antes da subárvore (pode ser nulo) */
+    private No avulso;
+    /** Subárvore percorrida após o nó avulso */
+    private No subarvore;
+    /** Próximo nó da subárvore, após o início do percurso */
+    private No proximo;
+    /** Último nó da subárvore */
+    private No ultimo;
+    /** Quantidade de valores restantes */
+    private long restantes;
+
+    /**
+     * Método construtor
+     *
+     * @param avulso Nó retornado antes da subárvore (pode ser nulo)
+     * @param subarvore Subárvore percorrida após o nó avulso (pode ser nula)
+     */
+    EspliteradorEmOrdem(No avulso, No subarvore) {
+        this.avulso = avulso;
+        this.subarvore = subarvore;
+        this.restantes = (avulso != null ? 1 : 0) + NoUtils.getTamanhoNo(subarvore);
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer acao) {
+        if (avulso != null) {
+            int valor = avulso.getValor();
+            avulso = null;
+            restantes--;
+            acao.accept(valor);
+            return true;
+        }
+        // Inicia o percurso da subárvore
+        if (subarvore != null) {
+            proximo = NoUtils.getMenorNo(subarvore);
+            ultimo = NoUtils.getMaiorNo(subarvore);
+            subarvore = null;
+        }
+        while (proximo != null && proximo.isRemovido()) {
+            proximo = proximo == ultimo ? null : NoUtils.getSucessor(proximo);
+        }
+        if (proximo == null) {
+            return false;
+        }
+        int valor = proximo.getValor();
+        proximo = proximo == ultimo ? null : NoUtils.getSucessor(proximo);
+        restantes--;
+        acao.accept(valor);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer acao) {
+        while (tryAdvance(acao)) {
+            // Percorre até o fim
+        }
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+        // Só divide antes do início do percurso da subárvore
+        if (subarvore == null || (avulso == null && subarvore.getNoEsquerda() == null)) {
+            return null;
+        }
+        // O prefixo fica com o nó avulso e a subárvore esquerda
+        EspliteradorEmOrdem prefixo = new EspliteradorEmOrdem(avulso, subarvore.getNoEsquerda());
+        avulso = subarvore.isRemovido() ? null : subarvore;
+        subarvore = subarvore.getNoDireita();
+        restantes -= prefixo.restantes;
+        return prefixo;
+    }
+
+    @Override
+    public long estimateSize() {
+        return restantes;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | SORTED | NONNULL | SIZED | SUBSIZED;
+    }
+
+    @Override
+    public Comparator<? super Integer> getComparator() {
+        return null;
+    }
+
+}
@@ -0,0 +1,215 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Índice imutável dos valores de uma árvore, criado por
+ * {@link ArvoreAvl#congelar()}. Os valores ficam em um único vetor na ordem de
+ * Eytzinger: a raíz na posição 1 e os filhos da posição {@code k} nas posições
+ * {@code 2k} e {@code 2k + 1}. Assim os primeiros níveis da busca ocupam
+ * poucas linhas de cache contíguas e não há ponteiros a seguir.
+ * <p>
+ * A descida não possui desvios dependentes dos dados: cada passo acumula em
+ * {@code k} o lado escolhido, e o resultado é extraído dos bits de {@code k}
+ * ao final. O Java não expõe instrução de prefetch, então a busca conta com
+ * o prefetch de hardware e com a execução especulativa da descida sem
+ * desvios.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public final class IndiceCongelado {
+
+    /** Valores na ordem de Eytzinger, a partir da posição 1 */
+    private final int[] valores;
+    /** Quantidade de valores */
+    private final int tamanho;
+
+    /**
+     * Método construtor
+     *
+     * @param valoresOrdenados Valores distintos em ordem crescente
+     * @param tamanho Quantidade de valores
+     */
+    IndiceCongelado(PrimitiveIterator.OfInt valoresOrdenados, int tamanho) {
+        this.tamanho = tamanho;
+        this.valores = new int[tamanho + 1];
+        preenche(valoresOrdenados, 1);
+    }
+
+    /**
+     * Distribui os valores ordenados percorrendo em ordem a árvore implícita
+     *
+     * @param valoresOrdenados Valores em ordem crescente
+     * @param posicao Posição da subárvore
+     */
+    private void preenche(PrimitiveIterator.OfInt valoresOrdenados, int posicao) {
+        if (posicao > tamanho) {
+            return;
+        }
+        preenche(valoresOrdenados, 2 * posicao);
+        valores[posicao] = valoresOrdenados.nextInt();
+        preenche(valoresOrdenados, 2 * posicao + 1);
+    }
+
+    /**
+     * Retorna se o índice está vazio
+     *
+     * @return Boolean
+     */
+    public boolean isVazio() {
+        return tamanho == 0;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna se o índice possui o valor
+     *
+     * @param valor Valor buscado
+     * @return Boolean
+     */
+    public boolean contem(int valor) {
+        int posicao = posicaoCeiling(valor);
+        return posicao != 0 && valores[posicao] == valor;
+    }
+
+    /**
+     * Retorna o maior valor menor ou igual ao valor informado
+     *
+     * @param valor Valor de referência
+     * @param padrao Valor retornado quando não existe tal valor
+     * @return int
+     */
+    public int floor(int valor, int padrao) {
+        int posicao = posicaoFloor(valor);
+        return posicao == 0 ? padrao : valores[posicao];
+    }
+
+    /**
+     * Retorna o menor valor maior ou igual ao valor informado
+     *
+     * @param valor Valor de referência
+     * @param padrao Valor retornado quando não existe tal valor
+     * @return int
+     */
+    public int ceiling(int valor, int padrao) {
+        int posicao = posicaoCeiling(valor);
+        return posicao == 0 ? padrao : valores[posicao];
+    }
+
+    /**
+     * Retorna um iterador dos valores em ordem crescente
+     *
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iteradorEmOrdem() {
+        return iteradorIntervalo(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retorna um iterador dos valores em ordem crescente entre os valores
+     * informados, inclusive
+     *
+     * @param inicio Início do intervalo
+     * @param fim Fim do intervalo
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iteradorIntervalo(int inicio, int fim) {
+        return new IteradorIntervalo(posicaoCeiling(inicio), fim);
+    }
+
+    /**
+     * Retorna a posição do menor valor maior ou igual ao valor informado. A
+     * descida vira à direita enquanto o valor da posição é menor; ao final, a
+     * última virada à esquerda, que é o último bit zero de {@code k}, indica o
+     * resultado.
+     *
+     * @param valor Valor de referência
+     * @return Posição ou 0 quando não existe tal valor
+     */
+    private int posicaoCeiling(int valor) {
+        int k = 1;
+        while (k <= tamanho) {
+            k = 2 * k + (valores[k] < valor ? 1 : 0);
+        }
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Retorna a posição do maior valor menor ou igual ao valor informado. A
+     * descida vira à direita enquanto o valor da posição não ultrapassa o
+     * informado; ao final, a última virada à direita, que é o último bit um
+     * de {@code k}, indica o resultado.
+     *
+     * @param valor Valor de referência
+     * @return Posição ou 0 quando não existe tal valor
+     */
+    private int posicaoFloor(int valor) {
+        int k = 1;
+        while (k <= tamanho) {
+            k = 2 * k + (valores[k] <= valor ? 1 : 0);
+        }
+        return k >>> (Integer.numberOfTrailingZeros(k) + 1);
+    }
+
+    /**
+     * Retorna a posição do sucessor em ordem da posição informada
+     *
+     * @param posicao Posição atual
+     * @return Posição ou 0 quando não existe sucessor
+     */
+    private int sucessor(int posicao) {
+        int k = 2 * posicao + 1;
+        if (k <= tamanho) {
+            // Menor valor da subárvore da direita
+            while (2 * k <= tamanho) {
+                k = 2 * k;
+            }
+            return k;
+        }
+        // Sobe enquanto for filho da direita e depois mais um nível
+        return posicao >>> (Integer.numberOfTrailingZeros(~posicao) + 1);
+    }
+
+    /**
+     * Iterador de um intervalo do índice
+     */
+    private final class IteradorIntervalo implements PrimitiveIterator.OfInt {
+
+        /** Posição do próximo valor */
+        private int proximo;
+        /** Último valor a ser retornado */
+        private final int fim;
+
+        /**
+         * Método construtor
+         *
+         * @param inicio Posição do primeiro valor
+         * @param fim Último valor a ser retornado
+         */
+        IteradorIntervalo(int inicio, int fim) {
+            this.proximo = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return proximo != 0 && valores[proximo] <= fim;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int valor = valores[proximo];
+            proximo = sucessor(proximo);
+            return valor;
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Iterador dos valores da árvore em ordem, opcionalmente limitado a um valor
+ * final. Avança pelos vínculos com o nó pai, sem pilha e sem alocação por
+ * valor. Os nós removidos logicamente são ignorados. A árvore não deve ser
+ * alterada durante a iteração.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class IteradorEmOrdem implements PrimitiveIterator.OfInt {
+
+    /** Próximo nó a ser retornado */
+    private No proximo;
+    /** Último valor a ser retornado */
+    private final int fim;
+
+    /**
+     * Método construtor
+     *
+     * @param inicio Primeiro nó a ser retornado
+     * @param fim Último valor a ser retornado
+     */
+    IteradorEmOrdem(No inicio, int fim) {
+        this.proximo = inicio;
+        this.fim = fim;
+        pulaRemovidos();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return proximo != null && proximo.getValor() <= fim;
+    }
+
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int valor = proximo.getValor();
+        proximo = NoUtils.getSucessor(proximo);
+        pulaRemovidos();
+        return valor;
+    }
+
+    /**
+     * Avança até o primeiro nó que não foi removido logicamente
+     */
+    private void pulaRemovidos() {
+        while (proximo != null && proximo.isRemovido()) {
+            proximo = NoUtils.getSucessor(proximo);
+        }
+    }
+
+}
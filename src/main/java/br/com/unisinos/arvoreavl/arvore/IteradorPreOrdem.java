@@ -0,0 +1,53 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Iterador dos valores da árvore em pré-ordem. Avança pelos vínculos com o nó
+ * pai, sem pilha e sem alocação por valor. Os nós removidos logicamente são
+ * ignorados. A árvore não deve ser alterada durante a iteração.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class IteradorPreOrdem implements PrimitiveIterator.OfInt {
+
+    /** Próximo nó a ser retornado */
+    private No proximo;
+
+    /**
+     * Método construtor
+     *
+     * @param raiz Raíz da árvore
+     */
+    IteradorPreOrdem(No raiz) {
+        this.proximo = raiz;
+        pulaRemovidos();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return proximo != null;
+    }
+
+    @Override
+    public int nextInt() {
+        if (proximo == null) {
+            throw new NoSuchElementException();
+        }
+        int valor = proximo.getValor();
+        proximo = NoUtils.getSucessorPreOrdem(proximo);
+        pulaRemovidos();
+        return valor;
+    }
+
+    /**
+     * Avança até o primeiro nó que não foi removido logicamente
+     */
+    private void pulaRemovidos() {
+        while (proximo != null && proximo.isRemovido()) {
+            proximo = NoUtils.getSucessorPreOrdem(proximo);
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+/**
+ * Operações de junção e separação de subárvores AVL. A junção de duas subárvores separadas
+ * por um nó pivo custa O(|h1 - h2|), pois desce apenas pela lateral da
+ * subárvore mais alta até encontrar uma subárvore de altura compatível.
+ * As subárvores retornadas não possuem pai, cabendo ao chamador vinculá-las.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+final class JuncaoAvl {
+
+    /**
+     * Construtor privado, classe utilitária
+     */
+    private JuncaoAvl() {
+    }
+
+    /**
+     * Junta duas subárvores usando um nó como pivo. Todos os valores da
+     * esquerda devem ser menores que o pivo e todos os da direita maiores.
+     *
+     * @param esquerda Subárvore da esquerda (pode ser nula)
+     * @param pivo Nó pivo, cujos vínculos são descartados
+     * @param direita Subárvore da direita (pode ser nula)
+     * @return No raíz da subárvore resultante
+     */
+    static No juntar(No esquerda, No pivo, No direita) {
+        int alturaEsquerda = NoUtils.getAlturaNo(esquerda);
+        int alturaDireita = NoUtils.getAlturaNo(direita);
+        if (alturaEsquerda > alturaDireita + 1) {
+            return desvincula(juntarPelaDireita(esquerda, pivo, direita));
+        }
+        if (alturaDireita > alturaEsquerda + 1) {
+            return desvincula(juntarPelaEsquerda(esquerda, pivo, direita));
+        }
+        return vincula(esquerda, pivo, direita);
+    }
+
+    /**
+     * Junta duas subárvores sem pivo. Todos os valores da esquerda devem ser
+     * menores que os da direita.
+     *
+     * @param esquerda Subárvore da esquerda (pode ser nula)
+     * @param direita Subárvore da direita (pode ser nula)
+     * @return No raíz da subárvore resultante
+     */
+    static No juntar(No esquerda, No direita) {
+        if (esquerda == null) {
+            return desvincula(direita);
+        }
+        if (direita == null) {
+            return desvincula(esquerda);
+        }
+        // Usa o maior nó da esquerda como pivo
+        No maior = esquerda;
+        while (maior.getNoDireita() != null) {
+            maior = maior.getNoDireita();
+        }
+        return juntar(removeMaior(esquerda), maior, direita);
+    }
+
+    /**
+     * Separa uma subárvore pelo valor informado. Cada nível da descida junta o
+     * nó com o lado que não contém o valor, então o custo total é O(log n).
+     *
+     * @param no Raíz da subárvore (pode ser nula)
+     * @param valor Valor de separação
+     * @return Vetor com a subárvore dos valores menores que {@code valor} na
+     * posição 0 e a dos maiores ou iguais na posição 1 (podem ser nulas)
+     */
+    static No[] separa(No no, int valor) {
+        if (no == null) {
+            return new No[2];
+        }
+        No esquerda = no.getNoEsquerda();
+        No direita = no.getNoDireita();
+        No[] partes;
+        if (valor <= no.getValor()) {
+            // O nó e a sua direita ficam com os maiores ou iguais
+            partes = separa(esquerda, valor);
+            partes[1] = juntar(partes[1], no, direita);
+        } else {
+            // O nó e a sua esquerda ficam com os menores
+            partes = separa(direita, valor);
+            partes[0] = juntar(esquerda, no, partes[0]);
+        }
+        return partes;
+    }
+
+    /**
+     * Separa uma subárvore pelo valor informado, retirando o nó que o possui.
+     * O custo é O(log n), como em {@link #separa(No, int)}.
+     *
+     * @param no Raíz da subárvore (pode ser nula)
+     * @param valor Valor de separação
+     * @return Vetor com a subárvore dos valores menores na posição 0, o nó com
+     * o valor (desvinculado) na posição 1 e a subárvore dos maiores na posição
+     * 2 (podem ser nulos)
+     */
+    static No[] particiona(No no, int valor) {
+        if (no == null) {
+            return new No[3];
+        }
+        No esquerda = no.getNoEsquerda();
+        No direita = no.getNoDireita();
+        No[] partes;
+        if (valor == no.getValor()) {
+            partes = new No[]{desvincula(esquerda), vincula(null, no, null), desvincula(direita)};
+        } else if (valor < no.getValor()) {
+            partes = particiona(esquerda, valor);
+            partes[2] = juntar(partes[2], no, direita);
+        } else {
+            partes = particiona(direita, valor);
+            partes[0] = juntar(esquerda, no, partes[0]);
+        }
+        return partes;
+    }
+
+    /**
+     * Remove o maior nó de uma subárvore
+     *
+     * @param no Raíz da subárvore
+     * @return No raíz da subárvore sem o maior nó
+     */
+    private static No removeMaior(No no) {
+        if (no.getNoDireita() == null) {
+            return desvincula(no.getNoEsquerda());
+        }
+        return juntar(no.getNoEsquerda(), no, removeMaior(no.getNoDireita()));
+    }
+
+    /**
+     * Junta as subárvores quando a esquerda é mais alta, descendo pela sua
+     * lateral direita
+     *
+     * @param esquerda Subárvore da esquerda
+     * @param pivo Nó pivo
+     * @param direita Subárvore da direita
+     * @return No raíz da subárvore resultante
+     */
+    private static No juntarPelaDireita(No esquerda, No pivo, No direita) {
+        No filhoEsquerdo = esquerda.getNoEsquerda();
+        No filhoDireito = esquerda.getNoDireita();
+        No novaDireita;
+        if (NoUtils.getAlturaNo(filhoDireito) <= NoUtils.getAlturaNo(direita) + 1) {
+            novaDireita = vincula(filhoDireito, pivo, direita);
+            // Se o novo filho ficou alto demais, precisa de rotação dupla
+            if (NoUtils.getAlturaNo(novaDireita) > NoUtils.getAlturaNo(filhoEsquerdo) + 1) {
+                novaDireita = rotacaoDireita(novaDireita);
+            }
+        } else {
+            novaDireita = juntarPelaDireita(filhoDireito, pivo, direita);
+        }
+        No no = vincula(filhoEsquerdo, esquerda, novaDireita);
+        if (NoUtils.getAlturaNo(novaDireita) > NoUtils.getAlturaNo(filhoEsquerdo) + 1) {
+            return rotacaoEsquerda(no);
+        }
+        return no;
+    }
+
+    /**
+     * Junta as subárvores quando a direita é mais alta, descendo pela sua
+     * lateral esquerda
+     *
+     * @param esquerda Subárvore da esquerda
+     * @param pivo Nó pivo
+     * @param direita Subárvore da direita
+     * @return No raíz da subárvore resultante
+     */
+    private static No juntarPelaEsquerda(No esquerda, No pivo, No direita) {
+        No filhoEsquerdo = direita.getNoEsquerda();
+        No filhoDireito = direita.getNoDireita();
+        No novaEsquerda;
+        if (NoUtils.getAlturaNo(filhoEsquerdo) <= NoUtils.getAlturaNo(esquerda) + 1) {
+            novaEsquerda = vincula(esquerda, pivo, filhoEsquerdo);
+            // Se o novo filho ficou alto demais, precisa de rotação dupla
+            if (NoUtils.getAlturaNo(novaEsquerda) > NoUtils.getAlturaNo(filhoDireito) + 1) {
+                novaEsquerda = rotacaoEsquerda(novaEsquerda);
+            }
+        } else {
+            novaEsquerda = juntarPelaEsquerda(esquerda, pivo, filhoEsquerdo);
+        }
+        No no = vincula(novaEsquerda, direita, filhoDireito);
+        if (NoUtils.getAlturaNo(novaEsquerda) > NoUtils.getAlturaNo(filhoDireito) + 1) {
+            return rotacaoDireita(no);
+        }
+        return no;
+    }
+
+    /**
+     * Monta um nó com os filhos informados, recalculando a sua altura
+     *
+     * @param esquerda Filho à esquerda
+     * @param no Nó
+     * @param direita Filho à direita
+     * @return No
+     */
+    private static No vincula(No esquerda, No no, No direita) {
+        no.setNoPai(null);
+        no.setNoEsquerda(esquerda);
+        no.setNoDireita(direita);
+        if (esquerda != null) {
+            esquerda.setNoPai(no);
+        }
+        if (direita != null) {
+            direita.setNoPai(no);
+        }
+        no.atualizaAtributos();
+        return no;
+    }
+
+    /**
+     * Remove o vínculo do nó com o seu pai
+     *
+     * @param no Nó (pode ser nulo)
+     * @return No
+     */
+    static No desvincula(No no) {
+        if (no != null) {
+            no.setNoPai(null);
+        }
+        return no;
+    }
+
+    /**
+     * Realiza a rotação simples a direita de uma subárvore sem pai
+     *
+     * @param no Nó pivo da rotação
+     * @return No raíz da subárvore rotacionada
+     */
+    private static No rotacaoDireita(No no) {
+        No noEsquerdo = no.getNoEsquerda();
+        vincula(noEsquerdo.getNoDireita(), no, no.getNoDireita());
+        return vincula(noEsquerdo.getNoEsquerda(), noEsquerdo, no);
+    }
+
+    /**
+     * Realiza a rotação simples a esquerda de uma subárvore sem pai
+     *
+     * @param no Nó pivo da rotação
+     * @return No raíz da subárvore rotacionada
+     */
+    private static No rotacaoEsquerda(No no) {
+        No noDireito = no.getNoDireita();
+        vincula(no.getNoEsquerda(), no, noDireito.getNoEsquerda());
+        return vincula(no, noDireito, noDireito.getNoDireita());
+    }
+
+}
@@ -17,6 +17,12 @@ public class No {
     private No noDireita;
     /** Altura do nó */
     private int altura;
+    /** Quantidade de nós válidos da subárvore */
+    private int tamanho;
+    /** Quantidade de nós removidos logicamente da subárvore */
+    private int removidos;
+    /** Indica se o nó foi removido logicamente, permanecendo na árvore */
+    private boolean removido;
 
     /**
      * Método construtor
@@ -29,6 +35,7 @@ public class No {
         this.noPai = noPai;
         this.noEsquerda = this.noDireita = null;
         this.altura = 0;
+        this.tamanho = 1;
     }
 
     public int getValor() {
@@ -71,8 +78,63 @@ public class No {
         this.altura = altura;
     }
 
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public int getRemovidos() {
+        return removidos;
+    }
+
+    public boolean isRemovido() {
+        return removido;
+    }
+
+    /**
+     * Marca ou desmarca o nó como removido logicamente. As quantidades dos
+     * ancestrais devem ser recalculadas em seguida.
+     *
+     * @param removido Se o nó está removido
+     */
+    void setRemovido(boolean removido) {
+        this.removido = removido;
+    }
+
+    /**
+     * Recalcula a altura do nó a partir da altura já calculada dos filhos
+     */
     public void calculaAltura() {
+        this.altura = 1 + Math.max(NoUtils.getAlturaNo(noEsquerda),
+                NoUtils.getAlturaNo(noDireita));
+    }
+
+    /**
+     * Recalcula a quantidade de nós válidos e de nós removidos logicamente da
+     * subárvore a partir dos filhos
+     */
+    public void calculaTamanho() {
+        this.tamanho = (removido ? 0 : 1) + NoUtils.getTamanhoNo(noEsquerda) + NoUtils.getTamanhoNo(noDireita);
+        this.removidos = (removido ? 1 : 0) + NoUtils.getRemovidosNo(noEsquerda) + NoUtils.getRemovidosNo(noDireita);
+    }
+
+    /**
+     * Recalcula a altura e as quantidades de nós da subárvore
+     */
+    public void atualizaAtributos() {
+        calculaAltura();
+        calculaTamanho();
+    }
 
+    /**
+     * Copia a altura e as quantidades de nós de outro nó, usado quando este
+     * nó assume a posição do outro na árvore
+     *
+     * @param no Nó de origem
+     */
+    void copiaAtributos(No no) {
+        this.altura = no.altura;
+        this.tamanho = no.tamanho;
+        this.removidos = no.removidos;
     }
 
     /**
@@ -108,7 +170,7 @@ public class No {
      * @return Boolean
      */
     public boolean isFilhoEsquerda() {
-        return noPai.isPossuiFilhoEsquerda() && noPai.getNoEsquerda().getValor() == valor;
+        return noPai.getNoEsquerda() == this;
     }
 
     /**
@@ -117,7 +179,7 @@ public class No {
      * @return Boolean
      */
     public boolean isFilhoDireita() {
-        return noPai.isPossuiFilhoDireita() && noPai.getNoDireita().getValor() == valor;
+        return noPai.getNoDireita() == this;
     }
 
     /**
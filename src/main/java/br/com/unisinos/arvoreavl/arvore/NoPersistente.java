@@ -0,0 +1,82 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+/**
+ * Nó imutável de uma árvore AVL persistente. Não possui vínculo com o nó pai,
+ * permitindo que a mesma subárvore seja compartilhada por várias versões da
+ * árvore.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+final class NoPersistente {
+
+    /** Bytes estimados ocupados por um nó (cabeçalho, 3 int e 2 referências) */
+    static final int BYTES_POR_NO = 32;
+
+    /** Valor */
+    private final int valor;
+    /** Nó filho à esquerda */
+    private final NoPersistente noEsquerda;
+    /** Nó filho à direita */
+    private final NoPersistente noDireita;
+    /** Altura do nó */
+    private final int altura;
+    /** Quantidade de nós da subárvore */
+    private final int tamanho;
+
+    /**
+     * Método construtor
+     *
+     * @param valor Valor do nó
+     * @param noEsquerda Nó filho à esquerda
+     * @param noDireita Nó filho à direita
+     */
+    NoPersistente(int valor, NoPersistente noEsquerda, NoPersistente noDireita) {
+        this.valor = valor;
+        this.noEsquerda = noEsquerda;
+        this.noDireita = noDireita;
+        this.altura = 1 + Math.max(getAltura(noEsquerda), getAltura(noDireita));
+        this.tamanho = 1 + getTamanho(noEsquerda) + getTamanho(noDireita);
+    }
+
+    int getValor() {
+        return valor;
+    }
+
+    NoPersistente getNoEsquerda() {
+        return noEsquerda;
+    }
+
+    NoPersistente getNoDireita() {
+        return noDireita;
+    }
+
+    /**
+     * Retorna a altura de um nó, sendo -1 para o nó nulo
+     *
+     * @param no Nó
+     * @return int
+     */
+    static int getAltura(NoPersistente no) {
+        return no == null ? -1 : no.altura;
+    }
+
+    /**
+     * Retorna a quantidade de nós de uma subárvore
+     *
+     * @param no Nó
+     * @return int
+     */
+    static int getTamanho(NoPersistente no) {
+        return no == null ? 0 : no.tamanho;
+    }
+
+    /**
+     * Retorna o nó em formato String
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(valor);
+    }
+}
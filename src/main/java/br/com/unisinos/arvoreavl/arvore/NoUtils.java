@@ -9,13 +9,9 @@ public class NoUtils {
 
     /** Altura de uma árvore vazia */
     private static final int ALTURA_ARVORE_VAZIA = -1;
-    /** Altura de um nó que não possui nós filhos */
-    private static final int ALTURA_NO_SEM_FILHOS = 0;
-    /** Altura base de um nó com filhos */
-    private static final int ALTURA_BASE = 1;
 
     /**
-     * Retorna a altura de um nó
+     * Retorna a altura de um nó, mantida incrementalmente em {@link No#getAltura()}
      *
      * @param no Nó
      * @return int
@@ -24,20 +20,28 @@ public class NoUtils {
         // Se o nó estiver vazio (árvore vazia)
         if (no == null) {
             return ALTURA_ARVORE_VAZIA;
-        } else if (no.getNoEsquerda() == null && no.getNoDireita() == null) {
-            // Se o nó não possui filhos
-            return ALTURA_NO_SEM_FILHOS;
-        } else if (no.getNoEsquerda() == null) {
-            // Se não possui nó à esquerda, retorna a altura do nó à direita
-            return ALTURA_BASE + getAlturaNo(no.getNoDireita());
-        } else if (no.getNoDireita() == null) {
-            // Se não possui nó à direita, retorna a altura do nó à esquerda
-            return ALTURA_BASE + getAlturaNo(no.getNoEsquerda());
-        } else {
-            //retorna 1 + o maior número da comparação entre a altura da esquerda e direita.
-            return ALTURA_BASE + Math.max(getAlturaNo(no.getNoEsquerda()),
-                    getAlturaNo(no.getNoDireita()));
         }
+        return no.getAltura();
+    }
+
+    /**
+     * Retorna a quantidade de nós válidos da subárvore de um nó
+     *
+     * @param no Nó
+     * @return int
+     */
+    public static int getTamanhoNo(No no) {
+        return no == null ? 0 : no.getTamanho();
+    }
+
+    /**
+     * Retorna a quantidade de nós removidos logicamente da subárvore de um nó
+     *
+     * @param no Nó
+     * @return int
+     */
+    public static int getRemovidosNo(No no) {
+        return no == null ? 0 : no.getRemovidos();
     }
 
     /**
@@ -50,4 +54,170 @@ public class NoUtils {
         return getAlturaNo(no.getNoDireita()) - getAlturaNo(no.getNoEsquerda());
     }
 
+    /**
+     * Retorna o nó de menor valor da subárvore
+     *
+     * @param no Raíz da subárvore
+     * @return No ou {@code null} caso a subárvore esteja vazia
+     */
+    public static No getMenorNo(No no) {
+        while (no != null && no.getNoEsquerda() != null) {
+            no = no.getNoEsquerda();
+        }
+        return no;
+    }
+
+    /**
+     * Retorna o nó de maior valor da subárvore
+     *
+     * @param no Raíz da subárvore
+     * @return No ou {@code null} caso a subárvore esteja vazia
+     */
+    public static No getMaiorNo(No no) {
+        while (no != null && no.getNoDireita() != null) {
+            no = no.getNoDireita();
+        }
+        return no;
+    }
+
+    /**
+     * Retorna o próximo nó em ordem, utilizando os vínculos com o nó pai
+     *
+     * @param no Nó
+     * @return No ou {@code null} caso seja o último
+     */
+    public static No getSucessor(No no) {
+        if (no.getNoDireita() != null) {
+            return getMenorNo(no.getNoDireita());
+        }
+        // Sobe enquanto o nó for filho à direita
+        while (no.getNoPai() != null && no.getNoPai().getNoDireita() == no) {
+            no = no.getNoPai();
+        }
+        return no.getNoPai();
+    }
+
+    /**
+     * Retorna o nó anterior em ordem, utilizando os vínculos com o nó pai
+     *
+     * @param no Nó
+     * @return No ou {@code null} caso seja o primeiro
+     */
+    public static No getAntecessor(No no) {
+        if (no.getNoEsquerda() != null) {
+            return getMaiorNo(no.getNoEsquerda());
+        }
+        // Sobe enquanto o nó for filho à esquerda
+        while (no.getNoPai() != null && no.getNoPai().getNoEsquerda() == no) {
+            no = no.getNoPai();
+        }
+        return no.getNoPai();
+    }
+
+    /**
+     * Retorna o próximo nó em pré-ordem, utilizando os vínculos com o nó pai
+     *
+     * @param no Nó
+     * @return No ou {@code null} caso seja o último
+     */
+    public static No getSucessorPreOrdem(No no) {
+        if (no.getNoEsquerda() != null) {
+            return no.getNoEsquerda();
+        }
+        if (no.getNoDireita() != null) {
+            return no.getNoDireita();
+        }
+        // Sobe até um ancestral cujo filho à direita ainda não foi visitado
+        while (no.getNoPai() != null) {
+            No noPai = no.getNoPai();
+            if (noPai.getNoEsquerda() == no && noPai.getNoDireita() != null) {
+                return noPai.getNoDireita();
+            }
+            no = noPai;
+        }
+        return null;
+    }
+
+    /**
+     * Retorna o primeiro nó da subárvore em pós-ordem
+     *
+     * @param no Raíz da subárvore
+     * @return No ou {@code null} caso a subárvore esteja vazia
+     */
+    public static No getPrimeiroPosOrdem(No no) {
+        while (no != null && !no.isFolha()) {
+            no = no.getNoEsquerda() != null ? no.getNoEsquerda() : no.getNoDireita();
+        }
+        return no;
+    }
+
+    /**
+     * Retorna o próximo nó em pós-ordem, utilizando os vínculos com o nó pai
+     *
+     * @param no Nó
+     * @return No ou {@code null} caso seja o último
+     */
+    public static No getSucessorPosOrdem(No no) {
+        No noPai = no.getNoPai();
+        if (noPai != null && noPai.getNoEsquerda() == no && noPai.getNoDireita() != null) {
+            return getPrimeiroPosOrdem(noPai.getNoDireita());
+        }
+        return noPai;
+    }
+
+    /**
+     * Verifica os invariantes de uma subárvore AVL: ordenação dos valores,
+     * vínculos com o nó pai, alturas, tamanhos, quantidades de nós removidos e
+     * fatores de balanceamento
+     *
+     * @param no Raíz da subárvore
+     * @return Quantidade de nós válidos da subárvore
+     * @throws IllegalStateException Se algum invariante for violado
+     */
+    public static int validaSubarvore(No no) {
+        if (no != null && no.getNoPai() != null) {
+            throw new IllegalStateException(String.format("Raíz %s possui pai", no));
+        }
+        return validaSubarvore(no, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Verifica os invariantes de uma subárvore cujos valores devem estar entre
+     * os limites informados
+     *
+     * @param no Raíz da subárvore
+     * @param limiteInferior Limite inferior exclusivo dos valores
+     * @param limiteSuperior Limite superior exclusivo dos valores
+     * @return Quantidade de nós válidos da subárvore
+     */
+    private static int validaSubarvore(No no, long limiteInferior, long limiteSuperior) {
+        if (no == null) {
+            return 0;
+        }
+        if (no.getValor() <= limiteInferior || no.getValor() >= limiteSuperior) {
+            throw new IllegalStateException(String.format("Nó %s fora de ordem", no));
+        }
+        No esquerda = no.getNoEsquerda();
+        No direita = no.getNoDireita();
+        if ((esquerda != null && esquerda.getNoPai() != no)
+                || (direita != null && direita.getNoPai() != no)) {
+            throw new IllegalStateException(String.format("Filho de %s com pai incorreto", no));
+        }
+        int quantidade = (no.isRemovido() ? 0 : 1) + validaSubarvore(esquerda, limiteInferior, no.getValor())
+                + validaSubarvore(direita, no.getValor(), limiteSuperior);
+        if (no.getAltura() != 1 + Math.max(getAlturaNo(esquerda), getAlturaNo(direita))) {
+            throw new IllegalStateException(String.format("Altura incorreta no nó %s", no));
+        }
+        if (no.getTamanho() != quantidade) {
+            throw new IllegalStateException(String.format("Tamanho incorreto no nó %s", no));
+        }
+        if (no.getRemovidos() != (no.isRemovido() ? 1 : 0) + getRemovidosNo(esquerda) + getRemovidosNo(direita)) {
+            throw new IllegalStateException(String.format("Quantidade de removidos incorreta no nó %s", no));
+        }
+        if (Math.abs(getFatorbalanceamento(no)) > 1) {
+            throw new IllegalStateException(String.format("Nó %s desbalanceado", no));
+        }
+        return quantidade;
+    }
+
 }
@@ -0,0 +1,437 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+/**
+ * Renderiza os percursos e os níveis de uma árvore em um {@link OutputStream}
+ * ou {@link Appendable}. Os valores são formatados diretamente em um buffer de
+ * bytes reutilizado entre as chamadas, sem criação de Strings. Os percursos
+ * usam os iteradores da árvore e ocupam memória constante; os níveis são
+ * impressos em uma única passada em largura, com memória proporcional à
+ * largura do maior nível.
+ * <p>
+ * A renderização pode ser limitada a uma quantidade de níveis ou de valores;
+ * o conteúdo omitido é indicado por {@code ...}.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class RenderizadorAvl {
+
+    /** Tamanho do buffer de saída */
+    private static final int TAMANHO_BUFFER = 1 << 13;
+    /** Maior quantidade de bytes de um valor formatado, com delimitadores */
+    private static final int TAMANHO_MAXIMO_VALOR = 16;
+    /** Separador dos valores dos percursos */
+    private static final byte[] SEPARADOR = ", ".getBytes(StandardCharsets.US_ASCII);
+    /** Indicador de conteúdo omitido */
+    private static final byte[] OMISSAO = "...".getBytes(StandardCharsets.US_ASCII);
+    /** Quebra de linha da plataforma */
+    private static final byte[] QUEBRA_LINHA = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    /** Saída em bytes, ou {@code null} se a saída for de texto */
+    private final OutputStream saidaBytes;
+    /** Saída de texto, ou {@code null} se a saída for em bytes */
+    private final Appendable saidaTexto;
+    /** Buffer de saída */
+    private final byte[] buffer;
+    /** Posição livre do buffer */
+    private int posicao;
+    /** Quantidade máxima de níveis renderizados */
+    private int limiteNiveis;
+    /** Quantidade máxima de valores renderizados */
+    private long limiteValores;
+    /** Nós do nível atual da passada em largura */
+    private No[] nivelAtual;
+    /** Nós do próximo nível da passada em largura */
+    private No[] proximoNivel;
+    /** Posições do nível atual da passada em largura da árvore primitiva */
+    private int[] posicoesNivelAtual;
+    /** Posições do próximo nível da passada em largura da árvore primitiva */
+    private int[] posicoesProximoNivel;
+
+    /**
+     * Método construtor
+     *
+     * @param saida Saída em bytes
+     */
+    public RenderizadorAvl(OutputStream saida) {
+        this(saida, null);
+    }
+
+    /**
+     * Método construtor, escrevendo os bytes diretamente no stream
+     *
+     * @param saida Saída em bytes, como {@link System#out}
+     */
+    public RenderizadorAvl(PrintStream saida) {
+        this(saida, null);
+    }
+
+    /**
+     * Método construtor
+     *
+     * @param saida Saída de texto
+     */
+    public RenderizadorAvl(Appendable saida) {
+        this(null, saida);
+    }
+
+    /**
+     * Método construtor
+     *
+     * @param saidaBytes Saída em bytes
+     * @param saidaTexto Saída de texto
+     */
+    private RenderizadorAvl(OutputStream saidaBytes, Appendable saidaTexto) {
+        this.saidaBytes = saidaBytes;
+        this.saidaTexto = saidaTexto;
+        this.buffer = new byte[TAMANHO_BUFFER];
+        this.limiteNiveis = Integer.MAX_VALUE;
+        this.limiteValores = Long.MAX_VALUE;
+        this.nivelAtual = new No[16];
+        this.proximoNivel = new No[16];
+        this.posicoesNivelAtual = new int[16];
+        this.posicoesProximoNivel = new int[16];
+    }
+
+    public int getLimiteNiveis() {
+        return limiteNiveis;
+    }
+
+    /**
+     * Define a quantidade máxima de níveis renderizados por
+     * {@link #renderizaNiveis(ArvoreAvl)}
+     *
+     * @param limiteNiveis Quantidade de níveis
+     */
+    public void setLimiteNiveis(int limiteNiveis) {
+        if (limiteNiveis < 0) {
+            throw new IllegalArgumentException("Limite de níveis não pode ser negativo");
+        }
+        this.limiteNiveis = limiteNiveis;
+    }
+
+    public long getLimiteValores() {
+        return limiteValores;
+    }
+
+    /**
+     * Define a quantidade máxima de valores renderizados
+     *
+     * @param limiteValores Quantidade de valores
+     */
+    public void setLimiteValores(long limiteValores) {
+        if (limiteValores < 0) {
+            throw new IllegalArgumentException("Limite de valores não pode ser negativo");
+        }
+        this.limiteValores = limiteValores;
+    }
+
+    /**
+     * Renderiza os valores em ordem, separados por vírgula, em uma linha
+     *
+     * @param arvore Árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaEmOrdem(ArvoreAvl arvore) throws IOException {
+        renderizaSequencia(arvore.iteradorEmOrdem());
+    }
+
+    /**
+     * Renderiza os valores em pré-ordem, separados por vírgula, em uma linha
+     *
+     * @param arvore Árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaPreOrdem(ArvoreAvl arvore) throws IOException {
+        renderizaSequencia(arvore.iteradorPreOrdem());
+    }
+
+    /**
+     * Renderiza os valores em pós-ordem, separados por vírgula, em uma linha
+     *
+     * @param arvore Árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaPosOrdem(ArvoreAvl arvore) throws IOException {
+        renderizaSequencia(arvore.iteradorPosOrdem());
+    }
+
+    /**
+     * Renderiza cada nível da árvore em uma linha, no formato {@code |valor| }.
+     * Os nós marcados como removidos pela exclusão lógica não são escritos nem
+     * contam para o limite de valores, mas seus filhos continuam no nível
+     * seguinte.
+     *
+     * @param arvore Árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaNiveis(ArvoreAvl arvore) throws IOException {
+        No raiz = arvore.getRaiz();
+        int quantidadeNivel = 0;
+        if (raiz != null) {
+            nivelAtual[quantidadeNivel++] = raiz;
+        }
+        long valoresRestantes = limiteValores;
+        for (int nivel = 0; quantidadeNivel > 0; nivel++) {
+            if (nivel == limiteNiveis || valoresRestantes == 0) {
+                escreve(OMISSAO);
+                escreve(QUEBRA_LINHA);
+                break;
+            }
+            if (proximoNivel.length < 2 * quantidadeNivel) {
+                proximoNivel = new No[2 * quantidadeNivel];
+            }
+            int quantidadeProximo = 0;
+            int i = 0;
+            for (; i < quantidadeNivel; i++) {
+                No no = nivelAtual[i];
+                if (!no.isRemovido()) {
+                    if (valoresRestantes == 0) {
+                        break;
+                    }
+                    escreveNo(no.getValor());
+                    valoresRestantes--;
+                }
+                if (no.getNoEsquerda() != null) {
+                    proximoNivel[quantidadeProximo++] = no.getNoEsquerda();
+                }
+                if (no.getNoDireita() != null) {
+                    proximoNivel[quantidadeProximo++] = no.getNoDireita();
+                }
+            }
+            if (i < quantidadeNivel) {
+                escreve(OMISSAO);
+                escreve(QUEBRA_LINHA);
+                break;
+            }
+            escreve(QUEBRA_LINHA);
+            // O próximo nível passa a ser o atual, reaproveitando os vetores
+            No[] nivelAnterior = nivelAtual;
+            nivelAtual = proximoNivel;
+            proximoNivel = nivelAnterior;
+            quantidadeNivel = quantidadeProximo;
+        }
+        Arrays.fill(nivelAtual, null);
+        Arrays.fill(proximoNivel, null);
+        descarrega();
+    }
+
+    /**
+     * Renderiza os valores de uma versão da árvore persistente em ordem,
+     * separados por vírgula, em uma linha
+     *
+     * @param snapshot Versão da árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaEmOrdem(SnapshotAvl snapshot) throws IOException {
+        renderizaSequencia(snapshot.iteradorEmOrdem());
+    }
+
+    /**
+     * Renderiza os valores da árvore primitiva em ordem, separados por
+     * vírgula, em uma linha
+     *
+     * @param arvore Árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaEmOrdem(ArvoreAvlPrimitiva arvore) throws IOException {
+        renderizaSequencia(arvore.iteradorEmOrdem());
+    }
+
+    /**
+     * Renderiza os valores da árvore primitiva em pré-ordem, separados por
+     * vírgula, em uma linha
+     *
+     * @param arvore Árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaPreOrdem(ArvoreAvlPrimitiva arvore) throws IOException {
+        renderizaSequencia(arvore.iteradorPreOrdem());
+    }
+
+    /**
+     * Renderiza os valores da árvore primitiva em pós-ordem, separados por
+     * vírgula, em uma linha
+     *
+     * @param arvore Árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaPosOrdem(ArvoreAvlPrimitiva arvore) throws IOException {
+        renderizaSequencia(arvore.iteradorPosOrdem());
+    }
+
+    /**
+     * Renderiza cada nível da árvore primitiva em uma linha, no formato
+     * {@code |valor| }, com os mesmos limites de {@link #renderizaNiveis(ArvoreAvl)}
+     *
+     * @param arvore Árvore
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void renderizaNiveis(ArvoreAvlPrimitiva arvore) throws IOException {
+        int raiz = arvore.getRaiz();
+        int quantidadeNivel = 0;
+        if (!ArvoreAvlPrimitiva.isNulo(raiz)) {
+            posicoesNivelAtual[quantidadeNivel++] = raiz;
+        }
+        long valoresRestantes = limiteValores;
+        for (int nivel = 0; quantidadeNivel > 0; nivel++) {
+            if (nivel == limiteNiveis || valoresRestantes == 0) {
+                escreve(OMISSAO);
+                escreve(QUEBRA_LINHA);
+                break;
+            }
+            if (posicoesProximoNivel.length < 2 * quantidadeNivel) {
+                posicoesProximoNivel = new int[2 * quantidadeNivel];
+            }
+            int quantidadeProximo = 0;
+            int i = 0;
+            for (; i < quantidadeNivel && valoresRestantes > 0; i++, valoresRestantes--) {
+                int no = posicoesNivelAtual[i];
+                escreveNo(arvore.getChave(no));
+                if (!ArvoreAvlPrimitiva.isNulo(arvore.getEsquerda(no))) {
+                    posicoesProximoNivel[quantidadeProximo++] = arvore.getEsquerda(no);
+                }
+                if (!ArvoreAvlPrimitiva.isNulo(arvore.getDireita(no))) {
+                    posicoesProximoNivel[quantidadeProximo++] = arvore.getDireita(no);
+                }
+            }
+            if (i < quantidadeNivel) {
+                escreve(OMISSAO);
+                escreve(QUEBRA_LINHA);
+                break;
+            }
+            escreve(QUEBRA_LINHA);
+            // O próximo nível passa a ser o atual, reaproveitando os vetores
+            int[] nivelAnterior = posicoesNivelAtual;
+            posicoesNivelAtual = posicoesProximoNivel;
+            posicoesProximoNivel = nivelAnterior;
+            quantidadeNivel = quantidadeProximo;
+        }
+        descarrega();
+    }
+
+    /**
+     * Grava o conteúdo do buffer na saída
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void descarrega() throws IOException {
+        gravaBuffer();
+        if (saidaBytes != null) {
+            saidaBytes.flush();
+        } else if (saidaTexto instanceof Flushable) {
+            ((Flushable) saidaTexto).flush();
+        }
+    }
+
+    /**
+     * Renderiza uma sequência de valores, separados por vírgula, em uma linha
+     *
+     * @param valores Valores
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private void renderizaSequencia(PrimitiveIterator.OfInt valores) throws IOException {
+        long quantidade = 0;
+        while (valores.hasNext()) {
+            if (quantidade > 0) {
+                escreve(SEPARADOR);
+            }
+            if (quantidade == limiteValores) {
+                escreve(OMISSAO);
+                break;
+            }
+            garanteEspaco(TAMANHO_MAXIMO_VALOR);
+            escreveInteiro(valores.nextInt());
+            quantidade++;
+        }
+        escreve(QUEBRA_LINHA);
+        descarrega();
+    }
+
+    /**
+     * Escreve o valor de um nó da renderização por níveis
+     *
+     * @param valor Valor do nó
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private void escreveNo(int valor) throws IOException {
+        garanteEspaco(TAMANHO_MAXIMO_VALOR);
+        buffer[posicao++] = '|';
+        escreveInteiro(valor);
+        buffer[posicao++] = '|';
+        buffer[posicao++] = ' ';
+    }
+
+    /**
+     * Escreve um inteiro em decimal no buffer, que deve ter espaço suficiente
+     *
+     * @param valor Valor
+     */
+    private void escreveInteiro(int valor) {
+        long restante = valor;
+        if (restante < 0) {
+            buffer[posicao++] = '-';
+            restante = -restante;
+        }
+        // Conta os dígitos e os escreve do último para o primeiro
+        int digitos = 1;
+        for (long limite = 10; limite <= restante; limite *= 10) {
+            digitos++;
+        }
+        int fim = posicao + digitos;
+        for (int i = fim - 1; i >= posicao; i--) {
+            buffer[i] = (byte) ('0' + restante % 10);
+            restante /= 10;
+        }
+        posicao = fim;
+    }
+
+    /**
+     * Escreve bytes no buffer
+     *
+     * @param bytes Bytes
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private void escreve(byte[] bytes) throws IOException {
+        garanteEspaco(bytes.length);
+        System.arraycopy(bytes, 0, buffer, posicao, bytes.length);
+        posicao += bytes.length;
+    }
+
+    /**
+     * Garante espaço livre no buffer, gravando o seu conteúdo se necessário
+     *
+     * @param quantidade Quantidade de bytes
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private void garanteEspaco(int quantidade) throws IOException {
+        if (posicao + quantidade > buffer.length) {
+            gravaBuffer();
+        }
+    }
+
+    /**
+     * Grava o conteúdo do buffer na saída, sem descarregar a saída
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private void gravaBuffer() throws IOException {
+        if (saidaBytes != null) {
+            saidaBytes.write(buffer, 0, posicao);
+        } else {
+            // O buffer possui apenas caracteres ASCII
+            for (int i = 0; i < posicao; i++) {
+                saidaTexto.append((char) buffer[i]);
+            }
+        }
+        posicao = 0;
+    }
+
+}
@@ -0,0 +1,215 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * Versão imutável de uma {@link ArvoreAvlPersistente}. Compartilha os nós com
+ * a árvore que a originou e pode ser lida por qualquer thread enquanto a
+ * árvore continua recebendo escritas.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public final class SnapshotAvl {
+
+    /** Nó raíz da versão */
+    private final NoPersistente raiz;
+
+    /**
+     * Método construtor
+     *
+     * @param raiz Nó raíz da versão
+     */
+    SnapshotAvl(NoPersistente raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * Retorna o nó raíz da versão
+     *
+     * @return NoPersistente
+     */
+    NoPersistente getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Retorna se a versão está vazia
+     *
+     * @return Boolean
+     */
+    public boolean isArvoreVazia() {
+        return raiz == null;
+    }
+
+    /**
+     * Retorna a quantidade de nós da versão
+     *
+     * @return int
+     */
+    public int getTamanho() {
+        return NoPersistente.getTamanho(raiz);
+    }
+
+    /**
+     * Retorna a altura da versão
+     *
+     * @return int
+     */
+    public int getAltura() {
+        return NoPersistente.getAltura(raiz);
+    }
+
+    /**
+     * Retorna se a versão possui o valor
+     *
+     * @param valor Valor do nó
+     * @return Boolean
+     */
+    public boolean contem(int valor) {
+        NoPersistente noAtual = raiz;
+        while (noAtual != null) {
+            if (noAtual.getValor() == valor) {
+                return true;
+            }
+            noAtual = noAtual.getValor() < valor ? noAtual.getNoDireita() : noAtual.getNoEsquerda();
+        }
+        return false;
+    }
+
+    /**
+     * Retorna a quantidade de nós compartilhados com outra versão da árvore.
+     * Percorre os nós desta versão e as subárvores não compartilhadas da
+     * outra, tendo custo O(n); destina-se a diagnóstico.
+     *
+     * @param outra Outra versão
+     * @return int
+     */
+    public int getNosCompartilhados(SnapshotAvl outra) {
+        Set<NoPersistente> nos = Collections.newSetFromMap(new IdentityHashMap<>());
+        adicionaNos(raiz, nos);
+        return contaCompartilhados(outra.raiz, nos);
+    }
+
+    /**
+     * Retorna a memória estimada compartilhada com outra versão, em bytes
+     *
+     * @param outra Outra versão
+     * @return long
+     */
+    public long getMemoriaCompartilhada(SnapshotAvl outra) {
+        return (long) getNosCompartilhados(outra) * NoPersistente.BYTES_POR_NO;
+    }
+
+    /**
+     * Retorna um iterador dos valores da versão em ordem. Como a versão é
+     * imutável, pode ser usado enquanto a árvore recebe escritas.
+     *
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iteradorEmOrdem() {
+        return new IteradorSnapshot(raiz);
+    }
+
+    /**
+     * Imprime os nós da versão em ordem
+     */
+    public void printEmOrdem() {
+        try {
+            new RenderizadorAvl(System.out).renderizaEmOrdem(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adiciona todos os nós da subárvore ao conjunto
+     *
+     * @param no Raíz da subárvore
+     * @param nos Conjunto de nós
+     */
+    private static void adicionaNos(NoPersistente no, Set<NoPersistente> nos) {
+        if (no != null) {
+            nos.add(no);
+            adicionaNos(no.getNoEsquerda(), nos);
+            adicionaNos(no.getNoDireita(), nos);
+        }
+    }
+
+    /**
+     * Conta os nós da subárvore presentes no conjunto. Como o compartilhamento
+     * acontece por subárvores inteiras, ao encontrar um nó compartilhado toda
+     * a sua subárvore é contada sem ser percorrida.
+     *
+     * @param no Raíz da subárvore
+     * @param nos Conjunto de nós
+     * @return int
+     */
+    private static int contaCompartilhados(NoPersistente no, Set<NoPersistente> nos) {
+        if (no == null) {
+            return 0;
+        }
+        if (nos.contains(no)) {
+            return NoPersistente.getTamanho(no);
+        }
+        return contaCompartilhados(no.getNoEsquerda(), nos)
+                + contaCompartilhados(no.getNoDireita(), nos);
+    }
+
+    /**
+     * Iterador dos valores em ordem. Os nós persistentes não possuem vínculo
+     * com o pai, então o caminho até o próximo nó é mantido em uma pilha; como
+     * a versão não muda, a pilha é alocada uma única vez com a altura exata.
+     */
+    private static final class IteradorSnapshot implements PrimitiveIterator.OfInt {
+
+        /** Nós cuja subárvore da direita ainda não foi visitada */
+        private final NoPersistente[] pilha;
+        /** Quantidade de nós na pilha */
+        private int topo;
+
+        /**
+         * Método construtor
+         *
+         * @param raiz Raíz da versão
+         */
+        private IteradorSnapshot(NoPersistente raiz) {
+            this.pilha = new NoPersistente[NoPersistente.getAltura(raiz) + 1];
+            empilhaEsquerda(raiz);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return topo > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (topo == 0) {
+                throw new NoSuchElementException();
+            }
+            NoPersistente no = pilha[--topo];
+            pilha[topo] = null;
+            empilhaEsquerda(no.getNoDireita());
+            return no.getValor();
+        }
+
+        /**
+         * Empilha o nó e todos os seus descendentes pela esquerda
+         *
+         * @param no Nó (pode ser nulo)
+         */
+        private void empilhaEsquerda(NoPersistente no) {
+            while (no != null) {
+                pilha[topo++] = no;
+                no = no.getNoEsquerda();
+            }
+        }
+    }
+
+}
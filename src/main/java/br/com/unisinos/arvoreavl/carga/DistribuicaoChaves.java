@@ -0,0 +1,22 @@
+package br.com.unisinos.arvoreavl.carga;
+
+/**
+ * Distribuições de chaves utilizadas nos benchmarks e nos testes de carga
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public enum DistribuicaoChaves {
+
+    /** Chaves crescentes, percorrendo o universo em sequência */
+    SEQUENCIAL,
+    /** Chaves uniformemente distribuídas no universo */
+    ALEATORIA,
+    /** Chaves com popularidade seguindo uma distribuição zipfian */
+    ZIPFIAN,
+    /**
+     * Chaves uniformes dentro de dois conjuntos: um conjunto quente no início
+     * do universo recebe a maior parte dos acessos
+     */
+    HOTSPOT
+
+}
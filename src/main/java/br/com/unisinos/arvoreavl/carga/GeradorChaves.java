@@ -0,0 +1,142 @@
+package br.com.unisinos.arvoreavl.carga;
+
+import java.util.SplittableRandom;
+
+/**
+ * Gera sequências de chaves de acordo com uma distribuição
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public final class GeradorChaves {
+
+    /** Constante da distribuição zipfian (mesma utilizada pelo YCSB) */
+    private static final double THETA_ZIPFIAN = 0.99;
+    /** Fração do universo que forma o conjunto quente (mesma utilizada pelo YCSB) */
+    private static final double FRACAO_QUENTE = 0.2;
+    /** Fração dos acessos destinada ao conjunto quente */
+    private static final double ACESSOS_QUENTES = 0.8;
+    /** Base do hash FNV utilizado para espalhar as chaves populares */
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    /** Primo do hash FNV */
+    private static final long FNV_PRIMO = 1099511628211L;
+
+    /**
+     * Construtor privado, classe utilitária
+     */
+    private GeradorChaves() {
+    }
+
+    /**
+     * Gera uma sequência de chaves no intervalo {@code [0, universo)}
+     *
+     * @param distribuicao Distribuição das chaves
+     * @param quantidade Quantidade de chaves geradas
+     * @param universo Quantidade de chaves distintas possíveis
+     * @param semente Semente do gerador aleatório
+     * @return int[]
+     */
+    public static int[] gera(DistribuicaoChaves distribuicao, int quantidade, int universo,
+            long semente) {
+        int[] chaves = new int[quantidade];
+        SplittableRandom random = new SplittableRandom(semente);
+        switch (distribuicao) {
+            case SEQUENCIAL:
+                for (int i = 0; i < quantidade; i++) {
+                    chaves[i] = i % universo;
+                }
+                break;
+            case ALEATORIA:
+                for (int i = 0; i < quantidade; i++) {
+                    chaves[i] = random.nextInt(universo);
+                }
+                break;
+            case ZIPFIAN:
+                geraZipfian(chaves, universo, random);
+                break;
+            case HOTSPOT:
+                geraHotspot(chaves, universo, random);
+                break;
+            default:
+                throw new IllegalArgumentException("Distribuição inválida: " + distribuicao);
+        }
+        return chaves;
+    }
+
+    /**
+     * Preenche o vetor com chaves zipfian, espalhadas pelo universo através de
+     * hash para que as chaves populares não fiquem todas no mesmo ramo da árvore
+     *
+     * @param chaves Vetor a ser preenchido
+     * @param universo Quantidade de chaves distintas possíveis
+     * @param random Gerador aleatório
+     */
+    private static void geraZipfian(int[] chaves, int universo, SplittableRandom random) {
+        double zetaN = zeta(universo);
+        double zeta2 = zeta(2);
+        double alpha = 1.0 / (1.0 - THETA_ZIPFIAN);
+        double eta = (1 - Math.pow(2.0 / universo, 1 - THETA_ZIPFIAN)) / (1 - zeta2 / zetaN);
+        for (int i = 0; i < chaves.length; i++) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            long posicao;
+            if (uz < 1.0) {
+                posicao = 0;
+            } else if (uz < 1.0 + Math.pow(0.5, THETA_ZIPFIAN)) {
+                posicao = 1;
+            } else {
+                posicao = (long) (universo * Math.pow(eta * u - eta + 1, alpha));
+            }
+            chaves[i] = (int) Long.remainderUnsigned(fnv(posicao), universo);
+        }
+    }
+
+    /**
+     * Preenche o vetor com chaves do conjunto quente, no início do universo,
+     * ou do restante do universo, cada um com distribuição uniforme
+     *
+     * @param chaves Vetor a ser preenchido
+     * @param universo Quantidade de chaves distintas possíveis
+     * @param random Gerador aleatório
+     */
+    private static void geraHotspot(int[] chaves, int universo, SplittableRandom random) {
+        int quentes = Math.max(1, (int) (universo * FRACAO_QUENTE));
+        for (int i = 0; i < chaves.length; i++) {
+            if (quentes == universo || random.nextDouble() < ACESSOS_QUENTES) {
+                chaves[i] = random.nextInt(quentes);
+            } else {
+                chaves[i] = quentes + random.nextInt(universo - quentes);
+            }
+        }
+    }
+
+    /**
+     * Calcula a constante zeta da distribuição zipfian
+     *
+     * @param n Quantidade de elementos
+     * @return double
+     */
+    private static double zeta(int n) {
+        double soma = 0;
+        for (int i = 1; i <= n; i++) {
+            soma += 1 / Math.pow(i, THETA_ZIPFIAN);
+        }
+        return soma;
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits
+     *
+     * @param valor Valor
+     * @return long
+     */
+    private static long fnv(long valor) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= valor & 0xFF;
+            hash *= FNV_PRIMO;
+            valor >>>= 8;
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,653 @@
+package br.com.unisinos.arvoreavl.carga;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvlConcorrente;
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvlParticionada;
+import br.com.unisinos.arvoreavl.metricas.HistogramaLatencia;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Ferramenta de teste de carga da árvore. Executa uma mistura de buscas,
+ * inserções e exclusões com chaves de uma {@link DistribuicaoChaves}, em uma
+ * ou mais threads, com uma fase de aquecimento seguida da fase de medição. A
+ * latência de cada operação medida é registrada em histogramas e o resultado
+ * (vazão e percentis) é escrito em JSON. Ao final, os invariantes da árvore
+ * são verificados; uma violação é reportada no JSON e encerra o processo com
+ * código 2.
+ * <p>
+ * As misturas {@code A}, {@code B} e {@code C} seguem as cargas do YCSB (50%,
+ * 95% e 100% de leituras), com as atualizações divididas igualmente entre
+ * inserções e exclusões para manter o tamanho da árvore estável. Uma mistura
+ * personalizada é informada como {@code leitura:insercao:exclusao}, em pesos.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class TesteCarga {
+
+    /** Quantidade de chaves pré-geradas por thread, potência de 2 */
+    private static final int QUANTIDADE_CHAVES = 1 << 20;
+    /** Código de saída para argumentos inválidos */
+    private static final int SAIDA_ARGUMENTOS_INVALIDOS = 1;
+    /** Código de saída para árvore com invariantes violados */
+    private static final int SAIDA_ESTRUTURA_INVALIDA = 2;
+    /** Intervalo em milissegundos da compactação em segundo plano da árvore concorrente */
+    private static final long INTERVALO_COMPACTACAO = 10;
+    /** Uso da ferramenta */
+    private static final String USO = "Uso: TesteCarga [--arvore SIMPLES|CONCORRENTE|PARTICIONADA] [--particoes N]\n"
+            + "    [--mistura A|B|C|leitura:insercao:exclusao] [--distribuicao SEQUENCIAL|ALEATORIA|ZIPFIAN|HOTSPOT]\n"
+            + "    [--chaves N] [--carga-inicial N] [--threads N] [--aquecimento S] [--duracao S]\n"
+            + "    [--exclusao-logica proporcao] [--semente N] [--saida arquivo.json]";
+
+    /**
+     * Tipos de árvore que podem ser testados
+     */
+    public enum TipoArvore {
+
+        /** {@link ArvoreAvl} sem sincronização, apenas com uma thread */
+        SIMPLES,
+        /** {@link ArvoreAvlConcorrente} */
+        CONCORRENTE,
+        /** {@link ArvoreAvlParticionada} com repartição adaptativa */
+        PARTICIONADA
+
+    }
+
+    /** Tipo de árvore testada */
+    private TipoArvore tipoArvore = TipoArvore.CONCORRENTE;
+    /** Quantidade inicial de partições da árvore particionada */
+    private int particoes = 16;
+    /** Nome da mistura de operações */
+    private String mistura = "B";
+    /** Peso das buscas */
+    private int pesoLeitura = 190;
+    /** Peso das inserções */
+    private int pesoInsercao = 5;
+    /** Peso das exclusões */
+    private int pesoExclusao = 5;
+    /** Distribuição das chaves */
+    private DistribuicaoChaves distribuicao = DistribuicaoChaves.ZIPFIAN;
+    /** Quantidade de chaves distintas */
+    private int chaves = 1_000_000;
+    /** Quantidade de chaves inseridas antes do teste, {@code -1} para a metade */
+    private int cargaInicial = -1;
+    /** Quantidade de threads */
+    private int threads = 1;
+    /** Duração do aquecimento em segundos */
+    private int aquecimento = 5;
+    /** Duração da medição em segundos */
+    private int duracao = 10;
+    /**
+     * Proporção de nós removidos que dispara a compactação com a exclusão
+     * lógica, {@code 0} com a exclusão lógica desabilitada
+     */
+    private double exclusaoLogica;
+    /** Semente dos geradores aleatórios */
+    private long semente = 42;
+    /** Arquivo de saída, {@code null} para a saída padrão */
+    private String saida;
+
+    /**
+     * Método principal
+     *
+     * @param args Argumentos de execução
+     */
+    public static void main(String[] args) {
+        TesteCarga teste = new TesteCarga();
+        try {
+            teste.interpreta(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(String.format("Erro: %s", e.getMessage()));
+            System.err.println(USO);
+            System.exit(SAIDA_ARGUMENTOS_INVALIDOS);
+            return;
+        }
+        try {
+            Resultado resultado = teste.executa();
+            String json = teste.getJson(resultado);
+            if (teste.saida == null) {
+                System.out.println(json);
+            } else {
+                Files.write(Paths.get(teste.saida), json.getBytes(StandardCharsets.UTF_8));
+            }
+            if (resultado.erroEstrutura != null) {
+                System.err.println(String.format("Invariante violado: %s", resultado.erroEstrutura));
+                System.exit(SAIDA_ESTRUTURA_INVALIDA);
+            }
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            System.err.println(String.format("Erro no teste de carga: %s", e.getMessage()));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Interpreta os argumentos de execução
+     *
+     * @param args Argumentos no formato {@code --opcao valor}
+     * @throws IllegalArgumentException Se algum argumento for inválido
+     */
+    void interpreta(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(String.format("Valor ausente para %s", args[i]));
+            }
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--arvore":
+                    tipoArvore = TipoArvore.valueOf(valor.toUpperCase(Locale.ROOT));
+                    break;
+                case "--particoes":
+                    particoes = inteiroPositivo(args[i], valor);
+                    break;
+                case "--mistura":
+                    interpretaMistura(valor);
+                    break;
+                case "--distribuicao":
+                    distribuicao = DistribuicaoChaves.valueOf(valor.toUpperCase(Locale.ROOT));
+                    break;
+                case "--chaves":
+                    chaves = inteiroPositivo(args[i], valor);
+                    break;
+                case "--carga-inicial":
+                    cargaInicial = Integer.parseInt(valor);
+                    break;
+                case "--threads":
+                    threads = inteiroPositivo(args[i], valor);
+                    break;
+                case "--aquecimento":
+                    aquecimento = Integer.parseInt(valor);
+                    break;
+                case "--duracao":
+                    duracao = inteiroPositivo(args[i], valor);
+                    break;
+                case "--exclusao-logica":
+                    exclusaoLogica = Double.parseDouble(valor);
+                    break;
+                case "--semente":
+                    semente = Long.parseLong(valor);
+                    break;
+                case "--saida":
+                    saida = valor;
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Opção desconhecida: %s", args[i]));
+            }
+        }
+        if (cargaInicial < 0) {
+            cargaInicial = chaves / 2;
+        }
+        if (cargaInicial > chaves) {
+            throw new IllegalArgumentException("A carga inicial não pode ser maior que a quantidade de chaves");
+        }
+        if (aquecimento < 0) {
+            throw new IllegalArgumentException("O aquecimento não pode ser negativo");
+        }
+        if (exclusaoLogica != 0 && (exclusaoLogica < 0 || exclusaoLogica > 1)) {
+            throw new IllegalArgumentException("A proporção da exclusão lógica deve estar entre 0 e 1");
+        }
+        if (exclusaoLogica != 0 && tipoArvore == TipoArvore.PARTICIONADA) {
+            throw new IllegalArgumentException("A árvore PARTICIONADA não suporta a exclusão lógica");
+        }
+        if (tipoArvore == TipoArvore.SIMPLES && threads > 1) {
+            throw new IllegalArgumentException("A árvore SIMPLES não suporta mais de uma thread");
+        }
+    }
+
+    /**
+     * Interpreta a mistura de operações
+     *
+     * @param valor Nome da mistura ou pesos {@code leitura:insercao:exclusao}
+     */
+    private void interpretaMistura(String valor) {
+        int[] pesos;
+        switch (valor.toUpperCase(Locale.ROOT)) {
+            case "A":
+                pesos = new int[]{50, 25, 25};
+                break;
+            case "B":
+                pesos = new int[]{190, 5, 5};
+                break;
+            case "C":
+                pesos = new int[]{1, 0, 0};
+                break;
+            default:
+                String[] partes = valor.split(":");
+                if (partes.length != 3) {
+                    throw new IllegalArgumentException(String.format("Mistura inválida: %s", valor));
+                }
+                pesos = new int[3];
+                for (int i = 0; i < 3; i++) {
+                    pesos[i] = Integer.parseInt(partes[i]);
+                    if (pesos[i] < 0) {
+                        throw new IllegalArgumentException(String.format("Mistura inválida: %s", valor));
+                    }
+                }
+                if (pesos[0] + pesos[1] + pesos[2] == 0) {
+                    throw new IllegalArgumentException(String.format("Mistura inválida: %s", valor));
+                }
+                break;
+        }
+        mistura = valor;
+        pesoLeitura = pesos[0];
+        pesoInsercao = pesos[1];
+        pesoExclusao = pesos[2];
+    }
+
+    /**
+     * Converte o valor de uma opção em um inteiro positivo
+     *
+     * @param opcao Nome da opção
+     * @param valor Valor da opção
+     * @return int
+     */
+    private static int inteiroPositivo(String opcao, String valor) {
+        int numero = Integer.parseInt(valor);
+        if (numero <= 0) {
+            throw new IllegalArgumentException(String.format("O valor de %s deve ser positivo", opcao));
+        }
+        return numero;
+    }
+
+    /**
+     * Executa o teste de carga
+     *
+     * @return Resultado
+     * @throws InterruptedException Se a thread for interrompida
+     * @throws ExecutionException Se alguma thread de carga falhar
+     */
+    Resultado executa() throws InterruptedException, ExecutionException {
+        Alvo alvo = criaAlvo();
+        long inicioMedicao = System.nanoTime() + aquecimento * 1_000_000_000L;
+        long fim = inicioMedicao + duracao * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<HistogramaLatencia[]>> futuros = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                int indice = i;
+                futuros.add(executor.submit(() -> executaThread(alvo, indice, inicioMedicao, fim)));
+            }
+            Resultado resultado = new Resultado();
+            for (Future<HistogramaLatencia[]> futuro : futuros) {
+                HistogramaLatencia[] latencias = futuro.get();
+                for (int tipo = 0; tipo < latencias.length; tipo++) {
+                    resultado.latencias[tipo].soma(latencias[tipo]);
+                    resultado.total.soma(latencias[tipo]);
+                }
+            }
+            resultado.tamanhoFinal = alvo.getTamanho();
+            try {
+                alvo.validaEstrutura();
+            } catch (IllegalStateException e) {
+                resultado.erroEstrutura = e.getMessage();
+            }
+            return resultado;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cria a árvore testada com a carga inicial espalhada pelo universo
+     *
+     * @return Alvo
+     */
+    private Alvo criaAlvo() {
+        IntStream valoresIniciais = IntStream.range(0, cargaInicial)
+                .map(i -> (int) ((long) i * chaves / cargaInicial));
+        switch (tipoArvore) {
+            case SIMPLES:
+                ArvoreAvl simples = ArvoreAvl.constroi(valoresIniciais);
+                if (exclusaoLogica > 0) {
+                    simples.habilitaExclusaoLogica(exclusaoLogica);
+                }
+                return new AlvoSimples(simples);
+            case CONCORRENTE:
+                ArvoreAvlConcorrente concorrente = new ArvoreAvlConcorrente(ArvoreAvl.constroi(valoresIniciais));
+                if (exclusaoLogica > 0) {
+                    concorrente.habilitaCompactacaoEmSegundoPlano(exclusaoLogica, INTERVALO_COMPACTACAO,
+                            TimeUnit.MILLISECONDS);
+                }
+                return new AlvoConcorrente(concorrente);
+            default:
+                int[] limites = new int[particoes - 1];
+                for (int i = 0; i < limites.length; i++) {
+                    limites[i] = (int) ((long) chaves * (i + 1) / particoes);
+                }
+                ArvoreAvlParticionada arvore = new ArvoreAvlParticionada(limites);
+                valoresIniciais.forEach(arvore::inserir);
+                arvore.setReparticaoAdaptativa(true);
+                return new AlvoParticionado(arvore);
+        }
+    }
+
+    /**
+     * Executa operações até o fim do teste, registrando a latência das
+     * operações iniciadas após o aquecimento
+     *
+     * @param alvo Árvore testada
+     * @param indice Índice da thread
+     * @param inicioMedicao Instante de início da medição em nanossegundos
+     * @param fim Instante final em nanossegundos
+     * @return Histogramas de latência de busca, inserção e exclusão
+     */
+    private HistogramaLatencia[] executaThread(Alvo alvo, int indice, long inicioMedicao, long fim) {
+        int[] sequencia = GeradorChaves.gera(distribuicao, QUANTIDADE_CHAVES, chaves, semente + indice);
+        SplittableRandom random = new SplittableRandom(semente * 31 + indice);
+        HistogramaLatencia[] latencias = {new HistogramaLatencia(), new HistogramaLatencia(), new HistogramaLatencia()};
+        int somaPesos = pesoLeitura + pesoInsercao + pesoExclusao;
+        int posicao = 0;
+        while (true) {
+            int chave = sequencia[posicao];
+            posicao = (posicao + 1) & (QUANTIDADE_CHAVES - 1);
+            int sorteio = random.nextInt(somaPesos);
+            int tipo = sorteio < pesoLeitura ? Resultado.LEITURA
+                    : sorteio < pesoLeitura + pesoInsercao ? Resultado.INSERCAO : Resultado.EXCLUSAO;
+            long inicio = System.nanoTime();
+            switch (tipo) {
+                case Resultado.LEITURA:
+                    alvo.contem(chave);
+                    break;
+                case Resultado.INSERCAO:
+                    alvo.inserir(chave);
+                    break;
+                default:
+                    alvo.excluir(chave);
+                    break;
+            }
+            long termino = System.nanoTime();
+            if (inicio >= inicioMedicao) {
+                latencias[tipo].registra(termino - inicio);
+            }
+            if (termino >= fim) {
+                return latencias;
+            }
+        }
+    }
+
+    /**
+     * Monta o JSON do resultado
+     *
+     * @param resultado Resultado do teste
+     * @return String
+     */
+    String getJson(Resultado resultado) {
+        long operacoes = resultado.total.getQuantidade();
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append(String.format(Locale.ROOT, "  \"arvore\": \"%s\",%n", tipoArvore));
+        json.append(String.format(Locale.ROOT, "  \"mistura\": {\"nome\": \"%s\", \"leitura\": %s, \"insercao\": %s, \"exclusao\": %s},%n",
+                mistura, pesoLeitura, pesoInsercao, pesoExclusao));
+        json.append(String.format(Locale.ROOT, "  \"distribuicao\": \"%s\",%n", distribuicao));
+        json.append(String.format(Locale.ROOT, "  \"chaves\": %s,%n", chaves));
+        json.append(String.format(Locale.ROOT, "  \"cargaInicial\": %s,%n", cargaInicial));
+        json.append(String.format(Locale.ROOT, "  \"threads\": %s,%n", threads));
+        json.append(String.format(Locale.ROOT, "  \"aquecimentoSegundos\": %s,%n", aquecimento));
+        json.append(String.format(Locale.ROOT, "  \"duracaoSegundos\": %s,%n", duracao));
+        json.append(String.format(Locale.ROOT, "  \"exclusaoLogica\": %s,%n",
+                exclusaoLogica > 0 ? String.valueOf(exclusaoLogica) : "null"));
+        json.append(String.format(Locale.ROOT, "  \"operacoes\": %s,%n", operacoes));
+        json.append(String.format(Locale.ROOT, "  \"vazaoOperacoesPorSegundo\": %.1f,%n", (double) operacoes / duracao));
+        json.append("  \"latenciaNanossegundos\": {\n");
+        appendLatencia(json, "total", resultado.total, ",");
+        appendLatencia(json, "leitura", resultado.latencias[Resultado.LEITURA], ",");
+        appendLatencia(json, "insercao", resultado.latencias[Resultado.INSERCAO], ",");
+        appendLatencia(json, "exclusao", resultado.latencias[Resultado.EXCLUSAO], "");
+        json.append("  },\n");
+        json.append(String.format(Locale.ROOT, "  \"tamanhoFinal\": %s,%n", resultado.tamanhoFinal));
+        json.append(String.format(Locale.ROOT, "  \"estruturaValida\": %s,%n", resultado.erroEstrutura == null));
+        json.append(String.format(Locale.ROOT, "  \"erroEstrutura\": %s%n",
+                resultado.erroEstrutura == null ? "null" : textoJson(resultado.erroEstrutura)));
+        json.append("}");
+        return json.toString();
+    }
+
+    /**
+     * Adiciona ao JSON as estatísticas de um histograma
+     *
+     * @param json JSON em construção
+     * @param nome Nome do histograma
+     * @param histograma Histograma
+     * @param separador Separador após o objeto
+     */
+    private static void appendLatencia(StringBuilder json, String nome, HistogramaLatencia histograma,
+            String separador) {
+        json.append(String.format(Locale.ROOT,
+                "    \"%s\": {\"quantidade\": %s, \"media\": %.1f, \"p50\": %s, \"p99\": %s, \"p999\": %s, \"maximo\": %s}%s%n",
+                nome, histograma.getQuantidade(), histograma.getMedia(), histograma.getPercentil(50),
+                histograma.getPercentil(99), histograma.getPercentil(99.9), histograma.getMaximo(), separador));
+    }
+
+    /**
+     * Converte um texto em uma string JSON, escapando aspas, barras e
+     * caracteres de controle
+     *
+     * @param texto Texto
+     * @return String
+     */
+    private static String textoJson(String texto) {
+        StringBuilder json = new StringBuilder("\"");
+        for (char caractere : texto.toCharArray()) {
+            if (caractere == '"' || caractere == '\\') {
+                json.append('\\').append(caractere);
+            } else if (caractere < ' ') {
+                json.append(String.format("\\u%04x", (int) caractere));
+            } else {
+                json.append(caractere);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * Resultado de um teste de carga
+     */
+    static final class Resultado {
+
+        /** Índice das buscas */
+        static final int LEITURA = 0;
+        /** Índice das inserções */
+        static final int INSERCAO = 1;
+        /** Índice das exclusões */
+        static final int EXCLUSAO = 2;
+
+        /** Latências de cada tipo de operação */
+        final HistogramaLatencia[] latencias = {new HistogramaLatencia(), new HistogramaLatencia(), new HistogramaLatencia()};
+        /** Latências de todas as operações */
+        final HistogramaLatencia total = new HistogramaLatencia();
+        /** Quantidade de valores da árvore ao final */
+        int tamanhoFinal;
+        /** Invariante violado, {@code null} se a árvore é válida */
+        String erroEstrutura;
+
+    }
+
+    /**
+     * Operações da árvore testada
+     */
+    private interface Alvo {
+
+        /**
+         * Retorna se a árvore possui o valor
+         *
+         * @param valor Valor
+         * @return Boolean
+         */
+        boolean contem(int valor);
+
+        /**
+         * Insere um valor
+         *
+         * @param valor Valor
+         * @return Boolean
+         */
+        boolean inserir(int valor);
+
+        /**
+         * Remove um valor
+         *
+         * @param valor Valor
+         * @return Boolean
+         */
+        boolean excluir(int valor);
+
+        /**
+         * Retorna a quantidade de valores
+         *
+         * @return int
+         */
+        int getTamanho();
+
+        /**
+         * Verifica os invariantes da árvore
+         *
+         * @throws IllegalStateException Se algum invariante for violado
+         */
+        void validaEstrutura();
+
+    }
+
+    /**
+     * Alvo sobre uma {@link ArvoreAvl}
+     */
+    private static final class AlvoSimples implements Alvo {
+
+        /** Árvore testada */
+        private final ArvoreAvl arvore;
+
+        /**
+         * Método construtor
+         *
+         * @param arvore Árvore testada
+         */
+        AlvoSimples(ArvoreAvl arvore) {
+            this.arvore = arvore;
+        }
+
+        @Override
+        public boolean contem(int valor) {
+            return arvore.contem(valor);
+        }
+
+        @Override
+        public boolean inserir(int valor) {
+            return arvore.inserir(valor);
+        }
+
+        @Override
+        public boolean excluir(int valor) {
+            return arvore.excluir(valor);
+        }
+
+        @Override
+        public int getTamanho() {
+            return arvore.getTamanho();
+        }
+
+        @Override
+        public void validaEstrutura() {
+            arvore.validaEstrutura();
+        }
+
+    }
+
+    /**
+     * Alvo sobre uma {@link ArvoreAvlConcorrente}
+     */
+    private static final class AlvoConcorrente implements Alvo {
+
+        /** Árvore testada */
+        private final ArvoreAvlConcorrente arvore;
+
+        /**
+         * Método construtor
+         *
+         * @param arvore Árvore testada
+         */
+        AlvoConcorrente(ArvoreAvlConcorrente arvore) {
+            this.arvore = arvore;
+        }
+
+        @Override
+        public boolean contem(int valor) {
+            return arvore.contem(valor);
+        }
+
+        @Override
+        public boolean inserir(int valor) {
+            return arvore.inserir(valor);
+        }
+
+        @Override
+        public boolean excluir(int valor) {
+            return arvore.excluir(valor);
+        }
+
+        @Override
+        public int getTamanho() {
+            return arvore.getTamanho();
+        }
+
+        @Override
+        public void validaEstrutura() {
+            arvore.validaEstrutura();
+        }
+
+    }
+
+    /**
+     * Alvo sobre uma {@link ArvoreAvlParticionada}
+     */
+    private static final class AlvoParticionado implements Alvo {
+
+        /** Árvore testada */
+        private final ArvoreAvlParticionada arvore;
+
+        /**
+         * Método construtor
+         *
+         * @param arvore Árvore testada
+         */
+        AlvoParticionado(ArvoreAvlParticionada arvore) {
+            this.arvore = arvore;
+        }
+
+        @Override
+        public boolean contem(int valor) {
+            return arvore.contem(valor);
+        }
+
+        @Override
+        public boolean inserir(int valor) {
+            return arvore.inserir(valor);
+        }
+
+        @Override
+        public boolean excluir(int valor) {
+            return arvore.excluir(valor);
+        }
+
+        @Override
+        public int getTamanho() {
+            return arvore.getTamanho();
+        }
+
+        @Override
+        public void validaEstrutura() {
+            arvore.validaEstrutura();
+        }
+
+    }
+
+}
@@ -2,6 +2,19 @@ package br.com.unisinos.arvoreavl.main;
 
 import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
 import br.com.unisinos.arvoreavl.arvore.No;
+import br.com.unisinos.arvoreavl.servidor.ProtocoloAvl;
+import br.com.unisinos.arvoreavl.servidor.ServidorAvl;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -30,6 +43,10 @@ public class Main {
     private static final String OPCAO_MENU_PRINT_POS_ORDEM = "3";
     /** Opção do menu - Sair */
     private static final String OPCAO_MENU_SAIR = "s";
+    /** Argumento de execução - Processamento em lote */
+    private static final String ARGUMENTO_LOTE = "--lote";
+    /** Argumento de execução - Servidor de rede */
+    private static final String ARGUMENTO_SERVIDOR = "--servidor";
 
     /**
      * Menu impresso na tela
@@ -37,11 +54,21 @@ public class Main {
     private static String menu;
 
     /**
-     * Método principal
+     * Método principal. Com o argumento {@code --lote [arquivo]} processa os
+     * comandos do arquivo, ou da entrada padrão, sem exibir o menu. Com o
+     * argumento {@code --servidor [porta]} expõe a árvore pela rede local.
      *
      * @param args Argumentos de execução
      */
     public static void main(String[] args) {
+        if (args.length > 0 && ARGUMENTO_LOTE.equals(args[0])) {
+            processaLote(args.length > 1 ? args[1] : null);
+            return;
+        }
+        if (args.length > 0 && ARGUMENTO_SERVIDOR.equals(args[0])) {
+            executaServidor(args.length > 1 ? args[1] : null);
+            return;
+        }
         ArvoreAvl arvore = new ArvoreAvl();
         boolean exibeMenu = true;
         String opcaoMenu;
@@ -97,6 +124,60 @@ public class Main {
         }
     }
 
+    /**
+     * Processa os comandos em lote, escrevendo um resultado por linha na saída
+     * padrão e o resumo da execução na saída de erro
+     *
+     * @param arquivo Arquivo de comandos ou {@code null} para a entrada padrão
+     */
+    private static void processaLote(String arquivo) {
+        ProcessadorComandos processador = new ProcessadorComandos(new ArvoreAvl());
+        // Escreve direto no descritor, sem a sincronização do System.out
+        OutputStream saida = new FileOutputStream(FileDescriptor.out);
+        long inicio = System.nanoTime();
+        long quantidade;
+        try (InputStream entrada = arquivo == null ? System.in : Files.newInputStream(Paths.get(arquivo))) {
+            quantidade = processador.processa(entrada, saida);
+        } catch (IOException e) {
+            System.err.println(String.format("Erro no processamento em lote: %s", e.getMessage()));
+            System.exit(1);
+            return;
+        }
+        long duracao = System.nanoTime() - inicio;
+        System.err.println(String.format("%s comandos processados em %s ms", quantidade, duracao / 1_000_000));
+    }
+
+    /**
+     * Executa o servidor de rede na interface local até o processo ser
+     * encerrado
+     *
+     * @param argumentoPorta Porta do servidor ou {@code null} para a porta
+     * padrão
+     */
+    private static void executaServidor(String argumentoPorta) {
+        int porta = ProtocoloAvl.PORTA_PADRAO;
+        if (argumentoPorta != null) {
+            try {
+                porta = Integer.parseInt(argumentoPorta);
+            } catch (NumberFormatException e) {
+                porta = -1;
+            }
+            if (porta < 0 || porta > 65535) {
+                System.err.println(String.format("Porta inválida: %s", argumentoPorta));
+                System.exit(1);
+                return;
+            }
+        }
+        InetSocketAddress endereco = new InetSocketAddress(InetAddress.getLoopbackAddress(), porta);
+        try (ServidorAvl servidor = new ServidorAvl(new ArvoreAvl(), endereco)) {
+            System.err.println(String.format("Servidor aguardando conexões na porta %s", servidor.getPorta()));
+            servidor.executa();
+        } catch (IOException e) {
+            System.err.println(String.format("Erro no servidor: %s", e.getMessage()));
+            System.exit(1);
+        }
+    }
+
     /**
      * Imprime o menu na tela
      */
@@ -132,7 +213,8 @@ public class Main {
         // busca o nó
         System.out.println("Informe o valor para busca: ");
         int valor = scanner.nextInt();
-        No noRetornado = arvore.busca(valor);
+        List<No> caminho = new ArrayList<>();
+        No noRetornado = arvore.busca(valor, caminho::add);
         // Exibe o aviso caso tenha encontrado ou não o nó
         if (noRetornado == null) {
             System.out.println("Valor não encontrado!");
@@ -141,7 +223,7 @@ public class Main {
         }
         // Exibe o caminho percorrido
         System.out.println(String.format("Caminho percorrido: %s",
-                arvore.getListaNosPercorridosBusca()));
+                caminho));
     }
 
     /**
@@ -152,13 +234,12 @@ public class Main {
     private static void inserir(ArvoreAvl arvore) {
         System.out.println("Informe um valor numérico:");
         int valor = scanner.nextInt();
-        // Verifica se a árvore já possui o valor antes de inserir
-        if (arvore.busca(valor) != null) {
-            System.out.println("Valor já existe na árvore!");
-        } else {
-            arvore.inserir(valor);
+        // Insere o valor, que é recusado caso a árvore já o possua
+        if (arvore.inserir(valor)) {
             System.out.println("Valor inserido com sucesso!");
             arvore.printArvore();
+        } else {
+            System.out.println("Valor já existe na árvore!");
         }
     }
 
@@ -173,12 +254,10 @@ public class Main {
             printArvoreVazia();
             return;
         }
-        No noRemovido;
         System.out.println("Informe um valor numérico:");
         int valor = scanner.nextInt();
-        noRemovido = arvore.excluir(valor);
         // Exibe o aviso caso tenha excluído ou não o nó
-        if (noRemovido != null) {
+        if (arvore.excluir(valor)) {
             System.out.println("Nó removido com sucesso!");
             arvore.printArvore();
         } else {
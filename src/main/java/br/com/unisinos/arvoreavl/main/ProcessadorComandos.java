@@ -0,0 +1,205 @@
+package br.com.unisinos.arvoreavl.main;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Processador de comandos em lote. Cada linha da entrada possui um comando
+ * seguido de um valor: {@code i} (inserção), {@code e} (exclusão) ou
+ * {@code b} (busca). Para cada comando é escrita uma linha na saída com
+ * {@code 1} caso a árvore tenha sido alterada ou o valor encontrado, ou
+ * {@code 0} caso contrário. Linhas em branco são ignoradas.
+ * <p>
+ * A entrada é lida em blocos e interpretada byte a byte, sem criação de
+ * objetos por comando.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+final class ProcessadorComandos {
+
+    /** Tamanho dos buffers de entrada e saída */
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    /** Indicador de fim da entrada */
+    private static final int FIM_ENTRADA = -1;
+
+    /** Árvore que recebe os comandos */
+    private final ArvoreAvl arvore;
+    /** Buffer de entrada */
+    private final byte[] bufferEntrada;
+    /** Buffer de saída */
+    private final byte[] bufferSaida;
+    /** Entrada dos comandos */
+    private InputStream entrada;
+    /** Posição do próximo byte do buffer de entrada */
+    private int posicaoEntrada;
+    /** Quantidade de bytes válidos do buffer de entrada */
+    private int limiteEntrada;
+    /** Posição do próximo byte do buffer de saída */
+    private int posicaoSaida;
+    /** Linha atual da entrada, para as mensagens de erro */
+    private long linha;
+    /** Caractere lido após o último valor */
+    private int caractereAposValor;
+
+    /**
+     * Método construtor
+     *
+     * @param arvore Árvore que recebe os comandos
+     */
+    ProcessadorComandos(ArvoreAvl arvore) {
+        this.arvore = arvore;
+        this.bufferEntrada = new byte[TAMANHO_BUFFER];
+        this.bufferSaida = new byte[TAMANHO_BUFFER];
+    }
+
+    /**
+     * Processa todos os comandos da entrada. Se uma linha for inválida o
+     * processamento é interrompido, e a saída contém exatamente uma linha para
+     * cada comando aplicado até ali.
+     *
+     * @param entrada Entrada dos comandos
+     * @param saida Saída dos resultados
+     * @return Quantidade de comandos processados
+     * @throws IOException Se ocorrer erro de leitura ou escrita, ou um comando
+     * for inválido
+     */
+    long processa(InputStream entrada, OutputStream saida) throws IOException {
+        this.entrada = entrada;
+        posicaoEntrada = 0;
+        limiteEntrada = 0;
+        posicaoSaida = 0;
+        linha = 1;
+        long quantidade = 0;
+        try {
+            int caractere = proximoByte();
+            while (caractere != FIM_ENTRADA) {
+                caractere = ignoraEspacos(caractere);
+                if (caractere == '\n') {
+                    linha++;
+                    caractere = proximoByte();
+                    continue;
+                }
+                if (caractere == FIM_ENTRADA) {
+                    break;
+                }
+                int comando = caractere;
+                caractere = proximoByte();
+                if (caractere != ' ' && caractere != '\t') {
+                    throw new IOException(String.format("Comando inválido na linha %s", linha));
+                }
+                int valor = leValor(ignoraEspacos(caractere));
+                boolean resultado;
+                switch (comando) {
+                    case 'i':
+                        resultado = arvore.inserir(valor);
+                        break;
+                    case 'e':
+                        resultado = arvore.excluir(valor);
+                        break;
+                    case 'b':
+                        resultado = arvore.contem(valor);
+                        break;
+                    default:
+                        throw new IOException(String.format("Comando inválido na linha %s", linha));
+                }
+                escreveResultado(resultado, saida);
+                quantidade++;
+                // Descarta o restante da linha, que deve conter apenas espaços
+                caractere = ignoraEspacos(caractereAposValor);
+                if (caractere != '\n' && caractere != FIM_ENTRADA) {
+                    throw new IOException(String.format("Conteúdo inesperado na linha %s", linha));
+                }
+            }
+        } finally {
+            // Os resultados dos comandos já aplicados são escritos mesmo se
+            // uma linha posterior for inválida
+            saida.write(bufferSaida, 0, posicaoSaida);
+            saida.flush();
+        }
+        return quantidade;
+    }
+
+    /**
+     * Lê um valor inteiro com sinal opcional. O caractere que encerra o valor
+     * fica em {@link #caractereAposValor}.
+     *
+     * @param caractere Primeiro caractere do valor
+     * @return int
+     * @throws IOException Se ocorrer erro de leitura ou o valor for inválido
+     */
+    private int leValor(int caractere) throws IOException {
+        boolean negativo = caractere == '-';
+        if (negativo || caractere == '+') {
+            caractere = proximoByte();
+        }
+        if (caractere < '0' || caractere > '9') {
+            throw new IOException(String.format("Valor inválido na linha %s", linha));
+        }
+        long valor = 0;
+        do {
+            valor = valor * 10 + (caractere - '0');
+            if (valor > (long) Integer.MAX_VALUE + 1) {
+                throw new IOException(String.format("Valor fora do intervalo na linha %s", linha));
+            }
+            caractere = proximoByte();
+        } while (caractere >= '0' && caractere <= '9');
+        caractereAposValor = caractere;
+        valor = negativo ? -valor : valor;
+        if (valor > Integer.MAX_VALUE) {
+            throw new IOException(String.format("Valor fora do intervalo na linha %s", linha));
+        }
+        return (int) valor;
+    }
+
+    /**
+     * Ignora espaços, tabulações e retornos de carro
+     *
+     * @param caractere Caractere atual
+     * @return Primeiro caractere que não é espaço
+     * @throws IOException Se ocorrer erro de leitura
+     */
+    private int ignoraEspacos(int caractere) throws IOException {
+        while (caractere == ' ' || caractere == '\t' || caractere == '\r') {
+            caractere = proximoByte();
+        }
+        return caractere;
+    }
+
+    /**
+     * Retorna o próximo byte da entrada, lendo um novo bloco quando necessário
+     *
+     * @return Byte sem sinal (0 a 255) ou {@link #FIM_ENTRADA}
+     * @throws IOException Se ocorrer erro de leitura
+     */
+    private int proximoByte() throws IOException {
+        if (posicaoEntrada == limiteEntrada) {
+            int lidos = entrada.read(bufferEntrada, 0, bufferEntrada.length);
+            if (lidos <= 0) {
+                return FIM_ENTRADA;
+            }
+            posicaoEntrada = 0;
+            limiteEntrada = lidos;
+        }
+        // Sem a máscara o byte 0xFF seria lido como -1, confundido com o fim
+        return bufferEntrada[posicaoEntrada++] & 0xFF;
+    }
+
+    /**
+     * Escreve o resultado de um comando no buffer de saída
+     *
+     * @param resultado Resultado do comando
+     * @param saida Saída dos resultados
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private void escreveResultado(boolean resultado, OutputStream saida) throws IOException {
+        if (posicaoSaida + 2 > bufferSaida.length) {
+            saida.write(bufferSaida, 0, posicaoSaida);
+            posicaoSaida = 0;
+        }
+        bufferSaida[posicaoSaida++] = (byte) (resultado ? '1' : '0');
+        bufferSaida[posicaoSaida++] = '\n';
+    }
+
+}
@@ -0,0 +1,37 @@
+package br.com.unisinos.arvoreavl.mapa;
+
+/**
+ * Entrada dos mapas AVL, que também é um nó da árvore. Cada mapa estende a
+ * entrada com a chave no seu próprio tipo, enquanto o balanceamento comum a
+ * todos fica em {@link MapaAvlAbstrato}.
+ *
+ * @param <V> Tipo dos valores
+ * @param <E> Tipo da própria entrada
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+abstract class EntradaAvl<V, E extends EntradaAvl<V, E>> {
+
+    /** Valor */
+    V valor;
+    /** Nó filho à esquerda */
+    E esquerda;
+    /** Nó filho à direita */
+    E direita;
+    /** Altura do nó */
+    int altura;
+
+    /**
+     * Método construtor
+     *
+     * @param valor Valor
+     */
+    EntradaAvl(V valor) {
+        this.valor = valor;
+    }
+
+    public V getValor() {
+        return valor;
+    }
+
+}
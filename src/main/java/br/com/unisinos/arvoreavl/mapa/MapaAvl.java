@@ -0,0 +1,355 @@
+package br.com.unisinos.arvoreavl.mapa;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * Mapa ordenado de chaves genéricas para valores, armazenado em uma árvore
+ * AVL. A ordem das chaves é definida por um {@link Comparator}; para chaves
+ * {@code int} e {@code long} prefira {@link MapaAvlInt} e {@link MapaAvlLong},
+ * que evitam a conversão para objetos.
+ *
+ * @param <K> Tipo das chaves
+ * @param <V> Tipo dos valores
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class MapaAvl<K, V> extends MapaAvlAbstrato<V, MapaAvl.Entrada<K, V>> {
+
+    /** Comparador das chaves */
+    private final Comparator<? super K> comparador;
+
+    /**
+     * Método construtor, usando a ordem natural das chaves
+     */
+    @SuppressWarnings("unchecked")
+    public MapaAvl() {
+        this((Comparator<? super K>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Método construtor
+     *
+     * @param comparador Comparador das chaves
+     */
+    public MapaAvl(Comparator<? super K> comparador) {
+        if (comparador == null) {
+            throw new NullPointerException("Comparador não informado");
+        }
+        this.comparador = comparador;
+    }
+
+    /**
+     * Função que calcula o novo valor de uma chave
+     *
+     * @param <K> Tipo das chaves
+     * @param <V> Tipo dos valores
+     */
+    @FunctionalInterface
+    public interface Recalculo<K, V> {
+
+        /**
+         * Calcula o novo valor da chave
+         *
+         * @param chave Chave
+         * @param valorAtual Valor atual ou {@code null} caso a chave não exista
+         * @return Novo valor ou {@code null} para remover a chave
+         */
+        V recalcula(K chave, V valorAtual);
+
+    }
+
+    /**
+     * Entrada do mapa, que também é um nó da árvore
+     *
+     * @param <K> Tipo das chaves
+     * @param <V> Tipo dos valores
+     */
+    public static final class Entrada<K, V> extends EntradaAvl<V, Entrada<K, V>> {
+
+        /** Chave */
+        private final K chave;
+
+        /**
+         * Método construtor
+         *
+         * @param chave Chave
+         * @param valor Valor
+         */
+        private Entrada(K chave, V valor) {
+            super(valor);
+            this.chave = chave;
+        }
+
+        public K getChave() {
+            return chave;
+        }
+
+        /**
+         * Retorna a entrada em formato String
+         *
+         * @return String
+         */
+        @Override
+        public String toString() {
+            return chave + "=" + valor;
+        }
+    }
+
+    /**
+     * Retorna se o mapa possui a chave
+     *
+     * @param chave Chave
+     * @return Boolean
+     */
+    public boolean containsKey(K chave) {
+        return busca(chave) != null;
+    }
+
+    /**
+     * Retorna o valor associado à chave
+     *
+     * @param chave Chave
+     * @return Valor ou {@code null} caso a chave não exista
+     */
+    public V get(K chave) {
+        Entrada<K, V> entrada = busca(chave);
+        return entrada == null ? null : entrada.valor;
+    }
+
+    /**
+     * Associa o valor à chave
+     *
+     * @param chave Chave
+     * @param valor Valor
+     * @return Valor anterior ou {@code null} caso a chave não existisse
+     */
+    public V put(K chave, V valor) {
+        raiz = inserir(raiz, chave, valor);
+        return consomeResultado();
+    }
+
+    /**
+     * Remove a chave do mapa
+     *
+     * @param chave Chave
+     * @return Valor removido ou {@code null} caso a chave não existisse
+     */
+    public V remove(K chave) {
+        raiz = excluir(raiz, chave);
+        return consomeResultado();
+    }
+
+    /**
+     * Recalcula o valor associado à chave. Se o novo valor for {@code null} a
+     * chave é removida. A função não deve alterar o mapa.
+     *
+     * @param chave Chave
+     * @param recalculo Função que calcula o novo valor
+     * @return Novo valor
+     */
+    public V compute(K chave, Recalculo<K, V> recalculo) {
+        raiz = recalcular(raiz, chave, recalculo);
+        return consomeResultado();
+    }
+
+    /**
+     * Retorna a entrada de maior chave menor ou igual à chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<K, V> floor(K chave) {
+        return vizinha(chave, false, true);
+    }
+
+    /**
+     * Retorna a entrada de menor chave maior ou igual à chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<K, V> ceiling(K chave) {
+        return vizinha(chave, true, true);
+    }
+
+    /**
+     * Retorna a entrada de maior chave estritamente menor que a chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<K, V> lower(K chave) {
+        return vizinha(chave, false, false);
+    }
+
+    /**
+     * Retorna a entrada de menor chave estritamente maior que a chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<K, V> higher(K chave) {
+        return vizinha(chave, true, false);
+    }
+
+    /**
+     * Retorna um iterador das chaves em ordem crescente. O mapa não deve ser
+     * alterado durante a iteração.
+     *
+     * @return Iterator
+     */
+    public Iterator<K> iteradorChaves() {
+        Iterator<Entrada<K, V>> entradas = iteradorEntradas();
+        return new Iterator<K>() {
+
+            @Override
+            public boolean hasNext() {
+                return entradas.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return entradas.next().chave;
+            }
+        };
+    }
+
+    /**
+     * Busca a entrada da chave
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    private Entrada<K, V> busca(K chave) {
+        Entrada<K, V> entrada = raiz;
+        while (entrada != null) {
+            int comparacao = comparador.compare(chave, entrada.chave);
+            if (comparacao == 0) {
+                return entrada;
+            }
+            entrada = comparacao > 0 ? entrada.direita : entrada.esquerda;
+        }
+        return null;
+    }
+
+    /**
+     * Busca a entrada vizinha mais próxima da chave
+     *
+     * @param chave Chave
+     * @param acima Se a entrada deve ter chave maior (ou menor, caso falso)
+     * @param inclusiva Se a entrada da própria chave pode ser retornada
+     * @return Entrada ou {@code null} caso não exista
+     */
+    private Entrada<K, V> vizinha(K chave, boolean acima, boolean inclusiva) {
+        Entrada<K, V> candidata = null;
+        Entrada<K, V> entrada = raiz;
+        while (entrada != null) {
+            int comparacao = comparador.compare(chave, entrada.chave);
+            if (comparacao == 0 && inclusiva) {
+                return entrada;
+            }
+            if (acima ? comparacao < 0 : comparacao > 0) {
+                candidata = entrada;
+                entrada = acima ? entrada.esquerda : entrada.direita;
+            } else {
+                entrada = acima ? entrada.direita : entrada.esquerda;
+            }
+        }
+        return candidata;
+    }
+
+    /**
+     * Associa o valor à chave na subárvore, guardando o valor anterior em
+     * {@link #resultado}
+     *
+     * @param entrada Raíz da subárvore
+     * @param chave Chave
+     * @param valor Valor
+     * @return Nova raíz da subárvore
+     */
+    private Entrada<K, V> inserir(Entrada<K, V> entrada, K chave, V valor) {
+        if (entrada == null) {
+            tamanho++;
+            return new Entrada<>(chave, valor);
+        }
+        int comparacao = comparador.compare(chave, entrada.chave);
+        if (comparacao == 0) {
+            resultado = entrada.valor;
+            entrada.valor = valor;
+            return entrada;
+        }
+        if (comparacao < 0) {
+            entrada.esquerda = inserir(entrada.esquerda, chave, valor);
+        } else {
+            entrada.direita = inserir(entrada.direita, chave, valor);
+        }
+        return balanceia(entrada);
+    }
+
+    /**
+     * Exclui a chave da subárvore, guardando o valor removido em
+     * {@link #resultado}
+     *
+     * @param entrada Raíz da subárvore
+     * @param chave Chave
+     * @return Nova raíz da subárvore
+     */
+    private Entrada<K, V> excluir(Entrada<K, V> entrada, K chave) {
+        if (entrada == null) {
+            return null;
+        }
+        int comparacao = comparador.compare(chave, entrada.chave);
+        if (comparacao == 0) {
+            resultado = entrada.valor;
+            tamanho--;
+            return retira(entrada);
+        }
+        if (comparacao < 0) {
+            entrada.esquerda = excluir(entrada.esquerda, chave);
+        } else {
+            entrada.direita = excluir(entrada.direita, chave);
+        }
+        return balanceia(entrada);
+    }
+
+    /**
+     * Recalcula o valor da chave na subárvore, guardando o novo valor em
+     * {@link #resultado}. A função é aplicada ao final da descida, no ponto em
+     * que a chave está ou seria inserida.
+     *
+     * @param entrada Raíz da subárvore
+     * @param chave Chave
+     * @param recalculo Função que calcula o novo valor
+     * @return Nova raíz da subárvore
+     */
+    private Entrada<K, V> recalcular(Entrada<K, V> entrada, K chave, Recalculo<K, V> recalculo) {
+        if (entrada == null) {
+            V novoValor = recalculo.recalcula(chave, null);
+            resultado = novoValor;
+            if (novoValor == null) {
+                return null;
+            }
+            tamanho++;
+            return new Entrada<>(chave, novoValor);
+        }
+        int comparacao = comparador.compare(chave, entrada.chave);
+        if (comparacao == 0) {
+            V novoValor = recalculo.recalcula(chave, entrada.valor);
+            resultado = novoValor;
+            if (novoValor == null) {
+                tamanho--;
+                return retira(entrada);
+            }
+            entrada.valor = novoValor;
+            return entrada;
+        }
+        if (comparacao < 0) {
+            entrada.esquerda = recalcular(entrada.esquerda, chave, recalculo);
+        } else {
+            entrada.direita = recalcular(entrada.direita, chave, recalculo);
+        }
+        return balanceia(entrada);
+    }
+
+}
@@ -0,0 +1,243 @@
+package br.com.unisinos.arvoreavl.mapa;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Base dos mapas AVL, com as operações que não dependem do tipo da chave:
+ * rotações, balanceamento, retirada de entradas e iteração em ordem. As
+ * descidas pela chave ficam nas subclasses.
+ *
+ * @param <V> Tipo dos valores
+ * @param <E> Tipo das entradas
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+abstract class MapaAvlAbstrato<V, E extends EntradaAvl<V, E>> {
+
+    /** Nó raíz da árvore */
+    E raiz;
+    /** Quantidade de entradas do mapa */
+    int tamanho;
+    /** Valor produzido pela última escrita, retornado ao final da descida */
+    V resultado;
+
+    /**
+     * Retorna a quantidade de entradas do mapa
+     *
+     * @return int
+     */
+    public int size() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna se o mapa está vazio
+     *
+     * @return Boolean
+     */
+    public boolean isEmpty() {
+        return raiz == null;
+    }
+
+    /**
+     * Retorna a entrada de menor chave
+     *
+     * @return Entrada ou {@code null} caso o mapa esteja vazio
+     */
+    public E min() {
+        E entrada = raiz;
+        while (entrada != null && entrada.esquerda != null) {
+            entrada = entrada.esquerda;
+        }
+        return entrada;
+    }
+
+    /**
+     * Retorna a entrada de maior chave
+     *
+     * @return Entrada ou {@code null} caso o mapa esteja vazio
+     */
+    public E max() {
+        E entrada = raiz;
+        while (entrada != null && entrada.direita != null) {
+            entrada = entrada.direita;
+        }
+        return entrada;
+    }
+
+    /**
+     * Retorna um iterador das entradas em ordem crescente de chave. O mapa não
+     * deve ser alterado durante a iteração.
+     *
+     * @return Iterator
+     */
+    public Iterator<E> iteradorEntradas() {
+        return new IteradorEntradas<>(raiz);
+    }
+
+    /**
+     * Retorna o resultado da última escrita, liberando a referência ao valor
+     *
+     * @return Valor
+     */
+    final V consomeResultado() {
+        V valor = resultado;
+        resultado = null;
+        return valor;
+    }
+
+    /**
+     * Retira uma entrada da sua subárvore
+     *
+     * @param entrada Raíz da subárvore
+     * @return Nova raíz da subárvore
+     */
+    final E retira(E entrada) {
+        // Se possui no máximo um filho, o filho assume a posição da entrada
+        if (entrada.esquerda == null) {
+            return entrada.direita;
+        }
+        if (entrada.direita == null) {
+            return entrada.esquerda;
+        }
+        // Substitui pela menor entrada da direita
+        E sucessora = entrada.direita;
+        while (sucessora.esquerda != null) {
+            sucessora = sucessora.esquerda;
+        }
+        sucessora.direita = removeMenor(entrada.direita);
+        sucessora.esquerda = entrada.esquerda;
+        return balanceia(sucessora);
+    }
+
+    /**
+     * Recalcula a altura da entrada e realiza as rotações necessárias
+     *
+     * @param entrada Entrada
+     * @return Nova raíz da subárvore
+     */
+    final E balanceia(E entrada) {
+        entrada.altura = 1 + Math.max(altura(entrada.esquerda), altura(entrada.direita));
+        int fatorBalanceamento = altura(entrada.direita) - altura(entrada.esquerda);
+        if (fatorBalanceamento < -1) {
+            if (altura(entrada.esquerda.esquerda) < altura(entrada.esquerda.direita)) {
+                entrada.esquerda = rotacaoEsquerda(entrada.esquerda);
+            }
+            return rotacaoDireita(entrada);
+        }
+        if (fatorBalanceamento > 1) {
+            if (altura(entrada.direita.direita) < altura(entrada.direita.esquerda)) {
+                entrada.direita = rotacaoDireita(entrada.direita);
+            }
+            return rotacaoEsquerda(entrada);
+        }
+        return entrada;
+    }
+
+    /**
+     * Remove a menor entrada da subárvore
+     *
+     * @param entrada Raíz da subárvore
+     * @return Nova raíz da subárvore
+     */
+    private E removeMenor(E entrada) {
+        if (entrada.esquerda == null) {
+            return entrada.direita;
+        }
+        entrada.esquerda = removeMenor(entrada.esquerda);
+        return balanceia(entrada);
+    }
+
+    /**
+     * Realiza a rotação simples a direita
+     *
+     * @param entrada Entrada pivo
+     * @return Nova raíz da subárvore
+     */
+    private E rotacaoDireita(E entrada) {
+        E esquerda = entrada.esquerda;
+        entrada.esquerda = esquerda.direita;
+        esquerda.direita = entrada;
+        entrada.altura = 1 + Math.max(altura(entrada.esquerda), altura(entrada.direita));
+        esquerda.altura = 1 + Math.max(altura(esquerda.esquerda), altura(esquerda.direita));
+        return esquerda;
+    }
+
+    /**
+     * Realiza a rotação simples a esquerda
+     *
+     * @param entrada Entrada pivo
+     * @return Nova raíz da subárvore
+     */
+    private E rotacaoEsquerda(E entrada) {
+        E direita = entrada.direita;
+        entrada.direita = direita.esquerda;
+        direita.esquerda = entrada;
+        entrada.altura = 1 + Math.max(altura(entrada.esquerda), altura(entrada.direita));
+        direita.altura = 1 + Math.max(altura(direita.esquerda), altura(direita.direita));
+        return direita;
+    }
+
+    /**
+     * Retorna a altura de uma entrada
+     *
+     * @param entrada Entrada
+     * @return int
+     */
+    static int altura(EntradaAvl<?, ?> entrada) {
+        return entrada == null ? -1 : entrada.altura;
+    }
+
+    /**
+     * Iterador das entradas em ordem. Como as entradas não possuem vínculo com
+     * o pai, o caminho até a próxima entrada é mantido em uma pilha limitada à
+     * altura da árvore.
+     *
+     * @param <E> Tipo das entradas
+     */
+    private static final class IteradorEntradas<E extends EntradaAvl<?, E>> implements Iterator<E> {
+
+        /** Entradas cuja subárvore da direita ainda não foi visitada */
+        private final ArrayDeque<E> pilha;
+
+        /**
+         * Método construtor
+         *
+         * @param raiz Raíz da árvore
+         */
+        private IteradorEntradas(E raiz) {
+            this.pilha = new ArrayDeque<>(altura(raiz) + 1);
+            empilhaEsquerda(raiz);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pilha.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (pilha.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            E entrada = pilha.pop();
+            empilhaEsquerda(entrada.direita);
+            return entrada;
+        }
+
+        /**
+         * Empilha a entrada e todas as suas descendentes pela esquerda
+         *
+         * @param entrada Entrada (pode ser nula)
+         */
+        private void empilhaEsquerda(E entrada) {
+            while (entrada != null) {
+                pilha.push(entrada);
+                entrada = entrada.esquerda;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package br.com.unisinos.arvoreavl.mapa;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * Mapa ordenado de chaves {@code int} para valores, armazenado em uma árvore
+ * AVL. As chaves são mantidas como tipo primitivo, sem conversão para
+ * {@link Integer}.
+ *
+ * @param <V> Tipo dos valores
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class MapaAvlInt<V> extends MapaAvlPrimitivo<V, MapaAvlInt.Entrada<V>, MapaAvlInt.Recalculo<V>> {
+
+    /**
+     * Função que calcula o novo valor de uma chave
+     *
+     * @param <V> Tipo dos valores
+     */
+    @FunctionalInterface
+    public interface Recalculo<V> {
+
+        /**
+         * Calcula o novo valor da chave
+         *
+         * @param chave Chave
+         * @param valorAtual Valor atual ou {@code null} caso a chave não exista
+         * @return Novo valor ou {@code null} para remover a chave
+         */
+        V recalcula(int chave, V valorAtual);
+
+    }
+
+    /**
+     * Entrada do mapa, que também é um nó da árvore
+     *
+     * @param <V> Tipo dos valores
+     */
+    public static final class Entrada<V> extends EntradaAvl<V, Entrada<V>> {
+
+        /** Chave */
+        private final int chave;
+
+        /**
+         * Método construtor
+         *
+         * @param chave Chave
+         * @param valor Valor
+         */
+        private Entrada(int chave, V valor) {
+            super(valor);
+            this.chave = chave;
+        }
+
+        public int getChave() {
+            return chave;
+        }
+
+        /**
+         * Retorna a entrada em formato String
+         *
+         * @return String
+         */
+        @Override
+        public String toString() {
+            return chave + "=" + valor;
+        }
+    }
+
+    /**
+     * Retorna se o mapa possui a chave
+     *
+     * @param chave Chave
+     * @return Boolean
+     */
+    public boolean containsKey(int chave) {
+        return busca(chave) != null;
+    }
+
+    /**
+     * Retorna o valor associado à chave
+     *
+     * @param chave Chave
+     * @return Valor ou {@code null} caso a chave não exista
+     */
+    public V get(int chave) {
+        Entrada<V> entrada = busca(chave);
+        return entrada == null ? null : entrada.valor;
+    }
+
+    /**
+     * Associa o valor à chave
+     *
+     * @param chave Chave
+     * @param valor Valor
+     * @return Valor anterior ou {@code null} caso a chave não existisse
+     */
+    public V put(int chave, V valor) {
+        return insere(chave, valor);
+    }
+
+    /**
+     * Remove a chave do mapa
+     *
+     * @param chave Chave
+     * @return Valor removido ou {@code null} caso a chave não existisse
+     */
+    public V remove(int chave) {
+        return exclui(chave);
+    }
+
+    /**
+     * Recalcula o valor associado à chave. Se o novo valor for {@code null} a
+     * chave é removida. A função não deve alterar o mapa.
+     *
+     * @param chave Chave
+     * @param recalculo Função que calcula o novo valor
+     * @return Novo valor
+     */
+    public V compute(int chave, Recalculo<V> recalculo) {
+        return computa(chave, recalculo);
+    }
+
+    /**
+     * Retorna a entrada de maior chave menor ou igual à chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<V> floor(int chave) {
+        return vizinha(chave, false, true);
+    }
+
+    /**
+     * Retorna a entrada de menor chave maior ou igual à chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<V> ceiling(int chave) {
+        return vizinha(chave, true, true);
+    }
+
+    /**
+     * Retorna a entrada de maior chave estritamente menor que a chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<V> lower(int chave) {
+        return vizinha(chave, false, false);
+    }
+
+    /**
+     * Retorna a entrada de menor chave estritamente maior que a chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<V> higher(int chave) {
+        return vizinha(chave, true, false);
+    }
+
+    /**
+     * Retorna um iterador das chaves em ordem crescente. O mapa não deve ser
+     * alterado durante a iteração.
+     *
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iteradorChaves() {
+        Iterator<Entrada<V>> entradas = iteradorEntradas();
+        return new PrimitiveIterator.OfInt() {
+
+            @Override
+            public boolean hasNext() {
+                return entradas.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return entradas.next().chave;
+            }
+        };
+    }
+
+    @Override
+    long getChave(Entrada<V> entrada) {
+        return entrada.chave;
+    }
+
+    @Override
+    Entrada<V> criaEntrada(long chave, V valor) {
+        return new Entrada<>((int) chave, valor);
+    }
+
+    @Override
+    V recalcula(Recalculo<V> recalculo, long chave, V valorAtual) {
+        return recalculo.recalcula((int) chave, valorAtual);
+    }
+
+}
@@ -0,0 +1,203 @@
+package br.com.unisinos.arvoreavl.mapa;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * Mapa ordenado de chaves {@code long} para valores, armazenado em uma árvore
+ * AVL. As chaves são mantidas como tipo primitivo, sem conversão para
+ * {@link Long}.
+ *
+ * @param <V> Tipo dos valores
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class MapaAvlLong<V> extends MapaAvlPrimitivo<V, MapaAvlLong.Entrada<V>, MapaAvlLong.Recalculo<V>> {
+
+    /**
+     * Função que calcula o novo valor de uma chave
+     *
+     * @param <V> Tipo dos valores
+     */
+    @FunctionalInterface
+    public interface Recalculo<V> {
+
+        /**
+         * Calcula o novo valor da chave
+         *
+         * @param chave Chave
+         * @param valorAtual Valor atual ou {@code null} caso a chave não exista
+         * @return Novo valor ou {@code null} para remover a chave
+         */
+        V recalcula(long chave, V valorAtual);
+
+    }
+
+    /**
+     * Entrada do mapa, que também é um nó da árvore
+     *
+     * @param <V> Tipo dos valores
+     */
+    public static final class Entrada<V> extends EntradaAvl<V, Entrada<V>> {
+
+        /** Chave */
+        private final long chave;
+
+        /**
+         * Método construtor
+         *
+         * @param chave Chave
+         * @param valor Valor
+         */
+        private Entrada(long chave, V valor) {
+            super(valor);
+            this.chave = chave;
+        }
+
+        public long getChave() {
+            return chave;
+        }
+
+        /**
+         * Retorna a entrada em formato String
+         *
+         * @return String
+         */
+        @Override
+        public String toString() {
+            return chave + "=" + valor;
+        }
+    }
+
+    /**
+     * Retorna se o mapa possui a chave
+     *
+     * @param chave Chave
+     * @return Boolean
+     */
+    public boolean containsKey(long chave) {
+        return busca(chave) != null;
+    }
+
+    /**
+     * Retorna o valor associado à chave
+     *
+     * @param chave Chave
+     * @return Valor ou {@code null} caso a chave não exista
+     */
+    public V get(long chave) {
+        Entrada<V> entrada = busca(chave);
+        return entrada == null ? null : entrada.valor;
+    }
+
+    /**
+     * Associa o valor à chave
+     *
+     * @param chave Chave
+     * @param valor Valor
+     * @return Valor anterior ou {@code null} caso a chave não existisse
+     */
+    public V put(long chave, V valor) {
+        return insere(chave, valor);
+    }
+
+    /**
+     * Remove a chave do mapa
+     *
+     * @param chave Chave
+     * @return Valor removido ou {@code null} caso a chave não existisse
+     */
+    public V remove(long chave) {
+        return exclui(chave);
+    }
+
+    /**
+     * Recalcula o valor associado à chave. Se o novo valor for {@code null} a
+     * chave é removida. A função não deve alterar o mapa.
+     *
+     * @param chave Chave
+     * @param recalculo Função que calcula o novo valor
+     * @return Novo valor
+     */
+    public V compute(long chave, Recalculo<V> recalculo) {
+        return computa(chave, recalculo);
+    }
+
+    /**
+     * Retorna a entrada de maior chave menor ou igual à chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<V> floor(long chave) {
+        return vizinha(chave, false, true);
+    }
+
+    /**
+     * Retorna a entrada de menor chave maior ou igual à chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<V> ceiling(long chave) {
+        return vizinha(chave, true, true);
+    }
+
+    /**
+     * Retorna a entrada de maior chave estritamente menor que a chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<V> lower(long chave) {
+        return vizinha(chave, false, false);
+    }
+
+    /**
+     * Retorna a entrada de menor chave estritamente maior que a chave informada
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    public Entrada<V> higher(long chave) {
+        return vizinha(chave, true, false);
+    }
+
+    /**
+     * Retorna um iterador das chaves em ordem crescente. O mapa não deve ser
+     * alterado durante a iteração.
+     *
+     * @return PrimitiveIterator.OfLong
+     */
+    public PrimitiveIterator.OfLong iteradorChaves() {
+        Iterator<Entrada<V>> entradas = iteradorEntradas();
+        return new PrimitiveIterator.OfLong() {
+
+            @Override
+            public boolean hasNext() {
+                return entradas.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                return entradas.next().chave;
+            }
+        };
+    }
+
+    @Override
+    long getChave(Entrada<V> entrada) {
+        return entrada.chave;
+    }
+
+    @Override
+    Entrada<V> criaEntrada(long chave, V valor) {
+        return new Entrada<>(chave, valor);
+    }
+
+    @Override
+    V recalcula(Recalculo<V> recalculo, long chave, V valorAtual) {
+        return recalculo.recalcula(chave, valorAtual);
+    }
+
+}
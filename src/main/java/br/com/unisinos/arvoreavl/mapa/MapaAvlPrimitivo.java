@@ -0,0 +1,217 @@
+package br.com.unisinos.arvoreavl.mapa;
+
+/**
+ * Base dos mapas de chaves primitivas. As chaves {@code int} são comparadas
+ * como {@code long}, preservando a ordem, então as descidas pela árvore são
+ * compartilhadas por {@link MapaAvlInt} e {@link MapaAvlLong}. Inserção,
+ * remoção e recálculo descem uma única vez, ajustando a árvore na volta.
+ *
+ * @param <V> Tipo dos valores
+ * @param <E> Tipo das entradas
+ * @param <R> Tipo da função de recálculo
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+abstract class MapaAvlPrimitivo<V, E extends EntradaAvl<V, E>, R> extends MapaAvlAbstrato<V, E> {
+
+    /**
+     * Retorna a chave da entrada
+     *
+     * @param entrada Entrada
+     * @return long
+     */
+    abstract long getChave(E entrada);
+
+    /**
+     * Cria uma entrada
+     *
+     * @param chave Chave, sempre dentro do intervalo do tipo do mapa
+     * @param valor Valor
+     * @return Entrada
+     */
+    abstract E criaEntrada(long chave, V valor);
+
+    /**
+     * Aplica a função de recálculo
+     *
+     * @param recalculo Função de recálculo
+     * @param chave Chave, sempre dentro do intervalo do tipo do mapa
+     * @param valorAtual Valor atual ou {@code null} caso a chave não exista
+     * @return Novo valor ou {@code null} para remover a chave
+     */
+    abstract V recalcula(R recalculo, long chave, V valorAtual);
+
+    /**
+     * Busca a entrada da chave
+     *
+     * @param chave Chave
+     * @return Entrada ou {@code null} caso não exista
+     */
+    final E busca(long chave) {
+        E entrada = raiz;
+        while (entrada != null) {
+            long chaveEntrada = getChave(entrada);
+            if (chave == chaveEntrada) {
+                return entrada;
+            }
+            entrada = chave > chaveEntrada ? entrada.direita : entrada.esquerda;
+        }
+        return null;
+    }
+
+    /**
+     * Busca a entrada vizinha mais próxima da chave
+     *
+     * @param chave Chave
+     * @param acima Se a entrada deve ter chave maior (ou menor, caso falso)
+     * @param inclusiva Se a entrada da própria chave pode ser retornada
+     * @return Entrada ou {@code null} caso não exista
+     */
+    final E vizinha(long chave, boolean acima, boolean inclusiva) {
+        E candidata = null;
+        E entrada = raiz;
+        while (entrada != null) {
+            long chaveEntrada = getChave(entrada);
+            if (chave == chaveEntrada && inclusiva) {
+                return entrada;
+            }
+            if (acima ? chaveEntrada > chave : chaveEntrada < chave) {
+                candidata = entrada;
+                entrada = acima ? entrada.esquerda : entrada.direita;
+            } else {
+                entrada = acima ? entrada.direita : entrada.esquerda;
+            }
+        }
+        return candidata;
+    }
+
+    /**
+     * Associa o valor à chave
+     *
+     * @param chave Chave
+     * @param valor Valor
+     * @return Valor anterior ou {@code null} caso a chave não existisse
+     */
+    final V insere(long chave, V valor) {
+        raiz = insere(raiz, chave, valor);
+        return consomeResultado();
+    }
+
+    /**
+     * Remove a chave do mapa
+     *
+     * @param chave Chave
+     * @return Valor removido ou {@code null} caso a chave não existisse
+     */
+    final V exclui(long chave) {
+        raiz = exclui(raiz, chave);
+        return consomeResultado();
+    }
+
+    /**
+     * Recalcula o valor associado à chave. Se o novo valor for {@code null} a
+     * chave é removida.
+     *
+     * @param chave Chave
+     * @param recalculo Função que calcula o novo valor
+     * @return Novo valor
+     */
+    final V computa(long chave, R recalculo) {
+        raiz = computa(raiz, chave, recalculo);
+        return consomeResultado();
+    }
+
+    /**
+     * Associa o valor à chave na subárvore, guardando o valor anterior em
+     * {@link #resultado}
+     *
+     * @param entrada Raíz da subárvore
+     * @param chave Chave
+     * @param valor Valor
+     * @return Nova raíz da subárvore
+     */
+    private E insere(E entrada, long chave, V valor) {
+        if (entrada == null) {
+            tamanho++;
+            return criaEntrada(chave, valor);
+        }
+        long chaveEntrada = getChave(entrada);
+        if (chave == chaveEntrada) {
+            resultado = entrada.valor;
+            entrada.valor = valor;
+            return entrada;
+        }
+        if (chave < chaveEntrada) {
+            entrada.esquerda = insere(entrada.esquerda, chave, valor);
+        } else {
+            entrada.direita = insere(entrada.direita, chave, valor);
+        }
+        return balanceia(entrada);
+    }
+
+    /**
+     * Exclui a chave da subárvore, guardando o valor removido em
+     * {@link #resultado}
+     *
+     * @param entrada Raíz da subárvore
+     * @param chave Chave
+     * @return Nova raíz da subárvore
+     */
+    private E exclui(E entrada, long chave) {
+        if (entrada == null) {
+            return null;
+        }
+        long chaveEntrada = getChave(entrada);
+        if (chave == chaveEntrada) {
+            resultado = entrada.valor;
+            tamanho--;
+            return retira(entrada);
+        }
+        if (chave < chaveEntrada) {
+            entrada.esquerda = exclui(entrada.esquerda, chave);
+        } else {
+            entrada.direita = exclui(entrada.direita, chave);
+        }
+        return balanceia(entrada);
+    }
+
+    /**
+     * Recalcula o valor da chave na subárvore, guardando o novo valor em
+     * {@link #resultado}. A função é aplicada ao final da descida, no ponto em
+     * que a chave está ou seria inserida.
+     *
+     * @param entrada Raíz da subárvore
+     * @param chave Chave
+     * @param recalculo Função que calcula o novo valor
+     * @return Nova raíz da subárvore
+     */
+    private E computa(E entrada, long chave, R recalculo) {
+        if (entrada == null) {
+            V novoValor = recalcula(recalculo, chave, null);
+            resultado = novoValor;
+            if (novoValor == null) {
+                return null;
+            }
+            tamanho++;
+            return criaEntrada(chave, novoValor);
+        }
+        long chaveEntrada = getChave(entrada);
+        if (chave == chaveEntrada) {
+            V novoValor = recalcula(recalculo, chave, entrada.valor);
+            resultado = novoValor;
+            if (novoValor == null) {
+                tamanho--;
+                return retira(entrada);
+            }
+            entrada.valor = novoValor;
+            return entrada;
+        }
+        if (chave < chaveEntrada) {
+            entrada.esquerda = computa(entrada.esquerda, chave, recalculo);
+        } else {
+            entrada.direita = computa(entrada.direita, chave, recalculo);
+        }
+        return balanceia(entrada);
+    }
+
+}
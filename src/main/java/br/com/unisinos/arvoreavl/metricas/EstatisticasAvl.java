@@ -0,0 +1,186 @@
+package br.com.unisinos.arvoreavl.metricas;
+
+/**
+ * Retrato imutável do estado e das métricas de uma árvore. Sem métricas
+ * habilitadas, os contadores e percentis ficam zerados. As latências são em
+ * nanossegundos.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class EstatisticasAvl {
+
+    /** Quantidade de nós */
+    private final int tamanho;
+    /** Altura da árvore */
+    private final int altura;
+    /** Memória estimada ocupada pelos nós, em bytes */
+    private final long memoriaEstimada;
+    /** Indica se as métricas estavam habilitadas */
+    private final boolean metricasHabilitadas;
+    /** Quantidade de buscas */
+    private final long buscas;
+    /** Quantidade de inserções */
+    private final long insercoes;
+    /** Quantidade de exclusões */
+    private final long exclusoes;
+    /** Quantidade de rotações simples */
+    private final long rotacoesSimples;
+    /** Quantidade de rotações duplas */
+    private final long rotacoesDuplas;
+    /** Comprimento médio dos caminhos das buscas */
+    private final double caminhoMedio;
+    /** Percentil 99 do comprimento dos caminhos das buscas */
+    private final int caminhoP99;
+    /** Maior comprimento de caminho das buscas */
+    private final int caminhoMaximo;
+    /** Percentil 50 da latência das inserções */
+    private final long latenciaInsercaoP50;
+    /** Percentil 99 da latência das inserções */
+    private final long latenciaInsercaoP99;
+    /** Percentil 99,9 da latência das inserções */
+    private final long latenciaInsercaoP999;
+    /** Percentil 50 da latência das exclusões */
+    private final long latenciaExclusaoP50;
+    /** Percentil 99 da latência das exclusões */
+    private final long latenciaExclusaoP99;
+    /** Percentil 99,9 da latência das exclusões */
+    private final long latenciaExclusaoP999;
+
+    /**
+     * Método construtor
+     *
+     * @param tamanho Quantidade de nós
+     * @param altura Altura da árvore
+     * @param memoriaEstimada Memória estimada ocupada pelos nós
+     * @param metricas Métricas da árvore ou {@code null} se desabilitadas
+     */
+    public EstatisticasAvl(int tamanho, int altura, long memoriaEstimada, MetricasAvl metricas) {
+        this.tamanho = tamanho;
+        this.altura = altura;
+        this.memoriaEstimada = memoriaEstimada;
+        this.metricasHabilitadas = metricas != null;
+        if (metricas == null) {
+            this.buscas = this.insercoes = this.exclusoes = 0;
+            this.rotacoesSimples = this.rotacoesDuplas = 0;
+            this.caminhoMedio = 0;
+            this.caminhoP99 = this.caminhoMaximo = 0;
+            this.latenciaInsercaoP50 = this.latenciaInsercaoP99 = this.latenciaInsercaoP999 = 0;
+            this.latenciaExclusaoP50 = this.latenciaExclusaoP99 = this.latenciaExclusaoP999 = 0;
+            return;
+        }
+        this.buscas = metricas.getBuscas();
+        this.insercoes = metricas.getInsercoes();
+        this.exclusoes = metricas.getExclusoes();
+        this.rotacoesSimples = metricas.getRotacoesSimples();
+        this.rotacoesDuplas = metricas.getRotacoesDuplas();
+        this.caminhoMedio = metricas.getCaminhoMedio();
+        this.caminhoP99 = metricas.getCaminhoPercentil(99);
+        this.caminhoMaximo = metricas.getCaminhoMaximo();
+        HistogramaLatencia insercao = metricas.getLatenciaInsercao();
+        this.latenciaInsercaoP50 = insercao.getPercentil(50);
+        this.latenciaInsercaoP99 = insercao.getPercentil(99);
+        this.latenciaInsercaoP999 = insercao.getPercentil(99.9);
+        HistogramaLatencia exclusao = metricas.getLatenciaExclusao();
+        this.latenciaExclusaoP50 = exclusao.getPercentil(50);
+        this.latenciaExclusaoP99 = exclusao.getPercentil(99);
+        this.latenciaExclusaoP999 = exclusao.getPercentil(99.9);
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public int getAltura() {
+        return altura;
+    }
+
+    public long getMemoriaEstimada() {
+        return memoriaEstimada;
+    }
+
+    public boolean isMetricasHabilitadas() {
+        return metricasHabilitadas;
+    }
+
+    public long getBuscas() {
+        return buscas;
+    }
+
+    public long getInsercoes() {
+        return insercoes;
+    }
+
+    public long getExclusoes() {
+        return exclusoes;
+    }
+
+    public long getRotacoesSimples() {
+        return rotacoesSimples;
+    }
+
+    public long getRotacoesDuplas() {
+        return rotacoesDuplas;
+    }
+
+    public double getCaminhoMedio() {
+        return caminhoMedio;
+    }
+
+    public int getCaminhoP99() {
+        return caminhoP99;
+    }
+
+    public int getCaminhoMaximo() {
+        return caminhoMaximo;
+    }
+
+    public long getLatenciaInsercaoP50() {
+        return latenciaInsercaoP50;
+    }
+
+    public long getLatenciaInsercaoP99() {
+        return latenciaInsercaoP99;
+    }
+
+    public long getLatenciaInsercaoP999() {
+        return latenciaInsercaoP999;
+    }
+
+    public long getLatenciaExclusaoP50() {
+        return latenciaExclusaoP50;
+    }
+
+    public long getLatenciaExclusaoP99() {
+        return latenciaExclusaoP99;
+    }
+
+    public long getLatenciaExclusaoP999() {
+        return latenciaExclusaoP999;
+    }
+
+    /**
+     * Retorna as estatísticas em formato String
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Nós: %s, altura: %s, memória estimada: %s bytes",
+                tamanho, altura, memoriaEstimada));
+        if (metricasHabilitadas) {
+            builder.append(String.format("%nBuscas: %s, inserções: %s, exclusões: %s",
+                    buscas, insercoes, exclusoes));
+            builder.append(String.format("%nRotações simples: %s, rotações duplas: %s",
+                    rotacoesSimples, rotacoesDuplas));
+            builder.append(String.format("%nCaminho das buscas: médio %.2f, p99 %s, máximo %s",
+                    caminhoMedio, caminhoP99, caminhoMaximo));
+            builder.append(String.format("%nLatência de inserção (ns): p50 %s, p99 %s, p99.9 %s",
+                    latenciaInsercaoP50, latenciaInsercaoP99, latenciaInsercaoP999));
+            builder.append(String.format("%nLatência de exclusão (ns): p50 %s, p99 %s, p99.9 %s",
+                    latenciaExclusaoP50, latenciaExclusaoP99, latenciaExclusaoP999));
+        }
+        return builder.toString();
+    }
+
+}
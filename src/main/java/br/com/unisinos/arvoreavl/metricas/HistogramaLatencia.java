@@ -0,0 +1,187 @@
+package br.com.unisinos.arvoreavl.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de valores não negativos, como latências em nanossegundos, com
+ * faixas logarítmicas. Cada potência de 2 é dividida em 16 faixas, então os
+ * percentis possuem erro relativo de no máximo 1/16 (6,25%). As amostras não
+ * são armazenadas: o histograma ocupa sempre o mesmo espaço e pode ser
+ * atualizado por várias threads.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class HistogramaLatencia {
+
+    /** Quantidade de bits da subdivisão de cada potência de 2 */
+    private static final int BITS_SUBFAIXA = 4;
+    /** Quantidade de faixas por potência de 2 */
+    private static final int FAIXAS_POR_POTENCIA = 1 << BITS_SUBFAIXA;
+    /** Quantidade total de faixas, suficiente para qualquer long positivo */
+    private static final int QUANTIDADE_FAIXAS = FAIXAS_POR_POTENCIA * (64 - BITS_SUBFAIXA);
+
+    /** Contagem de cada faixa */
+    private final AtomicLongArray contagens;
+
+    /**
+     * Método construtor
+     */
+    public HistogramaLatencia() {
+        this.contagens = new AtomicLongArray(QUANTIDADE_FAIXAS);
+    }
+
+    /**
+     * Registra um valor. Valores negativos são registrados como zero.
+     *
+     * @param valor Valor
+     */
+    public void registra(long valor) {
+        contagens.getAndIncrement(faixa(Math.max(valor, 0)));
+    }
+
+    /**
+     * Soma as contagens de outro histograma a este
+     *
+     * @param outro Histograma somado
+     */
+    public void soma(HistogramaLatencia outro) {
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            long contagem = outro.contagens.get(i);
+            if (contagem != 0) {
+                contagens.getAndAdd(i, contagem);
+            }
+        }
+    }
+
+    /**
+     * Zera as contagens
+     */
+    public void zera() {
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            contagens.set(i, 0);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de valores registrados
+     *
+     * @return long
+     */
+    public long getQuantidade() {
+        long quantidade = 0;
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            quantidade += contagens.get(i);
+        }
+        return quantidade;
+    }
+
+    /**
+     * Retorna a média aproximada dos valores, usando o ponto médio das faixas
+     *
+     * @return double
+     */
+    public double getMedia() {
+        long quantidade = 0;
+        double soma = 0;
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            long contagem = contagens.get(i);
+            if (contagem != 0) {
+                quantidade += contagem;
+                soma += contagem * ((limiteInferior(i) + (double) limiteSuperior(i)) / 2);
+            }
+        }
+        return quantidade == 0 ? 0 : soma / quantidade;
+    }
+
+    /**
+     * Retorna o limite superior da faixa do maior valor registrado
+     *
+     * @return long
+     */
+    public long getMaximo() {
+        for (int i = QUANTIDADE_FAIXAS - 1; i >= 0; i--) {
+            if (contagens.get(i) != 0) {
+                return limiteSuperior(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Retorna o percentil informado, como o limite superior da faixa que o
+     * contém
+     *
+     * @param percentil Percentil entre 0 e 100, por exemplo 99.9
+     * @return long
+     */
+    public long getPercentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException(String.format("Percentil inválido: %s", percentil));
+        }
+        long[] copia = new long[QUANTIDADE_FAIXAS];
+        long quantidade = 0;
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            quantidade += copia[i];
+        }
+        if (quantidade == 0) {
+            return 0;
+        }
+        // Posição da amostra do percentil, contando a partir de 1
+        long posicao = Math.max(1, (long) Math.ceil(percentil / 100 * quantidade));
+        long acumulado = 0;
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= posicao) {
+                return limiteSuperior(i);
+            }
+        }
+        return getMaximo();
+    }
+
+    /**
+     * Retorna a faixa do valor
+     *
+     * @param valor Valor não negativo
+     * @return int
+     */
+    private static int faixa(long valor) {
+        if (valor < FAIXAS_POR_POTENCIA) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - BITS_SUBFAIXA;
+        int subfaixa = (int) (valor >>> deslocamento) & (FAIXAS_POR_POTENCIA - 1);
+        return FAIXAS_POR_POTENCIA * (deslocamento + 1) + subfaixa;
+    }
+
+    /**
+     * Retorna o menor valor da faixa
+     *
+     * @param faixa Faixa
+     * @return long
+     */
+    private static long limiteInferior(int faixa) {
+        if (faixa < FAIXAS_POR_POTENCIA) {
+            return faixa;
+        }
+        int deslocamento = faixa / FAIXAS_POR_POTENCIA - 1;
+        long subfaixa = faixa % FAIXAS_POR_POTENCIA;
+        return (FAIXAS_POR_POTENCIA + subfaixa) << deslocamento;
+    }
+
+    /**
+     * Retorna o maior valor da faixa
+     *
+     * @param faixa Faixa
+     * @return long
+     */
+    private static long limiteSuperior(int faixa) {
+        if (faixa < FAIXAS_POR_POTENCIA) {
+            return faixa;
+        }
+        int deslocamento = faixa / FAIXAS_POR_POTENCIA - 1;
+        return limiteInferior(faixa) + (1L << deslocamento) - 1;
+    }
+
+}
@@ -0,0 +1,286 @@
+package br.com.unisinos.arvoreavl.metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Contadores e histogramas das operações de uma árvore. As métricas são
+ * opcionais: a árvore só as atualiza quando habilitadas, então sem métricas o
+ * custo é apenas a verificação de uma referência nula.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class MetricasAvl {
+
+    /** Maior comprimento de caminho registrado individualmente */
+    static final int LIMITE_CAMINHO = 63;
+    /** Domínio dos nomes JMX */
+    private static final String DOMINIO_JMX = "br.com.unisinos.arvoreavl";
+
+    /** Quantidade de buscas */
+    private final LongAdder buscas;
+    /** Quantidade de inserções */
+    private final LongAdder insercoes;
+    /** Quantidade de exclusões */
+    private final LongAdder exclusoes;
+    /** Quantidade de rotações simples */
+    private final LongAdder rotacoesSimples;
+    /** Quantidade de rotações duplas */
+    private final LongAdder rotacoesDuplas;
+    /** Quantidade de buscas por comprimento de caminho */
+    private final AtomicLongArray caminhos;
+    /** Latências das inserções em nanossegundos */
+    private final HistogramaLatencia latenciaInsercao;
+    /** Latências das exclusões em nanossegundos */
+    private final HistogramaLatencia latenciaExclusao;
+
+    /**
+     * Método construtor
+     */
+    public MetricasAvl() {
+        this.buscas = new LongAdder();
+        this.insercoes = new LongAdder();
+        this.exclusoes = new LongAdder();
+        this.rotacoesSimples = new LongAdder();
+        this.rotacoesDuplas = new LongAdder();
+        this.caminhos = new AtomicLongArray(LIMITE_CAMINHO + 1);
+        this.latenciaInsercao = new HistogramaLatencia();
+        this.latenciaExclusao = new HistogramaLatencia();
+    }
+
+    /**
+     * Registra uma busca
+     *
+     * @param comprimentoCaminho Quantidade de nós visitados
+     */
+    public void registraBusca(int comprimentoCaminho) {
+        buscas.increment();
+        caminhos.getAndIncrement(Math.min(comprimentoCaminho, LIMITE_CAMINHO));
+    }
+
+    /**
+     * Registra uma inserção
+     *
+     * @param latencia Duração em nanossegundos
+     */
+    public void registraInsercao(long latencia) {
+        insercoes.increment();
+        latenciaInsercao.registra(latencia);
+    }
+
+    /**
+     * Registra uma exclusão
+     *
+     * @param latencia Duração em nanossegundos
+     */
+    public void registraExclusao(long latencia) {
+        exclusoes.increment();
+        latenciaExclusao.registra(latencia);
+    }
+
+    /**
+     * Registra uma rotação simples
+     */
+    public void registraRotacaoSimples() {
+        rotacoesSimples.increment();
+    }
+
+    /**
+     * Registra uma rotação dupla
+     */
+    public void registraRotacaoDupla() {
+        rotacoesDuplas.increment();
+    }
+
+    public long getBuscas() {
+        return buscas.sum();
+    }
+
+    public long getInsercoes() {
+        return insercoes.sum();
+    }
+
+    public long getExclusoes() {
+        return exclusoes.sum();
+    }
+
+    public long getRotacoesSimples() {
+        return rotacoesSimples.sum();
+    }
+
+    public long getRotacoesDuplas() {
+        return rotacoesDuplas.sum();
+    }
+
+    public HistogramaLatencia getLatenciaInsercao() {
+        return latenciaInsercao;
+    }
+
+    public HistogramaLatencia getLatenciaExclusao() {
+        return latenciaExclusao;
+    }
+
+    /**
+     * Retorna o comprimento médio dos caminhos das buscas
+     *
+     * @return double
+     */
+    public double getCaminhoMedio() {
+        long quantidade = 0;
+        long soma = 0;
+        for (int i = 0; i <= LIMITE_CAMINHO; i++) {
+            long contagem = caminhos.get(i);
+            quantidade += contagem;
+            soma += contagem * i;
+        }
+        return quantidade == 0 ? 0 : (double) soma / quantidade;
+    }
+
+    /**
+     * Retorna o percentil do comprimento dos caminhos das buscas
+     *
+     * @param percentil Percentil entre 0 e 100
+     * @return int
+     */
+    public int getCaminhoPercentil(double percentil) {
+        long[] copia = new long[LIMITE_CAMINHO + 1];
+        long quantidade = 0;
+        for (int i = 0; i <= LIMITE_CAMINHO; i++) {
+            copia[i] = caminhos.get(i);
+            quantidade += copia[i];
+        }
+        long posicao = Math.max(1, (long) Math.ceil(percentil / 100 * quantidade));
+        long acumulado = 0;
+        for (int i = 0; i <= LIMITE_CAMINHO; i++) {
+            acumulado += copia[i];
+            if (acumulado >= posicao) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Retorna o maior comprimento de caminho das buscas
+     *
+     * @return int
+     */
+    public int getCaminhoMaximo() {
+        for (int i = LIMITE_CAMINHO; i > 0; i--) {
+            if (caminhos.get(i) != 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Registra as estatísticas no servidor JMX da plataforma
+     *
+     * @param nome Nome da árvore
+     * @param fonte Fonte das estatísticas, consultada a cada leitura
+     * @return Nome JMX registrado
+     * @throws JMException Se o registro falhar
+     */
+    public static ObjectName registraJmx(String nome, Supplier<EstatisticasAvl> fonte) throws JMException {
+        ObjectName nomeJmx = new ObjectName(DOMINIO_JMX, "name", ObjectName.quote(nome));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(
+                new StandardMBean(new PublicacaoJmx(fonte), MetricasAvlMBean.class), nomeJmx);
+        return nomeJmx;
+    }
+
+    /**
+     * Publicação das estatísticas através do JMX
+     */
+    private static final class PublicacaoJmx implements MetricasAvlMBean {
+
+        /** Fonte das estatísticas */
+        private final Supplier<EstatisticasAvl> fonte;
+
+        /**
+         * Método construtor
+         *
+         * @param fonte Fonte das estatísticas
+         */
+        private PublicacaoJmx(Supplier<EstatisticasAvl> fonte) {
+            this.fonte = fonte;
+        }
+
+        @Override
+        public int getTamanho() {
+            return fonte.get().getTamanho();
+        }
+
+        @Override
+        public int getAltura() {
+            return fonte.get().getAltura();
+        }
+
+        @Override
+        public long getMemoriaEstimada() {
+            return fonte.get().getMemoriaEstimada();
+        }
+
+        @Override
+        public long getBuscas() {
+            return fonte.get().getBuscas();
+        }
+
+        @Override
+        public long getInsercoes() {
+            return fonte.get().getInsercoes();
+        }
+
+        @Override
+        public long getExclusoes() {
+            return fonte.get().getExclusoes();
+        }
+
+        @Override
+        public long getRotacoesSimples() {
+            return fonte.get().getRotacoesSimples();
+        }
+
+        @Override
+        public long getRotacoesDuplas() {
+            return fonte.get().getRotacoesDuplas();
+        }
+
+        @Override
+        public double getCaminhoMedio() {
+            return fonte.get().getCaminhoMedio();
+        }
+
+        @Override
+        public int getCaminhoP99() {
+            return fonte.get().getCaminhoP99();
+        }
+
+        @Override
+        public long getLatenciaInsercaoP50() {
+            return fonte.get().getLatenciaInsercaoP50();
+        }
+
+        @Override
+        public long getLatenciaInsercaoP99() {
+            return fonte.get().getLatenciaInsercaoP99();
+        }
+
+        @Override
+        public long getLatenciaExclusaoP50() {
+            return fonte.get().getLatenciaExclusaoP50();
+        }
+
+        @Override
+        public long getLatenciaExclusaoP99() {
+            return fonte.get().getLatenciaExclusaoP99();
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package br.com.unisinos.arvoreavl.metricas;
+
+/**
+ * Interface JMX das estatísticas de uma árvore. As latências são em
+ * nanossegundos.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public interface MetricasAvlMBean {
+
+    int getTamanho();
+
+    int getAltura();
+
+    long getMemoriaEstimada();
+
+    long getBuscas();
+
+    long getInsercoes();
+
+    long getExclusoes();
+
+    long getRotacoesSimples();
+
+    long getRotacoesDuplas();
+
+    double getCaminhoMedio();
+
+    int getCaminhoP99();
+
+    long getLatenciaInsercaoP50();
+
+    long getLatenciaInsercaoP99();
+
+    long getLatenciaExclusaoP50();
+
+    long getLatenciaExclusaoP99();
+
+}
@@ -0,0 +1,257 @@
+package br.com.unisinos.arvoreavl.persistencia;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvlConcorrente;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Árvore AVL durável. Cada inserção e exclusão que altera a árvore é
+ * registrada em um log de operações antes de retornar, de acordo com a
+ * {@link PoliticaSincronizacao}. Na abertura a árvore é reconstruída a partir
+ * do último snapshot e dos registros do log. A compactação grava um novo
+ * snapshot e esvazia o log.
+ * <p>
+ * Os valores ficam visíveis para as leituras assim que aplicados, antes do
+ * registro estar sincronizado com o disco. Se o registro não puder ser
+ * adicionado ao log, a alteração é desfeita antes do erro ser lançado. Após um
+ * erro de escrita no log a instância deve ser fechada e reaberta.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class ArvoreAvlDuravel implements Closeable {
+
+    /** Nome do arquivo de snapshot */
+    static final String ARQUIVO_SNAPSHOT = "arvore.snapshot";
+    /** Nome do arquivo de log de operações */
+    static final String ARQUIVO_LOG = "arvore.log";
+    /** Intervalo padrão da sincronização periódica em milissegundos */
+    public static final long INTERVALO_SINCRONIZACAO_PADRAO = 10;
+
+    /** Diretório dos arquivos */
+    private final Path diretorio;
+    /** Árvore em memória */
+    private final ArvoreAvlConcorrente arvore;
+    /** Log de operações */
+    private final LogOperacoes log;
+    /** Bloqueio que mantém a ordem do log igual à ordem de aplicação */
+    private final ReentrantLock lockEscrita;
+
+    /**
+     * Método construtor
+     *
+     * @param diretorio Diretório dos arquivos
+     * @param arvore Árvore em memória
+     * @param log Log de operações
+     */
+    private ArvoreAvlDuravel(Path diretorio, ArvoreAvlConcorrente arvore, LogOperacoes log) {
+        this.diretorio = diretorio;
+        this.arvore = arvore;
+        this.log = log;
+        this.lockEscrita = new ReentrantLock();
+    }
+
+    /**
+     * Abre a árvore do diretório com a política
+     * {@link PoliticaSincronizacao#SEMPRE}
+     *
+     * @param diretorio Diretório dos arquivos, criado se não existir
+     * @return ArvoreAvlDuravel
+     * @throws IOException Se ocorrer erro de leitura ou os arquivos forem
+     * inválidos
+     */
+    public static ArvoreAvlDuravel abrir(Path diretorio) throws IOException {
+        return abrir(diretorio, PoliticaSincronizacao.SEMPRE, INTERVALO_SINCRONIZACAO_PADRAO);
+    }
+
+    /**
+     * Abre a árvore do diretório, carregando o snapshot e reaplicando o log.
+     * Um registro incompleto no final do log, causado por uma queda durante a
+     * escrita, é descartado.
+     *
+     * @param diretorio Diretório dos arquivos, criado se não existir
+     * @param politica Política de sincronização
+     * @param intervaloSincronizacao Intervalo da política
+     * {@link PoliticaSincronizacao#PERIODICA} em milissegundos
+     * @return ArvoreAvlDuravel
+     * @throws IOException Se ocorrer erro de leitura ou os arquivos forem
+     * inválidos
+     */
+    public static ArvoreAvlDuravel abrir(Path diretorio, PoliticaSincronizacao politica,
+            long intervaloSincronizacao) throws IOException {
+        Files.createDirectories(diretorio);
+        Path snapshot = diretorio.resolve(ARQUIVO_SNAPSHOT);
+        ArvoreAvl arvore = Files.exists(snapshot) ? ArvoreAvl.carregar(snapshot) : new ArvoreAvl();
+        LogOperacoes log = LogOperacoes.abrir(diretorio.resolve(ARQUIVO_LOG), politica,
+                intervaloSincronizacao, (operacao, valor) -> {
+                    if (operacao == LogOperacoes.EXCLUSAO) {
+                        arvore.excluir(valor);
+                    } else {
+                        arvore.inserir(valor);
+                    }
+                });
+        return new ArvoreAvlDuravel(diretorio, new ArvoreAvlConcorrente(arvore), log);
+    }
+
+    /**
+     * Retorna se a árvore possui o valor
+     *
+     * @param valor Valor do nó
+     * @return Boolean
+     */
+    public boolean contem(int valor) {
+        return arvore.contem(valor);
+    }
+
+    /**
+     * Retorna se a árvore está vazia
+     *
+     * @return Boolean
+     */
+    public boolean isArvoreVazia() {
+        return arvore.isArvoreVazia();
+    }
+
+    /**
+     * Retorna a quantidade de nós da árvore
+     *
+     * @return int
+     */
+    public int getTamanho() {
+        return arvore.getTamanho();
+    }
+
+    /**
+     * Retorna a quantidade de bytes descartados do final do log na abertura,
+     * diferente de zero quando a última execução foi interrompida durante uma
+     * escrita
+     *
+     * @return long
+     */
+    public long getBytesDescartados() {
+        return log.getBytesDescartados();
+    }
+
+    /**
+     * Retorna a quantidade de sincronizações do log com o disco
+     *
+     * @return long
+     */
+    public long getSincronizacoes() {
+        return log.getQuantidadeSincronizacoes();
+    }
+
+    /**
+     * Insere um valor na árvore, registrando a operação no log
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi inserido
+     * @throws IOException Se ocorrer erro de escrita no log
+     */
+    public boolean inserir(int valor) throws IOException {
+        return executa(LogOperacoes.INSERCAO, valor);
+    }
+
+    /**
+     * Remove um valor da árvore, registrando a operação no log
+     *
+     * @param valor Valor do nó
+     * @return Boolean indicando se o valor foi removido
+     * @throws IOException Se ocorrer erro de escrita no log
+     */
+    public boolean excluir(int valor) throws IOException {
+        return executa(LogOperacoes.EXCLUSAO, valor);
+    }
+
+    /**
+     * Grava um novo snapshot da árvore e esvazia o log. As escritas ficam
+     * bloqueadas durante a compactação. Como reaplicar o log sobre o snapshot
+     * produz a mesma árvore, uma queda entre a troca do snapshot e o
+     * esvaziamento do log não perde operações. O salvamento só retorna depois
+     * que o novo snapshot e a sua renomeação chegaram ao disco, pois até lá o
+     * log ainda é necessário.
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void compactar() throws IOException {
+        lockEscrita.lock();
+        try {
+            arvore.salvar(diretorio.resolve(ARQUIVO_SNAPSHOT));
+            log.trunca();
+        } finally {
+            lockEscrita.unlock();
+        }
+    }
+
+    /**
+     * Imprime os nós da árvore em ordem
+     */
+    public void printEmOrdem() {
+        arvore.printEmOrdem();
+    }
+
+    /**
+     * Verifica os invariantes da árvore
+     *
+     * @throws IllegalStateException Se algum invariante for violado
+     */
+    public void validaEstrutura() {
+        arvore.validaEstrutura();
+    }
+
+    /**
+     * Grava os registros pendentes e fecha o log
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @Override
+    public void close() throws IOException {
+        lockEscrita.lock();
+        try {
+            log.close();
+        } finally {
+            lockEscrita.unlock();
+        }
+    }
+
+    /**
+     * Aplica a operação e a registra no log caso tenha alterado a árvore. Se o
+     * registro falhar, a operação inversa desfaz a alteração, então a árvore
+     * nunca possui uma alteração ausente do log. A espera pela sincronização
+     * acontece fora do bloqueio de escrita, para que operações concorrentes
+     * sejam sincronizadas em grupo.
+     *
+     * @param operacao Código da operação
+     * @param valor Valor do nó
+     * @return Boolean indicando se a árvore foi alterada
+     * @throws IOException Se ocorrer erro de escrita no log
+     */
+    private boolean executa(byte operacao, int valor) throws IOException {
+        long sequencia;
+        lockEscrita.lock();
+        try {
+            boolean alterou = operacao == LogOperacoes.INSERCAO ? arvore.inserir(valor) : arvore.excluir(valor);
+            if (!alterou) {
+                return false;
+            }
+            try {
+                sequencia = log.registra(operacao, valor);
+            } catch (IOException | RuntimeException e) {
+                if (operacao == LogOperacoes.INSERCAO) {
+                    arvore.excluir(valor);
+                } else {
+                    arvore.inserir(valor);
+                }
+                throw e;
+            }
+        } finally {
+            lockEscrita.unlock();
+        }
+        log.aguarda(sequencia);
+        return true;
+    }
+
+}
@@ -0,0 +1,436 @@
+package br.com.unisinos.arvoreavl.persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de operações somente de acréscimo. O arquivo possui um cabeçalho de 8
+ * bytes (identificador e versão) seguido de registros de 9 bytes: o código da
+ * operação, o valor e o CRC32C dos dois, em little-endian.
+ * <p>
+ * Os registros são acumulados em memória e gravados em grupo: a primeira
+ * thread que precisa da gravação assume a escrita de todo o buffer, enquanto
+ * as demais continuam registrando no buffer reserva e aguardam. Assim uma única
+ * sincronização com o disco atende várias operações concorrentes.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+final class LogOperacoes implements Closeable {
+
+    /** Código da operação de inserção */
+    static final byte INSERCAO = 1;
+    /** Código da operação de exclusão */
+    static final byte EXCLUSAO = 2;
+    /** Identificador do formato ("AVLO") */
+    static final int IDENTIFICADOR = 0x41564C4F;
+    /** Versão atual do formato */
+    static final int VERSAO = 1;
+    /** Tamanho do cabeçalho em bytes */
+    static final int TAMANHO_CABECALHO = 8;
+    /** Tamanho de cada registro em bytes */
+    static final int TAMANHO_REGISTRO = 9;
+    /** Tamanho de cada buffer de registros em bytes */
+    private static final int TAMANHO_BUFFER = TAMANHO_REGISTRO * 7282;
+
+    /**
+     * Aplicação de um registro lido do log
+     */
+    @FunctionalInterface
+    interface AplicacaoRegistro {
+
+        /**
+         * Aplica o registro
+         *
+         * @param operacao Código da operação
+         * @param valor Valor
+         */
+        void aplica(byte operacao, int valor);
+
+    }
+
+    /** Canal de escrita do arquivo */
+    private final FileChannel canal;
+    /** Política de sincronização */
+    private final PoliticaSincronizacao politica;
+    /** Executor da sincronização periódica */
+    private final ScheduledExecutorService sincronizacaoPeriodica;
+    /** Bloqueio de acesso aos buffers e sequências */
+    private final ReentrantLock lock;
+    /** Condição sinalizada ao final de cada gravação */
+    private final Condition gravacaoConcluida;
+    /** Cálculo do CRC dos registros */
+    private final CRC32C crc;
+    /** Quantidade de bytes descartados do final do log na abertura */
+    private final long bytesDescartados;
+    /** Buffer que recebe os novos registros */
+    private ByteBuffer bufferAtual;
+    /** Buffer reserva, gravado pela thread líder */
+    private ByteBuffer bufferGravacao;
+    /** Sequência do último registro */
+    private long sequenciaRegistrada;
+    /** Sequência do último registro sincronizado com o disco */
+    private long sequenciaSincronizada;
+    /** Indica se alguma thread está gravando */
+    private boolean gravando;
+    /** Quantidade de sincronizações com o disco */
+    private long quantidadeSincronizacoes;
+    /** Erro de escrita que tornou o log inutilizável */
+    private IOException falha;
+
+    /**
+     * Método construtor
+     *
+     * @param canal Canal posicionado no final do último registro válido
+     * @param politica Política de sincronização
+     * @param intervaloSincronizacao Intervalo da sincronização periódica em
+     * milissegundos
+     * @param bytesDescartados Quantidade de bytes descartados na abertura
+     */
+    private LogOperacoes(FileChannel canal, PoliticaSincronizacao politica, long intervaloSincronizacao,
+            long bytesDescartados) {
+        this.canal = canal;
+        this.politica = politica;
+        this.bytesDescartados = bytesDescartados;
+        this.lock = new ReentrantLock();
+        this.gravacaoConcluida = lock.newCondition();
+        this.crc = new CRC32C();
+        this.bufferAtual = ByteBuffer.allocate(TAMANHO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        this.bufferGravacao = ByteBuffer.allocate(TAMANHO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        if (politica == PoliticaSincronizacao.PERIODICA) {
+            sincronizacaoPeriodica = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "sincronizacao-log-avl");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sincronizacaoPeriodica.scheduleWithFixedDelay(this::sincronizaPeriodicamente,
+                    intervaloSincronizacao, intervaloSincronizacao, TimeUnit.MILLISECONDS);
+        } else {
+            sincronizacaoPeriodica = null;
+        }
+    }
+
+    /**
+     * Abre o log, aplicando os registros existentes. Registros incompletos ou
+     * com CRC inválido indicam uma escrita interrompida: o log é truncado a
+     * partir do primeiro deles.
+     *
+     * @param arquivo Arquivo do log, criado se não existir
+     * @param politica Política de sincronização
+     * @param intervaloSincronizacao Intervalo da sincronização periódica em
+     * milissegundos
+     * @param aplicacao Aplicação dos registros existentes
+     * @return LogOperacoes
+     * @throws IOException Se ocorrer erro de leitura ou o arquivo não for um log
+     */
+    static LogOperacoes abrir(Path arquivo, PoliticaSincronizacao politica, long intervaloSincronizacao,
+            AplicacaoRegistro aplicacao) throws IOException {
+        if (politica == PoliticaSincronizacao.PERIODICA && intervaloSincronizacao <= 0) {
+            throw new IllegalArgumentException("Intervalo de sincronização deve ser positivo");
+        }
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fimValido;
+            if (canal.size() < TAMANHO_CABECALHO) {
+                // Arquivo novo ou criação interrompida antes do cabeçalho
+                canal.truncate(0);
+                ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+                cabecalho.putInt(IDENTIFICADOR).putInt(VERSAO).flip();
+                while (cabecalho.hasRemaining()) {
+                    canal.write(cabecalho);
+                }
+                canal.force(true);
+                fimValido = TAMANHO_CABECALHO;
+            } else {
+                fimValido = reproduz(canal, aplicacao);
+            }
+            long bytesDescartados = canal.size() - fimValido;
+            if (bytesDescartados > 0) {
+                canal.truncate(fimValido);
+                canal.force(true);
+            }
+            canal.position(fimValido);
+            return new LogOperacoes(canal, politica, intervaloSincronizacao, bytesDescartados);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Aplica os registros válidos do log
+     *
+     * @param canal Canal de leitura
+     * @param aplicacao Aplicação dos registros
+     * @return Posição final do último registro válido
+     * @throws IOException Se ocorrer erro de leitura ou o arquivo não for um log
+     */
+    private static long reproduz(FileChannel canal, AplicacaoRegistro aplicacao) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        canal.position(0);
+        while (buffer.position() < TAMANHO_CABECALHO && canal.read(buffer) >= 0) {
+            // Lê até completar o cabeçalho
+        }
+        buffer.flip();
+        if (buffer.remaining() < TAMANHO_CABECALHO || buffer.getInt() != IDENTIFICADOR) {
+            throw new IOException("Arquivo não é um log de operações da árvore");
+        }
+        int versao = buffer.getInt();
+        if (versao != VERSAO) {
+            throw new IOException(String.format("Versão de log não suportada: %s", versao));
+        }
+        CRC32C crc = new CRC32C();
+        long fimValido = TAMANHO_CABECALHO;
+        while (true) {
+            if (buffer.remaining() < TAMANHO_REGISTRO) {
+                buffer.compact();
+                int lidos = canal.read(buffer);
+                buffer.flip();
+                if (lidos < 0 || buffer.remaining() < TAMANHO_REGISTRO) {
+                    if (lidos < 0) {
+                        return fimValido;
+                    }
+                    continue;
+                }
+            }
+            int inicio = buffer.position();
+            byte operacao = buffer.get();
+            int valor = buffer.getInt();
+            int crcRegistro = buffer.getInt();
+            crc.reset();
+            crc.update(buffer.array(), inicio, TAMANHO_REGISTRO - 4);
+            if ((int) crc.getValue() != crcRegistro
+                    || (operacao != INSERCAO && operacao != EXCLUSAO)) {
+                return fimValido;
+            }
+            aplicacao.aplica(operacao, valor);
+            fimValido += TAMANHO_REGISTRO;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de bytes descartados do final do log na abertura
+     *
+     * @return long
+     */
+    long getBytesDescartados() {
+        return bytesDescartados;
+    }
+
+    /**
+     * Retorna a quantidade de sincronizações com o disco realizadas
+     *
+     * @return long
+     */
+    long getQuantidadeSincronizacoes() {
+        lock.lock();
+        try {
+            return quantidadeSincronizacoes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra uma operação no buffer do log
+     *
+     * @param operacao Código da operação
+     * @param valor Valor
+     * @return Sequência do registro
+     * @throws IOException Se uma gravação anterior falhou
+     */
+    long registra(byte operacao, int valor) throws IOException {
+        lock.lock();
+        try {
+            verificaFalha();
+            // Com o buffer cheio, grava ou aguarda a gravação em andamento
+            while (bufferAtual.remaining() < TAMANHO_REGISTRO) {
+                if (gravando) {
+                    gravacaoConcluida.awaitUninterruptibly();
+                } else {
+                    grava(false);
+                }
+                verificaFalha();
+            }
+            int inicio = bufferAtual.position();
+            bufferAtual.put(operacao).putInt(valor);
+            crc.reset();
+            crc.update(bufferAtual.array(), inicio, TAMANHO_REGISTRO - 4);
+            bufferAtual.putInt((int) crc.getValue());
+            return ++sequenciaRegistrada;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aguarda o registro se tornar durável de acordo com a política. Apenas a
+     * política {@link PoliticaSincronizacao#SEMPRE} aguarda a sincronização.
+     *
+     * @param sequencia Sequência do registro
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    void aguarda(long sequencia) throws IOException {
+        if (politica != PoliticaSincronizacao.SEMPRE) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (sequenciaSincronizada < sequencia) {
+                verificaFalha();
+                if (gravando) {
+                    gravacaoConcluida.awaitUninterruptibly();
+                } else {
+                    grava(true);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava os registros pendentes, sincronizando com o disco conforme a
+     * política
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    void descarrega() throws IOException {
+        lock.lock();
+        try {
+            while (gravando) {
+                gravacaoConcluida.awaitUninterruptibly();
+            }
+            verificaFalha();
+            grava(politica != PoliticaSincronizacao.NUNCA);
+            verificaFalha();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta todos os registros, após eles estarem contidos em um snapshot
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    void trunca() throws IOException {
+        lock.lock();
+        try {
+            while (gravando) {
+                gravacaoConcluida.awaitUninterruptibly();
+            }
+            verificaFalha();
+            bufferAtual.clear();
+            canal.truncate(TAMANHO_CABECALHO);
+            canal.position(TAMANHO_CABECALHO);
+            canal.force(true);
+            quantidadeSincronizacoes++;
+            sequenciaSincronizada = sequenciaRegistrada;
+            gravacaoConcluida.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava os registros pendentes e fecha o arquivo
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    @Override
+    public void close() throws IOException {
+        if (sincronizacaoPeriodica != null) {
+            // Não interrompe a sincronização em andamento, pois a interrupção
+            // fecharia o canal
+            sincronizacaoPeriodica.shutdown();
+            try {
+                sincronizacaoPeriodica.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            descarrega();
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * Grava os registros pendentes como thread líder. Deve ser chamado com o
+     * bloqueio adquirido e sem gravação em andamento; o bloqueio é liberado
+     * durante a escrita para que outras threads continuem registrando.
+     *
+     * @param sincronizar Indica se deve sincronizar com o disco
+     */
+    private void grava(boolean sincronizar) {
+        gravando = true;
+        ByteBuffer buffer = bufferAtual;
+        bufferAtual = bufferGravacao;
+        bufferGravacao = buffer;
+        long sequencia = sequenciaRegistrada;
+        lock.unlock();
+        IOException erro = null;
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            if (sincronizar) {
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            erro = e;
+        } finally {
+            buffer.clear();
+            lock.lock();
+        }
+        if (erro != null) {
+            falha = erro;
+        } else if (sincronizar) {
+            sequenciaSincronizada = sequencia;
+            quantidadeSincronizacoes++;
+        }
+        gravando = false;
+        gravacaoConcluida.signalAll();
+    }
+
+    /**
+     * Sincronização executada periodicamente pela política
+     * {@link PoliticaSincronizacao#PERIODICA}
+     */
+    private void sincronizaPeriodicamente() {
+        lock.lock();
+        try {
+            if (!gravando && falha == null && sequenciaSincronizada < sequenciaRegistrada) {
+                grava(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Verifica se uma gravação anterior falhou
+     *
+     * @throws IOException Se uma gravação anterior falhou
+     */
+    private void verificaFalha() throws IOException {
+        if (falha != null) {
+            throw new IOException("Log de operações inutilizável após falha de escrita", falha);
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package br.com.unisinos.arvoreavl.persistencia;
+
+/**
+ * Política de sincronização do log de operações com o disco
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public enum PoliticaSincronizacao {
+
+    /**
+     * Cada operação só retorna após o seu registro ser sincronizado com o
+     * disco. Operações concorrentes compartilham a mesma sincronização.
+     */
+    SEMPRE,
+    /**
+     * Os registros são gravados e sincronizados periodicamente. Uma queda pode
+     * perder as operações do último intervalo.
+     */
+    PERIODICA,
+    /**
+     * Os registros são gravados quando o buffer enche, na compactação e no
+     * fechamento, sem sincronização. Uma queda pode perder as operações ainda
+     * no buffer.
+     */
+    NUNCA
+
+}
@@ -0,0 +1,256 @@
+package br.com.unisinos.arvoreavl.servidor;
+
+import br.com.unisinos.arvoreavl.metricas.HistogramaLatencia;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cliente gerador de carga do {@link ServidorAvl}. Cada conexão é atendida
+ * por uma thread que envia lotes de requisições em uma única escrita e mede
+ * a latência de cada uma até a chegada da sua resposta completa. Ao final
+ * são reportados a vazão e os percentis de latência.
+ * <p>
+ * Argumentos, todos opcionais e na ordem: host, porta, conexões,
+ * profundidade do pipeline, duração em segundos, quantidade de chaves,
+ * percentual de escritas e percentual de consultas de intervalo.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class ClienteCarga {
+
+    /** Host padrão */
+    private static final String HOST_PADRAO = "127.0.0.1";
+    /** Largura das consultas de intervalo, em chaves */
+    private static final int LARGURA_INTERVALO = 64;
+    /** Tamanho do buffer de respostas, que comporta a maior resposta */
+    private static final int TAMANHO_BUFFER_RESPOSTAS = 1 << 16;
+
+    /** Endereço do servidor */
+    private final InetSocketAddress endereco;
+    /** Quantidade de conexões simultâneas */
+    private final int conexoes;
+    /** Quantidade de requisições enviadas sem aguardar as respostas */
+    private final int profundidade;
+    /** Quantidade de chaves distintas */
+    private final int chaves;
+    /** Percentual de inserções e exclusões */
+    private final int percentualEscrita;
+    /** Percentual de consultas de intervalo */
+    private final int percentualIntervalo;
+    /** Latência das requisições em nanossegundos */
+    private final HistogramaLatencia latencias;
+    /** Quantidade de requisições respondidas */
+    private final LongAdder respondidas;
+
+    /**
+     * Método construtor
+     *
+     * @param endereco Endereço do servidor
+     * @param conexoes Quantidade de conexões simultâneas
+     * @param profundidade Requisições enviadas sem aguardar as respostas
+     * @param chaves Quantidade de chaves distintas
+     * @param percentualEscrita Percentual de inserções e exclusões
+     * @param percentualIntervalo Percentual de consultas de intervalo
+     * @throws IllegalArgumentException Se os percentuais somarem mais de 100
+     */
+    public ClienteCarga(InetSocketAddress endereco, int conexoes, int profundidade, int chaves,
+            int percentualEscrita, int percentualIntervalo) {
+        if (percentualEscrita < 0 || percentualIntervalo < 0 || percentualEscrita + percentualIntervalo > 100) {
+            throw new IllegalArgumentException("Os percentuais devem somar no máximo 100");
+        }
+        this.endereco = endereco;
+        this.conexoes = conexoes;
+        this.profundidade = profundidade;
+        this.chaves = chaves;
+        this.percentualEscrita = percentualEscrita;
+        this.percentualIntervalo = percentualIntervalo;
+        this.latencias = new HistogramaLatencia();
+        this.respondidas = new LongAdder();
+    }
+
+    /**
+     * Método principal
+     *
+     * @param args Argumentos de execução
+     * @throws Exception Se ocorrer erro de comunicação
+     */
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : HOST_PADRAO;
+        int porta = args.length > 1 ? Integer.parseInt(args[1]) : ProtocoloAvl.PORTA_PADRAO;
+        int conexoes = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int profundidade = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+        int segundos = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int chaves = args.length > 5 ? Integer.parseInt(args[5]) : 1_000_000;
+        int percentualEscrita = args.length > 6 ? Integer.parseInt(args[6]) : 10;
+        int percentualIntervalo = args.length > 7 ? Integer.parseInt(args[7]) : 0;
+        ClienteCarga cliente = new ClienteCarga(new InetSocketAddress(host, porta), conexoes,
+                profundidade, chaves, percentualEscrita, percentualIntervalo);
+        cliente.executa(segundos * 1_000_000_000L);
+        System.out.println(cliente.getRelatorio(segundos));
+    }
+
+    /**
+     * Gera carga pelo tempo informado
+     *
+     * @param duracao Duração em nanossegundos
+     * @throws IOException Se alguma conexão falhar
+     * @throws InterruptedException Se a thread for interrompida
+     */
+    public void executa(long duracao) throws IOException, InterruptedException {
+        long fim = System.nanoTime() + duracao;
+        List<Thread> threads = new ArrayList<>();
+        List<IOException> erros = new ArrayList<>();
+        for (int i = 0; i < conexoes; i++) {
+            long semente = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    executaConexao(new SplittableRandom(semente), fim);
+                } catch (IOException e) {
+                    synchronized (erros) {
+                        erros.add(e);
+                    }
+                }
+            }, "cliente-carga-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!erros.isEmpty()) {
+            throw erros.get(0);
+        }
+    }
+
+    /**
+     * Envia lotes de requisições por uma conexão até o fim do tempo
+     *
+     * @param random Gerador aleatório da conexão
+     * @param fim Instante final em nanossegundos
+     * @throws IOException Se ocorrer erro de comunicação
+     */
+    private void executaConexao(SplittableRandom random, long fim) throws IOException {
+        ByteBuffer requisicoes = ByteBuffer.allocateDirect(profundidade * ProtocoloAvl.TAMANHO_REQUISICAO_INTERVALO);
+        ByteBuffer respostas = ByteBuffer.allocateDirect(TAMANHO_BUFFER_RESPOSTAS);
+        byte[] operacoes = new byte[profundidade];
+        try (SocketChannel canal = SocketChannel.open(endereco)) {
+            canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            while (System.nanoTime() < fim) {
+                requisicoes.clear();
+                for (int i = 0; i < profundidade; i++) {
+                    operacoes[i] = sorteiaOperacao(random);
+                    int chave = random.nextInt(chaves);
+                    requisicoes.put(operacoes[i]);
+                    requisicoes.putInt(chave);
+                    if (operacoes[i] == ProtocoloAvl.INTERVALO) {
+                        requisicoes.putInt((int) Math.min((long) chave + LARGURA_INTERVALO - 1, Integer.MAX_VALUE));
+                    }
+                }
+                requisicoes.flip();
+                long envio = System.nanoTime();
+                while (requisicoes.hasRemaining()) {
+                    canal.write(requisicoes);
+                }
+                // Registra a latência de cada resposta quando ela chega completa
+                respostas.clear();
+                int recebidas = 0;
+                while (recebidas < profundidade) {
+                    if (canal.read(respostas) < 0) {
+                        throw new EOFException("Conexão encerrada pelo servidor");
+                    }
+                    long latencia = System.nanoTime() - envio;
+                    respostas.flip();
+                    while (recebidas < profundidade && consomeResposta(respostas, operacoes[recebidas])) {
+                        latencias.registra(latencia);
+                        recebidas++;
+                    }
+                    respostas.compact();
+                }
+                respondidas.add(profundidade);
+            }
+        }
+    }
+
+    /**
+     * Consome a resposta de uma requisição do buffer, caso já tenha chegado
+     * completa
+     *
+     * @param respostas Respostas recebidas
+     * @param operacao Operação da requisição
+     * @return Boolean indicando se a resposta foi consumida
+     * @throws IOException Se o servidor recusou a requisição ou a resposta é
+     * inválida
+     */
+    private static boolean consomeResposta(ByteBuffer respostas, byte operacao) throws IOException {
+        if (operacao != ProtocoloAvl.INTERVALO) {
+            if (!respostas.hasRemaining()) {
+                return false;
+            }
+            if (respostas.get() == ProtocoloAvl.ERRO) {
+                throw new IOException("Requisição recusada pelo servidor");
+            }
+            return true;
+        }
+        if (respostas.remaining() < 4) {
+            return false;
+        }
+        int quantidade = respostas.getInt(respostas.position());
+        if (quantidade < 0 || quantidade > ProtocoloAvl.LIMITE_INTERVALO) {
+            throw new IOException(String.format("Resposta de intervalo inválida: %s chaves", quantidade));
+        }
+        if (respostas.remaining() < 4 + 4 * quantidade) {
+            return false;
+        }
+        respostas.position(respostas.position() + 4 + 4 * quantidade);
+        return true;
+    }
+
+    /**
+     * Sorteia a operação de uma requisição. As escritas são divididas
+     * igualmente entre inserções e exclusões, mantendo o tamanho da árvore
+     * estável.
+     *
+     * @param random Gerador aleatório
+     * @return Código da operação
+     */
+    private byte sorteiaOperacao(SplittableRandom random) {
+        int sorteio = random.nextInt(200);
+        if (sorteio < 2 * percentualEscrita) {
+            return sorteio % 2 == 0 ? ProtocoloAvl.INSERCAO : ProtocoloAvl.EXCLUSAO;
+        }
+        return sorteio < 2 * (percentualEscrita + percentualIntervalo) ? ProtocoloAvl.INTERVALO : ProtocoloAvl.BUSCA;
+    }
+
+    public HistogramaLatencia getLatencias() {
+        return latencias;
+    }
+
+    public long getRespondidas() {
+        return respondidas.sum();
+    }
+
+    /**
+     * Retorna o relatório de vazão e latência da execução
+     *
+     * @param segundos Duração da execução em segundos
+     * @return String
+     */
+    public String getRelatorio(double segundos) {
+        long total = getRespondidas();
+        return String.format("Requisições: %s em %s s (%.0f req/s)%n"
+                + "Latência (us): média %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, máx %.1f",
+                total, segundos, total / segundos,
+                latencias.getMedia() / 1000, latencias.getPercentil(50) / 1000.0,
+                latencias.getPercentil(90) / 1000.0, latencias.getPercentil(99) / 1000.0,
+                latencias.getPercentil(99.9) / 1000.0, latencias.getMaximo() / 1000.0);
+    }
+
+}
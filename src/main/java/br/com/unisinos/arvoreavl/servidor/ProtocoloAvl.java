@@ -0,0 +1,67 @@
+package br.com.unisinos.arvoreavl.servidor;
+
+/**
+ * Protocolo binário do {@link ServidorAvl}. Os inteiros são codificados com 4
+ * bytes em big-endian (ordem de rede).
+ * <p>
+ * Cada requisição começa com um byte de operação seguido da chave. A operação
+ * de intervalo possui ainda o fim do intervalo (inclusivo):
+ * <pre>
+ * BUSCA | INSERCAO | EXCLUSAO   [operação:1][chave:4]
+ * INTERVALO                     [operação:1][inicio:4][fim:4]
+ * </pre>
+ * As respostas são enviadas na ordem das requisições, então o cliente pode
+ * enviar várias requisições sem aguardar as respostas (pipelining) e agrupar
+ * várias em uma única escrita. A busca responde {@link #VERDADEIRO} se a
+ * chave existe; a inserção e a exclusão respondem {@link #VERDADEIRO} se a
+ * árvore foi alterada. O intervalo responde com a quantidade de chaves
+ * seguida das chaves em ordem crescente, limitadas a {@link #LIMITE_INTERVALO};
+ * o cliente continua a partir da última chave recebida quando o limite é
+ * atingido.
+ * <pre>
+ * BUSCA | INSERCAO | EXCLUSAO   [resultado:1]
+ * INTERVALO                     [quantidade:4][chave:4]...
+ * </pre>
+ * Uma operação desconhecida é respondida com {@link #ERRO} e a conexão é
+ * encerrada pelo servidor.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public final class ProtocoloAvl {
+
+    /** Porta padrão do servidor */
+    public static final int PORTA_PADRAO = 7420;
+
+    /** Operação de busca */
+    public static final byte BUSCA = 1;
+    /** Operação de inserção */
+    public static final byte INSERCAO = 2;
+    /** Operação de exclusão */
+    public static final byte EXCLUSAO = 3;
+    /** Operação de consulta de intervalo */
+    public static final byte INTERVALO = 4;
+
+    /** Resposta negativa */
+    public static final byte FALSO = 0;
+    /** Resposta positiva */
+    public static final byte VERDADEIRO = 1;
+    /** Resposta de operação desconhecida */
+    public static final byte ERRO = -1;
+
+    /** Quantidade máxima de chaves de uma resposta de intervalo */
+    public static final int LIMITE_INTERVALO = 1024;
+
+    /** Tamanho das requisições de busca, inserção e exclusão */
+    static final int TAMANHO_REQUISICAO = 5;
+    /** Tamanho da requisição de intervalo */
+    static final int TAMANHO_REQUISICAO_INTERVALO = 9;
+    /** Tamanho máximo de uma resposta */
+    static final int TAMANHO_MAXIMO_RESPOSTA = 4 + 4 * LIMITE_INTERVALO;
+
+    /**
+     * Construtor privado, classe de constantes
+     */
+    private ProtocoloAvl() {
+    }
+
+}
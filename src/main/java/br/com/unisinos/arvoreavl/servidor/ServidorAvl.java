@@ -0,0 +1,333 @@
+package br.com.unisinos.arvoreavl.servidor;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * Servidor de rede que expõe uma árvore através do {@link ProtocoloAvl}. Todas
+ * as conexões são atendidas por uma única thread com um {@link Selector} não
+ * bloqueante, então a árvore é acessada sem bloqueios. As requisições
+ * recebidas em uma leitura são processadas em sequência e as respostas
+ * enviadas em uma única escrita; quando o cliente não consome as respostas,
+ * a leitura da conexão é suspensa até o buffer de saída esvaziar.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+public class ServidorAvl implements Closeable {
+
+    /** Tamanho dos buffers de entrada e saída de cada conexão */
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    /** Árvore exposta pelo servidor */
+    private final ArvoreAvl arvore;
+    /** Seletor das conexões */
+    private final Selector selector;
+    /** Canal que aceita as conexões */
+    private final ServerSocketChannel canalServidor;
+    /** Indica se o laço de atendimento foi iniciado */
+    private volatile boolean iniciado;
+    /** Indica se o servidor deve ser encerrado */
+    private volatile boolean encerrado;
+    /** Quantidade de requisições atendidas */
+    private volatile long requisicoes;
+
+    /**
+     * Método construtor. O servidor passa a aceitar conexões no endereço
+     * informado, que são atendidas após a chamada de {@link #executa()}.
+     *
+     * @param arvore Árvore exposta, que não deve ser acessada por outras
+     * threads enquanto o servidor estiver em execução
+     * @param endereco Endereço local; a porta 0 escolhe uma porta livre
+     * @throws IOException Se não for possível abrir o canal
+     */
+    public ServidorAvl(ArvoreAvl arvore, InetSocketAddress endereco) throws IOException {
+        this.arvore = arvore;
+        this.selector = Selector.open();
+        this.canalServidor = ServerSocketChannel.open();
+        try {
+            canalServidor.bind(endereco);
+            canalServidor.configureBlocking(false);
+            canalServidor.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            fecha();
+            throw e;
+        }
+    }
+
+    /**
+     * Retorna a porta em que o servidor aceita conexões
+     *
+     * @return int
+     */
+    public int getPorta() {
+        return canalServidor.socket().getLocalPort();
+    }
+
+    public long getRequisicoes() {
+        return requisicoes;
+    }
+
+    /**
+     * Atende as conexões na thread atual até {@link #close()} ser chamado
+     *
+     * @throws IOException Se ocorrer erro no seletor ou no canal do servidor
+     */
+    public void executa() throws IOException {
+        iniciado = true;
+        try {
+            while (!encerrado) {
+                selector.select();
+                Iterator<SelectionKey> selecionadas = selector.selectedKeys().iterator();
+                while (selecionadas.hasNext()) {
+                    SelectionKey chave = selecionadas.next();
+                    selecionadas.remove();
+                    if (!chave.isValid()) {
+                        continue;
+                    }
+                    if (chave.isAcceptable()) {
+                        aceita();
+                    } else {
+                        atende(chave);
+                    }
+                }
+            }
+        } finally {
+            fecha();
+        }
+    }
+
+    /**
+     * Encerra o servidor e as conexões abertas. Pode ser chamado de qualquer
+     * thread.
+     *
+     * @throws IOException Se ocorrer erro ao fechar os canais
+     */
+    @Override
+    public void close() throws IOException {
+        encerrado = true;
+        if (iniciado) {
+            selector.wakeup();
+        } else {
+            fecha();
+        }
+    }
+
+    /**
+     * Fecha o seletor e todos os canais registrados nele
+     *
+     * @throws IOException Se ocorrer erro ao fechar o canal do servidor
+     */
+    private void fecha() throws IOException {
+        if (selector.isOpen()) {
+            for (SelectionKey chave : selector.keys()) {
+                if (chave.attachment() instanceof Conexao) {
+                    fechaConexao(chave);
+                }
+            }
+            selector.close();
+        }
+        canalServidor.close();
+    }
+
+    /**
+     * Aceita uma nova conexão
+     *
+     * @throws IOException Se ocorrer erro no canal do servidor
+     */
+    private void aceita() throws IOException {
+        SocketChannel canal = canalServidor.accept();
+        if (canal == null) {
+            return;
+        }
+        canal.configureBlocking(false);
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        canal.register(selector, SelectionKey.OP_READ, new Conexao(canal));
+    }
+
+    /**
+     * Lê as requisições disponíveis de uma conexão, processa e envia as
+     * respostas. A conexão é fechada em caso de erro ou fim da entrada.
+     *
+     * @param chave Chave da conexão
+     */
+    private void atende(SelectionKey chave) {
+        Conexao conexao = (Conexao) chave.attachment();
+        try {
+            if (chave.isReadable() && conexao.canal.read(conexao.entrada) < 0) {
+                fechaConexao(chave);
+                return;
+            }
+            boolean pendente;
+            do {
+                pendente = processa(conexao);
+                if (!escreve(conexao)) {
+                    // O cliente não está consumindo as respostas, suspende a leitura
+                    chave.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+            } while (pendente);
+            if (conexao.encerrar) {
+                fechaConexao(chave);
+                return;
+            }
+            chave.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            fechaConexao(chave);
+        }
+    }
+
+    /**
+     * Processa as requisições completas do buffer de entrada enquanto houver
+     * espaço para a maior resposta no buffer de saída
+     *
+     * @param conexao Conexão
+     * @return Boolean indicando se o processamento parou por falta de espaço
+     * na saída
+     */
+    private boolean processa(Conexao conexao) {
+        ByteBuffer entrada = conexao.entrada;
+        ByteBuffer saida = conexao.saida;
+        boolean pendente = false;
+        long atendidas = 0;
+        entrada.flip();
+        while (entrada.hasRemaining() && !conexao.encerrar) {
+            if (saida.remaining() < ProtocoloAvl.TAMANHO_MAXIMO_RESPOSTA) {
+                pendente = true;
+                break;
+            }
+            byte operacao = entrada.get(entrada.position());
+            int tamanho = operacao == ProtocoloAvl.INTERVALO
+                    ? ProtocoloAvl.TAMANHO_REQUISICAO_INTERVALO : ProtocoloAvl.TAMANHO_REQUISICAO;
+            if (operacao < ProtocoloAvl.BUSCA || operacao > ProtocoloAvl.INTERVALO) {
+                // Operação desconhecida: responde com erro e descarta o restante
+                saida.put(ProtocoloAvl.ERRO);
+                entrada.position(entrada.limit());
+                conexao.encerrar = true;
+                break;
+            }
+            if (entrada.remaining() < tamanho) {
+                break;
+            }
+            entrada.get();
+            int valor = entrada.getInt();
+            switch (operacao) {
+                case ProtocoloAvl.BUSCA:
+                    saida.put(resultado(arvore.contem(valor)));
+                    break;
+                case ProtocoloAvl.INSERCAO:
+                    saida.put(resultado(arvore.inserir(valor)));
+                    break;
+                case ProtocoloAvl.EXCLUSAO:
+                    saida.put(resultado(arvore.excluir(valor)));
+                    break;
+                default:
+                    escreveIntervalo(saida, valor, entrada.getInt());
+                    break;
+            }
+            atendidas++;
+        }
+        entrada.compact();
+        requisicoes += atendidas;
+        return pendente;
+    }
+
+    /**
+     * Escreve a resposta de uma consulta de intervalo
+     *
+     * @param saida Buffer de saída
+     * @param inicio Início do intervalo
+     * @param fim Fim do intervalo
+     */
+    private void escreveIntervalo(ByteBuffer saida, int inicio, int fim) {
+        // Reserva a posição da quantidade, preenchida ao final
+        int posicaoQuantidade = saida.position();
+        saida.putInt(0);
+        int quantidade = 0;
+        PrimitiveIterator.OfInt valores = arvore.iteradorIntervalo(inicio, fim);
+        while (quantidade < ProtocoloAvl.LIMITE_INTERVALO && valores.hasNext()) {
+            saida.putInt(valores.nextInt());
+            quantidade++;
+        }
+        saida.putInt(posicaoQuantidade, quantidade);
+    }
+
+    /**
+     * Envia o conteúdo do buffer de saída
+     *
+     * @param conexao Conexão
+     * @return Boolean indicando se todo o conteúdo foi enviado
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private static boolean escreve(Conexao conexao) throws IOException {
+        ByteBuffer saida = conexao.saida;
+        saida.flip();
+        if (saida.hasRemaining()) {
+            conexao.canal.write(saida);
+        }
+        boolean enviado = !saida.hasRemaining();
+        saida.compact();
+        return enviado;
+    }
+
+    /**
+     * Fecha uma conexão, ignorando erros
+     *
+     * @param chave Chave da conexão
+     */
+    private static void fechaConexao(SelectionKey chave) {
+        chave.cancel();
+        try {
+            ((Conexao) chave.attachment()).canal.close();
+        } catch (IOException e) {
+            // A conexão já está sendo descartada
+        }
+    }
+
+    /**
+     * Converte um resultado para o byte de resposta
+     *
+     * @param resultado Resultado da operação
+     * @return byte
+     */
+    private static byte resultado(boolean resultado) {
+        return resultado ? ProtocoloAvl.VERDADEIRO : ProtocoloAvl.FALSO;
+    }
+
+    /**
+     * Estado de uma conexão
+     */
+    private static final class Conexao {
+
+        /** Canal da conexão */
+        private final SocketChannel canal;
+        /** Requisições recebidas e ainda não processadas */
+        private final ByteBuffer entrada;
+        /** Respostas ainda não enviadas */
+        private final ByteBuffer saida;
+        /** Indica que a conexão deve ser fechada após enviar as respostas */
+        private boolean encerrar;
+
+        /**
+         * Método construtor
+         *
+         * @param canal Canal da conexão
+         */
+        Conexao(SocketChannel canal) {
+            this.canal = canal;
+            this.entrada = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+            this.saida = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        }
+
+    }
+
+}
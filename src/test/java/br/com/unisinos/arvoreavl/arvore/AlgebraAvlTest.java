@@ -0,0 +1,161 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes aleatórios da união, interseção e diferença da {@link ArvoreAvl},
+ * comparando os resultados com as operações de um {@link TreeSet} e
+ * verificando que as árvores informadas não são alteradas
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class AlgebraAvlTest {
+
+    /** Sementes dos cenários aleatórios */
+    private static final long[] SEMENTES = {1, 7, 42, 2024, 987654321};
+
+    @Test
+    void operacoesPequenas() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            for (int cenario = 0; cenario < 40; cenario++) {
+                int universo = 1 + random.nextInt(600);
+                verificaOperacoes(random, random.nextInt(400), random.nextInt(400), universo, cenario % 2 == 0);
+            }
+            // Árvores vazias e intervalos disjuntos
+            verificaOperacoes(random, 0, 0, 10, true);
+            verificaOperacoes(random, 0, 50, 100, true);
+            verificaOperacoes(random, 50, 0, 100, true);
+        }
+    }
+
+    @Test
+    void operacoesParalelas() {
+        // Acima do limite sequencial as metades são divididas em tarefas; sem
+        // nós removidos as árvores também são copiadas em paralelo
+        int quantidade = 3 * AlgebraAvl.LIMITE_SEQUENCIAL;
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            verificaOperacoes(random, quantidade, quantidade, 4 * quantidade, true);
+            verificaOperacoes(random, quantidade, quantidade, 4 * quantidade, false);
+        }
+    }
+
+    /**
+     * Sorteia duas árvores parcialmente sobrepostas e compara as três
+     * operações com a referência
+     *
+     * @param random Gerador
+     * @param quantidadeA Quantidade de inserções da primeira árvore
+     * @param quantidadeB Quantidade de inserções da segunda árvore
+     * @param universo Universo dos valores de cada árvore
+     * @param removidos Se as árvores mantêm nós removidos logicamente
+     */
+    private static void verificaOperacoes(Random random, int quantidadeA, int quantidadeB, int universo,
+            boolean removidos) {
+        TreeSet<Integer> referenciaA = new TreeSet<>();
+        TreeSet<Integer> referenciaB = new TreeSet<>();
+        ArvoreAvl a = sorteia(random, quantidadeA, 0, universo, removidos, referenciaA);
+        ArvoreAvl b = sorteia(random, quantidadeB, universo / 2, universo, removidos, referenciaB);
+        List<Integer> preOrdemA = lista(a.iteradorPreOrdem());
+        List<Integer> preOrdemB = lista(b.iteradorPreOrdem());
+        int removidosA = a.getQuantidadeRemovidos();
+        int removidosB = b.getQuantidadeRemovidos();
+
+        TreeSet<Integer> uniao = new TreeSet<>(referenciaA);
+        uniao.addAll(referenciaB);
+        verificaResultado(a.uniao(b), uniao);
+        TreeSet<Integer> intersecao = new TreeSet<>(referenciaA);
+        intersecao.retainAll(referenciaB);
+        verificaResultado(a.intersecao(b), intersecao);
+        verificaResultado(a.diferenca(b), diferenca(referenciaA, referenciaB));
+        verificaResultado(b.diferenca(a), diferenca(referenciaB, referenciaA));
+
+        // As árvores informadas mantêm o formato, os valores e os removidos
+        a.validaEstrutura();
+        b.validaEstrutura();
+        assertEquals(preOrdemA, lista(a.iteradorPreOrdem()));
+        assertEquals(preOrdemB, lista(b.iteradorPreOrdem()));
+        assertEquals(removidosA, a.getQuantidadeRemovidos());
+        assertEquals(removidosB, b.getQuantidadeRemovidos());
+        assertEquals(new ArrayList<>(referenciaA), lista(a.iteradorEmOrdem()));
+        assertEquals(new ArrayList<>(referenciaB), lista(b.iteradorEmOrdem()));
+    }
+
+    /**
+     * Monta uma árvore com inserções aleatórias e exclui parte dos valores com
+     * a exclusão lógica
+     *
+     * @param random Gerador
+     * @param quantidade Quantidade de inserções
+     * @param inicio Menor valor sorteado
+     * @param universo Quantidade de valores sorteáveis
+     * @param removidos Se os nós removidos permanecem na árvore
+     * @param referencia Valores válidos da árvore
+     * @return ArvoreAvl
+     */
+    private static ArvoreAvl sorteia(Random random, int quantidade, int inicio, int universo, boolean removidos,
+            TreeSet<Integer> referencia) {
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.habilitaExclusaoLogica(0.9);
+        for (int i = 0; i < quantidade; i++) {
+            int valor = inicio + random.nextInt(universo);
+            assertEquals(referencia.add(valor), arvore.inserir(valor));
+        }
+        for (int i = 0; i < quantidade / 4; i++) {
+            int valor = inicio + random.nextInt(universo);
+            assertEquals(referencia.remove(valor), arvore.excluir(valor));
+        }
+        if (!removidos) {
+            arvore.compacta();
+        }
+        return arvore;
+    }
+
+    /**
+     * Retorna os valores do primeiro conjunto ausentes do segundo
+     *
+     * @param primeiro Primeiro conjunto
+     * @param segundo Segundo conjunto
+     * @return TreeSet
+     */
+    private static TreeSet<Integer> diferenca(TreeSet<Integer> primeiro, TreeSet<Integer> segundo) {
+        TreeSet<Integer> diferenca = new TreeSet<>(primeiro);
+        diferenca.removeAll(segundo);
+        return diferenca;
+    }
+
+    /**
+     * Verifica os invariantes da árvore resultante e compara os seus valores
+     * com a referência
+     *
+     * @param resultado Árvore resultante
+     * @param esperado Valores esperados
+     */
+    private static void verificaResultado(ArvoreAvl resultado, TreeSet<Integer> esperado) {
+        resultado.validaEstrutura();
+        assertEquals(0, resultado.getQuantidadeRemovidos());
+        assertEquals(esperado.size(), resultado.getTamanho());
+        assertEquals(new ArrayList<>(esperado), lista(resultado.iteradorEmOrdem()));
+    }
+
+    /**
+     * Retorna os valores do iterador em uma lista
+     *
+     * @param iterador Iterador
+     * @return List
+     */
+    private static List<Integer> lista(PrimitiveIterator.OfInt iterador) {
+        List<Integer> valores = new ArrayList<>();
+        iterador.forEachRemaining((int valor) -> valores.add(valor));
+        return valores;
+    }
+
+}
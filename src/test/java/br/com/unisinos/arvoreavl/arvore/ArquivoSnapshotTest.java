@@ -0,0 +1,182 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Testes do {@link ArquivoSnapshot}: gravação e leitura de árvores de vários
+ * tamanhos, rejeição de arquivos corrompidos e preservação do snapshot
+ * anterior quando a gravação falha
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class ArquivoSnapshotTest {
+
+    /** Tamanhos testados, incluindo os maiores que o buffer de escrita */
+    private static final int[] TAMANHOS = {0, 1, 2, 1000, 16_384, 50_000};
+
+    @Test
+    void gravaECarrega(@TempDir Path diretorio) throws IOException {
+        Random random = new Random(42);
+        Path arquivo = diretorio.resolve("arvore.snapshot");
+        for (int tamanho : TAMANHOS) {
+            TreeSet<Integer> referencia = new TreeSet<>();
+            if (tamanho >= 2) {
+                referencia.add(Integer.MIN_VALUE);
+                referencia.add(Integer.MAX_VALUE);
+            }
+            while (referencia.size() < tamanho) {
+                referencia.add(random.nextInt());
+            }
+            ArvoreAvl arvore = new ArvoreAvl();
+            arvore.habilitaExclusaoLogica(0.9);
+            referencia.forEach(arvore::inserir);
+            // Os nós removidos logicamente não são gravados
+            for (int i = 0; i < tamanho / 10; i++) {
+                int valor = referencia.pollFirst();
+                assertTrue(arvore.excluir(valor));
+            }
+            arvore.salvar(arquivo);
+            assertEquals(ArquivoSnapshot.TAMANHO_CABECALHO + 4L * referencia.size(), Files.size(arquivo));
+            ArvoreAvl carregada = ArvoreAvl.carregar(arquivo);
+            carregada.validaEstrutura();
+            assertEquals(referencia.size(), carregada.getTamanho());
+            List<Integer> valores = new ArrayList<>();
+            carregada.iteradorEmOrdem().forEachRemaining((int valor) -> valores.add(valor));
+            assertEquals(new ArrayList<>(referencia), valores);
+        }
+        assertFalse(Files.exists(diretorio.resolve("arvore.snapshot" + ArquivoSnapshot.SUFIXO_TEMPORARIO)));
+    }
+
+    @Test
+    void rejeitaArquivosInvalidos(@TempDir Path diretorio) throws IOException {
+        Path arquivo = diretorio.resolve("arvore.snapshot");
+        ArvoreAvl.constroi(IntStream.range(0, 100).map(valor -> valor * 3)).salvar(arquivo);
+        byte[] original = Files.readAllBytes(arquivo);
+
+        // Arquivo menor que o cabeçalho
+        rejeita(arquivo, Arrays.copyOf(original, ArquivoSnapshot.TAMANHO_CABECALHO - 1), "incompleto");
+        // Valores truncados no meio e no fim
+        rejeita(arquivo, Arrays.copyOf(original, original.length - 2), "não corresponde");
+        rejeita(arquivo, Arrays.copyOf(original, original.length - 4), "não corresponde");
+        // Identificador e versão
+        byte[] identificador = original.clone();
+        comoBuffer(identificador).putInt(0, 0x12345678);
+        rejeita(arquivo, identificador, "não é um snapshot");
+        byte[] versao = original.clone();
+        comoBuffer(versao).putInt(4, ArquivoSnapshot.VERSAO + 1);
+        rejeita(arquivo, versao, "Versão");
+        byte[] quantidade = original.clone();
+        comoBuffer(quantidade).putInt(8, -1);
+        rejeita(arquivo, quantidade, "não corresponde");
+        // Um bit alterado nos valores
+        byte[] crc = original.clone();
+        crc[ArquivoSnapshot.TAMANHO_CABECALHO + 37] ^= 0x10;
+        rejeita(arquivo, crc, "CRC");
+        // Valores fora de ordem e repetidos, com o CRC recalculado
+        byte[] foraDeOrdem = original.clone();
+        ByteBuffer valores = comoBuffer(foraDeOrdem);
+        int posicao = ArquivoSnapshot.TAMANHO_CABECALHO + 4 * 10;
+        int anterior = valores.getInt(posicao);
+        valores.putInt(posicao, valores.getInt(posicao + 4));
+        valores.putInt(posicao + 4, anterior);
+        atualizaCrc(foraDeOrdem);
+        rejeita(arquivo, foraDeOrdem, "fora de ordem na posição 11");
+        byte[] repetido = original.clone();
+        valores = comoBuffer(repetido);
+        valores.putInt(posicao + 4, valores.getInt(posicao));
+        atualizaCrc(repetido);
+        rejeita(arquivo, repetido, "fora de ordem na posição 11");
+
+        // O arquivo original continua válido
+        Files.write(arquivo, original);
+        assertEquals(100, ArvoreAvl.carregar(arquivo).getTamanho());
+    }
+
+    @Test
+    void falhaNaGravacaoMantemSnapshotAnterior(@TempDir Path diretorio) throws IOException {
+        Path arquivo = diretorio.resolve("arvore.snapshot");
+        ArvoreAvl.constroi(IntStream.range(0, 1000)).salvar(arquivo);
+        byte[] anterior = Files.readAllBytes(arquivo);
+        // Falha depois de mais valores do que cabem no buffer, com parte
+        // deles já escrita no disco
+        PrimitiveIterator.OfInt valores = new PrimitiveIterator.OfInt() {
+
+            private int proximo;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public int nextInt() {
+                if (proximo == 40_000) {
+                    throw new IllegalStateException("Falha simulada");
+                }
+                return proximo++;
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> ArquivoSnapshot.grava(arquivo, valores, 50_000));
+        assertArrayEquals(anterior, Files.readAllBytes(arquivo));
+        assertFalse(Files.exists(diretorio.resolve("arvore.snapshot" + ArquivoSnapshot.SUFIXO_TEMPORARIO)));
+        assertEquals(1000, ArvoreAvl.carregar(arquivo).getTamanho());
+    }
+
+    /**
+     * Grava o conteúdo no arquivo e verifica que a leitura o rejeita com a
+     * mensagem esperada
+     *
+     * @param arquivo Arquivo de snapshot
+     * @param conteudo Conteúdo inválido
+     * @param mensagem Trecho esperado da mensagem de erro
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private static void rejeita(Path arquivo, byte[] conteudo, String mensagem) throws IOException {
+        Files.write(arquivo, conteudo);
+        IOException erro = assertThrows(IOException.class, () -> ArvoreAvl.carregar(arquivo));
+        assertTrue(erro.getMessage().contains(mensagem),
+                () -> String.format("Mensagem inesperada: %s", erro.getMessage()));
+    }
+
+    /**
+     * Retorna o conteúdo do arquivo na ordem de bytes do formato
+     *
+     * @param conteudo Conteúdo do arquivo
+     * @return ByteBuffer
+     */
+    private static ByteBuffer comoBuffer(byte[] conteudo) {
+        return ByteBuffer.wrap(conteudo).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Recalcula o CRC dos valores e o grava no cabeçalho
+     *
+     * @param conteudo Conteúdo do arquivo
+     */
+    private static void atualizaCrc(byte[] conteudo) {
+        CRC32C crc = new CRC32C();
+        crc.update(conteudo, ArquivoSnapshot.TAMANHO_CABECALHO, conteudo.length - ArquivoSnapshot.TAMANHO_CABECALHO);
+        comoBuffer(conteudo).putInt(12, (int) crc.getValue());
+    }
+
+}
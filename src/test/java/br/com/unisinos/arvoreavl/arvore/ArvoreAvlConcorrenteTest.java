@@ -0,0 +1,178 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Teste de estresse da {@link ArvoreAvlConcorrente}: várias threads escrevem
+ * em faixas de valores disjuntas enquanto outras fazem buscas otimistas. Ao
+ * final, os invariantes são verificados e o conteúdo é comparado com a união
+ * dos valores que cada escritora mantém inseridos.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class ArvoreAvlConcorrenteTest {
+
+    /** Quantidade de threads escritoras */
+    private static final int ESCRITORAS = 4;
+    /** Quantidade de threads leitoras */
+    private static final int LEITORAS = 3;
+    /** Quantidade de operações de cada escritora */
+    private static final int OPERACOES_ESCRITA = 40_000;
+    /** Quantidade de valores distintos de cada escritora */
+    private static final int VALORES_ESCRITORA = 5_000;
+    /**
+     * Quantidade de valores negativos inseridos antes do teste e nunca
+     * excluídos, que as leitoras devem sempre encontrar
+     */
+    private static final int VALORES_FIXOS = 10_000;
+
+    @Test
+    void escritasEBuscasOtimistasConcorrentes() throws Exception {
+        executaEstresse(new ArvoreAvlConcorrente(constroiFixos()));
+    }
+
+    @Test
+    void escritasComCompactacaoEmSegundoPlano() throws Exception {
+        ArvoreAvlConcorrente arvore = new ArvoreAvlConcorrente(constroiFixos());
+        arvore.habilitaCompactacaoEmSegundoPlano(0.1, 1, TimeUnit.MILLISECONDS);
+        try {
+            executaEstresse(arvore);
+        } finally {
+            arvore.desabilitaExclusaoLogica();
+        }
+        assertEquals(0, arvore.getQuantidadeRemovidos());
+        arvore.validaEstrutura();
+    }
+
+    /**
+     * Constrói a árvore com os valores fixos
+     *
+     * @return ArvoreAvl
+     */
+    private static ArvoreAvl constroiFixos() {
+        ArvoreAvl arvore = new ArvoreAvl();
+        for (int i = 1; i <= VALORES_FIXOS; i++) {
+            arvore.inserir(-i);
+        }
+        return arvore;
+    }
+
+    /**
+     * Executa as escritoras e as leitoras ao mesmo tempo e verifica o estado
+     * final da árvore
+     *
+     * @param arvore Árvore testada, apenas com os valores fixos
+     * @throws Exception Se alguma thread falhar
+     */
+    private static void executaEstresse(ArvoreAvlConcorrente arvore) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(ESCRITORAS + LEITORAS);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        AtomicLong buscas = new AtomicLong();
+        try {
+            List<Future<TreeSet<Integer>>> escritoras = new ArrayList<>();
+            for (int i = 0; i < ESCRITORAS; i++) {
+                int indice = i;
+                escritoras.add(executor.submit(() -> escreve(arvore, indice, largada)));
+            }
+            List<Future<?>> leitoras = new ArrayList<>();
+            for (int i = 0; i < LEITORAS; i++) {
+                int indice = i;
+                leitoras.add(executor.submit(() -> {
+                    le(arvore, indice, largada, escrevendo, buscas);
+                    return null;
+                }));
+            }
+            largada.countDown();
+            // A união dos valores mantidos por cada escritora é o conteúdo esperado
+            TreeSet<Integer> esperados = new TreeSet<>();
+            for (int i = 1; i <= VALORES_FIXOS; i++) {
+                esperados.add(-i);
+            }
+            for (Future<TreeSet<Integer>> escritora : escritoras) {
+                esperados.addAll(escritora.get(2, TimeUnit.MINUTES));
+            }
+            escrevendo.set(false);
+            for (Future<?> leitora : leitoras) {
+                leitora.get(2, TimeUnit.MINUTES);
+            }
+            arvore.validaEstrutura();
+            assertEquals(esperados.size(), arvore.getTamanho());
+            List<Integer> valores = new ArrayList<>();
+            PrimitiveIterator.OfInt iterador = arvore.congelar().iteradorEmOrdem();
+            iterador.forEachRemaining((int valor) -> valores.add(valor));
+            assertEquals(new ArrayList<>(esperados), valores);
+            assertTrue(buscas.get() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Insere e exclui valores da faixa exclusiva da escritora, conferindo o
+     * retorno de cada operação com os valores que ela mantém inseridos
+     *
+     * @param arvore Árvore testada
+     * @param indice Índice da escritora, que define a sua faixa de valores
+     * @param largada Sinal de início
+     * @return Valores inseridos pela escritora ao final
+     * @throws InterruptedException Se a thread for interrompida
+     */
+    private static TreeSet<Integer> escreve(ArvoreAvlConcorrente arvore, int indice, CountDownLatch largada)
+            throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(indice);
+        TreeSet<Integer> inseridos = new TreeSet<>();
+        largada.await();
+        for (int i = 0; i < OPERACOES_ESCRITA; i++) {
+            int valor = random.nextInt(VALORES_ESCRITORA) * ESCRITORAS + indice;
+            if (random.nextInt(100) < 60) {
+                assertEquals(inseridos.add(valor), arvore.inserir(valor));
+            } else {
+                assertEquals(inseridos.remove(valor), arvore.excluir(valor));
+            }
+        }
+        return inseridos;
+    }
+
+    /**
+     * Busca valores enquanto houver escritas, exigindo que os valores fixos
+     * sejam sempre encontrados mesmo durante as rotações
+     *
+     * @param arvore Árvore testada
+     * @param indice Índice da leitora
+     * @param largada Sinal de início
+     * @param escrevendo Indica se ainda há escritoras executando
+     * @param buscas Contador das buscas realizadas
+     * @throws InterruptedException Se a thread for interrompida
+     */
+    private static void le(ArvoreAvlConcorrente arvore, int indice, CountDownLatch largada,
+            AtomicBoolean escrevendo, AtomicLong buscas) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(1000 + indice);
+        largada.await();
+        long quantidade = 0;
+        while (escrevendo.get()) {
+            int fixo = -1 - random.nextInt(VALORES_FIXOS);
+            assertTrue(arvore.contem(fixo), () -> String.format("Valor fixo %s não encontrado", fixo));
+            // Os valores das escritoras podem ou não existir, mas a busca deve terminar
+            arvore.contem(random.nextInt(VALORES_ESCRITORA * ESCRITORAS));
+            quantidade += 2;
+        }
+        buscas.addAndGet(quantidade);
+    }
+
+}
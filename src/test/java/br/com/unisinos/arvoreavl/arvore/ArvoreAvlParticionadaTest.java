@@ -0,0 +1,218 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Teste de estresse da {@link ArvoreAvlParticionada} com a repartição
+ * adaptativa: as escritoras concentram as escritas em uma partição, que é
+ * dividida enquanto as leitoras buscam e percorrem valores fixos espalhados
+ * pela mesma faixa. Ao final, os invariantes, os percursos e as contagens de
+ * intervalos são comparados com a união dos valores de cada escritora.
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class ArvoreAvlParticionadaTest {
+
+    /** Quantidade de threads escritoras */
+    private static final int ESCRITORAS = 4;
+    /** Quantidade de threads leitoras */
+    private static final int LEITORAS = 3;
+    /** Quantidade de operações de cada escritora */
+    private static final int OPERACOES_ESCRITA = 60_000;
+    /** Quantidade de valores distintos de cada escritora */
+    private static final int VALORES_ESCRITORA = 5_000;
+    /**
+     * Quantidade de valores fixos, inseridos antes do teste e nunca excluídos.
+     * Cada valor fixo ocupa o resto {@value #ESCRITORAS} da divisão por
+     * {@code ESCRITORAS + 1}, intercalado com os valores das escritoras.
+     */
+    private static final int VALORES_FIXOS = 5_000;
+    /** Quantidade inicial de partições */
+    private static final int PARTICOES = 4;
+
+    @Test
+    void escritasComReparticaoAdaptativa() throws Exception {
+        ArvoreAvlParticionada arvore = new ArvoreAvlParticionada(PARTICOES);
+        arvore.setReparticaoAdaptativa(true);
+        TreeSet<Integer> esperados = new TreeSet<>();
+        for (int i = 0; i < VALORES_FIXOS; i++) {
+            assertTrue(arvore.inserir(fixo(i)));
+            esperados.add(fixo(i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(ESCRITORAS + LEITORAS);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        AtomicLong leituras = new AtomicLong();
+        try {
+            List<Future<TreeSet<Integer>>> escritoras = new ArrayList<>();
+            for (int i = 0; i < ESCRITORAS; i++) {
+                int indice = i;
+                escritoras.add(executor.submit(() -> escreve(arvore, indice, largada)));
+            }
+            List<Future<?>> leitoras = new ArrayList<>();
+            for (int i = 0; i < LEITORAS; i++) {
+                int indice = i;
+                leitoras.add(executor.submit(() -> {
+                    le(arvore, indice, largada, escrevendo, leituras);
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<TreeSet<Integer>> escritora : escritoras) {
+                esperados.addAll(escritora.get(2, TimeUnit.MINUTES));
+            }
+            escrevendo.set(false);
+            for (Future<?> leitora : leitoras) {
+                leitora.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(leituras.get() > 0);
+        // A partição das escritas foi dividida pela repartição adaptativa
+        assertTrue(arvore.getQuantidadeParticoes() > PARTICOES,
+                () -> String.format("Partições: %s", arvore.getQuantidadeParticoes()));
+        arvore.validaEstrutura();
+        assertEquals(esperados.size(), arvore.getTamanho());
+        assertEquals(new ArrayList<>(esperados), lista(arvore.iteradorEmOrdem()));
+        verificaIntervalos(arvore, esperados);
+    }
+
+    /**
+     * Compara as contagens e os percursos de intervalos que atravessam os
+     * limites das partições com a referência
+     *
+     * @param arvore Árvore testada
+     * @param esperados Valores esperados
+     */
+    private static void verificaIntervalos(ArvoreAvlParticionada arvore, TreeSet<Integer> esperados) {
+        List<int[]> intervalos = new ArrayList<>();
+        intervalos.add(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE});
+        intervalos.add(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE});
+        intervalos.add(new int[]{1, 0});
+        int[] limites = arvore.getLimites();
+        for (int limite : limites) {
+            intervalos.add(new int[]{limite - 1, limite});
+            intervalos.add(new int[]{limite - 50, limite + 50});
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        int universo = (ESCRITORAS + 1) * VALORES_ESCRITORA;
+        for (int i = 0; i < 200; i++) {
+            int inicio = random.nextInt(universo) - 10;
+            intervalos.add(new int[]{inicio, inicio + random.nextInt(universo / 4)});
+        }
+        for (int[] intervalo : intervalos) {
+            List<Integer> esperado = intervalo[0] > intervalo[1] ? new ArrayList<>()
+                    : new ArrayList<>(esperados.subSet(intervalo[0], true, intervalo[1], true));
+            assertEquals(esperado.size(), arvore.contarIntervalo(intervalo[0], intervalo[1]));
+            assertEquals(esperado, lista(arvore.iteradorIntervalo(intervalo[0], intervalo[1])));
+        }
+    }
+
+    /**
+     * Retorna o valor fixo da posição informada
+     *
+     * @param posicao Posição do valor fixo
+     * @return int
+     */
+    private static int fixo(int posicao) {
+        return posicao * (ESCRITORAS + 1) + ESCRITORAS;
+    }
+
+    /**
+     * Insere e exclui valores da faixa exclusiva da escritora, conferindo o
+     * retorno de cada operação com os valores que ela mantém inseridos
+     *
+     * @param arvore Árvore testada
+     * @param indice Índice da escritora, que define os seus valores
+     * @param largada Sinal de início
+     * @return Valores inseridos pela escritora ao final
+     * @throws InterruptedException Se a thread for interrompida
+     */
+    private static TreeSet<Integer> escreve(ArvoreAvlParticionada arvore, int indice, CountDownLatch largada)
+            throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(indice);
+        TreeSet<Integer> inseridos = new TreeSet<>();
+        largada.await();
+        for (int i = 0; i < OPERACOES_ESCRITA; i++) {
+            int valor = random.nextInt(VALORES_ESCRITORA) * (ESCRITORAS + 1) + indice;
+            if (random.nextInt(100) < 60) {
+                assertEquals(inseridos.add(valor), arvore.inserir(valor));
+            } else {
+                assertEquals(inseridos.remove(valor), arvore.excluir(valor));
+            }
+        }
+        return inseridos;
+    }
+
+    /**
+     * Enquanto houver escritas, alterna entre buscar valores fixos e percorrer
+     * toda a árvore, exigindo que o percurso seja estritamente crescente e
+     * encontre todos os valores fixos mesmo durante as divisões
+     *
+     * @param arvore Árvore testada
+     * @param indice Índice da leitora
+     * @param largada Sinal de início
+     * @param escrevendo Indica se ainda há escritoras executando
+     * @param leituras Contador das leituras realizadas
+     * @throws InterruptedException Se a thread for interrompida
+     */
+    private static void le(ArvoreAvlParticionada arvore, int indice, CountDownLatch largada,
+            AtomicBoolean escrevendo, AtomicLong leituras) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(1000 + indice);
+        largada.await();
+        long quantidade = 0;
+        while (escrevendo.get()) {
+            for (int i = 0; i < 100; i++) {
+                int valor = fixo(random.nextInt(VALORES_FIXOS));
+                assertTrue(arvore.contem(valor), () -> String.format("Valor fixo %s não encontrado", valor));
+            }
+            PrimitiveIterator.OfInt iterador = arvore.iteradorEmOrdem();
+            long anterior = Long.MIN_VALUE;
+            int fixos = 0;
+            while (iterador.hasNext()) {
+                int valor = iterador.nextInt();
+                assertTrue(valor > anterior, () -> String.format("Valor %s fora de ordem", valor));
+                anterior = valor;
+                if (valor % (ESCRITORAS + 1) == ESCRITORAS) {
+                    fixos++;
+                }
+            }
+            assertEquals(VALORES_FIXOS, fixos);
+            // A contagem também lê as partições uma a uma, mas nunca perde os fixos
+            int total = arvore.contarIntervalo(Integer.MIN_VALUE, Integer.MAX_VALUE);
+            assertTrue(total >= VALORES_FIXOS && total <= VALORES_FIXOS + ESCRITORAS * VALORES_ESCRITORA,
+                    () -> String.format("Contagem %s fora do esperado", total));
+            quantidade++;
+        }
+        leituras.addAndGet(quantidade);
+    }
+
+    /**
+     * Retorna os valores do iterador em uma lista
+     *
+     * @param iterador Iterador
+     * @return List
+     */
+    private static List<Integer> lista(PrimitiveIterator.OfInt iterador) {
+        List<Integer> valores = new ArrayList<>();
+        iterador.forEachRemaining((int valor) -> valores.add(valor));
+        return valores;
+    }
+
+}
@@ -0,0 +1,167 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes aleatórios da {@link ArvoreAvlPrimitiva}, comparando os percursos e a
+ * renderização com a estrutura da árvore e com um {@link TreeSet}
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class ArvoreAvlPrimitivaTest {
+
+    /** Sementes dos cenários aleatórios */
+    private static final long[] SEMENTES = {1, 7, 42, 2024, 987654321};
+    /** Quantidade de lotes por cenário */
+    private static final int LOTES = 30;
+    /** Quantidade de operações por lote */
+    private static final int OPERACOES_LOTE = 200;
+    /** Universo dos valores sorteados */
+    private static final int UNIVERSO = 2000;
+
+    @Test
+    void percursosAleatorios() throws IOException {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            ArvoreAvlPrimitiva arvore = new ArvoreAvlPrimitiva(1);
+            TreeSet<Integer> referencia = new TreeSet<>();
+            for (int lote = 0; lote < LOTES; lote++) {
+                for (int i = 0; i < OPERACOES_LOTE; i++) {
+                    int valor = random.nextInt(UNIVERSO) - UNIVERSO / 2;
+                    if (random.nextInt(100) < 60) {
+                        assertEquals(referencia.add(valor), arvore.inserir(valor));
+                    } else {
+                        assertEquals(referencia.remove(valor), arvore.excluir(valor));
+                    }
+                }
+                assertEquals(referencia.size(), arvore.getTamanho());
+                assertEquals(new ArrayList<>(referencia), lista(arvore.iteradorEmOrdem()));
+                List<Integer> preOrdem = new ArrayList<>();
+                List<Integer> posOrdem = new ArrayList<>();
+                percorre(arvore, arvore.getRaiz(), preOrdem, posOrdem);
+                assertEquals(preOrdem, lista(arvore.iteradorPreOrdem()));
+                assertEquals(posOrdem, lista(arvore.iteradorPosOrdem()));
+                verificaRenderizacao(arvore, referencia, preOrdem, posOrdem);
+            }
+        }
+    }
+
+    @Test
+    void renderizaArvoreVazia() throws IOException {
+        ArvoreAvlPrimitiva arvore = new ArvoreAvlPrimitiva();
+        StringBuilder saida = new StringBuilder();
+        RenderizadorAvl renderizador = new RenderizadorAvl(saida);
+        renderizador.renderizaEmOrdem(arvore);
+        renderizador.renderizaNiveis(arvore);
+        assertEquals(System.lineSeparator(), saida.toString());
+    }
+
+    /**
+     * Compara a renderização dos percursos e dos níveis com os valores
+     * esperados
+     *
+     * @param arvore Árvore testada
+     * @param referencia Valores em ordem
+     * @param preOrdem Valores em pré-ordem
+     * @param posOrdem Valores em pós-ordem
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    private static void verificaRenderizacao(ArvoreAvlPrimitiva arvore, TreeSet<Integer> referencia,
+            List<Integer> preOrdem, List<Integer> posOrdem) throws IOException {
+        StringBuilder saida = new StringBuilder();
+        RenderizadorAvl renderizador = new RenderizadorAvl(saida);
+        renderizador.renderizaEmOrdem(arvore);
+        renderizador.renderizaPreOrdem(arvore);
+        renderizador.renderizaPosOrdem(arvore);
+        String esperado = junta(referencia) + System.lineSeparator()
+                + junta(preOrdem) + System.lineSeparator()
+                + junta(posOrdem) + System.lineSeparator();
+        assertEquals(esperado, saida.toString());
+        // Cada nível em uma linha, da esquerda para a direita
+        List<StringBuilder> niveis = new ArrayList<>();
+        coletaNiveis(arvore, arvore.getRaiz(), 0, niveis);
+        StringBuilder esperadoNiveis = new StringBuilder();
+        for (StringBuilder nivel : niveis) {
+            esperadoNiveis.append(nivel).append(System.lineSeparator());
+        }
+        saida.setLength(0);
+        renderizador.renderizaNiveis(arvore);
+        assertEquals(esperadoNiveis.toString(), saida.toString());
+        assertEquals(arvore.getAltura() + 1, niveis.size());
+        assertTrue(arvore.getAltura() <= 1.4405 * Math.log(arvore.getTamanho() + 2) / Math.log(2));
+    }
+
+    /**
+     * Percorre a subárvore recursivamente pelos filhos, coletando as ordens de
+     * percurso esperadas
+     *
+     * @param arvore Árvore
+     * @param no Posição do nó
+     * @param preOrdem Valores em pré-ordem
+     * @param posOrdem Valores em pós-ordem
+     */
+    private static void percorre(ArvoreAvlPrimitiva arvore, int no, List<Integer> preOrdem, List<Integer> posOrdem) {
+        if (ArvoreAvlPrimitiva.isNulo(no)) {
+            return;
+        }
+        preOrdem.add(arvore.getChave(no));
+        percorre(arvore, arvore.getEsquerda(no), preOrdem, posOrdem);
+        percorre(arvore, arvore.getDireita(no), preOrdem, posOrdem);
+        posOrdem.add(arvore.getChave(no));
+    }
+
+    /**
+     * Coleta a renderização esperada de cada nível da subárvore
+     *
+     * @param arvore Árvore
+     * @param no Posição do nó
+     * @param nivel Nível do nó
+     * @param niveis Renderização de cada nível
+     */
+    private static void coletaNiveis(ArvoreAvlPrimitiva arvore, int no, int nivel, List<StringBuilder> niveis) {
+        if (ArvoreAvlPrimitiva.isNulo(no)) {
+            return;
+        }
+        if (niveis.size() == nivel) {
+            niveis.add(new StringBuilder());
+        }
+        niveis.get(nivel).append('|').append(arvore.getChave(no)).append("| ");
+        coletaNiveis(arvore, arvore.getEsquerda(no), nivel + 1, niveis);
+        coletaNiveis(arvore, arvore.getDireita(no), nivel + 1, niveis);
+    }
+
+    /**
+     * Retorna os valores do iterador em uma lista
+     *
+     * @param iterador Iterador
+     * @return List
+     */
+    private static List<Integer> lista(PrimitiveIterator.OfInt iterador) {
+        List<Integer> valores = new ArrayList<>();
+        iterador.forEachRemaining((int valor) -> valores.add(valor));
+        return valores;
+    }
+
+    /**
+     * Junta os valores separados por vírgula
+     *
+     * @param valores Valores
+     * @return String
+     */
+    private static String junta(Iterable<Integer> valores) {
+        StringJoiner juncao = new StringJoiner(", ");
+        valores.forEach(valor -> juncao.add(String.valueOf(valor)));
+        return juncao.toString();
+    }
+
+}
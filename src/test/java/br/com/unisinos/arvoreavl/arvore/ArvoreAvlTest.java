@@ -0,0 +1,160 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes aleatórios da {@link ArvoreAvl}, comparando a árvore com um
+ * {@link TreeSet} de referência após cada lote de operações
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class ArvoreAvlTest {
+
+    /** Sementes dos cenários aleatórios */
+    private static final long[] SEMENTES = {1, 7, 42, 2024, 987654321};
+    /** Quantidade de lotes por cenário */
+    private static final int LOTES = 60;
+    /** Quantidade de operações por lote */
+    private static final int OPERACOES_LOTE = 250;
+    /** Universo dos valores sorteados */
+    private static final int UNIVERSO = 2000;
+
+    @Test
+    void insercoesEExclusoesAleatorias() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            ArvoreAvl arvore = new ArvoreAvl();
+            TreeSet<Integer> referencia = new TreeSet<>();
+            for (int lote = 0; lote < LOTES; lote++) {
+                for (int i = 0; i < OPERACOES_LOTE; i++) {
+                    int valor = random.nextInt(UNIVERSO);
+                    if (random.nextInt(100) < 55) {
+                        assertEquals(referencia.add(valor), arvore.inserir(valor));
+                    } else {
+                        assertEquals(referencia.remove(valor), arvore.excluir(valor));
+                    }
+                }
+                verificaConteudo(arvore, referencia, random);
+            }
+        }
+    }
+
+    @Test
+    void exclusaoLogicaComCompactacao() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            ArvoreAvl arvore = new ArvoreAvl();
+            arvore.habilitaExclusaoLogica(0.3);
+            TreeSet<Integer> referencia = new TreeSet<>();
+            for (int lote = 0; lote < LOTES; lote++) {
+                for (int i = 0; i < OPERACOES_LOTE; i++) {
+                    int valor = random.nextInt(UNIVERSO);
+                    if (random.nextInt(100) < 50) {
+                        assertEquals(referencia.add(valor), arvore.inserir(valor));
+                    } else {
+                        assertEquals(referencia.remove(valor), arvore.excluir(valor));
+                    }
+                }
+                verificaConteudo(arvore, referencia, random);
+                // Alterna entre compactação incremental, completa e nenhuma
+                if (lote % 3 == 0) {
+                    arvore.compactaIncremental(1 + random.nextInt(128));
+                } else if (lote % 5 == 0) {
+                    arvore.compacta();
+                    assertEquals(0, arvore.getQuantidadeRemovidos());
+                }
+                verificaConteudo(arvore, referencia, random);
+            }
+            arvore.desabilitaExclusaoLogica();
+            assertEquals(0, arvore.getQuantidadeRemovidos());
+            verificaConteudo(arvore, referencia, random);
+        }
+    }
+
+    @Test
+    void compactacaoIncrementalRetiraTodosOsRemovidos() {
+        Random random = new Random(3);
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.habilitaExclusaoLogica(1);
+        TreeSet<Integer> referencia = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            arvore.inserir(i);
+            referencia.add(i);
+        }
+        for (int i = 0; i < 15000; i++) {
+            int valor = random.nextInt(20000);
+            assertEquals(referencia.remove(valor), arvore.excluir(valor));
+        }
+        int removidos = arvore.getQuantidadeRemovidos();
+        int retirados = 0;
+        int fatia;
+        while ((fatia = arvore.compactaIncremental(256)) > 0) {
+            retirados += fatia;
+            arvore.validaEstrutura();
+        }
+        assertEquals(removidos, retirados);
+        assertEquals(0, arvore.getQuantidadeRemovidos());
+        verificaConteudo(arvore, referencia, random);
+    }
+
+    @Test
+    void renderizaNiveisSemRemovidos() throws IOException {
+        ArvoreAvl arvore = new ArvoreAvl();
+        arvore.habilitaExclusaoLogica(0.9);
+        for (int valor = 1; valor <= 7; valor++) {
+            arvore.inserir(valor);
+        }
+        assertTrue(arvore.excluir(4));
+        assertTrue(arvore.excluir(2));
+        assertEquals(2, arvore.getQuantidadeRemovidos());
+        String quebra = System.lineSeparator();
+        StringBuilder saida = new StringBuilder();
+        RenderizadorAvl renderizador = new RenderizadorAvl(saida);
+        renderizador.renderizaEmOrdem(arvore);
+        assertEquals("1, 3, 5, 6, 7" + quebra, saida.toString());
+        // Os removidos somem da saída, mas seus filhos continuam no nível seguinte
+        saida.setLength(0);
+        renderizador.renderizaNiveis(arvore);
+        assertEquals(quebra + "|6| " + quebra + "|1| |3| |5| |7| " + quebra, saida.toString());
+        // Só os valores escritos contam para o limite
+        saida.setLength(0);
+        renderizador.setLimiteValores(3);
+        renderizador.renderizaNiveis(arvore);
+        assertEquals(quebra + "|6| " + quebra + "|1| |3| ..." + quebra, saida.toString());
+    }
+
+    /**
+     * Verifica os invariantes da árvore e compara os valores em ordem, o rank
+     * e o select com a referência
+     *
+     * @param arvore Árvore testada
+     * @param referencia Valores esperados
+     * @param random Gerador dos valores consultados
+     */
+    private static void verificaConteudo(ArvoreAvl arvore, TreeSet<Integer> referencia, Random random) {
+        arvore.validaEstrutura();
+        assertEquals(referencia.size(), arvore.getTamanho());
+        List<Integer> emOrdem = new ArrayList<>();
+        arvore.iteradorEmOrdem().forEachRemaining((int valor) -> emOrdem.add(valor));
+        assertEquals(new ArrayList<>(referencia), emOrdem);
+        for (int i = 0; i < 50; i++) {
+            int valor = random.nextInt(UNIVERSO + 20) - 10;
+            assertEquals(referencia.headSet(valor).size(), arvore.rank(valor));
+            assertEquals(referencia.contains(valor), arvore.contem(valor));
+        }
+        for (int posicao = 0; posicao < emOrdem.size(); posicao++) {
+            assertEquals(emOrdem.get(posicao).intValue(), arvore.select(posicao).getValor());
+        }
+        assertNull(arvore.select(emOrdem.size()));
+    }
+
+}
@@ -0,0 +1,177 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes aleatórios do {@link CursorAvl}, intercalando as operações do cursor
+ * com alterações feitas diretamente na árvore e comparando o resultado com um
+ * {@link TreeSet} de referência
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class CursorAvlTest {
+
+    /** Sementes dos cenários aleatórios; as ímpares usam exclusão lógica */
+    private static final long[] SEMENTES = {1, 7, 42, 2024, 987654321};
+    /** Quantidade de lotes por cenário */
+    private static final int LOTES = 60;
+    /** Quantidade de operações por lote */
+    private static final int OPERACOES_LOTE = 300;
+    /** Universo dos valores sorteados */
+    private static final int UNIVERSO = 2000;
+
+    @Test
+    void cursorComAlteracoesDaArvore() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            boolean exclusaoLogica = semente % 2 == 1;
+            ArvoreAvl arvore = new ArvoreAvl();
+            if (exclusaoLogica) {
+                arvore.habilitaExclusaoLogica(0.3);
+            }
+            CursorAvl cursor = arvore.cursor();
+            TreeSet<Integer> referencia = new TreeSet<>();
+            int valor = 0;
+            for (int lote = 0; lote < LOTES; lote++) {
+                for (int i = 0; i < OPERACOES_LOTE; i++) {
+                    valor = proximoValor(random, valor, referencia);
+                    switch (random.nextInt(10)) {
+                        case 0:
+                        case 1:
+                        case 2:
+                        case 3:
+                            assertEquals(referencia.add(valor), cursor.inserir(valor));
+                            break;
+                        case 4:
+                        case 5:
+                            assertEquals(referencia.remove(valor), cursor.excluir(valor));
+                            break;
+                        case 6:
+                        case 7:
+                            assertEquals(referencia.contains(valor), cursor.contem(valor));
+                            break;
+                        case 8:
+                            assertEquals(referencia.add(valor), arvore.inserir(valor));
+                            break;
+                        default:
+                            assertEquals(referencia.remove(valor), arvore.excluir(valor));
+                            break;
+                    }
+                }
+                verificaConteudo(arvore, cursor, referencia, random);
+                // Alterações em lote fora do cursor
+                switch (lote % 4) {
+                    case 0:
+                        int[] inserir = valoresAleatorios(random);
+                        boolean[] inseridos = arvore.inserirTodos(inserir);
+                        for (int i = 0; i < inserir.length; i++) {
+                            assertEquals(referencia.add(inserir[i]), inseridos[i]);
+                        }
+                        break;
+                    case 1:
+                        int[] excluir = valoresAleatorios(random);
+                        boolean[] excluidos = arvore.excluirTodos(excluir);
+                        for (int i = 0; i < excluir.length; i++) {
+                            assertEquals(referencia.remove(excluir[i]), excluidos[i]);
+                        }
+                        break;
+                    case 2:
+                        // A árvore dividida fica vazia e o cursor antigo não
+                        // deve encontrar mais nenhum valor
+                        ArvoreAvl[] partes = arvore.split(random.nextInt(UNIVERSO));
+                        partes[0].validaEstrutura();
+                        partes[1].validaEstrutura();
+                        for (int esperado : referencia) {
+                            assertFalse(cursor.contem(esperado));
+                        }
+                        arvore = ArvoreAvl.join(partes[0], partes[1]);
+                        if (exclusaoLogica) {
+                            arvore.habilitaExclusaoLogica(0.3);
+                        }
+                        cursor = arvore.cursor();
+                        break;
+                    default:
+                        if (exclusaoLogica) {
+                            arvore.compactaIncremental(1 + random.nextInt(64));
+                        } else {
+                            arvore.compacta();
+                        }
+                        break;
+                }
+                verificaConteudo(arvore, cursor, referencia, random);
+            }
+        }
+    }
+
+    /**
+     * Sorteia o próximo valor: na maior parte das vezes um passo curto a
+     * partir do anterior, às vezes um salto aleatório ou um valor além dos
+     * extremos
+     *
+     * @param random Gerador
+     * @param anterior Valor anterior
+     * @param referencia Valores presentes
+     * @return int
+     */
+    private static int proximoValor(Random random, int anterior, TreeSet<Integer> referencia) {
+        int sorteio = random.nextInt(10);
+        if (sorteio < 6) {
+            return anterior + random.nextInt(7) - 3;
+        }
+        if (sorteio < 8 || referencia.isEmpty()) {
+            return random.nextInt(UNIVERSO);
+        }
+        return random.nextBoolean() ? referencia.last() + 1 + random.nextInt(3)
+                : referencia.first() - 1 - random.nextInt(3);
+    }
+
+    /**
+     * Sorteia um lote de valores, com possíveis repetições
+     *
+     * @param random Gerador
+     * @return int[]
+     */
+    private static int[] valoresAleatorios(Random random) {
+        int[] valores = new int[1 + random.nextInt(40)];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = random.nextInt(UNIVERSO);
+        }
+        return valores;
+    }
+
+    /**
+     * Verifica os invariantes da árvore e compara os valores em ordem e as
+     * buscas pelo cursor com a referência
+     *
+     * @param arvore Árvore testada
+     * @param cursor Cursor da árvore
+     * @param referencia Valores esperados
+     * @param random Gerador dos valores consultados
+     */
+    private static void verificaConteudo(ArvoreAvl arvore, CursorAvl cursor, TreeSet<Integer> referencia,
+            Random random) {
+        arvore.validaEstrutura();
+        assertEquals(referencia.size(), arvore.getTamanho());
+        List<Integer> emOrdem = new ArrayList<>();
+        arvore.iteradorEmOrdem().forEachRemaining((int valor) -> emOrdem.add(valor));
+        assertEquals(new ArrayList<>(referencia), emOrdem);
+        for (int i = 0; i < 50; i++) {
+            int valor = random.nextInt(UNIVERSO + 20) - 10;
+            assertEquals(referencia.contains(valor), cursor.contem(valor));
+            if (!referencia.contains(valor)) {
+                assertNull(cursor.busca(valor));
+            } else {
+                assertEquals(valor, cursor.busca(valor).getValor());
+            }
+        }
+    }
+
+}
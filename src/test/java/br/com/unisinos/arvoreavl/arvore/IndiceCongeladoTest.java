@@ -0,0 +1,139 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes do {@link IndiceCongelado} para todos os tamanhos até algumas
+ * centenas, incluindo os com o último nível incompleto, comparando as buscas
+ * e os intervalos com um {@link TreeSet}
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class IndiceCongeladoTest {
+
+    /** Maior quantidade de valores testada */
+    private static final int TAMANHO_MAXIMO = 300;
+    /** Valor retornado pelas buscas sem resultado, nunca presente no índice */
+    private static final int PADRAO = 123456;
+
+    @Test
+    void buscasEmTodosOsTamanhos() {
+        Random random = new Random(42);
+        for (int tamanho = 0; tamanho <= TAMANHO_MAXIMO; tamanho++) {
+            // Alterna entre valores sem e com os limites do tipo
+            boolean limites = tamanho % 3 == 2;
+            TreeSet<Integer> referencia = sorteia(random, tamanho, limites);
+            IndiceCongelado indice = ArvoreAvl.constroi(referencia.stream().mapToInt(Integer::intValue)).congelar();
+            assertEquals(tamanho, indice.getTamanho());
+            assertEquals(tamanho == 0, indice.isVazio());
+            assertEquals(new ArrayList<>(referencia), lista(indice.iteradorEmOrdem()));
+            List<Integer> consultas = new ArrayList<>();
+            consultas.add(Integer.MIN_VALUE);
+            consultas.add(Integer.MIN_VALUE + 1);
+            consultas.add(Integer.MAX_VALUE - 1);
+            consultas.add(Integer.MAX_VALUE);
+            for (int valor : referencia) {
+                consultas.add(valor - 1);
+                consultas.add(valor);
+                consultas.add(valor + 1);
+            }
+            for (int valor : consultas) {
+                assertEquals(referencia.contains(valor), indice.contem(valor), () -> "contem " + valor);
+                assertEquals(padrao(referencia.floor(valor)), indice.floor(valor, PADRAO), () -> "floor " + valor);
+                assertEquals(padrao(referencia.ceiling(valor)), indice.ceiling(valor, PADRAO),
+                        () -> "ceiling " + valor);
+            }
+            verificaIntervalos(indice, referencia, random);
+        }
+    }
+
+    /**
+     * Compara os intervalos nas pontas, nos limites do tipo e em posições
+     * aleatórias
+     *
+     * @param indice Índice testado
+     * @param referencia Valores esperados
+     * @param random Gerador dos intervalos
+     */
+    private static void verificaIntervalos(IndiceCongelado indice, TreeSet<Integer> referencia, Random random) {
+        List<int[]> intervalos = new ArrayList<>();
+        intervalos.add(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE});
+        intervalos.add(new int[]{Integer.MIN_VALUE, Integer.MIN_VALUE});
+        intervalos.add(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE});
+        intervalos.add(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE});
+        if (!referencia.isEmpty()) {
+            int primeiro = referencia.first();
+            int ultimo = referencia.last();
+            intervalos.add(new int[]{Integer.MIN_VALUE, primeiro});
+            intervalos.add(new int[]{primeiro, primeiro});
+            intervalos.add(new int[]{ultimo, Integer.MAX_VALUE});
+            intervalos.add(new int[]{ultimo, ultimo});
+            intervalos.add(new int[]{primeiro + 1, ultimo - 1});
+            List<Integer> valores = new ArrayList<>(referencia);
+            for (int i = 0; i < 10; i++) {
+                int inicio = valores.get(random.nextInt(valores.size())) + random.nextInt(3) - 1;
+                int fim = valores.get(random.nextInt(valores.size())) + random.nextInt(3) - 1;
+                intervalos.add(new int[]{inicio, fim});
+            }
+        }
+        for (int[] intervalo : intervalos) {
+            NavigableSet<Integer> esperado = intervalo[0] > intervalo[1] ? Collections.emptyNavigableSet()
+                    : referencia.subSet(intervalo[0], true, intervalo[1], true);
+            assertEquals(new ArrayList<>(esperado), lista(indice.iteradorIntervalo(intervalo[0], intervalo[1])),
+                    () -> "intervalo " + intervalo[0] + " a " + intervalo[1]);
+        }
+    }
+
+    /**
+     * Sorteia valores distintos e espaçados, para que os vizinhos de cada
+     * valor possam estar ausentes
+     *
+     * @param random Gerador
+     * @param tamanho Quantidade de valores
+     * @param limites Se os limites do tipo devem estar entre os valores
+     * @return TreeSet
+     */
+    private static TreeSet<Integer> sorteia(Random random, int tamanho, boolean limites) {
+        TreeSet<Integer> valores = new TreeSet<>();
+        if (limites && tamanho >= 2) {
+            valores.add(Integer.MIN_VALUE);
+            valores.add(Integer.MAX_VALUE);
+        }
+        while (valores.size() < tamanho) {
+            valores.add(3 * (random.nextInt(4 * TAMANHO_MAXIMO) - 2 * TAMANHO_MAXIMO));
+        }
+        return valores;
+    }
+
+    /**
+     * Substitui a ausência de resultado pelo valor padrão
+     *
+     * @param valor Resultado da referência (pode ser nulo)
+     * @return int
+     */
+    private static int padrao(Integer valor) {
+        return valor == null ? PADRAO : valor;
+    }
+
+    /**
+     * Retorna os valores do iterador em uma lista
+     *
+     * @param iterador Iterador
+     * @return List
+     */
+    private static List<Integer> lista(PrimitiveIterator.OfInt iterador) {
+        List<Integer> valores = new ArrayList<>();
+        iterador.forEachRemaining((int valor) -> valores.add(valor));
+        return valores;
+    }
+
+}
@@ -0,0 +1,211 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes aleatórios da junção e separação de árvores AVL, tanto pela
+ * {@link JuncaoAvl} quanto pelas operações {@code split}, {@code join},
+ * {@code inserirTodos} e {@code excluirTodos} da {@link ArvoreAvl}
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class JuncaoAvlTest {
+
+    /** Sementes dos cenários aleatórios */
+    private static final long[] SEMENTES = {1, 7, 42, 2024, 987654321};
+    /** Quantidade de rodadas por cenário */
+    private static final int RODADAS = 200;
+    /** Universo dos valores sorteados */
+    private static final int UNIVERSO = 5000;
+
+    @Test
+    void splitEJoinAleatorios() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            TreeSet<Integer> referencia = sorteia(random, random.nextInt(UNIVERSO));
+            ArvoreAvl arvore = constroi(referencia);
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                int valor = random.nextInt(UNIVERSO + 20) - 10;
+                ArvoreAvl[] partes = arvore.split(valor);
+                assertTrue(arvore.isArvoreVazia());
+                verificaConteudo(partes[0], referencia.headSet(valor));
+                verificaConteudo(partes[1], referencia.tailSet(valor));
+                int alturaMaxima = Math.max(altura(partes[0]), altura(partes[1]));
+                arvore = ArvoreAvl.join(partes[0], partes[1]);
+                assertTrue(partes[0].isArvoreVazia());
+                assertTrue(partes[1].isArvoreVazia());
+                verificaConteudo(arvore, referencia);
+                assertTrue(altura(arvore) <= alturaMaxima + 1);
+                // Altera a árvore entre as rodadas para variar o formato
+                for (int i = 0; i < 20; i++) {
+                    int alterado = random.nextInt(UNIVERSO);
+                    if (random.nextBoolean()) {
+                        assertEquals(referencia.add(alterado), arvore.inserir(alterado));
+                    } else {
+                        assertEquals(referencia.remove(alterado), arvore.excluir(alterado));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void splitEmVariasPartesEJoinSequencial() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            TreeSet<Integer> referencia = sorteia(random, UNIVERSO / 2);
+            ArvoreAvl arvore = constroi(referencia);
+            // Separa sempre a parte maior em valores crescentes, gerando
+            // partes de alturas bem diferentes
+            TreeSet<Integer> cortes = sorteia(random, 1 + random.nextInt(30));
+            List<ArvoreAvl> partes = new ArrayList<>();
+            int anterior = Integer.MIN_VALUE;
+            for (int corte : cortes) {
+                ArvoreAvl[] separadas = arvore.split(corte);
+                verificaConteudo(separadas[0], referencia.subSet(anterior, corte));
+                partes.add(separadas[0]);
+                arvore = separadas[1];
+                anterior = corte;
+            }
+            partes.add(arvore);
+            verificaConteudo(arvore, referencia.tailSet(anterior));
+            // Junta as partes em ordem aleatória de vizinhas
+            while (partes.size() > 1) {
+                int posicao = random.nextInt(partes.size() - 1);
+                ArvoreAvl juntas = ArvoreAvl.join(partes.get(posicao), partes.get(posicao + 1));
+                juntas.validaEstrutura();
+                partes.set(posicao, juntas);
+                partes.remove(posicao + 1);
+            }
+            verificaConteudo(partes.get(0), referencia);
+        }
+    }
+
+    @Test
+    void particionaEJuntaSubarvores() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            TreeSet<Integer> referencia = sorteia(random, 1 + random.nextInt(UNIVERSO));
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                No raiz = constroi(referencia).getRaiz();
+                int valor = random.nextInt(UNIVERSO);
+                No[] partes = JuncaoAvl.particiona(raiz, valor);
+                assertEquals(referencia.headSet(valor).size(), NoUtils.validaSubarvore(partes[0]));
+                assertEquals(referencia.tailSet(valor, false).size(), NoUtils.validaSubarvore(partes[2]));
+                No juntas;
+                if (referencia.contains(valor)) {
+                    assertEquals(valor, partes[1].getValor());
+                    assertEquals(1, NoUtils.validaSubarvore(partes[1]));
+                    juntas = JuncaoAvl.juntar(partes[0], partes[1], partes[2]);
+                } else {
+                    assertNull(partes[1]);
+                    juntas = JuncaoAvl.juntar(partes[0], partes[2]);
+                }
+                assertEquals(referencia.size(), NoUtils.validaSubarvore(juntas));
+                assertTrue(NoUtils.getAlturaNo(juntas) <= alturaMaxima(referencia.size()));
+                // A separação mantém o valor na parte dos maiores ou iguais
+                No[] separadas = JuncaoAvl.separa(juntas, valor);
+                assertEquals(referencia.headSet(valor).size(), NoUtils.validaSubarvore(separadas[0]));
+                assertEquals(referencia.tailSet(valor).size(), NoUtils.validaSubarvore(separadas[1]));
+                assertEquals(referencia.size(), NoUtils.validaSubarvore(JuncaoAvl.juntar(separadas[0], separadas[1])));
+            }
+        }
+    }
+
+    @Test
+    void inserirTodosEExcluirTodosAleatorios() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            ArvoreAvl arvore = new ArvoreAvl();
+            TreeSet<Integer> referencia = new TreeSet<>();
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                // Lotes com repetições, que só valem na primeira ocorrência
+                int[] valores = random.ints(random.nextInt(200), 0, UNIVERSO).toArray();
+                boolean[] esperados = new boolean[valores.length];
+                boolean insercao = random.nextInt(100) < 55;
+                for (int i = 0; i < valores.length; i++) {
+                    esperados[i] = insercao ? referencia.add(valores[i]) : referencia.remove(valores[i]);
+                }
+                assertArrayEquals(esperados, insercao ? arvore.inserirTodos(valores) : arvore.excluirTodos(valores));
+                verificaConteudo(arvore, referencia);
+            }
+        }
+    }
+
+    /**
+     * Sorteia um conjunto de valores do universo
+     *
+     * @param random Gerador dos valores
+     * @param quantidade Quantidade de sorteios (os repetidos são descartados)
+     * @return TreeSet
+     */
+    private static TreeSet<Integer> sorteia(Random random, int quantidade) {
+        TreeSet<Integer> valores = new TreeSet<>();
+        for (int i = 0; i < quantidade; i++) {
+            valores.add(random.nextInt(UNIVERSO));
+        }
+        return valores;
+    }
+
+    /**
+     * Constrói uma árvore com os valores informados, inseridos um a um
+     *
+     * @param valores Valores
+     * @return ArvoreAvl
+     */
+    private static ArvoreAvl constroi(Collection<Integer> valores) {
+        ArvoreAvl arvore = new ArvoreAvl();
+        for (int valor : valores) {
+            arvore.inserir(valor);
+        }
+        return arvore;
+    }
+
+    /**
+     * Retorna a altura da árvore
+     *
+     * @param arvore Árvore
+     * @return int
+     */
+    private static int altura(ArvoreAvl arvore) {
+        return NoUtils.getAlturaNo(arvore.getRaiz());
+    }
+
+    /**
+     * Retorna a altura máxima de uma árvore AVL com a quantidade de nós
+     * informada, pelo limite de 1,44 log2(n + 2)
+     *
+     * @param quantidade Quantidade de nós
+     * @return double
+     */
+    private static double alturaMaxima(int quantidade) {
+        return 1.4405 * Math.log(quantidade + 2) / Math.log(2);
+    }
+
+    /**
+     * Verifica os invariantes e a altura da árvore e compara os valores em
+     * ordem com a referência
+     *
+     * @param arvore Árvore testada
+     * @param referencia Valores esperados
+     */
+    private static void verificaConteudo(ArvoreAvl arvore, Collection<Integer> referencia) {
+        arvore.validaEstrutura();
+        assertEquals(referencia.size(), arvore.getTamanho());
+        assertTrue(altura(arvore) <= alturaMaxima(referencia.size()));
+        List<Integer> emOrdem = new ArrayList<>();
+        arvore.iteradorEmOrdem().forEachRemaining((int valor) -> emOrdem.add(valor));
+        assertEquals(new ArrayList<>(referencia), emOrdem);
+    }
+
+}
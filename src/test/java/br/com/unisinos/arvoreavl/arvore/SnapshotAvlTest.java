@@ -0,0 +1,56 @@
+package br.com.unisinos.arvoreavl.arvore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes das versões da {@link ArvoreAvlPersistente}, verificando que cada
+ * {@link SnapshotAvl} mantém o conteúdo do momento em que foi criado
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class SnapshotAvlTest {
+
+    @Test
+    void versoesMantemConteudo() throws IOException {
+        Random random = new Random(42);
+        ArvoreAvlPersistente arvore = new ArvoreAvlPersistente();
+        TreeSet<Integer> referencia = new TreeSet<>();
+        List<SnapshotAvl> versoes = new ArrayList<>();
+        List<TreeSet<Integer>> conteudos = new ArrayList<>();
+        for (int lote = 0; lote < 30; lote++) {
+            versoes.add(arvore.snapshot());
+            conteudos.add(new TreeSet<>(referencia));
+            for (int i = 0; i < 100; i++) {
+                int valor = random.nextInt(500);
+                if (random.nextInt(100) < 60) {
+                    assertEquals(referencia.add(valor), arvore.inserir(valor));
+                } else {
+                    assertEquals(referencia.remove(valor), arvore.excluir(valor));
+                }
+            }
+        }
+        StringBuilder saida = new StringBuilder();
+        RenderizadorAvl renderizador = new RenderizadorAvl(saida);
+        for (int i = 0; i < versoes.size(); i++) {
+            SnapshotAvl versao = versoes.get(i);
+            List<Integer> valores = new ArrayList<>();
+            versao.iteradorEmOrdem().forEachRemaining((int valor) -> valores.add(valor));
+            assertEquals(new ArrayList<>(conteudos.get(i)), valores);
+            assertEquals(conteudos.get(i).size(), versao.getTamanho());
+            saida.setLength(0);
+            renderizador.renderizaEmOrdem(versao);
+            StringJoiner esperado = new StringJoiner(", ", "", System.lineSeparator());
+            conteudos.get(i).forEach(valor -> esperado.add(String.valueOf(valor)));
+            assertEquals(esperado.toString(), saida.toString());
+        }
+    }
+
+}
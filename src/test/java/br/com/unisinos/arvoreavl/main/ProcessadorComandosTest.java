@@ -0,0 +1,94 @@
+package br.com.unisinos.arvoreavl.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes do processamento de comandos em lote
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class ProcessadorComandosTest {
+
+    @Test
+    void processaComandos() throws IOException {
+        ArvoreAvl arvore = new ArvoreAvl();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        String comandos = "i 10\ni 10\n\n  b 10 \r\ne -5\ni -2147483648\ne 10\nb 10";
+        long quantidade = new ProcessadorComandos(arvore).processa(entrada(comandos), saida);
+        assertEquals(7, quantidade);
+        assertEquals("1\n0\n1\n0\n1\n1\n0\n", saida.toString(StandardCharsets.US_ASCII.name()));
+        assertTrue(arvore.contem(Integer.MIN_VALUE));
+        assertFalse(arvore.contem(10));
+    }
+
+    @Test
+    void byteFFNaoEncerraEntrada() {
+        // O byte 0xFF no meio da entrada é um comando inválido, não o fim
+        ArvoreAvl arvore = new ArvoreAvl();
+        byte[] comandos = {'i', ' ', '1', '\n', (byte) 0xFF, '\n', 'i', ' ', '2', '\n'};
+        IOException erro = assertThrows(IOException.class, () -> new ProcessadorComandos(arvore)
+                .processa(new ByteArrayInputStream(comandos), new ByteArrayOutputStream()));
+        assertTrue(erro.getMessage().contains("linha 2"), erro.getMessage());
+        assertTrue(arvore.contem(1));
+        assertFalse(arvore.contem(2));
+    }
+
+    @Test
+    void byteFFAposValorEhRejeitado() {
+        ArvoreAvl arvore = new ArvoreAvl();
+        byte[] comandos = {'i', ' ', '1', (byte) 0xFF, '\n', 'i', ' ', '2', '\n'};
+        IOException erro = assertThrows(IOException.class, () -> new ProcessadorComandos(arvore)
+                .processa(new ByteArrayInputStream(comandos), new ByteArrayOutputStream()));
+        assertTrue(erro.getMessage().contains("linha 1"), erro.getMessage());
+    }
+
+    @Test
+    void rejeitaValorForaDoIntervalo() {
+        ArvoreAvl arvore = new ArvoreAvl();
+        assertThrows(IOException.class, () -> new ProcessadorComandos(arvore)
+                .processa(entrada("i 2147483648\n"), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void escreveResultadosAntesDoErro() throws IOException {
+        ArvoreAvl arvore = new ArvoreAvl();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        assertThrows(IOException.class, () -> new ProcessadorComandos(arvore)
+                .processa(entrada("i 1\ni 2\nx 3\n"), saida));
+        assertEquals(2, arvore.getTamanho());
+        assertEquals("1\n1\n", saida.toString(StandardCharsets.US_ASCII.name()));
+        // Com mais resultados que o buffer de saída, nenhum se perde
+        StringBuilder comandos = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            comandos.append("i ").append(i % 40000).append('\n');
+        }
+        comandos.append("i 1 2\n");
+        saida.reset();
+        assertThrows(IOException.class, () -> new ProcessadorComandos(arvore)
+                .processa(entrada(comandos.toString()), saida));
+        // A linha com conteúdo inesperado já aplicou o comando
+        assertEquals(50001 * 2, saida.size());
+        assertEquals(40000, arvore.getTamanho());
+    }
+
+    /**
+     * Cria a entrada com os comandos informados
+     *
+     * @param comandos Comandos em texto
+     * @return ByteArrayInputStream
+     */
+    private static ByteArrayInputStream entrada(String comandos) {
+        return new ByteArrayInputStream(comandos.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
@@ -0,0 +1,257 @@
+package br.com.unisinos.arvoreavl.mapa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes aleatórios dos mapas AVL, comparando cada mapa com um
+ * {@link TreeMap} de referência após cada lote de operações
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class MapaAvlTest {
+
+    /** Sementes dos cenários aleatórios */
+    private static final long[] SEMENTES = {1, 7, 42, 2024, 987654321};
+    /** Quantidade de lotes por cenário */
+    private static final int LOTES = 40;
+    /** Quantidade de operações por lote */
+    private static final int OPERACOES_LOTE = 250;
+    /** Universo das chaves sorteadas */
+    private static final int UNIVERSO = 1500;
+
+    @Test
+    void mapasComReferencia() {
+        for (long semente : SEMENTES) {
+            Random random = new Random(semente);
+            MapaAvlInt<Integer> mapaInt = new MapaAvlInt<>();
+            MapaAvlLong<Integer> mapaLong = new MapaAvlLong<>();
+            MapaAvl<Integer, Integer> mapa = new MapaAvl<>();
+            TreeMap<Integer, Integer> referencia = new TreeMap<>();
+            for (int lote = 0; lote < LOTES; lote++) {
+                for (int i = 0; i < OPERACOES_LOTE; i++) {
+                    int chave = random.nextInt(UNIVERSO) - UNIVERSO / 2;
+                    int valor = random.nextInt();
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            Integer anterior = referencia.put(chave, valor);
+                            assertEquals(anterior, mapaInt.put(chave, valor));
+                            assertEquals(anterior, mapaLong.put(chave, valor));
+                            assertEquals(anterior, mapa.put(chave, valor));
+                            break;
+                        case 1:
+                            Integer removido = referencia.remove(chave);
+                            assertEquals(removido, mapaInt.remove(chave));
+                            assertEquals(removido, mapaLong.remove(chave));
+                            assertEquals(removido, mapa.remove(chave));
+                            break;
+                        default:
+                            // Alterna entre incrementar, remover e inserir pelo recálculo
+                            Integer novoValor = referencia.compute(chave, (c, atual) -> recalcula(atual, valor));
+                            assertEquals(novoValor, mapaInt.compute(chave, (c, atual) -> recalcula(atual, valor)));
+                            assertEquals(novoValor, mapaLong.compute(chave, (c, atual) -> recalcula(atual, valor)));
+                            assertEquals(novoValor, mapa.compute(chave, (c, atual) -> recalcula(atual, valor)));
+                            break;
+                    }
+                }
+                verificaEstrutura(mapaInt.raiz);
+                verificaEstrutura(mapaLong.raiz);
+                verificaEstrutura(mapa.raiz);
+                verificaMapaInt(mapaInt, referencia, random);
+                verificaMapaLong(mapaLong, referencia, random);
+                verificaMapa(mapa, referencia, random);
+            }
+        }
+    }
+
+    @Test
+    void mapaComComparador() {
+        MapaAvl<String, Integer> mapa = new MapaAvl<>(Comparator.reverseOrder());
+        for (int i = 0; i < 100; i++) {
+            mapa.put(String.format("%03d", i), i);
+        }
+        verificaEstrutura(mapa.raiz);
+        assertEquals("099", mapa.min().getChave());
+        assertEquals("000", mapa.max().getChave());
+        assertEquals("041", mapa.higher("042").getChave());
+        assertEquals("043", mapa.lower("042").getChave());
+        assertEquals("042", mapa.floor("042").getChave());
+        assertNull(mapa.higher("000"));
+        Iterator<String> chaves = mapa.iteradorChaves();
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(String.format("%03d", i), chaves.next());
+        }
+        assertFalse(chaves.hasNext());
+    }
+
+    @Test
+    void chavesNosLimitesDoTipo() {
+        MapaAvlInt<String> mapaInt = new MapaAvlInt<>();
+        mapaInt.put(Integer.MAX_VALUE, "max");
+        mapaInt.put(Integer.MIN_VALUE, "min");
+        mapaInt.put(0, "zero");
+        assertEquals("max", mapaInt.higher(0).getValor());
+        assertEquals("min", mapaInt.lower(0).getValor());
+        assertNull(mapaInt.higher(Integer.MAX_VALUE));
+        assertEquals(Integer.MIN_VALUE, mapaInt.iteradorChaves().nextInt());
+        MapaAvlLong<String> mapaLong = new MapaAvlLong<>();
+        mapaLong.put(Long.MAX_VALUE, "max");
+        mapaLong.put(Long.MIN_VALUE, "min");
+        mapaLong.put(0, "zero");
+        assertEquals("max", mapaLong.ceiling(1).getValor());
+        assertEquals("min", mapaLong.floor(-1).getValor());
+        assertNull(mapaLong.lower(Long.MIN_VALUE));
+        assertTrue(mapaLong.containsKey(Long.MAX_VALUE));
+        assertEquals(Long.MIN_VALUE, mapaLong.iteradorChaves().nextLong());
+    }
+
+    /**
+     * Função de recálculo dos testes: valores pares são removidos, ímpares são
+     * incrementados e chaves ausentes recebem o valor sorteado
+     *
+     * @param atual Valor atual
+     * @param valor Valor sorteado
+     * @return Novo valor
+     */
+    private static Integer recalcula(Integer atual, int valor) {
+        if (atual == null) {
+            return valor;
+        }
+        return atual % 2 == 0 ? null : atual + 1;
+    }
+
+    /**
+     * Verifica as alturas e o balanceamento da subárvore
+     *
+     * @param entrada Raíz da subárvore
+     * @return Altura da subárvore
+     */
+    private static int verificaEstrutura(EntradaAvl<?, ?> entrada) {
+        if (entrada == null) {
+            return -1;
+        }
+        int alturaEsquerda = verificaEstrutura(entrada.esquerda);
+        int alturaDireita = verificaEstrutura(entrada.direita);
+        assertEquals(1 + Math.max(alturaEsquerda, alturaDireita), entrada.altura);
+        assertTrue(Math.abs(alturaEsquerda - alturaDireita) <= 1);
+        return entrada.altura;
+    }
+
+    /**
+     * Compara o conteúdo e a navegação do mapa com chaves int
+     *
+     * @param mapa Mapa testado
+     * @param referencia Entradas esperadas
+     * @param random Gerador das chaves consultadas
+     */
+    private static void verificaMapaInt(MapaAvlInt<Integer> mapa, TreeMap<Integer, Integer> referencia,
+            Random random) {
+        assertEquals(referencia.size(), mapa.size());
+        List<Integer> chaves = new ArrayList<>();
+        mapa.iteradorChaves().forEachRemaining((int chave) -> chaves.add(chave));
+        assertEquals(new ArrayList<>(referencia.keySet()), chaves);
+        List<Integer> valores = new ArrayList<>();
+        mapa.iteradorEntradas().forEachRemaining(entrada -> valores.add(entrada.getValor()));
+        assertEquals(new ArrayList<>(referencia.values()), valores);
+        for (int i = 0; i < 50; i++) {
+            int chave = random.nextInt(UNIVERSO + 20) - UNIVERSO / 2 - 10;
+            assertEquals(referencia.get(chave), mapa.get(chave));
+            assertEquals(referencia.floorKey(chave), chave(mapa.floor(chave)));
+            assertEquals(referencia.ceilingKey(chave), chave(mapa.ceiling(chave)));
+            assertEquals(referencia.lowerKey(chave), chave(mapa.lower(chave)));
+            assertEquals(referencia.higherKey(chave), chave(mapa.higher(chave)));
+        }
+    }
+
+    /**
+     * Compara o conteúdo e a navegação do mapa com chaves long
+     *
+     * @param mapa Mapa testado
+     * @param referencia Entradas esperadas
+     * @param random Gerador das chaves consultadas
+     */
+    private static void verificaMapaLong(MapaAvlLong<Integer> mapa, TreeMap<Integer, Integer> referencia,
+            Random random) {
+        assertEquals(referencia.size(), mapa.size());
+        List<Integer> chaves = new ArrayList<>();
+        mapa.iteradorChaves().forEachRemaining((long chave) -> chaves.add((int) chave));
+        assertEquals(new ArrayList<>(referencia.keySet()), chaves);
+        for (int i = 0; i < 50; i++) {
+            int chave = random.nextInt(UNIVERSO + 20) - UNIVERSO / 2 - 10;
+            assertEquals(referencia.get(chave), mapa.get(chave));
+            assertEquals(referencia.floorKey(chave), chave(mapa.floor(chave)));
+            assertEquals(referencia.ceilingKey(chave), chave(mapa.ceiling(chave)));
+            assertEquals(referencia.lowerKey(chave), chave(mapa.lower(chave)));
+            assertEquals(referencia.higherKey(chave), chave(mapa.higher(chave)));
+        }
+    }
+
+    /**
+     * Compara o conteúdo e a navegação do mapa genérico
+     *
+     * @param mapa Mapa testado
+     * @param referencia Entradas esperadas
+     * @param random Gerador das chaves consultadas
+     */
+    private static void verificaMapa(MapaAvl<Integer, Integer> mapa, TreeMap<Integer, Integer> referencia,
+            Random random) {
+        assertEquals(referencia.size(), mapa.size());
+        Iterator<MapaAvl.Entrada<Integer, Integer>> entradas = mapa.iteradorEntradas();
+        for (Map.Entry<Integer, Integer> esperada : referencia.entrySet()) {
+            MapaAvl.Entrada<Integer, Integer> entrada = entradas.next();
+            assertEquals(esperada.getKey(), entrada.getChave());
+            assertEquals(esperada.getValue(), entrada.getValor());
+        }
+        assertFalse(entradas.hasNext());
+        for (int i = 0; i < 50; i++) {
+            int chave = random.nextInt(UNIVERSO + 20) - UNIVERSO / 2 - 10;
+            assertEquals(referencia.containsKey(chave), mapa.containsKey(chave));
+            assertEquals(referencia.floorKey(chave), chave(mapa.floor(chave)));
+            assertEquals(referencia.ceilingKey(chave), chave(mapa.ceiling(chave)));
+            assertEquals(referencia.lowerKey(chave), chave(mapa.lower(chave)));
+            assertEquals(referencia.higherKey(chave), chave(mapa.higher(chave)));
+        }
+    }
+
+    /**
+     * Retorna a chave de uma entrada do mapa com chaves int
+     *
+     * @param entrada Entrada (pode ser nula)
+     * @return Chave ou {@code null}
+     */
+    private static Integer chave(MapaAvlInt.Entrada<?> entrada) {
+        return entrada == null ? null : entrada.getChave();
+    }
+
+    /**
+     * Retorna a chave de uma entrada do mapa com chaves long
+     *
+     * @param entrada Entrada (pode ser nula)
+     * @return Chave ou {@code null}
+     */
+    private static Integer chave(MapaAvlLong.Entrada<?> entrada) {
+        return entrada == null ? null : (int) entrada.getChave();
+    }
+
+    /**
+     * Retorna a chave de uma entrada do mapa genérico
+     *
+     * @param entrada Entrada (pode ser nula)
+     * @return Chave ou {@code null}
+     */
+    private static Integer chave(MapaAvl.Entrada<Integer, ?> entrada) {
+        return entrada == null ? null : entrada.getChave();
+    }
+
+}
@@ -0,0 +1,87 @@
+package br.com.unisinos.arvoreavl.persistencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Testes da {@link ArvoreAvlDuravel}: reabertura após compactações e
+ * consistência entre a árvore e o log após falhas de escrita
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class ArvoreAvlDuravelTest {
+
+    @Test
+    void reabreAposCompactacoes(@TempDir Path diretorio) throws IOException {
+        Random random = new Random(42);
+        TreeSet<Integer> referencia = new TreeSet<>();
+        for (int execucao = 0; execucao < 3; execucao++) {
+            try (ArvoreAvlDuravel arvore = ArvoreAvlDuravel.abrir(diretorio)) {
+                assertConteudo(arvore, referencia);
+                for (int i = 0; i < 2000; i++) {
+                    int valor = random.nextInt(1000);
+                    if (random.nextBoolean()) {
+                        assertEquals(referencia.add(valor), arvore.inserir(valor));
+                    } else {
+                        assertEquals(referencia.remove(valor), arvore.excluir(valor));
+                    }
+                    if (i % 700 == 0) {
+                        arvore.compactar();
+                        assertTrue(Files.exists(diretorio.resolve(ArvoreAvlDuravel.ARQUIVO_SNAPSHOT)));
+                    }
+                }
+            }
+        }
+        try (ArvoreAvlDuravel arvore = ArvoreAvlDuravel.abrir(diretorio)) {
+            assertConteudo(arvore, referencia);
+            assertEquals(0, arvore.getBytesDescartados());
+        }
+    }
+
+    @Test
+    void desfazAlteracaoQuandoRegistroFalha(@TempDir Path diretorio) throws IOException {
+        ArvoreAvlDuravel arvore = ArvoreAvlDuravel.abrir(diretorio);
+        assertTrue(arvore.inserir(1));
+        assertTrue(arvore.inserir(2));
+        // Com o log fechado, a próxima gravação falha e inutiliza o log
+        arvore.close();
+        assertThrows(IOException.class, () -> arvore.inserir(3));
+        // Os registros seguintes falham antes de entrar no log, e a alteração
+        // na árvore é desfeita
+        assertThrows(IOException.class, () -> arvore.inserir(4));
+        assertFalse(arvore.contem(4));
+        assertThrows(IOException.class, () -> arvore.excluir(1));
+        assertTrue(arvore.contem(1));
+        arvore.validaEstrutura();
+        try (ArvoreAvlDuravel reaberta = ArvoreAvlDuravel.abrir(diretorio)) {
+            assertTrue(reaberta.contem(1));
+            assertTrue(reaberta.contem(2));
+            assertFalse(reaberta.contem(4));
+        }
+    }
+
+    /**
+     * Verifica os invariantes da árvore e compara o conteúdo com a referência
+     *
+     * @param arvore Árvore testada
+     * @param referencia Valores esperados
+     */
+    private static void assertConteudo(ArvoreAvlDuravel arvore, TreeSet<Integer> referencia) {
+        arvore.validaEstrutura();
+        assertEquals(referencia.size(), arvore.getTamanho());
+        for (int valor = 0; valor < 1000; valor++) {
+            assertEquals(referencia.contains(valor), arvore.contem(valor));
+        }
+    }
+
+}
@@ -0,0 +1,303 @@
+package br.com.unisinos.arvoreavl.servidor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import br.com.unisinos.arvoreavl.arvore.ArvoreAvl;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes do {@link ServidorAvl} por uma conexão local: requisições em
+ * pipeline enviadas em escritas parciais, limite das respostas de intervalo e
+ * encerramento da conexão após uma operação desconhecida
+ * @author Marcello Augusto Gava 
+ * @author Mauricio Hartmann
+ */
+class ServidorAvlTest {
+
+    /** Quantidade de valores iniciais da árvore, de 0 a {@code VALORES - 1} */
+    private static final int VALORES = 3000;
+
+    /** Árvore exposta pelo servidor */
+    private ArvoreAvl arvore;
+    /** Servidor testado */
+    private ServidorAvl servidor;
+    /** Thread que executa o servidor */
+    private Thread execucao;
+    /** Erro do laço do servidor, caso ocorra */
+    private volatile IOException erroServidor;
+
+    @BeforeEach
+    void iniciaServidor() throws IOException {
+        arvore = ArvoreAvl.constroi(IntStream.range(0, VALORES));
+        servidor = new ServidorAvl(arvore, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        execucao = new Thread(() -> {
+            try {
+                servidor.executa();
+            } catch (IOException e) {
+                erroServidor = e;
+            }
+        }, "servidor-avl-teste");
+        execucao.start();
+    }
+
+    @AfterEach
+    void encerraServidor() throws Exception {
+        servidor.close();
+        execucao.join(10_000);
+        if (erroServidor != null) {
+            throw erroServidor;
+        }
+    }
+
+    @Test
+    void requisicoesEmPipelineComEscritasParciais() throws Exception {
+        Random random = new Random(42);
+        TreeSet<Integer> referencia = new TreeSet<>();
+        IntStream.range(0, VALORES).forEach(referencia::add);
+        Requisicoes requisicoes = new Requisicoes();
+        for (int i = 0; i < 5000; i++) {
+            int chave = random.nextInt(VALORES + 500) - 250;
+            switch (random.nextInt(8)) {
+                case 0:
+                case 1:
+                    requisicoes.simples(ProtocoloAvl.INSERCAO, chave, referencia.add(chave));
+                    break;
+                case 2:
+                case 3:
+                    requisicoes.simples(ProtocoloAvl.EXCLUSAO, chave, referencia.remove(chave));
+                    break;
+                case 4:
+                case 5:
+                case 6:
+                    requisicoes.simples(ProtocoloAvl.BUSCA, chave, referencia.contains(chave));
+                    break;
+                default:
+                    int fim = chave + random.nextInt(40) - 5;
+                    requisicoes.intervalo(chave, fim, referencia);
+                    break;
+            }
+        }
+        // Intervalos além do limite da resposta, que também excedem o buffer
+        // de saída do servidor e exigem a suspensão da leitura
+        for (int i = 0; i < 40; i++) {
+            requisicoes.intervalo(Integer.MIN_VALUE, Integer.MAX_VALUE, referencia);
+        }
+        requisicoes.intervalo(Integer.MAX_VALUE, Integer.MIN_VALUE, referencia);
+        try (Socket socket = conecta()) {
+            byte[] enviadas = requisicoes.getBytes();
+            OutputStream saida = socket.getOutputStream();
+            // Envia em pedaços pequenos, quebrando as requisições entre escritas
+            Thread envio = new Thread(() -> enviaEmPartes(saida, enviadas, new Random(7)));
+            envio.start();
+            byte[] recebidas = new byte[requisicoes.getRespostaEsperada().length];
+            new DataInputStream(socket.getInputStream()).readFully(recebidas);
+            envio.join();
+            assertArrayEquals(requisicoes.getRespostaEsperada(), recebidas);
+        }
+        // Encerra o servidor antes de ler a árvore na thread do teste
+        encerraServidor();
+        arvore.validaEstrutura();
+        List<Integer> valores = new ArrayList<>();
+        arvore.iteradorEmOrdem().forEachRemaining((int valor) -> valores.add(valor));
+        assertEquals(new ArrayList<>(referencia), valores);
+        assertEquals(requisicoes.getQuantidade(), servidor.getRequisicoes());
+    }
+
+    @Test
+    void intervaloLimitado() throws IOException {
+        try (Socket socket = conecta()) {
+            DataOutputStream saida = new DataOutputStream(socket.getOutputStream());
+            saida.writeByte(ProtocoloAvl.INTERVALO);
+            saida.writeInt(10);
+            saida.writeInt(Integer.MAX_VALUE);
+            saida.flush();
+            DataInputStream entrada = new DataInputStream(socket.getInputStream());
+            assertEquals(ProtocoloAvl.LIMITE_INTERVALO, entrada.readInt());
+            for (int i = 0; i < ProtocoloAvl.LIMITE_INTERVALO; i++) {
+                assertEquals(10 + i, entrada.readInt());
+            }
+            // O cliente continua a partir da última chave recebida
+            saida.writeByte(ProtocoloAvl.INTERVALO);
+            saida.writeInt(10 + ProtocoloAvl.LIMITE_INTERVALO);
+            saida.writeInt(Integer.MAX_VALUE);
+            saida.flush();
+            assertEquals(Math.min(ProtocoloAvl.LIMITE_INTERVALO, VALORES - 10 - ProtocoloAvl.LIMITE_INTERVALO),
+                    entrada.readInt());
+        }
+    }
+
+    @Test
+    void operacaoDesconhecidaEncerraConexao() throws IOException {
+        try (Socket socket = conecta()) {
+            DataOutputStream saida = new DataOutputStream(socket.getOutputStream());
+            saida.writeByte(ProtocoloAvl.BUSCA);
+            saida.writeInt(1);
+            saida.writeByte(42);
+            saida.writeInt(1);
+            saida.writeByte(ProtocoloAvl.BUSCA);
+            saida.writeInt(2);
+            saida.flush();
+            InputStream entrada = socket.getInputStream();
+            assertEquals(ProtocoloAvl.VERDADEIRO, (byte) entrada.read());
+            assertEquals(ProtocoloAvl.ERRO, (byte) entrada.read());
+            // Nenhuma requisição posterior é respondida
+            assertEquals(-1, entrada.read());
+        }
+        // O servidor continua atendendo novas conexões
+        try (Socket socket = conecta()) {
+            DataOutputStream saida = new DataOutputStream(socket.getOutputStream());
+            saida.writeByte(ProtocoloAvl.BUSCA);
+            saida.writeInt(VALORES);
+            saida.flush();
+            assertEquals(ProtocoloAvl.FALSO, (byte) socket.getInputStream().read());
+        }
+    }
+
+    /**
+     * Abre uma conexão com o servidor
+     *
+     * @return Socket
+     * @throws IOException Se não for possível conectar
+     */
+    private Socket conecta() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), servidor.getPorta());
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(30_000);
+        return socket;
+    }
+
+    /**
+     * Envia os bytes em pedaços de tamanho aleatório, com pausas ocasionais
+     * para que cheguem ao servidor em leituras separadas
+     *
+     * @param saida Saída da conexão
+     * @param bytes Bytes enviados
+     * @param random Gerador dos tamanhos
+     */
+    private static void enviaEmPartes(OutputStream saida, byte[] bytes, Random random) {
+        try {
+            int posicao = 0;
+            while (posicao < bytes.length) {
+                int tamanho = Math.min(bytes.length - posicao, 1 + random.nextInt(ProtocoloAvl.TAMANHO_REQUISICAO_INTERVALO * 3));
+                saida.write(bytes, posicao, tamanho);
+                saida.flush();
+                posicao += tamanho;
+                if (random.nextInt(50) == 0) {
+                    Thread.sleep(1);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Requisições em pipeline e as respostas esperadas, na mesma ordem
+     */
+    private static final class Requisicoes {
+
+        /** Requisições codificadas */
+        private final ByteArrayOutputStream requisicoes = new ByteArrayOutputStream();
+        /** Respostas esperadas codificadas */
+        private final ByteArrayOutputStream respostas = new ByteArrayOutputStream();
+        /** Saída das requisições */
+        private final DataOutputStream saidaRequisicoes = new DataOutputStream(requisicoes);
+        /** Saída das respostas */
+        private final DataOutputStream saidaRespostas = new DataOutputStream(respostas);
+        /** Quantidade de requisições */
+        private long quantidade;
+
+        /**
+         * Adiciona uma busca, inserção ou exclusão
+         *
+         * @param operacao Operação
+         * @param chave Chave
+         * @param resultado Resultado esperado
+         * @throws IOException Não ocorre na escrita em memória
+         */
+        void simples(byte operacao, int chave, boolean resultado) throws IOException {
+            saidaRequisicoes.writeByte(operacao);
+            saidaRequisicoes.writeInt(chave);
+            saidaRespostas.writeByte(resultado ? ProtocoloAvl.VERDADEIRO : ProtocoloAvl.FALSO);
+            quantidade++;
+        }
+
+        /**
+         * Adiciona uma consulta de intervalo, com a resposta limitada a
+         * {@link ProtocoloAvl#LIMITE_INTERVALO} chaves
+         *
+         * @param inicio Início do intervalo
+         * @param fim Fim do intervalo
+         * @param referencia Valores presentes
+         * @throws IOException Não ocorre na escrita em memória
+         */
+        void intervalo(int inicio, int fim, TreeSet<Integer> referencia) throws IOException {
+            saidaRequisicoes.writeByte(ProtocoloAvl.INTERVALO);
+            saidaRequisicoes.writeInt(inicio);
+            saidaRequisicoes.writeInt(fim);
+            List<Integer> chaves = new ArrayList<>();
+            if (inicio <= fim) {
+                for (int chave : referencia.subSet(inicio, true, fim, true)) {
+                    if (chaves.size() == ProtocoloAvl.LIMITE_INTERVALO) {
+                        break;
+                    }
+                    chaves.add(chave);
+                }
+            }
+            saidaRespostas.writeInt(chaves.size());
+            for (int chave : chaves) {
+                saidaRespostas.writeInt(chave);
+            }
+            quantidade++;
+        }
+
+        /**
+         * Retorna as requisições codificadas
+         *
+         * @return byte[]
+         */
+        byte[] getBytes() {
+            return requisicoes.toByteArray();
+        }
+
+        /**
+         * Retorna as respostas esperadas, na ordem das requisições
+         *
+         * @return byte[]
+         */
+        byte[] getRespostaEsperada() {
+            return respostas.toByteArray();
+        }
+
+        /**
+         * Retorna a quantidade de requisições
+         *
+         * @return long
+         */
+        long getQuantidade() {
+            return quantidade;
+        }
+
+    }
+
+}